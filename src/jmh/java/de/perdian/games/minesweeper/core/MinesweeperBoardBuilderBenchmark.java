@@ -0,0 +1,46 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MinesweeperBoardBuilderBenchmark {
+
+    @Param({ "8", "64", "512", "4096" })
+    public int size;
+
+    @Param({ "0.01", "0.15", "0.5" })
+    public double density;
+
+    private MinesweeperBoardBuilder boardBuilder = null;
+
+    @Setup
+    public void setup() {
+        this.boardBuilder = new MinesweeperBoardBuilder();
+        this.boardBuilder.setRows(this.size);
+        this.boardBuilder.setColumns(this.size);
+        this.boardBuilder.setMines(Math.max(1, (int)(this.size * this.size * this.density)));
+    }
+
+    @Benchmark
+    public MinesweeperBoard build() {
+        return this.boardBuilder.build();
+    }
+
+}
@@ -0,0 +1,76 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the worst case flood fill, in which a single click opens the complete board, together with the cost of
+ * dispatching the opened cells to the different kinds of listeners
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MinesweeperBoardFloodFillBenchmark {
+
+    @Param({ "8", "64", "512", "4096" })
+    public int size;
+
+    @Param({ "none", "cell", "batch" })
+    public String listenerType;
+
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private MinesweeperBoard board = null;
+    private long neighboringMinesSeen = 0;
+
+    @Setup(Level.Trial)
+    public void setupLayout() {
+        this.cellsMined = new BitSet(this.size * this.size);
+        this.cellsMined.set((this.size * this.size) - 1);
+        this.cellsNeighboringMines = MinesweeperBoardBuilder.computeNeighboringMines(this.size, this.size, this.cellsMined);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupBoard() {
+        this.board = new MinesweeperBoard(this.size, this.size, 1, this.cellsMined, this.cellsNeighboringMines);
+        if ("cell".equals(this.listenerType)) {
+            this.board.addCellRevelationListener(new MinesweeperCellRevelationListener() {
+                @Override public void cellRevealed(MinesweeperCellRevelation cellRevelation) {
+                    MinesweeperBoardFloodFillBenchmark.this.neighboringMinesSeen += cellRevelation.getNeighboringMines();
+                }
+            });
+        } else if ("batch".equals(this.listenerType)) {
+            this.board.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+                @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                    for (int index = 0; index < cellRevelationBatch.getSize(); index++) {
+                        MinesweeperBoardFloodFillBenchmark.this.neighboringMinesSeen += cellRevelationBatch.getNeighboringMines(index);
+                    }
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public long revealCompleteBoard() {
+        this.board.reveal(new MinesweeperCellPosition(0, 0));
+        return this.neighboringMinesSeen;
+    }
+
+}
@@ -0,0 +1,86 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures single reveals, the game-ending reveal of all remaining cells after a mine has been hit and a complete
+ * game in which every cell without a mine is revealed until the game is won
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MinesweeperBoardRevealBenchmark {
+
+    @Param({ "8", "64", "512", "4096" })
+    public int size;
+
+    @Param({ "0.01", "0.15" })
+    public double density;
+
+    private int minesTotal = 0;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private MinesweeperCellPosition numberedCellPosition = null;
+    private MinesweeperCellPosition minedCellPosition = null;
+    private MinesweeperBoard board = null;
+
+    @Setup(Level.Trial)
+    public void setupLayout() {
+        this.minesTotal = Math.max(1, (int)(this.size * this.size * this.density));
+        this.cellsMined = MinesweeperBoardBuilder.placeMines(this.size * this.size, this.minesTotal, new Random(42));
+        this.cellsNeighboringMines = MinesweeperBoardBuilder.computeNeighboringMines(this.size, this.size, this.cellsMined);
+        int numberedCellIndex = this.cellsMined.nextClearBit(0);
+        while (this.cellsNeighboringMines[numberedCellIndex] == 0 || this.cellsMined.get(numberedCellIndex)) {
+            numberedCellIndex++;
+        }
+        int minedCellIndex = this.cellsMined.nextSetBit(0);
+        this.numberedCellPosition = new MinesweeperCellPosition(numberedCellIndex / this.size, numberedCellIndex % this.size);
+        this.minedCellPosition = new MinesweeperCellPosition(minedCellIndex / this.size, minedCellIndex % this.size);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupBoard() {
+        this.board = new MinesweeperBoard(this.size, this.size, this.minesTotal, this.cellsMined, this.cellsNeighboringMines);
+    }
+
+    @Benchmark
+    public MinesweeperCellRevelation revealSingleCell() {
+        return this.board.reveal(this.numberedCellPosition);
+    }
+
+    @Benchmark
+    public MinesweeperCellRevelation revealMineAndEndGame() {
+        return this.board.reveal(this.minedCellPosition);
+    }
+
+    @Benchmark
+    public MinesweeperBoardState solveGame() {
+        int numberOfCells = this.size * this.size;
+        for (int cellIndex = 0; cellIndex < numberOfCells && MinesweeperBoardState.RUNNING.equals(this.board.getBoardState()); cellIndex++) {
+            if (!this.cellsMined.get(cellIndex) && !this.board.getCellsRevealed().get(cellIndex)) {
+                this.board.reveal(new MinesweeperCellPosition(cellIndex / this.size, cellIndex % this.size));
+            }
+        }
+        return this.board.getBoardState();
+    }
+
+}
@@ -0,0 +1,117 @@
+package de.perdian.games.minesweeper.session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardSnapshot;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+import de.perdian.games.minesweeper.solver.MinesweeperSolver;
+
+/**
+ * Measures encoding and decoding the messages of a game played by a bot using only the cells the solver has proven
+ * to be safe, which consists of a large flood fill at the start followed by many small batches, as well as a
+ * keyframe of the board at the end of the game
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MinesweeperBoardStreamBenchmark {
+
+    @Param({ "100", "1000" })
+    public int size;
+
+    private List<MinesweeperCellRevelationBatch> batches = null;
+    private List<ByteBuffer> messages = null;
+    private MinesweeperBoardSnapshot snapshot = null;
+    private ByteBuffer initialKeyframe = null;
+    private ByteBuffer finalKeyframe = null;
+
+    @Setup(Level.Trial)
+    public void setupGame() {
+        Random random = new Random(42);
+        MinesweeperBoard board = null;
+        MinesweeperSolver solver = null;
+        do {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(this.size);
+            boardBuilder.setColumns(this.size);
+            boardBuilder.setMines((int)(this.size * this.size * 0.1));
+            boardBuilder.setRandom(random);
+            board = boardBuilder.build();
+            this.batches = new ArrayList<>();
+            this.messages = new ArrayList<>();
+            this.initialKeyframe = MinesweeperBoardStream.encodeKeyframe(0, board.snapshot());
+            MinesweeperBoardStream.attach(board, this.messages::add);
+            board.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+                @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                    MinesweeperBoardStreamBenchmark.this.batches.add(cellRevelationBatch);
+                }
+            });
+            solver = MinesweeperSolver.attach(board);
+            board.reveal(new MinesweeperCellPosition(this.size / 2, this.size / 2));
+        } while (board.getNumberOfCellsRevealed() < 2);
+        for (MinesweeperCellPosition safeCell = solver.findSafeCell(); safeCell != null && MinesweeperBoardState.RUNNING.equals(board.getBoardState()); safeCell = solver.findSafeCell()) {
+            board.reveal(safeCell);
+        }
+        this.snapshot = board.snapshot();
+        this.finalKeyframe = MinesweeperBoardStream.encodeKeyframe(0, this.snapshot);
+    }
+
+    @Benchmark
+    public int encodeGame() {
+        int messagesSize = 0;
+        for (int batchIndex = 0; batchIndex < this.batches.size(); batchIndex++) {
+            messagesSize += MinesweeperBoardStream.encodeDelta(batchIndex + 1, this.batches.get(batchIndex)).remaining();
+        }
+        return messagesSize;
+    }
+
+    @Benchmark
+    public int decodeGame() throws IOException {
+        MinesweeperBoardMirror mirror = new MinesweeperBoardMirror();
+        mirror.apply(this.initialKeyframe.duplicate());
+        for (ByteBuffer message : this.messages) {
+            mirror.apply(message.duplicate());
+        }
+        return mirror.getNumberOfCellsRevealed();
+    }
+
+    @Benchmark
+    public int encodeKeyframe() {
+        return MinesweeperBoardStream.encodeKeyframe(0, this.snapshot).remaining();
+    }
+
+    @Benchmark
+    public int decodeKeyframe() throws IOException {
+        MinesweeperBoardMirror mirror = new MinesweeperBoardMirror();
+        mirror.apply(this.finalKeyframe.duplicate());
+        return mirror.getNumberOfCellsRevealed();
+    }
+
+}
@@ -0,0 +1,84 @@
+package de.perdian.games.minesweeper.session;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+/**
+ * Measures the latency of single reveals submitted to randomly chosen sessions while many client threads access
+ * the registry concurrently. A memory budget below the size of all boards forces passivation and restoration of
+ * boards during the measurement.
+ */
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class MinesweeperSessionRegistryBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int numberOfSessions;
+
+    @Param({ "1.0", "0.25" })
+    public double memoryBudgetRatio;
+
+    private MinesweeperSessionRegistry registry = null;
+    private MinesweeperSession[] sessions = null;
+
+    @Setup(Level.Trial)
+    public void setupRegistry() {
+        long memoryBudget = (long)(this.numberOfSessions * (64 * 64 + (64 * 64 / 4)) * this.memoryBudgetRatio);
+        this.registry = new MinesweeperSessionRegistry(memoryBudget, Duration.ofMinutes(10));
+        this.sessions = new MinesweeperSession[this.numberOfSessions];
+        for (int sessionIndex = 0; sessionIndex < this.numberOfSessions; sessionIndex++) {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(64);
+            boardBuilder.setColumns(64);
+            boardBuilder.setMines(400);
+            boardBuilder.setRandom(new Random(sessionIndex));
+            this.sessions[sessionIndex] = this.registry.createSession(boardBuilder);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownRegistry() {
+        this.registry.close();
+    }
+
+    @Benchmark
+    public Integer revealRandomCell() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MinesweeperSession session = this.sessions[random.nextInt(this.sessions.length)];
+        MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(random.nextInt(64), random.nextInt(64));
+        return session.execute(board -> {
+            if (MinesweeperBoardState.RUNNING.equals(board.getBoardState()) && !board.isRevealed(cellPosition)) {
+                board.reveal(cellPosition);
+            }
+            return board.getNumberOfCellsRevealed();
+        }).join();
+    }
+
+}
@@ -0,0 +1,123 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+
+/**
+ * Measures a single reveal somewhere on a board in the middle of a game, followed by a query for the mine probability
+ * of a cell next to it, as done by the hint overlay. Every iteration starts with a board on which a number of random
+ * safe cells have already been revealed, leaving a frontier split into many components, and each batch reveals further
+ * random cells without a mine. The reported score covers a whole batch of 200 reveals.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, batchSize = 200)
+@Measurement(iterations = 10, batchSize = 200)
+@Fork(1)
+@State(Scope.Thread)
+public class MinesweeperProbabilityEngineBenchmark {
+
+    private static final int INITIAL_REVEALS = 1000;
+
+    @Param({ "100" })
+    public int size;
+
+    @Param({ "0.16" })
+    public double density;
+
+    private MinesweeperBoard board = null;
+    private MinesweeperProbabilityEngine probabilityEngine = null;
+    private List<MinesweeperCellPosition> safeCells = null;
+    private int nextSafeCell = 0;
+
+    @Setup(Level.Iteration)
+    public void setupBoard() throws IOException {
+        Random random = new Random(42);
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(this.size);
+        boardBuilder.setColumns(this.size);
+        boardBuilder.setMines((int)(this.size * this.size * this.density));
+        boardBuilder.setRandom(random);
+        this.board = boardBuilder.build();
+        this.probabilityEngine = MinesweeperProbabilityEngine.attach(this.board);
+        this.safeCells = this.collectSafeCells(this.board, random);
+
+        for (MinesweeperCellPosition safeCell : this.safeCells.subList(0, INITIAL_REVEALS)) {
+            if (!this.board.isRevealed(safeCell)) {
+                this.board.reveal(safeCell);
+            }
+        }
+        this.probabilityEngine.getMineProbabilities();
+        this.nextSafeCell = INITIAL_REVEALS;
+    }
+
+    /**
+     * Plays a copy of the board until the game has ended, which reveals every cell, and collects all cells without a
+     * mine in random order
+     */
+    private List<MinesweeperCellPosition> collectSafeCells(MinesweeperBoard board, Random random) throws IOException {
+        List<MinesweeperCellPosition> safeCells = new ArrayList<>();
+        MinesweeperBoard copiedBoard = MinesweeperBoard.fromByteArray(board.toByteArray());
+        copiedBoard.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+            @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                for (int index = 0; index < cellRevelationBatch.getSize(); index++) {
+                    if (!cellRevelationBatch.isMined(index)) {
+                        safeCells.add(cellRevelationBatch.getCellPosition(index));
+                    }
+                }
+            }
+            @Override public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+                for (int cellIndex = boardRevelation.nextCellRevealedByGameEnd(0); cellIndex >= 0; cellIndex = boardRevelation.nextCellRevealedByGameEnd(cellIndex + 1)) {
+                    if (!boardRevelation.isMined(cellIndex)) {
+                        safeCells.add(boardRevelation.getCellPosition(cellIndex));
+                    }
+                }
+            }
+        });
+        for (int cellIndex = 0; MinesweeperBoardState.RUNNING.equals(copiedBoard.getBoardState()); cellIndex++) {
+            MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(cellIndex / this.size, cellIndex % this.size);
+            if (!copiedBoard.isRevealed(cellPosition)) {
+                copiedBoard.reveal(cellPosition);
+            }
+        }
+        Collections.shuffle(safeCells, random);
+        return safeCells;
+    }
+
+    @Benchmark
+    public double revealAndQuery() {
+        while (this.board.isRevealed(this.safeCells.get(this.nextSafeCell))) {
+            this.nextSafeCell++;
+        }
+        MinesweeperCellPosition safeCell = this.safeCells.get(this.nextSafeCell);
+        this.board.reveal(safeCell);
+        return this.probabilityEngine.getMineProbability(new MinesweeperCellPosition(safeCell.getY(), Math.min(this.size - 1, safeCell.getX() + 1)));
+    }
+
+}
@@ -0,0 +1,69 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+/**
+ * Measures a bot playing a complete board using only the cells the solver has proven to be safe, starting from a
+ * cell that opens a region. On the larger boards the frontier consists of tens of thousands of cells.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MinesweeperSolverBenchmark {
+
+    @Param({ "100", "1000" })
+    public int size;
+
+    @Param({ "0.1", "0.16" })
+    public double density;
+
+    private MinesweeperBoard board = null;
+    private MinesweeperSolver solver = null;
+
+    @Setup(Level.Invocation)
+    public void setupBoard() {
+        Random random = new Random(42);
+        do {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(this.size);
+            boardBuilder.setColumns(this.size);
+            boardBuilder.setMines((int)(this.size * this.size * this.density));
+            boardBuilder.setRandom(random);
+            this.board = boardBuilder.build();
+            this.solver = MinesweeperSolver.attach(this.board);
+            this.board.reveal(new MinesweeperCellPosition(this.size / 2, this.size / 2));
+        } while (this.board.getNumberOfCellsRevealed() < 2);
+    }
+
+    @Benchmark
+    public int playSafeCells() {
+        for (MinesweeperCellPosition safeCell = this.solver.findSafeCell(); safeCell != null && MinesweeperBoardState.RUNNING.equals(this.board.getBoardState()); safeCell = this.solver.findSafeCell()) {
+            this.board.reveal(safeCell);
+        }
+        return this.board.getNumberOfCellsRevealed();
+    }
+
+}
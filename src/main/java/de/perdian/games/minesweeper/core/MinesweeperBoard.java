@@ -1,15 +1,25 @@
 package de.perdian.games.minesweeper.core;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * The board in which the cells are located
+ * The board in which the cells are located.
+ *
+ * All cell information is kept in flat primitive storage indexed by {@code row * columns + column},
+ * so that no objects need to be created for a cell unless it is handed out to a caller. The revealed and flagged
+ * cells are stored in chunks that can be shared with a {@link MinesweeperBoardSnapshot}, so taking a snapshot
+ * costs constant time and the board only copies the chunks it changes afterwards.
  *
  * @author Christian Robert
  */
@@ -20,133 +30,519 @@ public class MinesweeperBoard {
     private int columns = 0;
     private int minesTotal = 0;
     private MinesweeperBoardState boardState = MinesweeperBoardState.RUNNING;
-    private Map<MinesweeperCellPosition, MinesweeperCell> cells = null;
-    private Map<MinesweeperCellPosition, MinesweeperCell> cellsRevealed = null;
-    private Map<MinesweeperCellPosition, MinesweeperCell> cellsClosed = null;
-    private List<MinesweeperCellRevelationListener> cellRevelationListeners = null;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private MinesweeperCellBitSet cellsRevealed = null;
+    private MinesweeperCellBitSet cellsFlagged = null;
+    private byte[] cellsNeighboringFlags = null;
+    private int[] floodFillStack = null;
+    private int[] revelationBufferCells = null;
+    private byte[] revelationBufferInformation = null;
+    private int revelationBufferSize = 0;
+    private MinesweeperBoardRevelation pendingBoardRevelation = null;
+    private int numberOfCellsRevealed = 0;
+    private int numberOfCellsClosed = 0;
+    private int numberOfCellsFlagged = 0;
+    private int mineHitCellIndex = -1;
+    private AtomicInteger layoutVersion = null;
+    private boolean layoutShared = false;
+    private List<MinesweeperCellRevelationBatchListener> cellRevelationBatchListeners = null;
     private List<MinesweeperBoardListener> boardListeners = null;
 
-    MinesweeperBoard(int rows, int columns, int minesTotal, Map<MinesweeperCellPosition, MinesweeperCell> cells) {
+    MinesweeperBoard(int rows, int columns, int minesTotal, BitSet cellsMined, byte[] cellsNeighboringMines) {
+        this(rows, columns, minesTotal, cellsMined, cellsNeighboringMines, new MinesweeperCellBitSet(rows * columns), 0, MinesweeperBoardState.RUNNING);
+    }
+
+    MinesweeperBoard(int rows, int columns, int minesTotal, BitSet cellsMined, byte[] cellsNeighboringMines, BitSet cellsRevealed, int numberOfCellsRevealed, MinesweeperBoardState boardState) {
+        this(rows, columns, minesTotal, cellsMined, cellsNeighboringMines, MinesweeperCellBitSet.valueOf(cellsRevealed, rows * columns), numberOfCellsRevealed, boardState);
+    }
+
+    private MinesweeperBoard(int rows, int columns, int minesTotal, BitSet cellsMined, byte[] cellsNeighboringMines, MinesweeperCellBitSet cellsRevealed, int numberOfCellsRevealed, MinesweeperBoardState boardState) {
         this.setRows(rows);
         this.setColumns(columns);
         this.setMinesTotal(minesTotal);
-        this.setCells(cells);
-        this.setCellsRevealed(new LinkedHashMap<>());
-        this.setCellsClosed(new HashMap<>(cells));
-        this.setCellRevelationListeners(new CopyOnWriteArrayList<>());
+        this.setCellsMined(cellsMined);
+        this.setCellsNeighboringMines(cellsNeighboringMines);
+        this.setCellsRevealed(cellsRevealed);
+        this.setCellsFlagged(new MinesweeperCellBitSet(rows * columns));
+        this.setNumberOfCellsRevealed(numberOfCellsRevealed);
+        this.setNumberOfCellsClosed((rows * columns) - numberOfCellsRevealed);
+        this.setBoardState(boardState);
+        this.setLayoutVersion(new AtomicInteger());
+        this.setCellRevelationBatchListeners(new CopyOnWriteArrayList<>());
         this.setBoardListeners(new CopyOnWriteArrayList<>());
     }
 
+    /**
+     * Restores a board that has previously been written using {@link #save(Path)}. The file is mapped into memory
+     * and all sections are copied in bulk, so nothing that is already stored in the file needs to be recomputed.
+     */
+    public static MinesweeperBoard load(Path boardFile) throws IOException {
+        try (FileChannel boardChannel = FileChannel.open(boardFile, StandardOpenOption.READ)) {
+            return MinesweeperBoardFormat.read(boardChannel.map(MapMode.READ_ONLY, 0, boardChannel.size()));
+        }
+    }
+
+    /**
+     * Writes the complete board, including the cells that have already been revealed, into the given file
+     */
+    public synchronized void save(Path boardFile) throws IOException {
+        long boardFileSize = MinesweeperBoardFormat.computeSize(this.getRows(), this.getColumns());
+        try (FileChannel boardChannel = FileChannel.open(boardFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer boardBuffer = boardChannel.map(MapMode.READ_WRITE, 0, boardFileSize);
+            MinesweeperBoardFormat.write(this, boardBuffer);
+            boardBuffer.force();
+        }
+    }
+
+    /**
+     * Restores a board from the binary representation created by {@link #toByteArray()}
+     */
+    public static MinesweeperBoard fromByteArray(byte[] boardBytes) throws IOException {
+        return MinesweeperBoardFormat.read(ByteBuffer.wrap(boardBytes));
+    }
+
+    /**
+     * Creates the same binary representation of the board that {@link #save(Path)} writes into a file
+     */
+    public synchronized byte[] toByteArray() {
+        ByteBuffer boardBuffer = ByteBuffer.allocate(Math.toIntExact(MinesweeperBoardFormat.computeSize(this.getRows(), this.getColumns())));
+        MinesweeperBoardFormat.write(this, boardBuffer);
+        return boardBuffer.array();
+    }
+
+    /**
+     * Creates a new board from a snapshot, which continues the game from the state the snapshot has been taken in
+     * independently of the original board. The new board shares all storage with the snapshot and only copies the
+     * parts it changes, so any number of boards can be branched off the same snapshot cheaply. The mines are shared
+     * as well until one of the boards is rebuilt, which then places its new mines into storage of its own. A snapshot
+     * cannot be used anymore once the original board or any board branched off it has been rebuilt.
+     */
+    public static MinesweeperBoard fromSnapshot(MinesweeperBoardSnapshot snapshot) {
+        verifyLayoutVersion(snapshot);
+        MinesweeperBoard board = new MinesweeperBoard(snapshot.getRows(), snapshot.getColumns(), snapshot.getMinesTotal(), snapshot.getCellsMined(), snapshot.getCellsNeighboringMines());
+        board.setLayoutVersion(snapshot.getLayoutVersion());
+        board.setLayoutShared(true);
+        board.applySnapshot(snapshot);
+        return board;
+    }
+
+    /**
+     * Takes a snapshot of the current state of the board. This takes constant time no matter how large the board is,
+     * as the snapshot shares the storage of the board, which only copies the parts it changes afterwards.
+     */
+    public synchronized MinesweeperBoardSnapshot snapshot() {
+        this.setLayoutShared(true);
+        return new MinesweeperBoardSnapshot(this.getRows(), this.getColumns(), this.getMinesTotal(), this.getCellsMined(), this.getCellsNeighboringMines(), this.getLayoutVersion(), this.getLayoutVersion().get(), this.getCellsRevealed().share(), this.getCellsFlagged().share(), this.getNumberOfCellsRevealed(), this.getNumberOfCellsFlagged(), this.getBoardState(), this.getMineHitCellIndex());
+    }
+
+    /**
+     * Puts the board back into the state in which the given snapshot has been taken. The snapshot must have been taken
+     * from this board, or from a board created from one of its snapshots, since the board has last been rebuilt.
+     */
+    public synchronized void restore(MinesweeperBoardSnapshot snapshot) {
+        verifyLayoutVersion(snapshot);
+        if (snapshot.getCellsMined() != this.getCellsMined() || snapshot.getLayoutVersion() != this.getLayoutVersion()) {
+            throw new IllegalArgumentException("Snapshot has not been taken from the layout of this board");
+        } else {
+            MinesweeperBoardState previousBoardState = this.getBoardState();
+            this.applySnapshot(snapshot);
+            this.getBoardListeners().forEach(listener -> listener.boardRestored(snapshot));
+            this.getBoardListeners().forEach(listener -> listener.numberOfClosedCellsUpdated(this.getNumberOfCellsClosed()));
+            this.getBoardListeners().forEach(listener -> listener.numberOfRevealedCellsUpdated(this.getNumberOfCellsRevealed()));
+            this.getBoardListeners().forEach(listener -> listener.numberOfFlaggedCellsUpdated(this.getNumberOfCellsFlagged()));
+            if (!previousBoardState.equals(this.getBoardState())) {
+                this.getBoardListeners().forEach(listener -> listener.boardStateUpdated(this.getBoardState()));
+            }
+        }
+    }
+
+    /**
+     * Makes sure that the mines shared with the given snapshot have not been replaced since the snapshot has been
+     * taken, which happens when any board sharing them is rebuilt
+     */
+    private static void verifyLayoutVersion(MinesweeperBoardSnapshot snapshot) {
+        if (snapshot.getLayoutVersion().get() != snapshot.getSnapshotLayoutVersion()) {
+            throw new IllegalStateException("Board has been rebuilt since the snapshot has been taken");
+        }
+    }
+
+    private void applySnapshot(MinesweeperBoardSnapshot snapshot) {
+        this.setCellsRevealed(snapshot.getCellsRevealed().share());
+        this.setCellsFlagged(snapshot.getCellsFlagged().share());
+        this.setNumberOfCellsRevealed(snapshot.getNumberOfCellsRevealed());
+        this.setNumberOfCellsClosed((this.getRows() * this.getColumns()) - snapshot.getNumberOfCellsRevealed());
+        this.setNumberOfCellsFlagged(snapshot.getNumberOfCellsFlagged());
+        this.setBoardState(snapshot.getBoardState());
+        this.setMineHitCellIndex(snapshot.getMineHitCellIndex());
+        this.setCellsNeighboringFlags(null);
+        for (int cellIndex = this.getCellsFlagged().nextSetBit(0); cellIndex >= 0; cellIndex = this.getCellsFlagged().nextSetBit(cellIndex + 1)) {
+            this.adjustNeighboringFlags(cellIndex, 1);
+        }
+    }
+
+    /**
+     * Makes sure that new mines can be placed into the storage of the board without affecting any other board. As
+     * long as the mines are shared with a snapshot, and therefore possibly with boards branched off it, the board
+     * gets new storage for its mines, otherwise the existing storage is kept.
+     */
+    synchronized void unshareLayout() {
+        if (this.isLayoutShared()) {
+            this.setCellsMined(new BitSet(this.getRows() * this.getColumns()));
+            this.setCellsNeighboringMines(new byte[this.getRows() * this.getColumns()]);
+            this.setLayoutShared(false);
+        }
+    }
+
+    /**
+     * Closes all cells again and puts the board back into its initial state. The mines are not touched, so this is
+     * only called by {@link MinesweeperBoardBuilder#rebuild(MinesweeperBoard)} after new mines have been placed into
+     * the cell storage. Snapshots taken before cannot be restored anymore, neither on this board nor on any
+     * board sharing its mines. The board listeners are informed about the new game.
+     */
+    synchronized void reset() {
+        MinesweeperBoardState previousBoardState = this.getBoardState();
+        this.getCellsRevealed().clearAll();
+        this.getCellsFlagged().clearAll();
+        this.setCellsNeighboringFlags(null);
+        this.getLayoutVersion().incrementAndGet();
+        this.setNumberOfCellsRevealed(0);
+        this.setNumberOfCellsFlagged(0);
+        this.setNumberOfCellsClosed(this.getRows() * this.getColumns());
+        this.setBoardState(MinesweeperBoardState.RUNNING);
+        this.setMineHitCellIndex(-1);
+        this.getBoardListeners().forEach(listener -> listener.boardReset());
+        this.getBoardListeners().forEach(listener -> listener.numberOfClosedCellsUpdated(this.getNumberOfCellsClosed()));
+        this.getBoardListeners().forEach(listener -> listener.numberOfRevealedCellsUpdated(this.getNumberOfCellsRevealed()));
+        this.getBoardListeners().forEach(listener -> listener.numberOfFlaggedCellsUpdated(this.getNumberOfCellsFlagged()));
+        if (!previousBoardState.equals(this.getBoardState())) {
+            this.getBoardListeners().forEach(listener -> listener.boardStateUpdated(this.getBoardState()));
+        }
+    }
+
     /**
      * Reveal the underside of a cell
      */
     public synchronized MinesweeperCellRevelation reveal(MinesweeperCellPosition cellPosition) {
-        if (MinesweeperBoardState.COMPLETED_MINE_HIT.equals(this.getBoardState())) {
-            throw new IllegalStateException("Mine has been hit, the game is over!");
-        } else if (MinesweeperBoardState.COMPLETED_WON.equals(this.getBoardState())) {
-            throw new IllegalStateException("All cells have been revealed, the game is over!");
-        } else if (this.getCellsRevealed().containsKey(cellPosition)) {
-            throw new IllegalStateException("Cell is already revealed");
+        this.verifyClosedCell(cellPosition);
+        if (this.getCellsFlagged().get(this.toCellIndex(cellPosition.getY(), cellPosition.getX()))) {
+            throw new IllegalStateException("Cell is flagged and must be unflagged before it can be revealed");
         } else {
-            return this.revealCell(this.getCellsClosed().get(cellPosition), MinesweeperCellRevelationType.MANUALLY);
+            MinesweeperBoardState previousBoardState = this.getBoardState();
+            this.setRevelationBufferSize(0);
+            this.revealCell(this.toCellIndex(cellPosition.getY(), cellPosition.getX()), MinesweeperCellRevelationType.MANUALLY);
+            return this.fireCellsRevealed(previousBoardState).getRevelation(0);
         }
     }
 
-    private MinesweeperCellRevelation revealCell(MinesweeperCell cell, MinesweeperCellRevelationType cellRevelationType) {
-        if (cell == null) {
-            throw new IllegalStateException("Cell cannot be found or has already been revealed");
+    /**
+     * Puts a flag onto a closed cell to mark it as containing a mine. A flagged cell cannot be revealed and is left
+     * closed when a region of empty cells around it is opened.
+     *
+     * @return
+     *     {@code true} if the flag has been placed, {@code false} if the cell had already been flagged before
+     */
+    public synchronized boolean flag(MinesweeperCellPosition cellPosition) {
+        this.verifyClosedCell(cellPosition);
+        return this.updateFlag(this.toCellIndex(cellPosition.getY(), cellPosition.getX()), true);
+    }
+
+    /**
+     * Removes the flag from a closed cell
+     *
+     * @return
+     *     {@code true} if the flag has been removed, {@code false} if the cell had not been flagged before
+     */
+    public synchronized boolean unflag(MinesweeperCellPosition cellPosition) {
+        this.verifyClosedCell(cellPosition);
+        return this.updateFlag(this.toCellIndex(cellPosition.getY(), cellPosition.getX()), false);
+    }
+
+    private boolean updateFlag(int cellIndex, boolean flagged) {
+        if (this.getCellsFlagged().get(cellIndex) == flagged) {
+            return false;
         } else {
+            this.applyFlag(cellIndex, flagged);
+            MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(cellIndex / this.getColumns(), cellIndex % this.getColumns());
+            this.getBoardListeners().forEach(listener -> listener.cellFlagUpdated(cellPosition, flagged));
+            this.getBoardListeners().forEach(listener -> listener.numberOfFlaggedCellsUpdated(this.getNumberOfCellsFlagged()));
+            return true;
+        }
+    }
 
-            this.getCellsClosed().remove(cell.getPosition());
-            this.getBoardListeners().forEach(listener -> listener.numberOfClosedCellsUpdated(this.getCellsClosed().size()));
-            this.getCellsRevealed().put(cell.getPosition(), cell);
-            this.getBoardListeners().forEach(listener -> listener.numberOfRevealedCellsUpdated(this.getCellsRevealed().size()));
+    /**
+     * Sets the flag of a cell and adjusts the flag counters of the eight cells surrounding it, so that the number
+     * of flags around a cell is always available without looking at its neighbours
+     */
+    private void applyFlag(int cellIndex, boolean flagged) {
+        this.getCellsFlagged().set(cellIndex, flagged);
+        this.setNumberOfCellsFlagged(this.getNumberOfCellsFlagged() + (flagged ? 1 : -1));
+        this.adjustNeighboringFlags(cellIndex, flagged ? 1 : -1);
+    }
 
-            if (cell.isMined()) {
-                return this.revealMinedCell(cell, cellRevelationType);
-            } else {
-                return this.revealEmptyCell(cell, cellRevelationType);
+    private void adjustNeighboringFlags(int cellIndex, int delta) {
+        if (this.getCellsNeighboringFlags() == null) {
+            this.setCellsNeighboringFlags(new byte[this.getRows() * this.getColumns()]);
+        }
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        byte[] cellsNeighboringFlags = this.getCellsNeighboringFlags();
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                int neighborIndex = this.toCellIndex(neighborRow, neighborColumn);
+                if (neighborIndex != cellIndex) {
+                    cellsNeighboringFlags[neighborIndex] += delta;
+                }
             }
-
         }
     }
 
-    private MinesweeperCellRevelation revealMinedCell(MinesweeperCell cell, MinesweeperCellRevelationType cellRevelationType) {
+    /**
+     * Places the given flags onto a board that has been restored from a journal or a board file, without notifying
+     * any listeners
+     */
+    synchronized void restoreFlags(BitSet cellsFlagged) {
+        for (int cellIndex = cellsFlagged.nextSetBit(0); cellIndex >= 0; cellIndex = cellsFlagged.nextSetBit(cellIndex + 1)) {
+            if (!this.getCellsFlagged().get(cellIndex)) {
+                this.applyFlag(cellIndex, true);
+            }
+        }
+    }
 
-        MinesweeperCellRevelation cellRevelation = new MinesweeperCellRevelation(cell);
-        cellRevelation.setMined(true);
-        cellRevelation.setRevelationType(cellRevelationType);
-        this.getCellRevelationListeners().forEach(listener -> listener.cellRevealed(cellRevelation));
+    /**
+     * Checks whether the given cell can be chorded, which is the case if it has been revealed during the running game
+     * and exactly as many of its neighbours have been flagged as it has neighbouring mines. As the flags around every
+     * cell are counted whenever a flag changes, this does not need to look at the neighbours.
+     */
+    public synchronized boolean isChordable(MinesweeperCellPosition cellPosition) {
+        if (!this.isValidPosition(cellPosition)) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            int cellIndex = this.toCellIndex(cellPosition.getY(), cellPosition.getX());
+            return MinesweeperBoardState.RUNNING.equals(this.getBoardState())
+                && this.getCellsRevealed().get(cellIndex)
+                && this.getCellsNeighboringMines()[cellIndex] > 0
+                && this.getCellsNeighboringFlags() != null
+                && this.getCellsNeighboringFlags()[cellIndex] == this.getCellsNeighboringMines()[cellIndex];
+        }
+    }
 
-        if (MinesweeperCellRevelationType.MANUALLY.equals(cellRevelationType)) {
-            this.setBoardState(MinesweeperBoardState.COMPLETED_MINE_HIT);
-            for (MinesweeperCell unrevealedCell : new ArrayList<>(this.getCellsClosed().values())) {
-                this.revealCell(unrevealedCell, MinesweeperCellRevelationType.GAME_ENDED);
+    /**
+     * Reveals all closed and unflagged neighbours of a revealed cell whose mines have all been flagged. Every
+     * neighbour is revealed just as if it had been clicked, so empty neighbours open their regions and a wrongly
+     * placed flag lets the chord hit a mine. All cells opened by the chord are delivered to the listeners as a single
+     * batch.
+     */
+    public synchronized MinesweeperCellRevelationBatch chord(MinesweeperCellPosition cellPosition) {
+        if (!this.isChordable(cellPosition)) {
+            throw new IllegalStateException("Cell cannot be chorded: " + cellPosition);
+        } else {
+            MinesweeperBoardState previousBoardState = this.getBoardState();
+            this.setRevelationBufferSize(0);
+            int row = cellPosition.getY();
+            int column = cellPosition.getX();
+            for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+                for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                    int neighborIndex = this.toCellIndex(neighborRow, neighborColumn);
+                    if (MinesweeperBoardState.RUNNING.equals(this.getBoardState()) && !this.getCellsRevealed().get(neighborIndex) && !this.getCellsFlagged().get(neighborIndex)) {
+                        this.revealCell(neighborIndex, MinesweeperCellRevelationType.CHORDED);
+                    }
+                }
             }
+            return this.getRevelationBufferSize() == 0 ? this.createBatch() : this.fireCellsRevealed(previousBoardState);
         }
+    }
 
-        return cellRevelation;
-
+    private void verifyClosedCell(MinesweeperCellPosition cellPosition) {
+        if (MinesweeperBoardState.COMPLETED_MINE_HIT.equals(this.getBoardState())) {
+            throw new IllegalStateException("Mine has been hit, the game is over!");
+        } else if (MinesweeperBoardState.COMPLETED_WON.equals(this.getBoardState())) {
+            throw new IllegalStateException("All cells have been revealed, the game is over!");
+        } else if (!this.isValidPosition(cellPosition)) {
+            throw new IllegalStateException("Cell cannot be found or has already been revealed");
+        } else if (this.getCellsRevealed().get(this.toCellIndex(cellPosition.getY(), cellPosition.getX()))) {
+            throw new IllegalStateException("Cell is already revealed");
+        }
     }
 
-    private MinesweeperCellRevelation revealEmptyCell(MinesweeperCell cell, MinesweeperCellRevelationType cellRevelationType) {
+    private void revealCell(int cellIndex, MinesweeperCellRevelationType cellRevelationType) {
 
-        MinesweeperCellRevelation cellRevelation = new MinesweeperCellRevelation(cell);
-        cellRevelation.setMined(false);
-        cellRevelation.setNeighboringMines(this.computeNumberOfNeighboringMinesAtPosition(cell.getPosition()));
-        cellRevelation.setRevelationType(cellRevelationType);
-        this.getCellRevelationListeners().forEach(listener -> listener.cellRevealed(cellRevelation));
+        this.getCellsRevealed().set(cellIndex);
+        this.setNumberOfCellsClosed(this.getNumberOfCellsClosed() - 1);
+        this.setNumberOfCellsRevealed(this.getNumberOfCellsRevealed() + 1);
+        this.appendToRevelationBuffer(cellIndex, cellRevelationType);
 
-        if (this.getCellsClosed().size() == this.getMinesTotal()) {
-            this.setBoardState(MinesweeperBoardState.COMPLETED_WON);
-            for (MinesweeperCell unrevealedCell : new ArrayList<>(this.getCellsClosed().values())) {
-                this.revealCell(unrevealedCell, MinesweeperCellRevelationType.GAME_ENDED);
+        if (this.getCellsMined().get(cellIndex)) {
+            if (!MinesweeperCellRevelationType.AUTOMATICALLY.equals(cellRevelationType)) {
+                this.setBoardState(MinesweeperBoardState.COMPLETED_MINE_HIT);
+                this.setMineHitCellIndex(cellIndex);
+                this.revealClosedCells();
             }
-        } else {
-            this.revealAdjacentCellsIfNoMines(cell);
+        } else if (this.getNumberOfCellsClosed() == this.getMinesTotal()) {
+            this.setBoardState(MinesweeperBoardState.COMPLETED_WON);
+            this.revealClosedCells();
+        } else if (!MinesweeperCellRevelationType.AUTOMATICALLY.equals(cellRevelationType) && this.getCellsNeighboringMines()[cellIndex] == 0) {
+            this.revealAdjacentCells(cellIndex);
         }
 
-        return cellRevelation;
+    }
 
+    /**
+     * Hands all cells collected during the current operation as one batch to the listeners and reports the board
+     * counters once for the complete operation
+     */
+    private MinesweeperCellRevelationBatch fireCellsRevealed(MinesweeperBoardState previousBoardState) {
+        MinesweeperCellRevelationBatch cellRevelationBatch = this.createBatch();
+        this.getCellRevelationBatchListeners().forEach(listener -> listener.cellsRevealed(cellRevelationBatch));
+        MinesweeperBoardRevelation boardRevelation = this.getPendingBoardRevelation();
+        if (boardRevelation != null) {
+            this.setPendingBoardRevelation(null);
+            this.getCellRevelationBatchListeners().forEach(listener -> listener.boardRevealed(boardRevelation));
+        }
+        this.getBoardListeners().forEach(listener -> listener.numberOfClosedCellsUpdated(this.getNumberOfCellsClosed()));
+        this.getBoardListeners().forEach(listener -> listener.numberOfRevealedCellsUpdated(this.getNumberOfCellsRevealed()));
+        if (!previousBoardState.equals(cellRevelationBatch.getBoardState())) {
+            this.getBoardListeners().forEach(listener -> listener.boardStateUpdated(cellRevelationBatch.getBoardState()));
+        }
+        return cellRevelationBatch;
     }
 
-    private void revealAdjacentCellsIfNoMines(MinesweeperCell cell) {
-        if (this.computeNumberOfNeighboringMinesAtPosition(cell.getPosition()) == 0) {
-            for (MinesweeperCellPosition adjacentPosition : this.computeAdjacentCellPositions(cell.getPosition(), false)) {
-                MinesweeperCell adjacentCell = this.getCellsClosed().get(adjacentPosition);
-                if (adjacentCell != null && !adjacentCell.isMined()) {
-                    this.revealCell(adjacentCell, MinesweeperCellRevelationType.AUTOMATICALLY);
+    private MinesweeperCellRevelationBatch createBatch() {
+        int bufferSize = this.getRevelationBufferSize();
+        int[] cellIndices = bufferSize == 0 ? new int[0] : Arrays.copyOf(this.getRevelationBufferCells(), bufferSize);
+        byte[] cellInformation = bufferSize == 0 ? new byte[0] : Arrays.copyOf(this.getRevelationBufferInformation(), bufferSize);
+        return new MinesweeperCellRevelationBatch(this, this.getColumns(), cellIndices, cellInformation, this.getNumberOfCellsRevealed(), this.getNumberOfCellsClosed(), this.getBoardState());
+    }
+
+    private void appendToRevelationBuffer(int cellIndex, MinesweeperCellRevelationType cellRevelationType) {
+        int bufferSize = this.getRevelationBufferSize();
+        if (this.getRevelationBufferCells() == null || this.getRevelationBufferCells().length == bufferSize) {
+            int newBufferLength = Math.max(16, bufferSize * 2);
+            this.setRevelationBufferCells(this.getRevelationBufferCells() == null ? new int[newBufferLength] : Arrays.copyOf(this.getRevelationBufferCells(), newBufferLength));
+            this.setRevelationBufferInformation(this.getRevelationBufferInformation() == null ? new byte[newBufferLength] : Arrays.copyOf(this.getRevelationBufferInformation(), newBufferLength));
+        }
+        this.getRevelationBufferCells()[bufferSize] = cellIndex;
+        this.getRevelationBufferInformation()[bufferSize] = MinesweeperCellRevelationBatch.encodeCellInformation(this.getCellsMined().get(cellIndex), this.getCellsNeighboringMines()[cellIndex], cellRevelationType);
+        this.setRevelationBufferSize(bufferSize + 1);
+    }
+
+    /**
+     * Reveals all cells that are still closed after the game has ended by flipping the revealed bits of the whole
+     * board at once. The cells are not added to the current batch, instead a snapshot of the board is handed to the
+     * listeners right after the batch has been fired.
+     */
+    private void revealClosedCells() {
+        int numberOfCells = this.getRows() * this.getColumns();
+        BitSet cellsRevealedByGameEnd = this.getCellsRevealed().toBitSet();
+        cellsRevealedByGameEnd.flip(0, numberOfCells);
+        this.getCellsRevealed().setAll();
+        this.setNumberOfCellsRevealed(numberOfCells);
+        this.setNumberOfCellsClosed(0);
+        this.setPendingBoardRevelation(new MinesweeperBoardRevelation(this, this.getRows(), this.getColumns(), (BitSet)this.getCellsMined().clone(), this.getCellsNeighboringMines().clone(), cellsRevealedByGameEnd, this.getBoardState()));
+    }
+
+    /**
+     * Opens the region of empty cells around the given source cell. Cells are expanded in exactly the order a
+     * depth-first traversal would visit them (up, left, right, down), but instead of recursing for every opened
+     * cell the pending cells are kept on an explicit stack, so that regions of any size can be opened without
+     * running into a {@code StackOverflowError}.
+     */
+    private void revealAdjacentCells(int sourceCellIndex) {
+        int stackSize = this.pushAdjacentCells(sourceCellIndex, 0);
+        while (stackSize > 0 && MinesweeperBoardState.RUNNING.equals(this.getBoardState())) {
+            int cellIndex = this.getFloodFillStack()[--stackSize];
+            if (!this.getCellsRevealed().get(cellIndex)) {
+                this.revealCell(cellIndex, MinesweeperCellRevelationType.AUTOMATICALLY);
+                if (this.getCellsNeighboringMines()[cellIndex] == 0) {
+                    stackSize = this.pushAdjacentCells(cellIndex, stackSize);
                 }
             }
         }
     }
 
-    private int computeNumberOfNeighboringMinesAtPosition(MinesweeperCellPosition sourcePosition) {
-        int numberOfMinesNearby = 0;
-        for (MinesweeperCellPosition lookupPosition : this.computeAdjacentCellPositions(sourcePosition, true)) {
-            if (this.getCells().get(lookupPosition).isMined()) {
-                numberOfMinesNearby++;
+    private int pushAdjacentCells(int cellIndex, int stackSize) {
+        if (this.getFloodFillStack() == null || this.getFloodFillStack().length < stackSize + 4) {
+            int[] oldStack = this.getFloodFillStack();
+            int[] newStack = new int[Math.max(64, Math.max(oldStack == null ? 0 : oldStack.length * 2, stackSize + 4))];
+            if (oldStack != null) {
+                System.arraycopy(oldStack, 0, newStack, 0, stackSize);
             }
+            this.setFloodFillStack(newStack);
+        }
+        int[] stack = this.getFloodFillStack();
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        if (row < this.getRows() - 1 && this.isAdjacentCellClosedAndEmpty(cellIndex + this.getColumns())) {
+            stack[stackSize++] = cellIndex + this.getColumns();
+        }
+        if (column < this.getColumns() - 1 && this.isAdjacentCellClosedAndEmpty(cellIndex + 1)) {
+            stack[stackSize++] = cellIndex + 1;
+        }
+        if (column > 0 && this.isAdjacentCellClosedAndEmpty(cellIndex - 1)) {
+            stack[stackSize++] = cellIndex - 1;
         }
-        return numberOfMinesNearby;
+        if (row > 0 && this.isAdjacentCellClosedAndEmpty(cellIndex - this.getColumns())) {
+            stack[stackSize++] = cellIndex - this.getColumns();
+        }
+        return stackSize;
     }
 
-    private List<MinesweeperCellPosition> computeAdjacentCellPositions(MinesweeperCellPosition sourcePosition, boolean includeCorners) {
-        List<MinesweeperCellPosition> resultPositions = new LinkedList<>();
-        int minX = Math.max(0, sourcePosition.getX() - 1);
-        int maxX = Math.min(this.getColumns() - 1, sourcePosition.getX() + 1);
-        int minY = Math.max(0, sourcePosition.getY() - 1);
-        int maxY = Math.min(this.getRows() - 1, sourcePosition.getY() + 1);
-        for (int y = minY; y <= maxY; y++) {
-            for (int x = minX; x <= maxX; x++) {
-                if (y != sourcePosition.getY() || x != sourcePosition.getX()) {
-                    if (includeCorners || y == sourcePosition.getY() || x == sourcePosition.getX())  {
-                        resultPositions.add(new MinesweeperCellPosition(y, x));
-                    }
-                }
-            }
+    private boolean isAdjacentCellClosedAndEmpty(int adjacentCellIndex) {
+        return !this.getCellsRevealed().get(adjacentCellIndex) && !this.getCellsMined().get(adjacentCellIndex) && !this.getCellsFlagged().get(adjacentCellIndex);
+    }
+
+    private boolean isValidPosition(MinesweeperCellPosition cellPosition) {
+        return cellPosition != null && cellPosition.getY() >= 0 && cellPosition.getY() < this.getRows() && cellPosition.getX() >= 0 && cellPosition.getX() < this.getColumns();
+    }
+
+    private int toCellIndex(int row, int column) {
+        return (row * this.getColumns()) + column;
+    }
+
+    private MinesweeperCell createCell(int cellIndex) {
+        MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(cellIndex / this.getColumns(), cellIndex % this.getColumns());
+        return new MinesweeperCell(this, cellPosition, this.getCellsMined().get(cellIndex));
+    }
+
+    /**
+     * Checks whether the cell at the given position has already been revealed
+     */
+    public synchronized boolean isRevealed(MinesweeperCellPosition cellPosition) {
+        if (!this.isValidPosition(cellPosition)) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            return this.getCellsRevealed().get(this.toCellIndex(cellPosition.getY(), cellPosition.getX()));
+        }
+    }
+
+    /**
+     * Checks whether the cell at the given position has been flagged
+     */
+    public synchronized boolean isFlagged(MinesweeperCellPosition cellPosition) {
+        if (!this.isValidPosition(cellPosition)) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            return this.getCellsFlagged().get(this.toCellIndex(cellPosition.getY(), cellPosition.getX()));
         }
-        return resultPositions;
+    }
+
+    /**
+     * Gets the number of mines surrounding the cell at the given position. The number is only available once the
+     * cell has been revealed.
+     */
+    public synchronized int getNeighboringMines(MinesweeperCellPosition cellPosition) {
+        if (!this.isRevealed(cellPosition)) {
+            throw new IllegalStateException("Cell has not been revealed yet: " + cellPosition);
+        } else {
+            return this.getCellsNeighboringMines()[this.toCellIndex(cellPosition.getY(), cellPosition.getX())];
+        }
+    }
+
+    /**
+     * Gets the cell at the given position or {@code null} if the position is not located on the board
+     */
+    MinesweeperCell getCell(MinesweeperCellPosition cellPosition) {
+        return this.isValidPosition(cellPosition) ? this.createCell(this.toCellIndex(cellPosition.getY(), cellPosition.getX())) : null;
     }
 
     /**
@@ -185,43 +581,171 @@ public class MinesweeperBoard {
     public MinesweeperBoardState getBoardState() {
         return this.boardState;
     }
-    void setBoardState(MinesweeperBoardState boardState) {
+    private void setBoardState(MinesweeperBoardState boardState) {
         this.boardState = boardState;
-        this.getBoardListeners().forEach(listener -> listener.boardStateUpdated(boardState));
     }
 
-    Map<MinesweeperCellPosition, MinesweeperCell> getCells() {
-        return this.cells;
+    /**
+     * Gets the number of cells that have already been revealed
+     */
+    public int getNumberOfCellsRevealed() {
+        return this.numberOfCellsRevealed;
     }
-    private void setCells(Map<MinesweeperCellPosition, MinesweeperCell> cells) {
-        this.cells = cells;
+    private void setNumberOfCellsRevealed(int numberOfCellsRevealed) {
+        this.numberOfCellsRevealed = numberOfCellsRevealed;
     }
 
-    Map<MinesweeperCellPosition, MinesweeperCell> getCellsRevealed() {
+    /**
+     * Gets the number of cells that are still closed
+     */
+    public int getNumberOfCellsClosed() {
+        return this.numberOfCellsClosed;
+    }
+    private void setNumberOfCellsClosed(int numberOfCellsClosed) {
+        this.numberOfCellsClosed = numberOfCellsClosed;
+    }
+
+    /**
+     * Gets the number of cells that have been flagged
+     */
+    public int getNumberOfCellsFlagged() {
+        return this.numberOfCellsFlagged;
+    }
+    private void setNumberOfCellsFlagged(int numberOfCellsFlagged) {
+        this.numberOfCellsFlagged = numberOfCellsFlagged;
+    }
+
+    /**
+     * Gets the index of the mine that has been hit and ended the game, or {@code -1} if no mine has been hit
+     */
+    private int getMineHitCellIndex() {
+        return this.mineHitCellIndex;
+    }
+    private void setMineHitCellIndex(int mineHitCellIndex) {
+        this.mineHitCellIndex = mineHitCellIndex;
+    }
+
+    BitSet getCellsMined() {
+        return this.cellsMined;
+    }
+    private void setCellsMined(BitSet cellsMined) {
+        this.cellsMined = cellsMined;
+    }
+
+    /**
+     * Gets the number of mines in the eight cells surrounding each cell, as computed once when the board was built
+     */
+    byte[] getCellsNeighboringMines() {
+        return this.cellsNeighboringMines;
+    }
+    private void setCellsNeighboringMines(byte[] cellsNeighboringMines) {
+        this.cellsNeighboringMines = cellsNeighboringMines;
+    }
+
+    MinesweeperCellBitSet getCellsRevealed() {
         return this.cellsRevealed;
     }
-    private void setCellsRevealed(Map<MinesweeperCellPosition, MinesweeperCell> cellsRevealed) {
+    private void setCellsRevealed(MinesweeperCellBitSet cellsRevealed) {
         this.cellsRevealed = cellsRevealed;
     }
 
-    Map<MinesweeperCellPosition, MinesweeperCell> getCellsClosed() {
-        return this.cellsClosed;
+    MinesweeperCellBitSet getCellsFlagged() {
+        return this.cellsFlagged;
+    }
+    private void setCellsFlagged(MinesweeperCellBitSet cellsFlagged) {
+        this.cellsFlagged = cellsFlagged;
+    }
+
+    /**
+     * Gets the number of flags in the eight cells surrounding each cell, which is updated whenever a flag changes.
+     * The counters are only allocated once the first flag has been placed.
+     */
+    byte[] getCellsNeighboringFlags() {
+        return this.cellsNeighboringFlags;
+    }
+    private void setCellsNeighboringFlags(byte[] cellsNeighboringFlags) {
+        this.cellsNeighboringFlags = cellsNeighboringFlags;
+    }
+
+    /**
+     * Gets the version of the mines, which is shared by all boards created from snapshots of this board, as they all
+     * share the same mines
+     */
+    private AtomicInteger getLayoutVersion() {
+        return this.layoutVersion;
+    }
+    private void setLayoutVersion(AtomicInteger layoutVersion) {
+        this.layoutVersion = layoutVersion;
+    }
+
+    /**
+     * Checks whether the mines may be referenced by a snapshot or by another board
+     */
+    private boolean isLayoutShared() {
+        return this.layoutShared;
+    }
+    private void setLayoutShared(boolean layoutShared) {
+        this.layoutShared = layoutShared;
+    }
+
+    private int[] getFloodFillStack() {
+        return this.floodFillStack;
+    }
+    private void setFloodFillStack(int[] floodFillStack) {
+        this.floodFillStack = floodFillStack;
+    }
+
+    private int[] getRevelationBufferCells() {
+        return this.revelationBufferCells;
     }
-    private void setCellsClosed(Map<MinesweeperCellPosition, MinesweeperCell> cellsClosed) {
-        this.cellsClosed = cellsClosed;
+    private void setRevelationBufferCells(int[] revelationBufferCells) {
+        this.revelationBufferCells = revelationBufferCells;
     }
 
+    private byte[] getRevelationBufferInformation() {
+        return this.revelationBufferInformation;
+    }
+    private void setRevelationBufferInformation(byte[] revelationBufferInformation) {
+        this.revelationBufferInformation = revelationBufferInformation;
+    }
+
+    private int getRevelationBufferSize() {
+        return this.revelationBufferSize;
+    }
+    private void setRevelationBufferSize(int revelationBufferSize) {
+        this.revelationBufferSize = revelationBufferSize;
+    }
+
+    private MinesweeperBoardRevelation getPendingBoardRevelation() {
+        return this.pendingBoardRevelation;
+    }
+    private void setPendingBoardRevelation(MinesweeperBoardRevelation pendingBoardRevelation) {
+        this.pendingBoardRevelation = pendingBoardRevelation;
+    }
+
+    /**
+     * Registers a listener that gets notified about every single revealed cell. Internally the listener is
+     * adapted to a {@link MinesweeperCellRevelationBatchListener}, so listeners that can handle all cells of an
+     * operation at once should prefer {@link #addCellRevelationBatchListener(MinesweeperCellRevelationBatchListener)}
+     */
     public boolean addCellRevelationListener(MinesweeperCellRevelationListener listener) {
-        return this.getCellRevelationListeners().add(listener);
+        return this.getCellRevelationBatchListeners().add(new MinesweeperCellRevelationListenerAdapter(listener));
     }
     public boolean removeCellRevelationListener(MinesweeperCellRevelationListener listener) {
-        return this.getCellRevelationListeners().remove(listener);
+        return this.getCellRevelationBatchListeners().remove(new MinesweeperCellRevelationListenerAdapter(listener));
     }
-    private List<MinesweeperCellRevelationListener> getCellRevelationListeners() {
-        return this.cellRevelationListeners;
+
+    public boolean addCellRevelationBatchListener(MinesweeperCellRevelationBatchListener listener) {
+        return this.getCellRevelationBatchListeners().add(listener);
     }
-    private void setCellRevelationListeners(List<MinesweeperCellRevelationListener> cellRevelationListeners) {
-        this.cellRevelationListeners = cellRevelationListeners;
+    public boolean removeCellRevelationBatchListener(MinesweeperCellRevelationBatchListener listener) {
+        return this.getCellRevelationBatchListeners().remove(listener);
+    }
+    private List<MinesweeperCellRevelationBatchListener> getCellRevelationBatchListeners() {
+        return this.cellRevelationBatchListeners;
+    }
+    private void setCellRevelationBatchListeners(List<MinesweeperCellRevelationBatchListener> cellRevelationBatchListeners) {
+        this.cellRevelationBatchListeners = cellRevelationBatchListeners;
     }
 
     public boolean addBoardListener(MinesweeperBoardListener listener) {
@@ -237,4 +761,11 @@ public class MinesweeperBoard {
         this.boardListeners = boardListeners;
     }
 
+    /**
+     * Checks whether any listener is registered at this board, so that the board must not be replaced by a copy
+     */
+    public boolean hasListeners() {
+        return !this.getCellRevelationBatchListeners().isEmpty() || !this.getBoardListeners().isEmpty();
+    }
+
 }
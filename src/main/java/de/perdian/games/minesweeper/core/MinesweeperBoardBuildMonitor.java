@@ -0,0 +1,32 @@
+package de.perdian.games.minesweeper.core;
+
+/**
+ * Follows the creation of a board by the {@link MinesweeperBoardBuilder} and may abort it. Both methods may be called
+ * concurrently by all threads taking part in the creation.
+ *
+ * @author Christian Robert
+ */
+
+public interface MinesweeperBoardBuildMonitor {
+
+    /**
+     * Called whenever another part of the board has been created
+     *
+     * @param completedSteps
+     *     the number of steps completed so far, which increases with every call, but as the steps are completed on
+     *     several threads the calls may arrive in a different order
+     * @param totalSteps
+     *     the number of steps needed to create the whole board
+     */
+    default void progressed(int completedSteps, int totalSteps) {
+    }
+
+    /**
+     * Checked by the builder before every step. Once it returns {@code true} the builder stops creating the board
+     * and throws a {@link java.util.concurrent.CancellationException}.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+}
@@ -1,14 +1,20 @@
 package de.perdian.games.minesweeper.core;
 
-import java.security.SecureRandom;
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,36 +22,477 @@ import org.slf4j.LoggerFactory;
 public class MinesweeperBoardBuilder {
 
     private static final Logger log = LoggerFactory.getLogger(MinesweeperBoardBuilder.class);
+    private static final MinesweeperBoardBuildMonitor DEFAULT_BUILD_MONITOR = new MinesweeperBoardBuildMonitor() {};
 
     private int rows = 8;
     private int columns = 8;
     private int mines = 10;
-    private Random random = new SecureRandom();
+    private Random random = new MinesweeperRandom();
+    private Long seed = null;
+    private int parallelThreshold = 1 << 20;
+    private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+    private MinesweeperBoardValidator validator = null;
+    private MinesweeperCellPosition startCellPosition = null;
+    private Duration validationTimeout = Duration.ofSeconds(10);
+    private MinesweeperBoardValidationFallback validationFallback = MinesweeperBoardValidationFallback.UNVALIDATED_BOARD;
+    private MinesweeperBoardValidationMetrics validationMetrics = new MinesweeperBoardValidationMetrics();
+
+    /**
+     * Number of rows within a stripe. Boards are always generated stripe by stripe, no matter whether the stripes are
+     * processed in parallel or not, so the layout created for a seed never depends on the degree of parallelism. As
+     * a stripe contains a multiple of 64 cells, every stripe starts at a word boundary of the mined bits.
+     */
+    static final int STRIPE_ROWS = 64;
 
     public MinesweeperBoard build() {
+        return this.build(DEFAULT_BUILD_MONITOR);
+    }
+
+    /**
+     * Creates a board, reporting the progress to the given monitor and aborting with a {@link CancellationException}
+     * as soon as the monitor reports to be cancelled. For boards without validation every stripe of the board
+     * counts as one step, both when placing the mines and when counting the neighbouring mines afterwards.
+     */
+    public MinesweeperBoard build(MinesweeperBoardBuildMonitor buildMonitor) {
+        this.validateDimensions();
+        if (this.getValidator() != null) {
+            return this.buildValidated(buildMonitor);
+        }
+
+        log.debug("Creating board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), this.getMines());
+        int numberOfCells = this.getRows() * this.getColumns();
+        int numberOfStripes = (this.getRows() + STRIPE_ROWS - 1) / STRIPE_ROWS;
+        long seed = this.resolveSeed();
+        int[] stripeMines = distributeMines(this.getRows(), this.getColumns(), this.getMines(), new MinesweeperRandom(mixSeed(seed, -1L)));
+
+        long[] minedWords = new long[(numberOfCells + Long.SIZE - 1) / Long.SIZE];
+        AtomicInteger completedSteps = new AtomicInteger();
+        this.processStripes(numberOfStripes, numberOfCells, monitorStripes(buildMonitor, completedSteps, numberOfStripes * 2, stripeIndex -> {
+            int firstRow = stripeIndex * STRIPE_ROWS;
+            int stripeCells = (Math.min(this.getRows(), firstRow + STRIPE_ROWS) - firstRow) * this.getColumns();
+            long[] stripeWords = placeMines(stripeCells, stripeMines[stripeIndex], new MinesweeperRandom(mixSeed(seed, stripeIndex))).toLongArray();
+            System.arraycopy(stripeWords, 0, minedWords, (firstRow * this.getColumns()) / Long.SIZE, stripeWords.length);
+        }));
+
+        BitSet cellsMined = BitSet.valueOf(minedWords);
+        byte[] cellsNeighboringMines = new byte[numberOfCells];
+        this.processStripes(numberOfStripes, numberOfCells, monitorStripes(buildMonitor, completedSteps, numberOfStripes * 2, stripeIndex -> {
+            int firstRow = stripeIndex * STRIPE_ROWS;
+            computeNeighboringMines(this.getRows(), this.getColumns(), cellsMined, firstRow, Math.min(this.getRows(), firstRow + STRIPE_ROWS), cellsNeighboringMines);
+        }));
+
+        log.info("Created board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), this.getMines());
+        return new MinesweeperBoard(this.getRows(), this.getColumns(), this.getMines(), cellsMined, cellsNeighboringMines);
+
+    }
+
+    /**
+     * Places new mines on an existing board and puts it back into its initial state, reusing all cell storage of the
+     * board instead of allocating a new one. Only if the mines of the board are still shared with a snapshot, new
+     * storage is allocated for them, so that boards branched off the snapshot keep their mines. The board must have been created with the same number of rows, columns
+     * and mines as configured on this builder. For the same seed the layout equals the one {@link #build()} would
+     * create, but the stripes are always processed on the calling thread, as reused boards are meant for
+     * running many small games concurrently rather than for creating a single large one.
+     */
+    public MinesweeperBoard rebuild(MinesweeperBoard board) {
+        this.validateDimensions();
+        if (board.getRows() != this.getRows() || board.getColumns() != this.getColumns() || board.getMinesTotal() != this.getMines()) {
+            throw new IllegalArgumentException("Board with " + board.getRows() + " rows, " + board.getColumns() + " columns and " + board.getMinesTotal() + " mines cannot be rebuilt by this builder");
+        } else {
+            int numberOfStripes = (this.getRows() + STRIPE_ROWS - 1) / STRIPE_ROWS;
+            long seed = this.resolveSeed();
+            int[] stripeMines = distributeMines(this.getRows(), this.getColumns(), this.getMines(), new MinesweeperRandom(mixSeed(seed, -1L)));
+            synchronized (board) {
+                board.unshareLayout();
+                BitSet cellsMined = board.getCellsMined();
+                cellsMined.clear();
+                for (int stripeIndex = 0; stripeIndex < numberOfStripes; stripeIndex++) {
+                    int firstRow = stripeIndex * STRIPE_ROWS;
+                    int stripeCells = (Math.min(this.getRows(), firstRow + STRIPE_ROWS) - firstRow) * this.getColumns();
+                    placeMines(cellsMined, firstRow * this.getColumns(), stripeCells, stripeMines[stripeIndex], new MinesweeperRandom(mixSeed(seed, stripeIndex)));
+                }
+                Arrays.fill(board.getCellsNeighboringMines(), (byte)0);
+                computeNeighboringMines(this.getRows(), this.getColumns(), cellsMined, 0, this.getRows(), board.getCellsNeighboringMines());
+                board.reset();
+            }
+            return board;
+        }
+    }
+
+    /**
+     * Creates candidate boards on all threads of the fork-join pool and hands them to the validator, until a
+     * candidate has been accepted and all candidates before it have been rejected, or the validation timeout has
+     * passed. Every candidate is derived from the seed and its index, and the accepted candidate with the lowest index
+     * is returned, so the board does not depend on how the candidates have been spread across the threads. Every
+     * candidate keeps the start cell and its neighbours free of mines, so that revealing the start cell always opens
+     * an area of the board. The monitor is asked for cancellation by the validating threads, while the progress is
+     * only reported once a board is found.
+     */
+    private MinesweeperBoard buildValidated(MinesweeperBoardBuildMonitor buildMonitor) {
+        MinesweeperCellPosition startCellPosition = this.resolveStartCellPosition();
+        int[] startCellIndices = this.computeStartCellIndices(startCellPosition);
+        if (this.getMines() > (this.getRows() * this.getColumns()) - startCellIndices.length) {
+            throw new IllegalArgumentException("Minesweeper board must leave the start cell and its neighbours without mines");
+        } else {
+
+            log.debug("Creating validated board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), this.getMines());
+            long seed = this.resolveSeed();
+            long deadline = System.nanoTime() + this.getValidationTimeout().toNanos();
+            AtomicLong nextCandidateIndex = new AtomicLong();
+            ConcurrentSkipListMap<Long, BitSet> acceptedCandidates = new ConcurrentSkipListMap<>();
+            AtomicLong acceptedCandidateIndex = new AtomicLong(Long.MAX_VALUE);
+            BooleanSupplier cancelled = () -> System.nanoTime() - deadline >= 0 || buildMonitor.isCancelled();
+            List<ForkJoinTask<?>> candidateTasks = new ArrayList<>();
+            for (int taskIndex = 0; taskIndex < this.getForkJoinPool().getParallelism(); taskIndex++) {
+                candidateTasks.add(this.getForkJoinPool().submit(() -> this.validateCandidates(seed, startCellPosition, startCellIndices, nextCandidateIndex, acceptedCandidates, acceptedCandidateIndex, cancelled)));
+            }
+            candidateTasks.forEach(ForkJoinTask::join);
+
+            BitSet cellsMined = acceptedCandidates.isEmpty() ? null : acceptedCandidates.firstEntry().getValue();
+            if (cellsMined == null && buildMonitor.isCancelled()) {
+                throw new CancellationException("Creation of board has been cancelled");
+            }
+            this.getValidationMetrics().recordBoard(cellsMined == null);
+            if (cellsMined == null && MinesweeperBoardValidationFallback.FAIL.equals(this.getValidationFallback())) {
+                throw new IllegalStateException("No valid board found within " + this.getValidationTimeout() + " after validating " + nextCandidateIndex.get() + " candidates");
+            } else if (cellsMined == null) {
+                log.warn("No valid board found within {}, returning an unvalidated board", this.getValidationTimeout());
+                cellsMined = new BitSet(this.getRows() * this.getColumns());
+                placeMines(cellsMined, this.getRows() * this.getColumns(), this.getMines(), startCellIndices, new MinesweeperRandom(mixSeed(seed, -1L)));
+            }
+            buildMonitor.progressed(1, 1);
+            log.info("Created validated board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), this.getMines());
+            return new MinesweeperBoard(this.getRows(), this.getColumns(), this.getMines(), cellsMined, computeNeighboringMines(this.getRows(), this.getColumns(), cellsMined));
+
+        }
+    }
+
+    /**
+     * Validates candidates until a candidate with a lower index than the next one has been accepted by any thread or
+     * the timeout has passed. The validation of a candidate is cancelled as soon as a candidate with a lower index has
+     * been accepted. A single candidate board is reused for all candidates checked on the current thread.
+     */
+    private void validateCandidates(long seed, MinesweeperCellPosition startCellPosition, int[] startCellIndices, AtomicLong nextCandidateIndex, ConcurrentSkipListMap<Long, BitSet> acceptedCandidates, AtomicLong acceptedCandidateIndex, BooleanSupplier cancelled) {
+        int numberOfCells = this.getRows() * this.getColumns();
+        BitSet cellsMined = new BitSet(numberOfCells);
+        byte[] cellsNeighboringMines = new byte[numberOfCells];
+        MinesweeperBoard candidateBoard = new MinesweeperBoard(this.getRows(), this.getColumns(), this.getMines(), cellsMined, cellsNeighboringMines);
+        Random candidateRandom = new MinesweeperRandom();
+        while (!cancelled.getAsBoolean()) {
+            long candidateIndex = nextCandidateIndex.getAndIncrement();
+            if (candidateIndex > acceptedCandidateIndex.get()) {
+                return;
+            }
+            BooleanSupplier candidateCancelled = () -> acceptedCandidateIndex.get() < candidateIndex || cancelled.getAsBoolean();
+            candidateRandom.setSeed(mixSeed(seed, candidateIndex));
+            cellsMined.clear();
+            placeMines(cellsMined, numberOfCells, this.getMines(), startCellIndices, candidateRandom);
+            Arrays.fill(cellsNeighboringMines, (byte)0);
+            computeNeighboringMines(this.getRows(), this.getColumns(), cellsMined, 0, this.getRows(), cellsNeighboringMines);
+            candidateBoard.reset();
+            long validationStartTime = System.nanoTime();
+            boolean accepted = this.getValidator().validate(candidateBoard, startCellPosition, candidateCancelled);
+            this.getValidationMetrics().recordCandidate(accepted, System.nanoTime() - validationStartTime);
+            if (accepted) {
+                acceptedCandidates.put(candidateIndex, (BitSet)cellsMined.clone());
+                acceptedCandidateIndex.accumulateAndGet(candidateIndex, Math::min);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the seed from which the layout of the next board is derived, which is either the configured seed or a
+     * new one drawn from the random number generator
+     */
+    private long resolveSeed() {
+        if (this.getSeed() != null) {
+            return this.getSeed();
+        } else {
+            Random random = this.getRandom();
+            synchronized (random) {
+                return random.nextLong();
+            }
+        }
+    }
+
+    private MinesweeperCellPosition resolveStartCellPosition() {
+        MinesweeperCellPosition startCellPosition = this.getStartCellPosition() == null ? new MinesweeperCellPosition(this.getRows() / 2, this.getColumns() / 2) : this.getStartCellPosition();
+        if (startCellPosition.getY() < 0 || startCellPosition.getY() >= this.getRows() || startCellPosition.getX() < 0 || startCellPosition.getX() >= this.getColumns()) {
+            throw new IllegalArgumentException("Start cell " + startCellPosition + " is not located on the board");
+        } else {
+            return startCellPosition;
+        }
+    }
+
+    /**
+     * Gets the indices of the start cell and its neighbours in ascending order
+     */
+    private int[] computeStartCellIndices(MinesweeperCellPosition startCellPosition) {
+        int[] startCellIndices = new int[9];
+        int numberOfStartCells = 0;
+        for (int row = Math.max(0, startCellPosition.getY() - 1); row <= Math.min(this.getRows() - 1, startCellPosition.getY() + 1); row++) {
+            for (int column = Math.max(0, startCellPosition.getX() - 1); column <= Math.min(this.getColumns() - 1, startCellPosition.getX() + 1); column++) {
+                startCellIndices[numberOfStartCells++] = (row * this.getColumns()) + column;
+            }
+        }
+        return Arrays.copyOf(startCellIndices, numberOfStartCells);
+    }
+
+    private void validateDimensions() {
         if (this.getRows() < 8 || this.getColumns() < 8) {
             throw new IllegalArgumentException("Minesweeper board must have at least 8x8 cells");
         } else if (this.getMines() >= (this.getRows() * this.getColumns())) {
             throw new IllegalArgumentException("Minesweeper board must have at least one cell without mines");
+        }
+    }
+
+    /**
+     * Runs the given action for every stripe of the board. Boards smaller than the parallel threshold are processed
+     * on the calling thread, larger boards are split across the fork-join pool.
+     */
+    private void processStripes(int numberOfStripes, int numberOfCells, IntConsumer stripeAction) {
+        if (numberOfStripes > 1 && numberOfCells >= this.getParallelThreshold()) {
+            this.getForkJoinPool().invoke(new StripeAction(0, numberOfStripes, stripeAction));
         } else {
+            for (int stripeIndex = 0; stripeIndex < numberOfStripes; stripeIndex++) {
+                stripeAction.accept(stripeIndex);
+            }
+        }
+    }
 
-            log.debug("Creating board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), this.getMines());
-            List<Boolean> mineBooleans = IntStream.range(0, this.getRows() * this.getColumns()).mapToObj(value -> value < this.getMines()).collect(Collectors.toList());
-            Collections.shuffle(mineBooleans, this.getRandom());
-
-            Map<MinesweeperCellPosition, MinesweeperCell> cells = new LinkedHashMap<>();
-            UUID ownerId = UUID.randomUUID();
-            for (int row=0; row < this.getRows(); row++) {
-                for (int column=0; column < this.getColumns(); column++) {
-                    MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
-                    MinesweeperCell cell = new MinesweeperCell(ownerId, cellPosition, mineBooleans.get((row * this.getColumns()) + column));
-                    cells.put(cellPosition, cell);
+    /**
+     * Wraps the given stripe action, so that the monitor is checked for cancellation before every stripe and
+     * informed about the progress after every stripe
+     */
+    private static IntConsumer monitorStripes(MinesweeperBoardBuildMonitor buildMonitor, AtomicInteger completedSteps, int totalSteps, IntConsumer stripeAction) {
+        return stripeIndex -> {
+            if (buildMonitor.isCancelled()) {
+                throw new CancellationException("Creation of board has been cancelled");
+            } else {
+                stripeAction.accept(stripeIndex);
+                buildMonitor.progressed(completedSteps.incrementAndGet(), totalSteps);
+            }
+        };
+    }
+
+    private static class StripeAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private int fromStripe = 0;
+        private int toStripe = 0;
+        private IntConsumer stripeAction = null;
+
+        StripeAction(int fromStripe, int toStripe, IntConsumer stripeAction) {
+            this.setFromStripe(fromStripe);
+            this.setToStripe(toStripe);
+            this.setStripeAction(stripeAction);
+        }
+
+        @Override
+        protected void compute() {
+            if (this.getToStripe() - this.getFromStripe() == 1) {
+                this.getStripeAction().accept(this.getFromStripe());
+            } else {
+                int middleStripe = (this.getFromStripe() + this.getToStripe()) >>> 1;
+                invokeAll(new StripeAction(this.getFromStripe(), middleStripe, this.getStripeAction()), new StripeAction(middleStripe, this.getToStripe(), this.getStripeAction()));
+            }
+        }
+
+        private int getFromStripe() {
+            return this.fromStripe;
+        }
+        private void setFromStripe(int fromStripe) {
+            this.fromStripe = fromStripe;
+        }
+
+        private int getToStripe() {
+            return this.toStripe;
+        }
+        private void setToStripe(int toStripe) {
+            this.toStripe = toStripe;
+        }
+
+        private IntConsumer getStripeAction() {
+            return this.stripeAction;
+        }
+        private void setStripeAction(IntConsumer stripeAction) {
+            this.stripeAction = stripeAction;
+        }
+
+    }
+
+    /**
+     * Splits the mines across the stripes of the board. The number of mines within each stripe follows the
+     * hypergeometric distribution of drawing the cells of that stripe from the cells not yet assigned, so placing
+     * the mines uniformly inside every stripe afterwards keeps every layout of the whole board equally likely.
+     */
+    static int[] distributeMines(int rows, int columns, int numberOfMines, Random random) {
+        int numberOfStripes = (rows + STRIPE_ROWS - 1) / STRIPE_ROWS;
+        int[] stripeMines = new int[numberOfStripes];
+        long remainingCells = (long)rows * columns;
+        long remainingMines = numberOfMines;
+        for (int stripeIndex = 0; stripeIndex < numberOfStripes; stripeIndex++) {
+            long stripeCells = (long)(Math.min(rows, (stripeIndex + 1) * STRIPE_ROWS) - (stripeIndex * STRIPE_ROWS)) * columns;
+            stripeMines[stripeIndex] = (int)sampleHypergeometric(remainingCells, remainingMines, stripeCells, random);
+            remainingCells -= stripeCells;
+            remainingMines -= stripeMines[stripeIndex];
+        }
+        return stripeMines;
+    }
+
+    /**
+     * Draws the number of successes when taking {@code draws} elements out of a population that contains the given
+     * number of successes. The search starts at the mode of the distribution and walks outwards, so only a number of
+     * steps in the order of the standard deviation is needed.
+     */
+    static long sampleHypergeometric(long populationSize, long successes, long draws, Random random) {
+        long minimum = Math.max(0, draws - (populationSize - successes));
+        long maximum = Math.min(draws, successes);
+        if (minimum == maximum) {
+            return minimum;
+        }
+        long failures = populationSize - successes;
+        long mode = Math.max(minimum, Math.min(maximum, (long)(((double)(draws + 1) * (successes + 1)) / (populationSize + 2))));
+        double modeProbability = Math.exp(logBinomial(successes, mode) + logBinomial(failures, draws - mode) - logBinomial(populationSize, draws));
+        double remainingProbability = random.nextDouble() - modeProbability;
+        long lower = mode;
+        long upper = mode;
+        double lowerProbability = modeProbability;
+        double upperProbability = modeProbability;
+        while (remainingProbability >= 0 && (lowerProbability > 0 || upperProbability > 0) && (lower > minimum || upper < maximum)) {
+            if (upper < maximum) {
+                upperProbability *= ((double)(successes - upper) * (draws - upper)) / ((double)(upper + 1) * (failures - draws + upper + 1));
+                upper++;
+                remainingProbability -= upperProbability;
+                if (remainingProbability < 0) {
+                    return upper;
+                }
+            } else {
+                upperProbability = 0;
+            }
+            if (lower > minimum) {
+                lowerProbability *= ((double)lower * (failures - draws + lower)) / ((double)(successes - lower + 1) * (draws - lower + 1));
+                lower--;
+                remainingProbability -= lowerProbability;
+                if (remainingProbability < 0) {
+                    return lower;
                 }
+            } else {
+                lowerProbability = 0;
             }
+        }
+        return mode;
+    }
 
-            log.info("Created board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), this.getMines());
-            return new MinesweeperBoard(this.getRows(), this.getColumns(), this.getMines(), cells);
+    private static double logBinomial(long n, long k) {
+        return logFactorial(n) - logFactorial(k) - logFactorial(n - k);
+    }
 
+    private static double logFactorial(long n) {
+        if (n < 16) {
+            double result = 0;
+            for (long factor = 2; factor <= n; factor++) {
+                result += Math.log(factor);
+            }
+            return result;
+        } else {
+            double x = n;
+            return (x * Math.log(x)) - x + (0.5d * Math.log(2d * Math.PI * x)) + (1d / (12d * x)) - (1d / (360d * x * x * x));
+        }
+    }
+
+    /**
+     * Derives an independent seed from the given seed and value, using the finalizer of the SplitMix64 generator
+     */
+    public static long mixSeed(long seed, long value) {
+        long mixedSeed = seed + (value * 0x9E3779B97F4A7C15L);
+        mixedSeed = (mixedSeed ^ (mixedSeed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixedSeed = (mixedSeed ^ (mixedSeed >>> 27)) * 0x94D049BB133111EBL;
+        return mixedSeed ^ (mixedSeed >>> 31);
+    }
+
+    /**
+     * Selects the cells that contain a mine. Every subset of cells is chosen with the same probability, using
+     * Floyd's sampling algorithm so that only one random number per mine is needed. If more than half of the cells
+     * contain a mine, the cells without a mine are sampled instead and the result is inverted.
+     */
+    static BitSet placeMines(int numberOfCells, int numberOfMines, Random random) {
+        BitSet cellsMined = new BitSet(numberOfCells);
+        placeMines(cellsMined, 0, numberOfCells, numberOfMines, random);
+        return cellsMined;
+    }
+
+    /**
+     * Selects the cells that contain a mine within the range of {@code numberOfCells} cells starting at
+     * {@code firstCell} of the given bits, which must all be cleared before
+     */
+    static void placeMines(BitSet cellsMined, int firstCell, int numberOfCells, int numberOfMines, Random random) {
+        if (numberOfMines > numberOfCells / 2) {
+            sampleCells(cellsMined, firstCell, numberOfCells, numberOfCells - numberOfMines, random);
+            cellsMined.flip(firstCell, firstCell + numberOfCells);
+        } else {
+            sampleCells(cellsMined, firstCell, numberOfCells, numberOfMines, random);
+        }
+    }
+
+    /**
+     * Selects the cells that contain a mine among all cells except the given ones, which must be sorted in ascending
+     * order. The mines are sampled over the remaining cells only and then moved behind the excluded cells, so every
+     * layout that leaves the excluded cells empty is still equally likely.
+     */
+    static void placeMines(BitSet cellsMined, int numberOfCells, int numberOfMines, int[] excludedCellIndices, Random random) {
+        placeMines(cellsMined, 0, numberOfCells - excludedCellIndices.length, numberOfMines, random);
+        for (int sampledIndex = cellsMined.previousSetBit(numberOfCells - 1); sampledIndex >= 0; sampledIndex = cellsMined.previousSetBit(sampledIndex - 1)) {
+            int cellIndex = sampledIndex;
+            for (int excludedCellIndex : excludedCellIndices) {
+                if (cellIndex >= excludedCellIndex) {
+                    cellIndex++;
+                }
+            }
+            if (cellIndex != sampledIndex) {
+                cellsMined.clear(sampledIndex);
+                cellsMined.set(cellIndex);
+            }
+        }
+    }
+
+    private static void sampleCells(BitSet sampledCells, int firstCell, int numberOfCells, int numberOfSamples, Random random) {
+        for (int upperBound = numberOfCells - numberOfSamples; upperBound < numberOfCells; upperBound++) {
+            int cellIndex = random.nextInt(upperBound + 1);
+            sampledCells.set(firstCell + (sampledCells.get(firstCell + cellIndex) ? upperBound : cellIndex));
+        }
+    }
+
+    /**
+     * Computes the number of mines surrounding every cell of the board. Instead of looking at the eight neighbours
+     * of every cell, each mine increments the counters of its neighbours, so the work only depends on the number
+     * of mines placed.
+     */
+    static byte[] computeNeighboringMines(int rows, int columns, BitSet cellsMined) {
+        byte[] cellsNeighboringMines = new byte[rows * columns];
+        computeNeighboringMines(rows, columns, cellsMined, 0, rows, cellsNeighboringMines);
+        return cellsNeighboringMines;
+    }
+
+    /**
+     * Computes the number of neighbouring mines for the rows between {@code firstRow} (inclusive) and
+     * {@code lastRow} (exclusive) only. The mines in the rows directly above and below are taken into account as
+     * well, but only counters inside the given rows are written, so that stripes can be computed concurrently.
+     */
+    static void computeNeighboringMines(int rows, int columns, BitSet cellsMined, int firstRow, int lastRow, byte[] cellsNeighboringMines) {
+        int lastMineIndex = Math.min(rows, lastRow + 1) * columns;
+        for (int mineIndex = cellsMined.nextSetBit(Math.max(0, firstRow - 1) * columns); mineIndex >= 0 && mineIndex < lastMineIndex; mineIndex = cellsMined.nextSetBit(mineIndex + 1)) {
+            int mineRow = mineIndex / columns;
+            int mineColumn = mineIndex % columns;
+            for (int row = Math.max(firstRow, mineRow - 1); row <= Math.min(lastRow - 1, mineRow + 1); row++) {
+                for (int column = Math.max(0, mineColumn - 1); column <= Math.min(columns - 1, mineColumn + 1); column++) {
+                    if (row != mineRow || column != mineColumn) {
+                        cellsNeighboringMines[(row * columns) + column]++;
+                    }
+                }
+            }
         }
     }
 
@@ -82,6 +529,26 @@ public class MinesweeperBoardBuilder {
         }
     }
 
+    /**
+     * Gets the seed from which the layout of every board is derived. Two builders configured with the same seed,
+     * dimensions and number of mines create exactly the same board, no matter on which machine and with how many
+     * threads, so a board can be recreated from its seed instead of being stored. For validated boards the start cell
+     * and the validator need to match as well, and the layout is only reproducible if a board has been accepted
+     * within the validation timeout. If no seed has been set, a new seed is drawn from the random number generator
+     * for every board.
+     */
+    public Long getSeed() {
+        return this.seed;
+    }
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the generator from which a new seed is drawn for every board if no seed has been set. The seeds are drawn
+     * while holding the lock of the generator, so a builder can be shared between threads even if the generator
+     * itself is not thread-safe, as is the case for the default {@link MinesweeperRandom}.
+     */
     public Random getRandom() {
         return this.random;
     }
@@ -93,4 +560,86 @@ public class MinesweeperBoardBuilder {
         }
     }
 
+    /**
+     * Gets the number of cells from which on the board is generated in parallel
+     */
+    public int getParallelThreshold() {
+        return this.parallelThreshold;
+    }
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException("Property 'parallelThreshold' must not be negative");
+        } else {
+            this.parallelThreshold = parallelThreshold;
+        }
+    }
+
+    /**
+     * Gets the fork-join pool on which boards are generated in parallel and on which candidates are validated
+     */
+    public ForkJoinPool getForkJoinPool() {
+        return this.forkJoinPool;
+    }
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        if (forkJoinPool == null) {
+            throw new IllegalArgumentException("Property 'forkJoinPool' must not be null");
+        } else {
+            this.forkJoinPool = forkJoinPool;
+        }
+    }
+
+    /**
+     * Gets the validator that every board has to pass. If a validator is set, only boards accepted by the validator
+     * are built, otherwise every board is returned as it has been created.
+     */
+    public MinesweeperBoardValidator getValidator() {
+        return this.validator;
+    }
+    public void setValidator(MinesweeperBoardValidator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Gets the cell the player starts with when a validator is set, which always is kept free of mines together with
+     * its neighbours. If no start cell is set, the cell in the middle of the board is used.
+     */
+    public MinesweeperCellPosition getStartCellPosition() {
+        return this.startCellPosition;
+    }
+    public void setStartCellPosition(MinesweeperCellPosition startCellPosition) {
+        this.startCellPosition = startCellPosition;
+    }
+
+    /**
+     * Gets the time after which the search for a board accepted by the validator is given up
+     */
+    public Duration getValidationTimeout() {
+        return this.validationTimeout;
+    }
+    public void setValidationTimeout(Duration validationTimeout) {
+        if (validationTimeout == null || validationTimeout.isNegative()) {
+            throw new IllegalArgumentException("Property 'validationTimeout' must not be negative");
+        } else {
+            this.validationTimeout = validationTimeout;
+        }
+    }
+
+    public MinesweeperBoardValidationFallback getValidationFallback() {
+        return this.validationFallback;
+    }
+    public void setValidationFallback(MinesweeperBoardValidationFallback validationFallback) {
+        if (validationFallback == null) {
+            throw new IllegalArgumentException("Property 'validationFallback' must not be null");
+        } else {
+            this.validationFallback = validationFallback;
+        }
+    }
+
+    /**
+     * Gets the metrics of all candidates validated by this builder
+     */
+    public MinesweeperBoardValidationMetrics getValidationMetrics() {
+        return this.validationMetrics;
+    }
+
 }
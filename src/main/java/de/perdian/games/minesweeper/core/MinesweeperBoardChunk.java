@@ -0,0 +1,85 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.BitSet;
+
+/**
+ * A rectangular part of a {@link MinesweeperChunkedBoard}. The mines and neighbour counts of a chunk can always be
+ * recomputed from the board seed, only the revealed cells represent state that must survive an eviction.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperBoardChunk {
+
+    private int firstRow = 0;
+    private int firstColumn = 0;
+    private int height = 0;
+    private int width = 0;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private BitSet cellsRevealed = null;
+
+    MinesweeperBoardChunk(int firstRow, int firstColumn, int height, int width, BitSet cellsMined, byte[] cellsNeighboringMines, BitSet cellsRevealed) {
+        this.setFirstRow(firstRow);
+        this.setFirstColumn(firstColumn);
+        this.setHeight(height);
+        this.setWidth(width);
+        this.setCellsMined(cellsMined);
+        this.setCellsNeighboringMines(cellsNeighboringMines);
+        this.setCellsRevealed(cellsRevealed);
+    }
+
+    int toLocalIndex(int row, int column) {
+        return ((row - this.getFirstRow()) * this.getWidth()) + (column - this.getFirstColumn());
+    }
+
+    int getFirstRow() {
+        return this.firstRow;
+    }
+    private void setFirstRow(int firstRow) {
+        this.firstRow = firstRow;
+    }
+
+    int getFirstColumn() {
+        return this.firstColumn;
+    }
+    private void setFirstColumn(int firstColumn) {
+        this.firstColumn = firstColumn;
+    }
+
+    int getHeight() {
+        return this.height;
+    }
+    private void setHeight(int height) {
+        this.height = height;
+    }
+
+    int getWidth() {
+        return this.width;
+    }
+    private void setWidth(int width) {
+        this.width = width;
+    }
+
+    BitSet getCellsMined() {
+        return this.cellsMined;
+    }
+    private void setCellsMined(BitSet cellsMined) {
+        this.cellsMined = cellsMined;
+    }
+
+    byte[] getCellsNeighboringMines() {
+        return this.cellsNeighboringMines;
+    }
+    private void setCellsNeighboringMines(byte[] cellsNeighboringMines) {
+        this.cellsNeighboringMines = cellsNeighboringMines;
+    }
+
+    BitSet getCellsRevealed() {
+        return this.cellsRevealed;
+    }
+    private void setCellsRevealed(BitSet cellsRevealed) {
+        this.cellsRevealed = cellsRevealed;
+    }
+
+}
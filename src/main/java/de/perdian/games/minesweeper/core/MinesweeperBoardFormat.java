@@ -0,0 +1,96 @@
+package de.perdian.games.minesweeper.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.BitSet;
+
+/**
+ * Binary representation of a {@link MinesweeperBoard}.
+ *
+ * The format starts with a fixed header (magic number, format version, dimensions, number of mines, board state
+ * and number of revealed cells), followed by the mined, the revealed and the flagged cells as bit words and finally
+ * the number of neighbouring mines of every cell. Everything a board needs is stored in the file, so restoring a board
+ * is nothing more than a bulk copy of the individual sections, except for the flags, whose counters are rebuilt from
+ * the flagged cells.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperBoardFormat {
+
+    static final int MAGIC = 0x4D535742;
+    static final short VERSION = 2;
+
+    private static final int HEADER_SIZE = 4 + 2 + 2 + 4 + 4 + 4 + 4 + 4 + 4;
+
+    static long computeSize(int rows, int columns) {
+        long numberOfCells = (long)rows * columns;
+        return HEADER_SIZE + (3L * computeNumberOfWords(numberOfCells) * Long.BYTES) + numberOfCells;
+    }
+
+    static void write(MinesweeperBoard board, ByteBuffer targetBuffer) {
+        int numberOfCells = board.getRows() * board.getColumns();
+        int numberOfWords = computeNumberOfWords(numberOfCells);
+        targetBuffer.putInt(MAGIC);
+        targetBuffer.putShort(VERSION);
+        targetBuffer.putShort((short)0);
+        targetBuffer.putInt(board.getRows());
+        targetBuffer.putInt(board.getColumns());
+        targetBuffer.putInt(board.getMinesTotal());
+        targetBuffer.putInt(board.getBoardState().ordinal());
+        targetBuffer.putInt(board.getNumberOfCellsRevealed());
+        targetBuffer.putInt(numberOfWords);
+        writeBits(board.getCellsMined().toLongArray(), numberOfWords, targetBuffer);
+        writeBits(board.getCellsRevealed().toLongArray(), numberOfWords, targetBuffer);
+        writeBits(board.getCellsFlagged().toLongArray(), numberOfWords, targetBuffer);
+        targetBuffer.put(board.getCellsNeighboringMines(), 0, numberOfCells);
+    }
+
+    private static void writeBits(long[] words, int numberOfWords, ByteBuffer targetBuffer) {
+        targetBuffer.asLongBuffer().put(words, 0, Math.min(words.length, numberOfWords));
+        targetBuffer.position(targetBuffer.position() + (numberOfWords * Long.BYTES));
+    }
+
+    static MinesweeperBoard read(ByteBuffer sourceBuffer) throws IOException {
+        if (sourceBuffer.remaining() < HEADER_SIZE || sourceBuffer.getInt() != MAGIC) {
+            throw new IOException("Data does not contain a minesweeper board");
+        }
+        short version = sourceBuffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported minesweeper board format version: " + version);
+        }
+        sourceBuffer.getShort();
+        int rows = sourceBuffer.getInt();
+        int columns = sourceBuffer.getInt();
+        int minesTotal = sourceBuffer.getInt();
+        int boardStateOrdinal = sourceBuffer.getInt();
+        int numberOfCellsRevealed = sourceBuffer.getInt();
+        int numberOfWords = sourceBuffer.getInt();
+        if (rows <= 0 || columns <= 0 || numberOfWords != computeNumberOfWords((long)rows * columns) || boardStateOrdinal < 0 || boardStateOrdinal >= MinesweeperBoardState.values().length) {
+            throw new IOException("Invalid minesweeper board header");
+        } else if (sourceBuffer.remaining() < computeSize(rows, columns) - HEADER_SIZE) {
+            throw new IOException("Minesweeper board data is truncated");
+        }
+        BitSet cellsMined = readBits(numberOfWords, sourceBuffer);
+        BitSet cellsRevealed = readBits(numberOfWords, sourceBuffer);
+        BitSet cellsFlagged = readBits(numberOfWords, sourceBuffer);
+        byte[] cellsNeighboringMines = new byte[rows * columns];
+        sourceBuffer.get(cellsNeighboringMines);
+        MinesweeperBoard board = new MinesweeperBoard(rows, columns, minesTotal, cellsMined, cellsNeighboringMines, cellsRevealed, numberOfCellsRevealed, MinesweeperBoardState.values()[boardStateOrdinal]);
+        board.restoreFlags(cellsFlagged.get(0, rows * columns));
+        return board;
+    }
+
+    private static BitSet readBits(int numberOfWords, ByteBuffer sourceBuffer) {
+        LongBuffer wordsBuffer = sourceBuffer.asLongBuffer();
+        wordsBuffer.limit(numberOfWords);
+        sourceBuffer.position(sourceBuffer.position() + (numberOfWords * Long.BYTES));
+        return BitSet.valueOf(wordsBuffer);
+    }
+
+    private static int computeNumberOfWords(long numberOfCells) {
+        return (int)((numberOfCells + Long.SIZE - 1) / Long.SIZE);
+    }
+
+}
@@ -0,0 +1,207 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Provides undo and redo for the moves made on a {@link MinesweeperBoard}.
+ *
+ * After every reveal, chord and flag change the history takes a snapshot of the board. As snapshots share all
+ * storage with the board, a step in the history only keeps the parts of the board alive that have been changed by
+ * the move, so even long games on large boards can be undone completely. Undoing or redoing a move restores the
+ * board from the corresponding snapshot. Making a new move after undoing discards all moves that could have been
+ * redone. Rebuilding the board for a new game discards all recorded moves, as none of them can be restored anymore.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardHistory implements MinesweeperCellRevelationBatchListener, MinesweeperBoardListener {
+
+    static final int DEFAULT_MAXIMUM_STEPS = 1000;
+
+    private MinesweeperBoard board = null;
+    private int maximumSteps = 0;
+    private MinesweeperBoardSnapshot currentSnapshot = null;
+    private Deque<MinesweeperBoardSnapshot> undoSnapshots = null;
+    private Deque<MinesweeperBoardSnapshot> redoSnapshots = null;
+    private boolean restoring = false;
+
+    private MinesweeperBoardHistory(MinesweeperBoard board, int maximumSteps) {
+        this.setBoard(board);
+        this.setMaximumSteps(maximumSteps);
+        this.setUndoSnapshots(new ArrayDeque<>());
+        this.setRedoSnapshots(new ArrayDeque<>());
+    }
+
+    /**
+     * Records all moves made on the given board from now on, keeping up to {@value #DEFAULT_MAXIMUM_STEPS} moves
+     * that can be undone
+     */
+    public static MinesweeperBoardHistory attach(MinesweeperBoard board) {
+        return MinesweeperBoardHistory.attach(board, DEFAULT_MAXIMUM_STEPS);
+    }
+
+    /**
+     * Records all moves made on the given board from now on, keeping up to the given number of moves that can be
+     * undone
+     */
+    public static MinesweeperBoardHistory attach(MinesweeperBoard board, int maximumSteps) {
+        if (maximumSteps <= 0) {
+            throw new IllegalArgumentException("Parameter 'maximumSteps' must be larger than zero");
+        } else {
+            MinesweeperBoardHistory history = new MinesweeperBoardHistory(board, maximumSteps);
+            synchronized (board) {
+                history.setCurrentSnapshot(board.snapshot());
+                board.addCellRevelationBatchListener(history);
+                board.addBoardListener(history);
+            }
+            return history;
+        }
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        this.recordStep();
+    }
+
+    @Override
+    public void cellFlagUpdated(MinesweeperCellPosition cellPosition, boolean flagged) {
+        this.recordStep();
+    }
+
+    @Override
+    public void boardRestored(MinesweeperBoardSnapshot snapshot) {
+        if (!this.isRestoring()) {
+            this.recordStep();
+        }
+    }
+
+    @Override
+    public void boardReset() {
+        this.getUndoSnapshots().clear();
+        this.getRedoSnapshots().clear();
+        this.setCurrentSnapshot(this.getBoard().snapshot());
+    }
+
+    private void recordStep() {
+        if (this.getUndoSnapshots().size() == this.getMaximumSteps()) {
+            this.getUndoSnapshots().removeLast();
+        }
+        this.getUndoSnapshots().push(this.getCurrentSnapshot());
+        this.getRedoSnapshots().clear();
+        this.setCurrentSnapshot(this.getBoard().snapshot());
+    }
+
+    /**
+     * Puts the board back into the state before the last move
+     */
+    public void undo() {
+        synchronized (this.getBoard()) {
+            if (this.getUndoSnapshots().isEmpty()) {
+                throw new IllegalStateException("There is no move that could be undone");
+            } else {
+                MinesweeperBoardSnapshot redoSnapshot = this.getCurrentSnapshot();
+                this.restore(this.getUndoSnapshots().peek());
+                this.getUndoSnapshots().pop();
+                this.getRedoSnapshots().push(redoSnapshot);
+            }
+        }
+    }
+
+    /**
+     * Makes the last move that has been undone again
+     */
+    public void redo() {
+        synchronized (this.getBoard()) {
+            if (this.getRedoSnapshots().isEmpty()) {
+                throw new IllegalStateException("There is no move that could be redone");
+            } else {
+                MinesweeperBoardSnapshot undoSnapshot = this.getCurrentSnapshot();
+                this.restore(this.getRedoSnapshots().peek());
+                this.getRedoSnapshots().pop();
+                this.getUndoSnapshots().push(undoSnapshot);
+            }
+        }
+    }
+
+    /**
+     * Restores the board from the given snapshot, before which neither of the stacks must have been changed, so that
+     * a snapshot rejected by the board leaves the history untouched
+     */
+    private void restore(MinesweeperBoardSnapshot snapshot) {
+        this.setRestoring(true);
+        try {
+            this.getBoard().restore(snapshot);
+            this.setCurrentSnapshot(snapshot);
+        } finally {
+            this.setRestoring(false);
+        }
+    }
+
+    public boolean canUndo() {
+        synchronized (this.getBoard()) {
+            return !this.getUndoSnapshots().isEmpty();
+        }
+    }
+
+    public boolean canRedo() {
+        synchronized (this.getBoard()) {
+            return !this.getRedoSnapshots().isEmpty();
+        }
+    }
+
+    /**
+     * Stops recording moves and discards all recorded snapshots
+     */
+    public void detach() {
+        synchronized (this.getBoard()) {
+            this.getBoard().removeCellRevelationBatchListener(this);
+            this.getBoard().removeBoardListener(this);
+            this.getUndoSnapshots().clear();
+            this.getRedoSnapshots().clear();
+        }
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    private int getMaximumSteps() {
+        return this.maximumSteps;
+    }
+    private void setMaximumSteps(int maximumSteps) {
+        this.maximumSteps = maximumSteps;
+    }
+
+    private MinesweeperBoardSnapshot getCurrentSnapshot() {
+        return this.currentSnapshot;
+    }
+    private void setCurrentSnapshot(MinesweeperBoardSnapshot currentSnapshot) {
+        this.currentSnapshot = currentSnapshot;
+    }
+
+    private Deque<MinesweeperBoardSnapshot> getUndoSnapshots() {
+        return this.undoSnapshots;
+    }
+    private void setUndoSnapshots(Deque<MinesweeperBoardSnapshot> undoSnapshots) {
+        this.undoSnapshots = undoSnapshots;
+    }
+
+    private Deque<MinesweeperBoardSnapshot> getRedoSnapshots() {
+        return this.redoSnapshots;
+    }
+    private void setRedoSnapshots(Deque<MinesweeperBoardSnapshot> redoSnapshots) {
+        this.redoSnapshots = redoSnapshots;
+    }
+
+    private boolean isRestoring() {
+        return this.restoring;
+    }
+    private void setRestoring(boolean restoring) {
+        this.restoring = restoring;
+    }
+
+}
@@ -0,0 +1,305 @@
+package de.perdian.games.minesweeper.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records every reveal and every flag change made on a {@link MinesweeperBoard} into an append-only file, from which
+ * the game can later be reconstructed using a {@link MinesweeperBoardJournalPlayer}.
+ *
+ * The journal consists of length-prefixed records. It starts with the layout of the board, followed by a keyframe
+ * with the cells revealed and flagged at the time the journal was attached. Every move is written as a separate
+ * record and after every {@code keyframeInterval} moves another keyframe is added, so that a replay never needs to
+ * re-run more than {@code keyframeInterval} moves. A chord is recorded as the list of neighbours it has opened
+ * directly, as revealing them one after another reproduces exactly the cells opened by the chord. Restoring the board
+ * from a snapshot is recorded as a move containing the complete restored state, which also serves as a keyframe. As a
+ * journal only contains a single layout, recording ends as soon as the board is rebuilt for a new game. The records
+ * are only queued on the game thread, writing and syncing the file is done by a separate writer thread in batches.
+ * Keyframes are queued as snapshots of the board, so the cells are only copied into the record by the writer thread.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardJournal implements MinesweeperCellRevelationBatchListener, MinesweeperBoardListener, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MinesweeperBoardJournal.class);
+
+    static final int MAGIC = 0x4D53574A;
+    static final short VERSION = 2;
+    static final byte RECORD_LAYOUT = 1;
+    static final byte RECORD_KEYFRAME = 2;
+    static final byte RECORD_MOVE = 3;
+    static final byte RECORD_FLAG = 4;
+    static final byte RECORD_CHORD = 5;
+    static final byte RECORD_RESTORE = 6;
+
+    private static final Supplier<ByteBuffer> END_OF_JOURNAL = () -> ByteBuffer.allocate(0);
+
+    private MinesweeperBoard board = null;
+    private FileChannel journalChannel = null;
+    private int keyframeInterval = 0;
+    private int numberOfMoves = 0;
+    private BlockingQueue<Supplier<ByteBuffer>> pendingRecords = null;
+    private Thread writerThread = null;
+    private volatile IOException writerException = null;
+
+    private MinesweeperBoardJournal(MinesweeperBoard board, FileChannel journalChannel, int keyframeInterval) {
+        this.setBoard(board);
+        this.setJournalChannel(journalChannel);
+        this.setKeyframeInterval(keyframeInterval);
+        this.setPendingRecords(new LinkedBlockingQueue<>());
+        this.setWriterThread(new Thread(this::writeRecords, "minesweeper-journal-writer"));
+        this.getWriterThread().setDaemon(true);
+    }
+
+    /**
+     * Creates a new journal file and records all moves made on the given board from now on until the journal
+     * is closed
+     */
+    public static MinesweeperBoardJournal attach(MinesweeperBoard board, Path journalFile, int keyframeInterval) throws IOException {
+        if (keyframeInterval <= 0) {
+            throw new IllegalArgumentException("Parameter 'keyframeInterval' must be larger than zero");
+        } else {
+            FileChannel journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            MinesweeperBoardJournal journal = new MinesweeperBoardJournal(board, journalChannel, keyframeInterval);
+            synchronized (board) {
+                ByteBuffer layoutRecord = createLayoutRecord(board);
+                MinesweeperBoardSnapshot snapshot = board.snapshot();
+                journal.getPendingRecords().add(() -> layoutRecord);
+                journal.getPendingRecords().add(() -> createKeyframeRecord(RECORD_KEYFRAME, snapshot, 0));
+                board.addCellRevelationBatchListener(journal);
+                board.addBoardListener(journal);
+            }
+            journal.getWriterThread().start();
+            log.debug("Attached journal to board at: {}", journalFile);
+            return journal;
+        }
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        int moveNumber = this.getNumberOfMoves() + 1;
+        if (MinesweeperCellRevelationType.CHORDED.equals(cellRevelationBatch.getRevelationType(0))) {
+            ByteBuffer chordRecord = createChordRecord(moveNumber, cellRevelationBatch);
+            this.appendMoveRecord(() -> chordRecord);
+        } else {
+            ByteBuffer moveRecord = createMoveRecord(moveNumber, cellRevelationBatch.getCellIndex(0));
+            this.appendMoveRecord(() -> moveRecord);
+        }
+    }
+
+    @Override
+    public void cellFlagUpdated(MinesweeperCellPosition cellPosition, boolean flagged) {
+        ByteBuffer flagRecord = createFlagRecord(this.getNumberOfMoves() + 1, (cellPosition.getY() * this.getBoard().getColumns()) + cellPosition.getX(), flagged);
+        this.appendMoveRecord(() -> flagRecord);
+    }
+
+    @Override
+    public void boardRestored(MinesweeperBoardSnapshot snapshot) {
+        int moveNumber = this.getNumberOfMoves() + 1;
+        this.appendMoveRecord(() -> createKeyframeRecord(RECORD_RESTORE, snapshot, moveNumber));
+    }
+
+    @Override
+    public void boardReset() {
+        this.getBoard().removeCellRevelationBatchListener(this);
+        this.getBoard().removeBoardListener(this);
+    }
+
+    /**
+     * Queues the given move and, after every {@code keyframeInterval} moves, a keyframe. Taking the snapshot for the
+     * keyframe takes constant time, the cells are copied when the writer thread creates the record.
+     */
+    private void appendMoveRecord(Supplier<ByteBuffer> moveRecord) {
+        this.setNumberOfMoves(this.getNumberOfMoves() + 1);
+        this.getPendingRecords().add(moveRecord);
+        if (this.getNumberOfMoves() % this.getKeyframeInterval() == 0) {
+            int moveNumber = this.getNumberOfMoves();
+            MinesweeperBoardSnapshot snapshot = this.getBoard().snapshot();
+            this.getPendingRecords().add(() -> createKeyframeRecord(RECORD_KEYFRAME, snapshot, moveNumber));
+        }
+    }
+
+    /**
+     * Stops recording moves and waits until all pending records have been written to disk
+     */
+    @Override
+    public void close() throws IOException {
+        this.getBoard().removeCellRevelationBatchListener(this);
+        this.getBoard().removeBoardListener(this);
+        this.getPendingRecords().add(END_OF_JOURNAL);
+        try {
+            this.getWriterThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for journal to be written", e);
+        } finally {
+            this.getJournalChannel().close();
+        }
+        if (this.getWriterException() != null) {
+            throw this.getWriterException();
+        }
+    }
+
+    private void writeRecords() {
+        List<Supplier<ByteBuffer>> pendingRecords = new ArrayList<>();
+        List<ByteBuffer> records = new ArrayList<>();
+        boolean endOfJournal = false;
+        while (!endOfJournal) {
+            try {
+                pendingRecords.add(this.getPendingRecords().take());
+                this.getPendingRecords().drainTo(pendingRecords);
+                endOfJournal = pendingRecords.removeIf(pendingRecord -> pendingRecord == END_OF_JOURNAL);
+                if (this.getWriterException() == null && !pendingRecords.isEmpty()) {
+                    pendingRecords.forEach(pendingRecord -> records.add(pendingRecord.get()));
+                    ByteBuffer[] recordBuffers = records.toArray(new ByteBuffer[records.size()]);
+                    while (recordBuffers[recordBuffers.length - 1].hasRemaining()) {
+                        this.getJournalChannel().write(recordBuffers);
+                    }
+                    this.getJournalChannel().force(false);
+                }
+            } catch (InterruptedException e) {
+                endOfJournal = true;
+            } catch (IOException e) {
+                log.warn("Cannot write journal records", e);
+                this.setWriterException(e);
+            }
+            pendingRecords.clear();
+            records.clear();
+        }
+    }
+
+    private static ByteBuffer createLayoutRecord(MinesweeperBoard board) {
+        long[] minedWords = board.getCellsMined().toLongArray();
+        ByteBuffer recordBuffer = allocateRecord(RECORD_LAYOUT, 4 + 2 + 4 + 4 + 4 + 4 + (minedWords.length * Long.BYTES));
+        recordBuffer.putInt(MAGIC);
+        recordBuffer.putShort(VERSION);
+        recordBuffer.putInt(board.getRows());
+        recordBuffer.putInt(board.getColumns());
+        recordBuffer.putInt(board.getMinesTotal());
+        recordBuffer.putInt(minedWords.length);
+        recordBuffer.asLongBuffer().put(minedWords);
+        recordBuffer.position(recordBuffer.limit());
+        return recordBuffer.flip();
+    }
+
+    private static ByteBuffer createKeyframeRecord(byte recordType, MinesweeperBoardSnapshot snapshot, int moveNumber) {
+        long[] revealedWords = snapshot.getCellsRevealed().toLongArray();
+        long[] flaggedWords = snapshot.getCellsFlagged().toLongArray();
+        ByteBuffer recordBuffer = allocateRecord(recordType, 4 + 4 + 4 + 4 + (revealedWords.length * Long.BYTES) + 4 + (flaggedWords.length * Long.BYTES));
+        recordBuffer.putInt(moveNumber);
+        recordBuffer.putInt(snapshot.getBoardState().ordinal());
+        recordBuffer.putInt(snapshot.getNumberOfCellsRevealed());
+        recordBuffer.putInt(revealedWords.length);
+        recordBuffer.asLongBuffer().put(revealedWords);
+        recordBuffer.position(recordBuffer.position() + (revealedWords.length * Long.BYTES));
+        recordBuffer.putInt(flaggedWords.length);
+        recordBuffer.asLongBuffer().put(flaggedWords);
+        recordBuffer.position(recordBuffer.limit());
+        return recordBuffer.flip();
+    }
+
+    private static ByteBuffer createMoveRecord(int moveNumber, int cellIndex) {
+        ByteBuffer recordBuffer = allocateRecord(RECORD_MOVE, 4 + 4);
+        recordBuffer.putInt(moveNumber);
+        recordBuffer.putInt(cellIndex);
+        return recordBuffer.flip();
+    }
+
+    private static ByteBuffer createFlagRecord(int moveNumber, int cellIndex, boolean flagged) {
+        ByteBuffer recordBuffer = allocateRecord(RECORD_FLAG, 4 + 4 + 1);
+        recordBuffer.putInt(moveNumber);
+        recordBuffer.putInt(cellIndex);
+        recordBuffer.put(flagged ? (byte)1 : (byte)0);
+        return recordBuffer.flip();
+    }
+
+    private static ByteBuffer createChordRecord(int moveNumber, MinesweeperCellRevelationBatch cellRevelationBatch) {
+        int[] chordedCells = new int[cellRevelationBatch.getSize()];
+        int numberOfChordedCells = 0;
+        for (int index = 0; index < cellRevelationBatch.getSize(); index++) {
+            if (MinesweeperCellRevelationType.CHORDED.equals(cellRevelationBatch.getRevelationType(index))) {
+                chordedCells[numberOfChordedCells++] = cellRevelationBatch.getCellIndex(index);
+            }
+        }
+        ByteBuffer recordBuffer = allocateRecord(RECORD_CHORD, 4 + 4 + (numberOfChordedCells * 4));
+        recordBuffer.putInt(moveNumber);
+        recordBuffer.putInt(numberOfChordedCells);
+        for (int index = 0; index < numberOfChordedCells; index++) {
+            recordBuffer.putInt(chordedCells[index]);
+        }
+        return recordBuffer.flip();
+    }
+
+    private static ByteBuffer allocateRecord(byte recordType, int payloadLength) {
+        ByteBuffer recordBuffer = ByteBuffer.allocate(4 + 1 + payloadLength);
+        recordBuffer.putInt(1 + payloadLength);
+        recordBuffer.put(recordType);
+        return recordBuffer;
+    }
+
+    /**
+     * Gets the number of moves that have been recorded so far
+     */
+    public int getNumberOfMoves() {
+        return this.numberOfMoves;
+    }
+    private void setNumberOfMoves(int numberOfMoves) {
+        this.numberOfMoves = numberOfMoves;
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    private FileChannel getJournalChannel() {
+        return this.journalChannel;
+    }
+    private void setJournalChannel(FileChannel journalChannel) {
+        this.journalChannel = journalChannel;
+    }
+
+    private int getKeyframeInterval() {
+        return this.keyframeInterval;
+    }
+    private void setKeyframeInterval(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    private BlockingQueue<Supplier<ByteBuffer>> getPendingRecords() {
+        return this.pendingRecords;
+    }
+    private void setPendingRecords(BlockingQueue<Supplier<ByteBuffer>> pendingRecords) {
+        this.pendingRecords = pendingRecords;
+    }
+
+    private Thread getWriterThread() {
+        return this.writerThread;
+    }
+    private void setWriterThread(Thread writerThread) {
+        this.writerThread = writerThread;
+    }
+
+    private IOException getWriterException() {
+        return this.writerException;
+    }
+    private void setWriterException(IOException writerException) {
+        this.writerException = writerException;
+    }
+
+}
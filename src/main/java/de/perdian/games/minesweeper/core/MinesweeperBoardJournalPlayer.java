@@ -0,0 +1,285 @@
+package de.perdian.games.minesweeper.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Reconstructs the state of a game at any move that has been recorded by a {@link MinesweeperBoardJournal}.
+ *
+ * When opening a journal only the record headers are scanned to build an index of all moves and keyframes. Seeking
+ * to a move restores the closest keyframe before that move and re-runs only the moves made after it.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardJournalPlayer {
+
+    private ByteBuffer journalBuffer = null;
+    private int rows = 0;
+    private int columns = 0;
+    private int minesTotal = 0;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private int[] movePositions = null;
+    private int numberOfMoves = 0;
+    private int[] keyframeMoveNumbers = null;
+    private int[] keyframePositions = null;
+    private int numberOfKeyframes = 0;
+
+    private MinesweeperBoardJournalPlayer(ByteBuffer journalBuffer) throws IOException {
+        this.setJournalBuffer(journalBuffer);
+        this.setMovePositions(new int[64]);
+        this.setKeyframeMoveNumbers(new int[8]);
+        this.setKeyframePositions(new int[8]);
+        this.readIndex();
+    }
+
+    /**
+     * Opens the journal stored in the given file
+     */
+    public static MinesweeperBoardJournalPlayer open(Path journalFile) throws IOException {
+        try (FileChannel journalChannel = FileChannel.open(journalFile, StandardOpenOption.READ)) {
+            return new MinesweeperBoardJournalPlayer(journalChannel.map(MapMode.READ_ONLY, 0, journalChannel.size()));
+        }
+    }
+
+    private void readIndex() throws IOException {
+        ByteBuffer buffer = this.getJournalBuffer().duplicate();
+        while (buffer.remaining() >= 5) {
+            int recordLength = buffer.getInt();
+            if (recordLength <= 0 || recordLength > buffer.remaining()) {
+                break; // Incomplete record at the end of the journal, which has not been written completely
+            }
+            int recordEnd = buffer.position() + recordLength;
+            byte recordType = buffer.get();
+            if (recordType == MinesweeperBoardJournal.RECORD_LAYOUT) {
+                this.readLayout(buffer);
+            } else if (this.getCellsMined() == null) {
+                throw new IOException("Journal does not start with a board layout");
+            } else if (recordType == MinesweeperBoardJournal.RECORD_KEYFRAME) {
+                this.appendKeyframe(buffer.getInt(buffer.position()), buffer.position());
+            } else if (recordType == MinesweeperBoardJournal.RECORD_RESTORE) {
+                this.appendMove(buffer.getInt(buffer.position()), buffer.position() - 1);
+                this.appendKeyframe(buffer.getInt(buffer.position()), buffer.position());
+            } else if (recordType == MinesweeperBoardJournal.RECORD_MOVE || recordType == MinesweeperBoardJournal.RECORD_FLAG || recordType == MinesweeperBoardJournal.RECORD_CHORD) {
+                this.appendMove(buffer.getInt(buffer.position()), buffer.position() - 1);
+            } else {
+                throw new IOException("Unknown journal record type: " + recordType);
+            }
+            buffer.position(recordEnd);
+        }
+        if (this.getCellsMined() == null || this.getNumberOfKeyframes() == 0) {
+            throw new IOException("Journal does not contain a board layout");
+        }
+    }
+
+    private void readLayout(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MinesweeperBoardJournal.MAGIC) {
+            throw new IOException("Data does not contain a minesweeper journal");
+        }
+        short version = buffer.getShort();
+        if (version != MinesweeperBoardJournal.VERSION) {
+            throw new IOException("Unsupported minesweeper journal version: " + version);
+        }
+        this.setRows(buffer.getInt());
+        this.setColumns(buffer.getInt());
+        this.setMinesTotal(buffer.getInt());
+        this.setCellsMined(readBits(buffer));
+        this.setCellsNeighboringMines(MinesweeperBoardBuilder.computeNeighboringMines(this.getRows(), this.getColumns(), this.getCellsMined()));
+    }
+
+    private void appendKeyframe(int moveNumber, int keyframePosition) {
+        if (this.getNumberOfKeyframes() == this.getKeyframeMoveNumbers().length) {
+            this.setKeyframeMoveNumbers(Arrays.copyOf(this.getKeyframeMoveNumbers(), this.getNumberOfKeyframes() * 2));
+            this.setKeyframePositions(Arrays.copyOf(this.getKeyframePositions(), this.getNumberOfKeyframes() * 2));
+        }
+        this.getKeyframeMoveNumbers()[this.getNumberOfKeyframes()] = moveNumber;
+        this.getKeyframePositions()[this.getNumberOfKeyframes()] = keyframePosition;
+        this.setNumberOfKeyframes(this.getNumberOfKeyframes() + 1);
+    }
+
+    private void appendMove(int moveNumber, int movePosition) throws IOException {
+        if (moveNumber != this.getNumberOfMoves() + 1) {
+            throw new IOException("Journal move " + moveNumber + " is out of sequence");
+        } else if (this.getNumberOfMoves() == this.getMovePositions().length) {
+            this.setMovePositions(Arrays.copyOf(this.getMovePositions(), this.getNumberOfMoves() * 2));
+        }
+        this.getMovePositions()[this.getNumberOfMoves()] = movePosition;
+        this.setNumberOfMoves(moveNumber);
+    }
+
+    /**
+     * Reconstructs the board as it was after the given number of moves has been made. Seeking to move zero returns
+     * the board as it was when the journal was attached.
+     */
+    public MinesweeperBoard seek(int moveNumber) {
+        if (moveNumber < 0 || moveNumber > this.getNumberOfMoves()) {
+            throw new IllegalArgumentException("Move " + moveNumber + " is not available in journal with " + this.getNumberOfMoves() + " moves");
+        } else {
+
+            int keyframeIndex = Arrays.binarySearch(this.getKeyframeMoveNumbers(), 0, this.getNumberOfKeyframes(), moveNumber);
+            if (keyframeIndex < 0) {
+                keyframeIndex = -keyframeIndex - 2;
+            }
+
+            ByteBuffer keyframeBuffer = this.getJournalBuffer().duplicate();
+            keyframeBuffer.position(this.getKeyframePositions()[keyframeIndex]);
+            int keyframeMoveNumber = keyframeBuffer.getInt();
+            MinesweeperBoardState boardState = MinesweeperBoardState.values()[keyframeBuffer.getInt()];
+            int numberOfCellsRevealed = keyframeBuffer.getInt();
+            BitSet cellsRevealed = readBits(keyframeBuffer);
+            BitSet cellsFlagged = readBits(keyframeBuffer);
+            MinesweeperBoard board = new MinesweeperBoard(this.getRows(), this.getColumns(), this.getMinesTotal(), this.getCellsMined(), this.getCellsNeighboringMines(), cellsRevealed, numberOfCellsRevealed, boardState);
+            board.restoreFlags(cellsFlagged);
+
+            for (int replayMoveNumber = keyframeMoveNumber + 1; replayMoveNumber <= moveNumber; replayMoveNumber++) {
+                this.replayMove(board, replayMoveNumber);
+            }
+            return board;
+
+        }
+    }
+
+    private void replayMove(MinesweeperBoard board, int moveNumber) {
+        ByteBuffer moveBuffer = this.getJournalBuffer().duplicate();
+        moveBuffer.position(this.getMovePositions()[moveNumber - 1]);
+        byte recordType = moveBuffer.get();
+        moveBuffer.getInt();
+        if (recordType == MinesweeperBoardJournal.RECORD_CHORD) {
+            for (int numberOfChordedCells = moveBuffer.getInt(); numberOfChordedCells > 0; numberOfChordedCells--) {
+                board.reveal(this.toCellPosition(moveBuffer.getInt()));
+            }
+        } else if (recordType == MinesweeperBoardJournal.RECORD_FLAG) {
+            MinesweeperCellPosition cellPosition = this.toCellPosition(moveBuffer.getInt());
+            if (moveBuffer.get() != 0) {
+                board.flag(cellPosition);
+            } else {
+                board.unflag(cellPosition);
+            }
+        } else {
+            board.reveal(this.toCellPosition(moveBuffer.getInt()));
+        }
+    }
+
+    /**
+     * Gets the position of the cell on which the given move has been made. For a chord this is the first neighbour
+     * that has been opened by it, for a restore of the board from a snapshot there is no such cell and {@code null}
+     * is returned.
+     */
+    public MinesweeperCellPosition getMovePosition(int moveNumber) {
+        if (moveNumber <= 0 || moveNumber > this.getNumberOfMoves()) {
+            throw new IllegalArgumentException("Move " + moveNumber + " is not available in journal with " + this.getNumberOfMoves() + " moves");
+        } else {
+            ByteBuffer moveBuffer = this.getJournalBuffer().duplicate();
+            moveBuffer.position(this.getMovePositions()[moveNumber - 1]);
+            byte recordType = moveBuffer.get();
+            moveBuffer.getInt();
+            if (recordType == MinesweeperBoardJournal.RECORD_RESTORE) {
+                return null;
+            } else if (recordType == MinesweeperBoardJournal.RECORD_CHORD) {
+                moveBuffer.getInt();
+            }
+            return this.toCellPosition(moveBuffer.getInt());
+        }
+    }
+
+    private MinesweeperCellPosition toCellPosition(int cellIndex) {
+        return new MinesweeperCellPosition(cellIndex / this.getColumns(), cellIndex % this.getColumns());
+    }
+
+    private static BitSet readBits(ByteBuffer buffer) {
+        int numberOfWords = buffer.getInt();
+        LongBuffer wordsBuffer = buffer.asLongBuffer();
+        wordsBuffer.limit(numberOfWords);
+        buffer.position(buffer.position() + (numberOfWords * Long.BYTES));
+        return BitSet.valueOf(wordsBuffer);
+    }
+
+    private ByteBuffer getJournalBuffer() {
+        return this.journalBuffer;
+    }
+    private void setJournalBuffer(ByteBuffer journalBuffer) {
+        this.journalBuffer = journalBuffer;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public int getMinesTotal() {
+        return this.minesTotal;
+    }
+    private void setMinesTotal(int minesTotal) {
+        this.minesTotal = minesTotal;
+    }
+
+    private BitSet getCellsMined() {
+        return this.cellsMined;
+    }
+    private void setCellsMined(BitSet cellsMined) {
+        this.cellsMined = cellsMined;
+    }
+
+    private byte[] getCellsNeighboringMines() {
+        return this.cellsNeighboringMines;
+    }
+    private void setCellsNeighboringMines(byte[] cellsNeighboringMines) {
+        this.cellsNeighboringMines = cellsNeighboringMines;
+    }
+
+    private int[] getMovePositions() {
+        return this.movePositions;
+    }
+    private void setMovePositions(int[] movePositions) {
+        this.movePositions = movePositions;
+    }
+
+    /**
+     * Gets the number of moves that have been recorded within the journal
+     */
+    public int getNumberOfMoves() {
+        return this.numberOfMoves;
+    }
+    private void setNumberOfMoves(int numberOfMoves) {
+        this.numberOfMoves = numberOfMoves;
+    }
+
+    private int[] getKeyframeMoveNumbers() {
+        return this.keyframeMoveNumbers;
+    }
+    private void setKeyframeMoveNumbers(int[] keyframeMoveNumbers) {
+        this.keyframeMoveNumbers = keyframeMoveNumbers;
+    }
+
+    private int[] getKeyframePositions() {
+        return this.keyframePositions;
+    }
+    private void setKeyframePositions(int[] keyframePositions) {
+        this.keyframePositions = keyframePositions;
+    }
+
+    private int getNumberOfKeyframes() {
+        return this.numberOfKeyframes;
+    }
+    private void setNumberOfKeyframes(int numberOfKeyframes) {
+        this.numberOfKeyframes = numberOfKeyframes;
+    }
+
+}
@@ -11,4 +11,25 @@ public interface MinesweeperBoardListener {
     default void boardStateUpdated(MinesweeperBoardState newBoardState) {
     }
 
+    default void cellFlagUpdated(MinesweeperCellPosition cellPosition, boolean flagged) {
+    }
+
+    default void numberOfFlaggedCellsUpdated(int newNumberOfFlaggedCells) {
+    }
+
+    /**
+     * Called after the board has been put back into the state of the given snapshot. No revelations are published
+     * for the cells that have been changed by the restore, so listeners keeping track of the revealed cells need to
+     * rebuild their state from the snapshot.
+     */
+    default void boardRestored(MinesweeperBoardSnapshot snapshot) {
+    }
+
+    /**
+     * Called after new mines have been placed on the board and all cells have been closed again, so that the board
+     * is reused for a new game. Snapshots taken before cannot be restored anymore.
+     */
+    default void boardReset() {
+    }
+
 }
@@ -0,0 +1,135 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.BitSet;
+
+/**
+ * The complete layout of a board at the moment its game has ended, together with the cells that were still closed
+ * at that moment and have been revealed by the end of the game.
+ *
+ * Instead of reporting every one of these cells separately, the board hands this object to its listeners once, so
+ * that they can update their view of the whole board in a single pass. The revelation is a snapshot and does not
+ * change when the board is reused for another game.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardRevelation {
+
+    private Object board = null;
+    private int rows = 0;
+    private int columns = 0;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private BitSet cellsRevealedByGameEnd = null;
+    private MinesweeperBoardState boardState = null;
+
+    MinesweeperBoardRevelation(Object board, int rows, int columns, BitSet cellsMined, byte[] cellsNeighboringMines, BitSet cellsRevealedByGameEnd, MinesweeperBoardState boardState) {
+        this.setBoard(board);
+        this.setRows(rows);
+        this.setColumns(columns);
+        this.setCellsMined(cellsMined);
+        this.setCellsNeighboringMines(cellsNeighboringMines);
+        this.setCellsRevealedByGameEnd(cellsRevealedByGameEnd);
+        this.setBoardState(boardState);
+    }
+
+    /**
+     * Gets the number of cells that were still closed when the game ended
+     */
+    public int getNumberOfCellsRevealedByGameEnd() {
+        return this.getCellsRevealedByGameEnd().cardinality();
+    }
+
+    /**
+     * Gets the index of the next cell revealed by the end of the game, starting at the given index, or {@code -1} if
+     * there is no such cell. Cell indices are computed as {@code row * columns + column}.
+     */
+    public int nextCellRevealedByGameEnd(int fromCellIndex) {
+        return this.getCellsRevealedByGameEnd().nextSetBit(fromCellIndex);
+    }
+
+    public boolean isRevealedByGameEnd(int cellIndex) {
+        return this.getCellsRevealedByGameEnd().get(cellIndex);
+    }
+
+    public boolean isMined(int cellIndex) {
+        return this.getCellsMined().get(cellIndex);
+    }
+
+    public int getNeighboringMines(int cellIndex) {
+        return this.getCellsNeighboringMines()[cellIndex];
+    }
+
+    public MinesweeperCellPosition getCellPosition(int cellIndex) {
+        return new MinesweeperCellPosition(cellIndex / this.getColumns(), cellIndex % this.getColumns());
+    }
+
+    /**
+     * Creates the revelation object for a single cell revealed by the end of the game
+     */
+    MinesweeperCellRevelation createRevelation(int cellIndex) {
+        MinesweeperCellRevelation cellRevelation = new MinesweeperCellRevelation(new MinesweeperCell(this.getBoard(), this.getCellPosition(cellIndex), this.isMined(cellIndex)));
+        cellRevelation.setMined(this.isMined(cellIndex));
+        cellRevelation.setNeighboringMines(this.getNeighboringMines(cellIndex));
+        cellRevelation.setRevelationType(MinesweeperCellRevelationType.GAME_ENDED);
+        return cellRevelation;
+    }
+
+    @Override
+    public String toString() {
+        return "MinesweeperBoardRevelation[rows=" + this.getRows() + ", columns=" + this.getColumns() + ", boardState=" + this.getBoardState() + "]";
+    }
+
+    private Object getBoard() {
+        return this.board;
+    }
+    private void setBoard(Object board) {
+        this.board = board;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    private BitSet getCellsMined() {
+        return this.cellsMined;
+    }
+    private void setCellsMined(BitSet cellsMined) {
+        this.cellsMined = cellsMined;
+    }
+
+    private byte[] getCellsNeighboringMines() {
+        return this.cellsNeighboringMines;
+    }
+    private void setCellsNeighboringMines(byte[] cellsNeighboringMines) {
+        this.cellsNeighboringMines = cellsNeighboringMines;
+    }
+
+    private BitSet getCellsRevealedByGameEnd() {
+        return this.cellsRevealedByGameEnd;
+    }
+    private void setCellsRevealedByGameEnd(BitSet cellsRevealedByGameEnd) {
+        this.cellsRevealedByGameEnd = cellsRevealedByGameEnd;
+    }
+
+    /**
+     * Gets the state the game has ended in
+     */
+    public MinesweeperBoardState getBoardState() {
+        return this.boardState;
+    }
+    private void setBoardState(MinesweeperBoardState boardState) {
+        this.boardState = boardState;
+    }
+
+}
@@ -0,0 +1,231 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The state of a {@link MinesweeperBoard} at the moment {@link MinesweeperBoard#snapshot()} has been called.
+ *
+ * A snapshot never changes. It shares the revealed and flagged cells with the board it has been taken from, which
+ * copies the parts of its storage it modifies afterwards, so a snapshot only keeps the memory alive that differs from
+ * the board. A snapshot can be used to put the board back into an earlier state using
+ * {@link MinesweeperBoard#restore(MinesweeperBoardSnapshot)} or to branch off an independent game using
+ * {@link MinesweeperBoard#fromSnapshot(MinesweeperBoardSnapshot)}.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardSnapshot {
+
+    private int rows = 0;
+    private int columns = 0;
+    private int minesTotal = 0;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private AtomicInteger layoutVersion = null;
+    private int snapshotLayoutVersion = 0;
+    private MinesweeperCellBitSet cellsRevealed = null;
+    private MinesweeperCellBitSet cellsFlagged = null;
+    private int numberOfCellsRevealed = 0;
+    private int numberOfCellsFlagged = 0;
+    private MinesweeperBoardState boardState = null;
+    private int mineHitCellIndex = 0;
+
+    MinesweeperBoardSnapshot(int rows, int columns, int minesTotal, BitSet cellsMined, byte[] cellsNeighboringMines, AtomicInteger layoutVersion, int snapshotLayoutVersion, MinesweeperCellBitSet cellsRevealed, MinesweeperCellBitSet cellsFlagged, int numberOfCellsRevealed, int numberOfCellsFlagged, MinesweeperBoardState boardState, int mineHitCellIndex) {
+        this.setRows(rows);
+        this.setColumns(columns);
+        this.setMinesTotal(minesTotal);
+        this.setCellsMined(cellsMined);
+        this.setCellsNeighboringMines(cellsNeighboringMines);
+        this.setLayoutVersion(layoutVersion);
+        this.setSnapshotLayoutVersion(snapshotLayoutVersion);
+        this.setCellsRevealed(cellsRevealed);
+        this.setCellsFlagged(cellsFlagged);
+        this.setNumberOfCellsRevealed(numberOfCellsRevealed);
+        this.setNumberOfCellsFlagged(numberOfCellsFlagged);
+        this.setBoardState(boardState);
+        this.setMineHitCellIndex(mineHitCellIndex);
+    }
+
+    /**
+     * Checks whether the cell at the given position had been revealed when the snapshot was taken
+     */
+    public boolean isRevealed(MinesweeperCellPosition cellPosition) {
+        return this.getCellsRevealed().get(this.toCellIndex(cellPosition));
+    }
+
+    /**
+     * Checks whether the cell at the given position had been flagged when the snapshot was taken
+     */
+    public boolean isFlagged(MinesweeperCellPosition cellPosition) {
+        return this.getCellsFlagged().get(this.toCellIndex(cellPosition));
+    }
+
+    /**
+     * Gets the number of mines surrounding the cell at the given position, which is only available if the cell had
+     * been revealed when the snapshot was taken
+     */
+    public int getNeighboringMines(MinesweeperCellPosition cellPosition) {
+        if (!this.isRevealed(cellPosition)) {
+            throw new IllegalStateException("Cell has not been revealed yet: " + cellPosition);
+        } else {
+            return this.getCellsNeighboringMines()[this.toCellIndex(cellPosition)];
+        }
+    }
+
+    /**
+     * Gets the index of the next cell that had been revealed when the snapshot was taken, starting at the given index,
+     * or {@code -1} if there is no such cell. Cell indices are computed as {@code row * columns + column}.
+     */
+    public int nextRevealedCell(int fromCellIndex) {
+        return this.getCellsRevealed().nextSetBit(fromCellIndex);
+    }
+
+    /**
+     * Gets the index of the next cell that had been flagged when the snapshot was taken, starting at the given index,
+     * or {@code -1} if there is no such cell
+     */
+    public int nextFlaggedCell(int fromCellIndex) {
+        return this.getCellsFlagged().nextSetBit(fromCellIndex);
+    }
+
+    /**
+     * Checks whether the revealed cell at the given index contains a mine
+     */
+    public boolean isMined(int cellIndex) {
+        return this.getCellsMined().get(this.verifyRevealed(cellIndex));
+    }
+
+    /**
+     * Gets the number of mines surrounding the revealed cell at the given index
+     */
+    public int getNeighboringMines(int cellIndex) {
+        return this.getCellsNeighboringMines()[this.verifyRevealed(cellIndex)];
+    }
+
+    private int verifyRevealed(int cellIndex) {
+        if (cellIndex < 0 || cellIndex >= this.getRows() * this.getColumns()) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellIndex);
+        } else if (!this.getCellsRevealed().get(cellIndex)) {
+            throw new IllegalStateException("Cell has not been revealed yet: " + cellIndex);
+        } else {
+            return cellIndex;
+        }
+    }
+
+    private int toCellIndex(MinesweeperCellPosition cellPosition) {
+        if (cellPosition == null || cellPosition.getY() < 0 || cellPosition.getY() >= this.getRows() || cellPosition.getX() < 0 || cellPosition.getX() >= this.getColumns()) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            return (cellPosition.getY() * this.getColumns()) + cellPosition.getX();
+        }
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public int getMinesTotal() {
+        return this.minesTotal;
+    }
+    private void setMinesTotal(int minesTotal) {
+        this.minesTotal = minesTotal;
+    }
+
+    BitSet getCellsMined() {
+        return this.cellsMined;
+    }
+    private void setCellsMined(BitSet cellsMined) {
+        this.cellsMined = cellsMined;
+    }
+
+    byte[] getCellsNeighboringMines() {
+        return this.cellsNeighboringMines;
+    }
+    private void setCellsNeighboringMines(byte[] cellsNeighboringMines) {
+        this.cellsNeighboringMines = cellsNeighboringMines;
+    }
+
+    AtomicInteger getLayoutVersion() {
+        return this.layoutVersion;
+    }
+    private void setLayoutVersion(AtomicInteger layoutVersion) {
+        this.layoutVersion = layoutVersion;
+    }
+
+    /**
+     * Gets the version of the mines at the time the snapshot has been taken
+     */
+    int getSnapshotLayoutVersion() {
+        return this.snapshotLayoutVersion;
+    }
+    private void setSnapshotLayoutVersion(int snapshotLayoutVersion) {
+        this.snapshotLayoutVersion = snapshotLayoutVersion;
+    }
+
+    MinesweeperCellBitSet getCellsRevealed() {
+        return this.cellsRevealed;
+    }
+    private void setCellsRevealed(MinesweeperCellBitSet cellsRevealed) {
+        this.cellsRevealed = cellsRevealed;
+    }
+
+    MinesweeperCellBitSet getCellsFlagged() {
+        return this.cellsFlagged;
+    }
+    private void setCellsFlagged(MinesweeperCellBitSet cellsFlagged) {
+        this.cellsFlagged = cellsFlagged;
+    }
+
+    /**
+     * Gets the number of cells that had been revealed when the snapshot was taken
+     */
+    public int getNumberOfCellsRevealed() {
+        return this.numberOfCellsRevealed;
+    }
+    private void setNumberOfCellsRevealed(int numberOfCellsRevealed) {
+        this.numberOfCellsRevealed = numberOfCellsRevealed;
+    }
+
+    /**
+     * Gets the number of cells that had been flagged when the snapshot was taken
+     */
+    public int getNumberOfCellsFlagged() {
+        return this.numberOfCellsFlagged;
+    }
+    private void setNumberOfCellsFlagged(int numberOfCellsFlagged) {
+        this.numberOfCellsFlagged = numberOfCellsFlagged;
+    }
+
+    /**
+     * Gets the state of the board when the snapshot was taken
+     */
+    public MinesweeperBoardState getBoardState() {
+        return this.boardState;
+    }
+    private void setBoardState(MinesweeperBoardState boardState) {
+        this.boardState = boardState;
+    }
+
+    /**
+     * Gets the index of the mine that had ended the game when the snapshot was taken, or {@code -1} if no mine had
+     * been hit
+     */
+    public int getMineHitCellIndex() {
+        return this.mineHitCellIndex;
+    }
+    private void setMineHitCellIndex(int mineHitCellIndex) {
+        this.mineHitCellIndex = mineHitCellIndex;
+    }
+
+}
@@ -0,0 +1,22 @@
+package de.perdian.games.minesweeper.core;
+
+/**
+ * Defines what the {@link MinesweeperBoardBuilder} does if no candidate board has been accepted by the validator
+ * before the validation timeout has passed.
+ *
+ * @author Christian Robert
+ */
+
+public enum MinesweeperBoardValidationFallback {
+
+    /**
+     * Return a board that has not been validated, but still keeps the start cell and its neighbours free of mines
+     */
+    UNVALIDATED_BOARD,
+
+    /**
+     * Fail with an {@link IllegalStateException}
+     */
+    FAIL;
+
+}
@@ -0,0 +1,99 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the candidate boards the {@link MinesweeperBoardBuilder} has validated over its lifetime. All counters are
+ * updated concurrently by the threads validating candidates and may be read at any time.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardValidationMetrics {
+
+    private AtomicLong numberOfBoards = new AtomicLong();
+    private AtomicLong numberOfTimeouts = new AtomicLong();
+    private AtomicLong candidatesValidated = new AtomicLong();
+    private AtomicLong candidatesRejected = new AtomicLong();
+    private AtomicLong validationNanos = new AtomicLong();
+
+    void recordCandidate(boolean accepted, long validationNanos) {
+        this.getCandidatesValidatedCounter().incrementAndGet();
+        if (!accepted) {
+            this.getCandidatesRejectedCounter().incrementAndGet();
+        }
+        this.getValidationNanosCounter().addAndGet(validationNanos);
+    }
+
+    void recordBoard(boolean timedOut) {
+        this.getNumberOfBoardsCounter().incrementAndGet();
+        if (timedOut) {
+            this.getNumberOfTimeoutsCounter().incrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the average time a single candidate has been validated
+     */
+    public double getAverageValidationNanos() {
+        long candidatesValidated = this.getCandidatesValidated();
+        return candidatesValidated == 0 ? 0 : (double)this.getValidationNanos() / candidatesValidated;
+    }
+
+    @Override
+    public String toString() {
+        return "MinesweeperBoardValidationMetrics[numberOfBoards=" + this.getNumberOfBoards() + ", numberOfTimeouts=" + this.getNumberOfTimeouts() + ", candidatesValidated=" + this.getCandidatesValidated() + ", candidatesRejected=" + this.getCandidatesRejected() + "]";
+    }
+
+    /**
+     * Gets the number of boards built in validated mode, including the ones created by a fallback
+     */
+    public long getNumberOfBoards() {
+        return this.getNumberOfBoardsCounter().get();
+    }
+    private AtomicLong getNumberOfBoardsCounter() {
+        return this.numberOfBoards;
+    }
+
+    /**
+     * Gets the number of boards for which no candidate has been accepted before the timeout
+     */
+    public long getNumberOfTimeouts() {
+        return this.getNumberOfTimeoutsCounter().get();
+    }
+    private AtomicLong getNumberOfTimeoutsCounter() {
+        return this.numberOfTimeouts;
+    }
+
+    /**
+     * Gets the number of candidates handed to the validator
+     */
+    public long getCandidatesValidated() {
+        return this.getCandidatesValidatedCounter().get();
+    }
+    private AtomicLong getCandidatesValidatedCounter() {
+        return this.candidatesValidated;
+    }
+
+    /**
+     * Gets the number of candidates the validator did not accept, including the ones cancelled because another
+     * candidate had already been accepted
+     */
+    public long getCandidatesRejected() {
+        return this.getCandidatesRejectedCounter().get();
+    }
+    private AtomicLong getCandidatesRejectedCounter() {
+        return this.candidatesRejected;
+    }
+
+    /**
+     * Gets the time spent validating candidates, summed up over all threads
+     */
+    public long getValidationNanos() {
+        return this.getValidationNanosCounter().get();
+    }
+    private AtomicLong getValidationNanosCounter() {
+        return this.validationNanos;
+    }
+
+}
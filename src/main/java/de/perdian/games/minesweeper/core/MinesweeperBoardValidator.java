@@ -0,0 +1,31 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides whether a candidate board created by the {@link MinesweeperBoardBuilder} may be handed out to a player.
+ *
+ * A validator is called concurrently from several threads, each of them working on its own candidate. The candidate
+ * may be played freely, as the builder puts it back into its initial state before it is used any further.
+ *
+ * @author Christian Robert
+ */
+
+public interface MinesweeperBoardValidator {
+
+    /**
+     * Checks the given candidate board
+     *
+     * @param board
+     *     the candidate, in its initial state
+     * @param startCellPosition
+     *     the cell the player starts with, which is guaranteed to contain neither a mine nor any neighbouring mine
+     * @param cancelled
+     *     tells whether the result is no longer needed, in which case the validation should return {@code false} as
+     *     soon as possible
+     * @return
+     *     whether the candidate is acceptable
+     */
+    boolean validate(MinesweeperBoard board, MinesweeperCellPosition startCellPosition, BooleanSupplier cancelled);
+
+}
@@ -0,0 +1,211 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A bit for every cell of a board, stored in a way that allows the bits to be shared between a board and any number
+ * of snapshots taken from it.
+ *
+ * The bits are split into chunks of {@link #CHUNK_CELLS} cells. Sharing the set hands the same chunks to a new
+ * instance in constant time, after which neither of the two instances owns any of them anymore. A chunk that is not
+ * owned is never modified, instead the first write into it copies the chunk, and the first write after the set has
+ * been shared copies the array of chunk references as well. An instance therefore only allocates memory for the
+ * chunks that have been changed since it was shared. Chunks without any bit set are not allocated at all.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperCellBitSet {
+
+    static final int CHUNK_SHIFT = 12;
+    static final int CHUNK_CELLS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_WORDS = CHUNK_CELLS / Long.SIZE;
+    private static final long[] FULL_CHUNK = createFullChunk(CHUNK_CELLS);
+
+    private int numberOfCells = 0;
+    private long[][] chunks = null;
+    private boolean[] chunksOwned = null;
+
+    MinesweeperCellBitSet(int numberOfCells) {
+        this(numberOfCells, new long[computeNumberOfChunks(numberOfCells)][], new boolean[computeNumberOfChunks(numberOfCells)]);
+    }
+
+    private MinesweeperCellBitSet(int numberOfCells, long[][] chunks, boolean[] chunksOwned) {
+        this.setNumberOfCells(numberOfCells);
+        this.setChunks(chunks);
+        this.setChunksOwned(chunksOwned);
+    }
+
+    /**
+     * Creates a set containing the bits of the given {@link BitSet}, ignoring all bits outside of the board
+     */
+    static MinesweeperCellBitSet valueOf(BitSet bits, int numberOfCells) {
+        MinesweeperCellBitSet cellBits = new MinesweeperCellBitSet(numberOfCells);
+        long[] words = bits.get(0, numberOfCells).toLongArray();
+        long[][] chunks = cellBits.getChunks();
+        for (int chunkIndex = 0; chunkIndex < chunks.length && chunkIndex * CHUNK_WORDS < words.length; chunkIndex++) {
+            chunks[chunkIndex] = Arrays.copyOfRange(words, chunkIndex * CHUNK_WORDS, (chunkIndex + 1) * CHUNK_WORDS);
+            cellBits.getChunksOwned()[chunkIndex] = true;
+        }
+        return cellBits;
+    }
+
+    /**
+     * Creates a new set that shares all chunks with this one. Neither this set nor the new set will modify any of
+     * the chunks afterwards, but copy them on their first write.
+     */
+    MinesweeperCellBitSet share() {
+        this.setChunksOwned(null);
+        return new MinesweeperCellBitSet(this.getNumberOfCells(), this.getChunks(), null);
+    }
+
+    boolean get(int cellIndex) {
+        long[] chunk = this.getChunks()[cellIndex >>> CHUNK_SHIFT];
+        return chunk != null && (chunk[(cellIndex & (CHUNK_CELLS - 1)) >>> 6] & (1L << cellIndex)) != 0;
+    }
+
+    void set(int cellIndex) {
+        if (!this.get(cellIndex)) {
+            this.getWritableChunk(cellIndex >>> CHUNK_SHIFT)[(cellIndex & (CHUNK_CELLS - 1)) >>> 6] |= 1L << cellIndex;
+        }
+    }
+
+    void set(int cellIndex, boolean value) {
+        if (value) {
+            this.set(cellIndex);
+        } else {
+            this.clear(cellIndex);
+        }
+    }
+
+    void clear(int cellIndex) {
+        if (this.get(cellIndex)) {
+            this.getWritableChunk(cellIndex >>> CHUNK_SHIFT)[(cellIndex & (CHUNK_CELLS - 1)) >>> 6] &= ~(1L << cellIndex);
+        }
+    }
+
+    /**
+     * Sets the bits of all cells. Chunks that are completely filled are shared with every other set, so a board on
+     * which all cells have been revealed only needs memory for its last, partially filled chunk.
+     */
+    void setAll() {
+        long[][] chunks = new long[this.getChunks().length][];
+        Arrays.fill(chunks, FULL_CHUNK);
+        int cellsInLastChunk = this.getNumberOfCells() - ((chunks.length - 1) << CHUNK_SHIFT);
+        if (chunks.length > 0 && cellsInLastChunk < CHUNK_CELLS) {
+            chunks[chunks.length - 1] = createFullChunk(cellsInLastChunk);
+        }
+        this.setChunks(chunks);
+        this.setChunksOwned(null);
+    }
+
+    void clearAll() {
+        this.setChunks(new long[this.getChunks().length][]);
+        this.setChunksOwned(new boolean[this.getChunks().length]);
+    }
+
+    int nextSetBit(int fromCellIndex) {
+        for (int cellIndex = Math.max(0, fromCellIndex); cellIndex < this.getNumberOfCells(); cellIndex = ((cellIndex >>> CHUNK_SHIFT) + 1) << CHUNK_SHIFT) {
+            long[] chunk = this.getChunks()[cellIndex >>> CHUNK_SHIFT];
+            if (chunk != null) {
+                int chunkStart = cellIndex & ~(CHUNK_CELLS - 1);
+                for (int wordIndex = (cellIndex - chunkStart) >>> 6; wordIndex < CHUNK_WORDS; wordIndex++) {
+                    long word = chunk[wordIndex] & (wordIndex == (cellIndex - chunkStart) >>> 6 ? -1L << cellIndex : -1L);
+                    if (word != 0) {
+                        return chunkStart + (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    int nextClearBit(int fromCellIndex) {
+        int cellIndex = Math.max(0, fromCellIndex);
+        while (cellIndex < this.getNumberOfCells() && this.get(cellIndex)) {
+            cellIndex++;
+        }
+        return cellIndex;
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (long[] chunk : this.getChunks()) {
+            if (chunk != null) {
+                for (long word : chunk) {
+                    cardinality += Long.bitCount(word);
+                }
+            }
+        }
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return this.nextSetBit(0) < 0;
+    }
+
+    long[] toLongArray() {
+        long[] words = new long[(this.getNumberOfCells() + Long.SIZE - 1) / Long.SIZE];
+        long[][] chunks = this.getChunks();
+        for (int chunkIndex = 0; chunkIndex < chunks.length; chunkIndex++) {
+            if (chunks[chunkIndex] != null) {
+                int firstWord = chunkIndex * CHUNK_WORDS;
+                System.arraycopy(chunks[chunkIndex], 0, words, firstWord, Math.min(CHUNK_WORDS, words.length - firstWord));
+            }
+        }
+        return words;
+    }
+
+    BitSet toBitSet() {
+        return BitSet.valueOf(this.toLongArray());
+    }
+
+    private long[] getWritableChunk(int chunkIndex) {
+        if (this.getChunksOwned() == null) {
+            this.setChunks(this.getChunks().clone());
+            this.setChunksOwned(new boolean[this.getChunks().length]);
+        }
+        if (!this.getChunksOwned()[chunkIndex]) {
+            long[] chunk = this.getChunks()[chunkIndex];
+            this.getChunks()[chunkIndex] = chunk == null ? new long[CHUNK_WORDS] : chunk.clone();
+            this.getChunksOwned()[chunkIndex] = true;
+        }
+        return this.getChunks()[chunkIndex];
+    }
+
+    private static long[] createFullChunk(int numberOfCells) {
+        long[] chunk = new long[CHUNK_WORDS];
+        Arrays.fill(chunk, 0, numberOfCells >>> 6, -1L);
+        if ((numberOfCells & 63) != 0) {
+            chunk[numberOfCells >>> 6] = (1L << numberOfCells) - 1;
+        }
+        return chunk;
+    }
+
+    private static int computeNumberOfChunks(int numberOfCells) {
+        return (numberOfCells + CHUNK_CELLS - 1) >>> CHUNK_SHIFT;
+    }
+
+    private int getNumberOfCells() {
+        return this.numberOfCells;
+    }
+    private void setNumberOfCells(int numberOfCells) {
+        this.numberOfCells = numberOfCells;
+    }
+
+    private long[][] getChunks() {
+        return this.chunks;
+    }
+    private void setChunks(long[][] chunks) {
+        this.chunks = chunks;
+    }
+
+    private boolean[] getChunksOwned() {
+        return this.chunksOwned;
+    }
+    private void setChunksOwned(boolean[] chunksOwned) {
+        this.chunksOwned = chunksOwned;
+    }
+
+}
@@ -0,0 +1,200 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * All cells that have been opened by a single operation on the board, together with the board counters as they
+ * were after the operation completed.
+ *
+ * The cells are stored in compact primitive form and are only turned into {@link MinesweeperCellRevelation} objects
+ * when explicitly requested, so that even very large flood fills can be dispatched to listeners cheaply. Cells of a
+ * {@link MinesweeperChunkedBoard}, whose indices may exceed the range of an int, are stored as packed positions.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperCellRevelationBatch {
+
+    static final int NEIGHBORING_MINES_MASK = 0x0F;
+    static final int MINED_FLAG = 0x10;
+    static final int REVELATION_TYPE_SHIFT = 5;
+
+    private Object board = null;
+    private int columns = 0;
+    private int[] cellIndices = null;
+    private long[] cellPositions = null;
+    private byte[] cellInformation = null;
+    private long numberOfCellsRevealed = 0;
+    private long numberOfCellsClosed = 0;
+    private MinesweeperBoardState boardState = null;
+
+    MinesweeperCellRevelationBatch(Object board, int columns, int[] cellIndices, byte[] cellInformation, long numberOfCellsRevealed, long numberOfCellsClosed, MinesweeperBoardState boardState) {
+        this.setBoard(board);
+        this.setColumns(columns);
+        this.setCellIndices(cellIndices);
+        this.setCellInformation(cellInformation);
+        this.setNumberOfCellsRevealed(numberOfCellsRevealed);
+        this.setNumberOfCellsClosed(numberOfCellsClosed);
+        this.setBoardState(boardState);
+    }
+
+    /**
+     * Creates a batch for a board whose cells are identified by their positions, each packed into a {@code long}
+     * as {@code row << 32 | column}
+     */
+    MinesweeperCellRevelationBatch(Object board, int columns, long[] cellPositions, byte[] cellInformation, long numberOfCellsRevealed, long numberOfCellsClosed, MinesweeperBoardState boardState) {
+        this.setBoard(board);
+        this.setColumns(columns);
+        this.setCellPositions(cellPositions);
+        this.setCellInformation(cellInformation);
+        this.setNumberOfCellsRevealed(numberOfCellsRevealed);
+        this.setNumberOfCellsClosed(numberOfCellsClosed);
+        this.setBoardState(boardState);
+    }
+
+    static byte encodeCellInformation(boolean mined, int neighboringMines, MinesweeperCellRevelationType revelationType) {
+        return (byte)((mined ? MINED_FLAG : 0) | (neighboringMines & NEIGHBORING_MINES_MASK) | (revelationType.ordinal() << REVELATION_TYPE_SHIFT));
+    }
+
+    /**
+     * Gets the number of cells that have been revealed within this batch
+     */
+    public int getSize() {
+        return this.getCellInformation().length;
+    }
+
+    /**
+     * Gets the index of the revealed cell on the board, computed as {@code row * columns + column}
+     *
+     * @throws ArithmeticException
+     *     if the index exceeds the range of an int, which can only happen on a {@link MinesweeperChunkedBoard}
+     */
+    public int getCellIndex(int index) {
+        if (this.getCellIndices() != null) {
+            return this.getCellIndices()[index];
+        } else {
+            long cellPosition = this.getCellPositions()[index];
+            return Math.toIntExact(((cellPosition >>> 32) * this.getColumns()) + (int)cellPosition);
+        }
+    }
+
+    public MinesweeperCellPosition getCellPosition(int index) {
+        if (this.getCellIndices() != null) {
+            return new MinesweeperCellPosition(this.getCellIndex(index) / this.getColumns(), this.getCellIndex(index) % this.getColumns());
+        } else {
+            long cellPosition = this.getCellPositions()[index];
+            return new MinesweeperCellPosition((int)(cellPosition >>> 32), (int)cellPosition);
+        }
+    }
+
+    public boolean isMined(int index) {
+        return (this.getCellInformation()[index] & MINED_FLAG) != 0;
+    }
+
+    public int getNeighboringMines(int index) {
+        return this.getCellInformation()[index] & NEIGHBORING_MINES_MASK;
+    }
+
+    public MinesweeperCellRevelationType getRevelationType(int index) {
+        return MinesweeperCellRevelationType.values()[(this.getCellInformation()[index] & 0xFF) >> REVELATION_TYPE_SHIFT];
+    }
+
+    /**
+     * Creates the revelation object for a single cell within this batch
+     */
+    public MinesweeperCellRevelation getRevelation(int index) {
+        MinesweeperCellPosition cellPosition = this.getCellPosition(index);
+        MinesweeperCellRevelation cellRevelation = new MinesweeperCellRevelation(new MinesweeperCell(this.getBoard(), cellPosition, this.isMined(index)));
+        cellRevelation.setMined(this.isMined(index));
+        cellRevelation.setNeighboringMines(this.getNeighboringMines(index));
+        cellRevelation.setRevelationType(this.getRevelationType(index));
+        return cellRevelation;
+    }
+
+    /**
+     * Gets a view of all revelations within this batch. The revelation objects are created on demand whenever an
+     * element of the list is accessed.
+     */
+    public List<MinesweeperCellRevelation> getRevelations() {
+        return new AbstractList<>() {
+            @Override public MinesweeperCellRevelation get(int index) {
+                return MinesweeperCellRevelationBatch.this.getRevelation(index);
+            }
+            @Override public int size() {
+                return MinesweeperCellRevelationBatch.this.getSize();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "MinesweeperCellRevelationBatch[size=" + this.getSize() + ", boardState=" + this.getBoardState() + "]";
+    }
+
+    private Object getBoard() {
+        return this.board;
+    }
+    private void setBoard(Object board) {
+        this.board = board;
+    }
+
+    private int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    private int[] getCellIndices() {
+        return this.cellIndices;
+    }
+    private void setCellIndices(int[] cellIndices) {
+        this.cellIndices = cellIndices;
+    }
+
+    private long[] getCellPositions() {
+        return this.cellPositions;
+    }
+    private void setCellPositions(long[] cellPositions) {
+        this.cellPositions = cellPositions;
+    }
+
+    private byte[] getCellInformation() {
+        return this.cellInformation;
+    }
+    private void setCellInformation(byte[] cellInformation) {
+        this.cellInformation = cellInformation;
+    }
+
+    /**
+     * Gets the number of revealed cells on the board after the operation has been completed
+     */
+    public long getNumberOfCellsRevealed() {
+        return this.numberOfCellsRevealed;
+    }
+    private void setNumberOfCellsRevealed(long numberOfCellsRevealed) {
+        this.numberOfCellsRevealed = numberOfCellsRevealed;
+    }
+
+    /**
+     * Gets the number of closed cells on the board after the operation has been completed
+     */
+    public long getNumberOfCellsClosed() {
+        return this.numberOfCellsClosed;
+    }
+    private void setNumberOfCellsClosed(long numberOfCellsClosed) {
+        this.numberOfCellsClosed = numberOfCellsClosed;
+    }
+
+    /**
+     * Gets the state of the board after the operation has been completed
+     */
+    public MinesweeperBoardState getBoardState() {
+        return this.boardState;
+    }
+    private void setBoardState(MinesweeperBoardState boardState) {
+        this.boardState = boardState;
+    }
+
+}
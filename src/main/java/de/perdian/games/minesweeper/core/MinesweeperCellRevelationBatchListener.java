@@ -0,0 +1,15 @@
+package de.perdian.games.minesweeper.core;
+
+public interface MinesweeperCellRevelationBatchListener {
+
+    default void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+    }
+
+    /**
+     * Called once when the game has ended, directly after the batch of the operation that ended it. All cells still
+     * closed at that moment are only contained within the given revelation, not within the batch.
+     */
+    default void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+    }
+
+}
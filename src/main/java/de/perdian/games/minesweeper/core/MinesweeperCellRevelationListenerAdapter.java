@@ -0,0 +1,55 @@
+package de.perdian.games.minesweeper.core;
+
+/**
+ * Forwards every cell of a batch to a listener that is only interested in single cells. The cells revealed by the
+ * end of the game are forwarded one by one as well.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperCellRevelationListenerAdapter implements MinesweeperCellRevelationBatchListener {
+
+    private MinesweeperCellRevelationListener delegate = null;
+
+    MinesweeperCellRevelationListenerAdapter(MinesweeperCellRevelationListener delegate) {
+        this.setDelegate(delegate);
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        for (int index = 0; index < cellRevelationBatch.getSize(); index++) {
+            this.getDelegate().cellRevealed(cellRevelationBatch.getRevelation(index));
+        }
+    }
+
+    @Override
+    public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+        for (int cellIndex = boardRevelation.nextCellRevealedByGameEnd(0); cellIndex >= 0; cellIndex = boardRevelation.nextCellRevealedByGameEnd(cellIndex + 1)) {
+            this.getDelegate().cellRevealed(boardRevelation.createRevelation(cellIndex));
+        }
+    }
+
+    @Override
+    public boolean equals(Object that) {
+        if (this == that) {
+            return true;
+        } else if (that instanceof MinesweeperCellRevelationListenerAdapter) {
+            return this.getDelegate().equals(((MinesweeperCellRevelationListenerAdapter)that).getDelegate());
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return this.getDelegate().hashCode();
+    }
+
+    private MinesweeperCellRevelationListener getDelegate() {
+        return this.delegate;
+    }
+    private void setDelegate(MinesweeperCellRevelationListener delegate) {
+        this.delegate = delegate;
+    }
+
+}
@@ -4,6 +4,7 @@ public enum MinesweeperCellRevelationType {
 
     MANUALLY,
     AUTOMATICALLY,
-    GAME_ENDED;
+    GAME_ENDED,
+    CHORDED;
 
 }
@@ -0,0 +1,589 @@
+package de.perdian.games.minesweeper.core;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A board that is split into square chunks, which are only generated when a reveal first touches them.
+ *
+ * The mines of every chunk are derived from the board seed and the chunk coordinates, so a chunk that has been
+ * evicted can always be regenerated. Only the revealed cells of a chunk need to be kept, either in memory in
+ * compact form or within the spill directory. The memory needed by the board therefore depends on the area that
+ * has been explored and not on the nominal size of the board.
+ *
+ * Other than on a {@link MinesweeperBoard} the remaining cells are not revealed when the game ends, as the board
+ * may be far too large to do so. Instead {@link #isMined(MinesweeperCellPosition)} can be used to look at any cell
+ * once the game is over. A board spilling its chunks to disk should be closed when it is not needed anymore, so that
+ * the files of chunks that have never been loaded again are removed.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperChunkedBoard implements Closeable {
+
+    private int rows = 0;
+    private int columns = 0;
+    private double mineDensity = 0d;
+    private int chunkSize = 0;
+    private long seed = 0;
+    private long minesTotal = 0;
+    private int maximumLoadedChunks = 0;
+    private Path spillDirectory = null;
+    private MinesweeperBoardState boardState = MinesweeperBoardState.RUNNING;
+    private long numberOfCellsRevealed = 0;
+    private Map<Long, MinesweeperBoardChunk> loadedChunks = null;
+    private Map<Long, byte[]> evictedChunks = null;
+    private long[] floodFillStack = null;
+    private long[] revelationBufferCells = null;
+    private byte[] revelationBufferInformation = null;
+    private int revelationBufferSize = 0;
+    private List<MinesweeperCellRevelationBatchListener> cellRevelationBatchListeners = null;
+    private List<MinesweeperBoardListener> boardListeners = null;
+
+    MinesweeperChunkedBoard(int rows, int columns, double mineDensity, int chunkSize, long seed, int maximumLoadedChunks, Path spillDirectory) {
+        this.setRows(rows);
+        this.setColumns(columns);
+        this.setMineDensity(mineDensity);
+        this.setChunkSize(chunkSize);
+        this.setSeed(seed);
+        this.setMaximumLoadedChunks(maximumLoadedChunks);
+        this.setSpillDirectory(spillDirectory);
+        this.setMinesTotal(this.computeMinesTotal());
+        this.setLoadedChunks(new LinkedHashMap<>(16, 0.75f, true));
+        this.setEvictedChunks(new HashMap<>());
+        this.setFloodFillStack(new long[64]);
+        this.setRevelationBufferCells(new long[64]);
+        this.setRevelationBufferInformation(new byte[64]);
+        this.setCellRevelationBatchListeners(new CopyOnWriteArrayList<>());
+        this.setBoardListeners(new CopyOnWriteArrayList<>());
+    }
+
+    /**
+     * Reveal the underside of a cell
+     */
+    public synchronized MinesweeperCellRevelation reveal(MinesweeperCellPosition cellPosition) {
+        if (MinesweeperBoardState.COMPLETED_MINE_HIT.equals(this.getBoardState())) {
+            throw new IllegalStateException("Mine has been hit, the game is over!");
+        } else if (MinesweeperBoardState.COMPLETED_WON.equals(this.getBoardState())) {
+            throw new IllegalStateException("All cells have been revealed, the game is over!");
+        } else if (!this.isValidPosition(cellPosition.getY(), cellPosition.getX())) {
+            throw new IllegalStateException("Cell cannot be found or has already been revealed");
+        } else if (this.isRevealed(cellPosition)) {
+            throw new IllegalStateException("Cell is already revealed");
+        } else {
+
+            MinesweeperBoardState previousBoardState = this.getBoardState();
+            this.setRevelationBufferSize(0);
+            this.revealCell(cellPosition.getY(), cellPosition.getX(), MinesweeperCellRevelationType.MANUALLY);
+            if (MinesweeperBoardState.RUNNING.equals(this.getBoardState()) && this.getNeighboringMinesAt(cellPosition.getY(), cellPosition.getX()) == 0) {
+                this.revealAdjacentCells(cellPosition.getY(), cellPosition.getX());
+            }
+            MinesweeperCellRevelationBatch cellRevelationBatch = this.createBatch();
+            this.getCellRevelationBatchListeners().forEach(listener -> listener.cellsRevealed(cellRevelationBatch));
+            if (!previousBoardState.equals(this.getBoardState())) {
+                this.getBoardListeners().forEach(listener -> listener.boardStateUpdated(this.getBoardState()));
+            }
+            return cellRevelationBatch.getRevelation(0);
+
+        }
+    }
+
+    private void revealCell(int row, int column, MinesweeperCellRevelationType cellRevelationType) {
+
+        MinesweeperBoardChunk chunk = this.getChunk(row, column);
+        int localIndex = chunk.toLocalIndex(row, column);
+        boolean mined = chunk.getCellsMined().get(localIndex);
+        chunk.getCellsRevealed().set(localIndex);
+        this.setNumberOfCellsRevealed(this.getNumberOfCellsRevealed() + 1);
+        this.appendToRevelationBuffer(packPosition(row, column), MinesweeperCellRevelationBatch.encodeCellInformation(mined, chunk.getCellsNeighboringMines()[localIndex], cellRevelationType));
+
+        if (mined) {
+            this.setBoardState(MinesweeperBoardState.COMPLETED_MINE_HIT);
+        } else if (this.getNumberOfCellsClosed() == this.getMinesTotal()) {
+            this.setBoardState(MinesweeperBoardState.COMPLETED_WON);
+        }
+
+    }
+
+    private void appendToRevelationBuffer(long cellPosition, byte cellInformation) {
+        int bufferSize = this.getRevelationBufferSize();
+        if (this.getRevelationBufferCells().length == bufferSize) {
+            this.setRevelationBufferCells(Arrays.copyOf(this.getRevelationBufferCells(), bufferSize * 2));
+            this.setRevelationBufferInformation(Arrays.copyOf(this.getRevelationBufferInformation(), bufferSize * 2));
+        }
+        this.getRevelationBufferCells()[bufferSize] = cellPosition;
+        this.getRevelationBufferInformation()[bufferSize] = cellInformation;
+        this.setRevelationBufferSize(bufferSize + 1);
+    }
+
+    /**
+     * Hands all cells opened by the current reveal to the listeners as a single batch. The cells are identified by
+     * their positions, as the indices of the cells may exceed the range of an int.
+     */
+    private MinesweeperCellRevelationBatch createBatch() {
+        long[] cellPositions = Arrays.copyOf(this.getRevelationBufferCells(), this.getRevelationBufferSize());
+        byte[] cellInformation = Arrays.copyOf(this.getRevelationBufferInformation(), this.getRevelationBufferSize());
+        return new MinesweeperCellRevelationBatch(this, this.getColumns(), cellPositions, cellInformation, this.getNumberOfCellsRevealed(), this.getNumberOfCellsClosed(), this.getBoardState());
+    }
+
+    /**
+     * Opens the region of empty cells around the given source cell, expanding the cells in the same depth-first
+     * order as {@link MinesweeperBoard} does. Chunks are loaded as soon as the flood fill reaches them.
+     */
+    private void revealAdjacentCells(int sourceRow, int sourceColumn) {
+        int stackSize = this.pushAdjacentCells(sourceRow, sourceColumn, 0);
+        while (stackSize > 0 && MinesweeperBoardState.RUNNING.equals(this.getBoardState())) {
+            long packedPosition = this.getFloodFillStack()[--stackSize];
+            int row = (int)(packedPosition >>> 32);
+            int column = (int)packedPosition;
+            MinesweeperBoardChunk chunk = this.getChunk(row, column);
+            int localIndex = chunk.toLocalIndex(row, column);
+            if (!chunk.getCellsRevealed().get(localIndex)) {
+                this.revealCell(row, column, MinesweeperCellRevelationType.AUTOMATICALLY);
+                if (chunk.getCellsNeighboringMines()[localIndex] == 0) {
+                    stackSize = this.pushAdjacentCells(row, column, stackSize);
+                }
+            }
+        }
+    }
+
+    private int pushAdjacentCells(int row, int column, int stackSize) {
+        if (this.getFloodFillStack().length < stackSize + 4) {
+            this.setFloodFillStack(Arrays.copyOf(this.getFloodFillStack(), Math.max(this.getFloodFillStack().length * 2, stackSize + 4)));
+        }
+        long[] stack = this.getFloodFillStack();
+        if (row < this.getRows() - 1 && this.isCellClosedAndEmpty(row + 1, column)) {
+            stack[stackSize++] = packPosition(row + 1, column);
+        }
+        if (column < this.getColumns() - 1 && this.isCellClosedAndEmpty(row, column + 1)) {
+            stack[stackSize++] = packPosition(row, column + 1);
+        }
+        if (column > 0 && this.isCellClosedAndEmpty(row, column - 1)) {
+            stack[stackSize++] = packPosition(row, column - 1);
+        }
+        if (row > 0 && this.isCellClosedAndEmpty(row - 1, column)) {
+            stack[stackSize++] = packPosition(row - 1, column);
+        }
+        return stackSize;
+    }
+
+    private boolean isCellClosedAndEmpty(int row, int column) {
+        MinesweeperBoardChunk chunk = this.getChunk(row, column);
+        int localIndex = chunk.toLocalIndex(row, column);
+        return !chunk.getCellsRevealed().get(localIndex) && !chunk.getCellsMined().get(localIndex);
+    }
+
+    private static long packPosition(int row, int column) {
+        return ((long)row << 32) | (column & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Checks whether the cell at the given position has already been revealed
+     */
+    public synchronized boolean isRevealed(MinesweeperCellPosition cellPosition) {
+        if (!this.isValidPosition(cellPosition.getY(), cellPosition.getX())) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        }
+        MinesweeperBoardChunk chunk = this.getChunk(cellPosition.getY(), cellPosition.getX());
+        return chunk.getCellsRevealed().get(chunk.toLocalIndex(cellPosition.getY(), cellPosition.getX()));
+    }
+
+    /**
+     * Checks whether the cell at the given position contains a mine. This information is only available after
+     * the game has ended.
+     */
+    public synchronized boolean isMined(MinesweeperCellPosition cellPosition) {
+        if (MinesweeperBoardState.RUNNING.equals(this.getBoardState())) {
+            throw new IllegalStateException("Mines cannot be inspected while the game is still running");
+        } else if (!this.isValidPosition(cellPosition.getY(), cellPosition.getX())) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            return this.isMinedAt(cellPosition.getY(), cellPosition.getX());
+        }
+    }
+
+    boolean isMinedAt(int row, int column) {
+        MinesweeperBoardChunk chunk = this.getChunk(row, column);
+        return chunk.getCellsMined().get(chunk.toLocalIndex(row, column));
+    }
+
+    int getNeighboringMinesAt(int row, int column) {
+        MinesweeperBoardChunk chunk = this.getChunk(row, column);
+        return chunk.getCellsNeighboringMines()[chunk.toLocalIndex(row, column)];
+    }
+
+    private boolean isValidPosition(int row, int column) {
+        return row >= 0 && row < this.getRows() && column >= 0 && column < this.getColumns();
+    }
+
+    private MinesweeperBoardChunk getChunk(int row, int column) {
+        int chunkRow = row / this.getChunkSize();
+        int chunkColumn = column / this.getChunkSize();
+        Long chunkKey = Long.valueOf(packPosition(chunkRow, chunkColumn));
+        MinesweeperBoardChunk chunk = this.getLoadedChunks().get(chunkKey);
+        if (chunk == null) {
+            chunk = this.loadChunk(chunkRow, chunkColumn, this.restoreCellsRevealed(chunkKey));
+            this.getLoadedChunks().put(chunkKey, chunk);
+            this.evictChunks();
+        }
+        return chunk;
+    }
+
+    private MinesweeperBoardChunk loadChunk(int chunkRow, int chunkColumn, BitSet cellsRevealed) {
+        int firstRow = chunkRow * this.getChunkSize();
+        int firstColumn = chunkColumn * this.getChunkSize();
+        int height = Math.min(this.getChunkSize(), this.getRows() - firstRow);
+        int width = Math.min(this.getChunkSize(), this.getColumns() - firstColumn);
+        BitSet cellsMined = this.generateChunkMines(chunkRow, chunkColumn);
+        byte[] cellsNeighboringMines = new byte[height * width];
+        for (int neighborChunkRow = Math.max(0, chunkRow - 1); neighborChunkRow <= Math.min(this.getNumberOfChunkRows() - 1, chunkRow + 1); neighborChunkRow++) {
+            for (int neighborChunkColumn = Math.max(0, chunkColumn - 1); neighborChunkColumn <= Math.min(this.getNumberOfChunkColumns() - 1, chunkColumn + 1); neighborChunkColumn++) {
+                BitSet neighborCellsMined = neighborChunkRow == chunkRow && neighborChunkColumn == chunkColumn ? cellsMined : this.generateChunkMines(neighborChunkRow, neighborChunkColumn);
+                int neighborFirstRow = neighborChunkRow * this.getChunkSize();
+                int neighborFirstColumn = neighborChunkColumn * this.getChunkSize();
+                int neighborWidth = Math.min(this.getChunkSize(), this.getColumns() - neighborFirstColumn);
+                for (int mineIndex = neighborCellsMined.nextSetBit(0); mineIndex >= 0; mineIndex = neighborCellsMined.nextSetBit(mineIndex + 1)) {
+                    int mineRow = neighborFirstRow + (mineIndex / neighborWidth);
+                    int mineColumn = neighborFirstColumn + (mineIndex % neighborWidth);
+                    for (int row = Math.max(firstRow, mineRow - 1); row <= Math.min(firstRow + height - 1, mineRow + 1); row++) {
+                        for (int column = Math.max(firstColumn, mineColumn - 1); column <= Math.min(firstColumn + width - 1, mineColumn + 1); column++) {
+                            if (row != mineRow || column != mineColumn) {
+                                cellsNeighboringMines[((row - firstRow) * width) + (column - firstColumn)]++;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new MinesweeperBoardChunk(firstRow, firstColumn, height, width, cellsMined, cellsNeighboringMines, cellsRevealed);
+    }
+
+    private BitSet generateChunkMines(int chunkRow, int chunkColumn) {
+        int height = Math.min(this.getChunkSize(), this.getRows() - (chunkRow * this.getChunkSize()));
+        int width = Math.min(this.getChunkSize(), this.getColumns() - (chunkColumn * this.getChunkSize()));
+        return MinesweeperBoardBuilder.placeMines(height * width, this.computeNumberOfMinesInChunk(height, width), new MinesweeperRandom(computeChunkSeed(this.getSeed(), chunkRow, chunkColumn)));
+    }
+
+    private int computeNumberOfMinesInChunk(int height, int width) {
+        return (int)Math.min((height * width) - 1, Math.round(this.getMineDensity() * height * width));
+    }
+
+    private long computeMinesTotal() {
+        int fullChunkRows = this.getRows() / this.getChunkSize();
+        int fullChunkColumns = this.getColumns() / this.getChunkSize();
+        int remainingRows = this.getRows() % this.getChunkSize();
+        int remainingColumns = this.getColumns() % this.getChunkSize();
+        long minesTotal = (long)fullChunkRows * fullChunkColumns * this.computeNumberOfMinesInChunk(this.getChunkSize(), this.getChunkSize());
+        if (remainingColumns > 0) {
+            minesTotal += (long)fullChunkRows * this.computeNumberOfMinesInChunk(this.getChunkSize(), remainingColumns);
+        }
+        if (remainingRows > 0) {
+            minesTotal += (long)fullChunkColumns * this.computeNumberOfMinesInChunk(remainingRows, this.getChunkSize());
+        }
+        if (remainingRows > 0 && remainingColumns > 0) {
+            minesTotal += this.computeNumberOfMinesInChunk(remainingRows, remainingColumns);
+        }
+        return minesTotal;
+    }
+
+    /**
+     * Derives the seed for a single chunk from the board seed, using the SplitMix64 finalizer so that neighboring
+     * chunks get unrelated mine layouts
+     */
+    static long computeChunkSeed(long seed, int chunkRow, int chunkColumn) {
+        return MinesweeperBoardBuilder.mixSeed(seed, packPosition(chunkRow, chunkColumn));
+    }
+
+    /**
+     * Removes the least recently used chunks until the number of loaded chunks fits into the configured budget.
+     * Chunks without any revealed cells are simply dropped, as they can be regenerated completely from the seed.
+     */
+    private void evictChunks() {
+        Iterator<Map.Entry<Long, MinesweeperBoardChunk>> chunkIterator = this.getLoadedChunks().entrySet().iterator();
+        while (this.getLoadedChunks().size() > this.getMaximumLoadedChunks() && chunkIterator.hasNext()) {
+            Map.Entry<Long, MinesweeperBoardChunk> chunkEntry = chunkIterator.next();
+            if (!chunkEntry.getValue().getCellsRevealed().isEmpty()) {
+                this.storeCellsRevealed(chunkEntry.getKey(), chunkEntry.getValue().getCellsRevealed());
+            }
+            chunkIterator.remove();
+        }
+    }
+
+    private void storeCellsRevealed(Long chunkKey, BitSet cellsRevealed) {
+        if (this.getSpillDirectory() == null) {
+            this.getEvictedChunks().put(chunkKey, cellsRevealed.toByteArray());
+        } else {
+            try {
+                Files.write(this.resolveSpillFile(chunkKey), cellsRevealed.toByteArray());
+                this.getEvictedChunks().put(chunkKey, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write evicted chunk to spill directory: " + this.getSpillDirectory(), e);
+            }
+        }
+    }
+
+    private BitSet restoreCellsRevealed(Long chunkKey) {
+        if (!this.getEvictedChunks().containsKey(chunkKey)) {
+            return new BitSet();
+        } else {
+            byte[] cellsRevealedBytes = this.getEvictedChunks().remove(chunkKey);
+            if (cellsRevealedBytes == null) {
+                try {
+                    cellsRevealedBytes = Files.readAllBytes(this.resolveSpillFile(chunkKey));
+                    Files.delete(this.resolveSpillFile(chunkKey));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read evicted chunk from spill directory: " + this.getSpillDirectory(), e);
+                }
+            }
+            return BitSet.valueOf(cellsRevealedBytes);
+        }
+    }
+
+    /**
+     * Deletes the files of all chunks that have been spilled to disk and discards all chunks held in memory. The
+     * board must not be used anymore afterwards.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        IOException deleteException = null;
+        for (Map.Entry<Long, byte[]> evictedChunk : this.getEvictedChunks().entrySet()) {
+            if (evictedChunk.getValue() == null) {
+                try {
+                    Files.deleteIfExists(this.resolveSpillFile(evictedChunk.getKey()));
+                } catch (IOException e) {
+                    if (deleteException == null) {
+                        deleteException = e;
+                    } else {
+                        deleteException.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        this.getEvictedChunks().clear();
+        this.getLoadedChunks().clear();
+        if (deleteException != null) {
+            throw deleteException;
+        }
+    }
+
+    private Path resolveSpillFile(Long chunkKey) {
+        return this.getSpillDirectory().resolve("chunk-" + (chunkKey.longValue() >>> 32) + "-" + (chunkKey.longValue() & 0xFFFFFFFFL) + ".bin");
+    }
+
+    private int getNumberOfChunkRows() {
+        return ((this.getRows() - 1) / this.getChunkSize()) + 1;
+    }
+
+    private int getNumberOfChunkColumns() {
+        return ((this.getColumns() - 1) / this.getChunkSize()) + 1;
+    }
+
+    /**
+     * Gets the number of chunks that are currently held in memory
+     */
+    public synchronized int getNumberOfLoadedChunks() {
+        return this.getLoadedChunks().size();
+    }
+
+    /**
+     * Gets the number of rows on the board
+     */
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Gets the number of columns on the board
+     */
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Gets the ratio of cells within every chunk that contain a mine
+     */
+    public double getMineDensity() {
+        return this.mineDensity;
+    }
+    private void setMineDensity(double mineDensity) {
+        this.mineDensity = mineDensity;
+    }
+
+    /**
+     * Gets the number of rows and columns of a single chunk
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+    private void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Gets the seed from which the mines of every chunk are derived
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+    private void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the total number of mines placed on the board
+     */
+    public long getMinesTotal() {
+        return this.minesTotal;
+    }
+    private void setMinesTotal(long minesTotal) {
+        this.minesTotal = minesTotal;
+    }
+
+    private int getMaximumLoadedChunks() {
+        return this.maximumLoadedChunks;
+    }
+    private void setMaximumLoadedChunks(int maximumLoadedChunks) {
+        this.maximumLoadedChunks = maximumLoadedChunks;
+    }
+
+    private Path getSpillDirectory() {
+        return this.spillDirectory;
+    }
+    private void setSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    /**
+     * Gets the current state of the board
+     */
+    public MinesweeperBoardState getBoardState() {
+        return this.boardState;
+    }
+    private void setBoardState(MinesweeperBoardState boardState) {
+        this.boardState = boardState;
+    }
+
+    /**
+     * Gets the number of cells that have already been revealed
+     */
+    public long getNumberOfCellsRevealed() {
+        return this.numberOfCellsRevealed;
+    }
+    private void setNumberOfCellsRevealed(long numberOfCellsRevealed) {
+        this.numberOfCellsRevealed = numberOfCellsRevealed;
+    }
+
+    /**
+     * Gets the number of cells that are still closed
+     */
+    public long getNumberOfCellsClosed() {
+        return ((long)this.getRows() * this.getColumns()) - this.getNumberOfCellsRevealed();
+    }
+
+    private Map<Long, MinesweeperBoardChunk> getLoadedChunks() {
+        return this.loadedChunks;
+    }
+    private void setLoadedChunks(Map<Long, MinesweeperBoardChunk> loadedChunks) {
+        this.loadedChunks = loadedChunks;
+    }
+
+    private Map<Long, byte[]> getEvictedChunks() {
+        return this.evictedChunks;
+    }
+    private void setEvictedChunks(Map<Long, byte[]> evictedChunks) {
+        this.evictedChunks = evictedChunks;
+    }
+
+    private long[] getFloodFillStack() {
+        return this.floodFillStack;
+    }
+    private void setFloodFillStack(long[] floodFillStack) {
+        this.floodFillStack = floodFillStack;
+    }
+
+    private long[] getRevelationBufferCells() {
+        return this.revelationBufferCells;
+    }
+    private void setRevelationBufferCells(long[] revelationBufferCells) {
+        this.revelationBufferCells = revelationBufferCells;
+    }
+
+    private byte[] getRevelationBufferInformation() {
+        return this.revelationBufferInformation;
+    }
+    private void setRevelationBufferInformation(byte[] revelationBufferInformation) {
+        this.revelationBufferInformation = revelationBufferInformation;
+    }
+
+    private int getRevelationBufferSize() {
+        return this.revelationBufferSize;
+    }
+    private void setRevelationBufferSize(int revelationBufferSize) {
+        this.revelationBufferSize = revelationBufferSize;
+    }
+
+    /**
+     * Registers a listener that gets notified about every single revealed cell. Internally the listener is
+     * adapted to a {@link MinesweeperCellRevelationBatchListener}, so listeners that can handle all cells of a
+     * reveal at once should prefer {@link #addCellRevelationBatchListener(MinesweeperCellRevelationBatchListener)}
+     */
+    public boolean addCellRevelationListener(MinesweeperCellRevelationListener listener) {
+        return this.getCellRevelationBatchListeners().add(new MinesweeperCellRevelationListenerAdapter(listener));
+    }
+    public boolean removeCellRevelationListener(MinesweeperCellRevelationListener listener) {
+        return this.getCellRevelationBatchListeners().remove(new MinesweeperCellRevelationListenerAdapter(listener));
+    }
+
+    /**
+     * Registers a listener that gets all cells opened by a single reveal as one batch. As the remaining cells are not
+     * revealed when the game ends, {@link MinesweeperCellRevelationBatchListener#boardRevealed(MinesweeperBoardRevelation)}
+     * is never called by a chunked board.
+     */
+    public boolean addCellRevelationBatchListener(MinesweeperCellRevelationBatchListener listener) {
+        return this.getCellRevelationBatchListeners().add(listener);
+    }
+    public boolean removeCellRevelationBatchListener(MinesweeperCellRevelationBatchListener listener) {
+        return this.getCellRevelationBatchListeners().remove(listener);
+    }
+    private List<MinesweeperCellRevelationBatchListener> getCellRevelationBatchListeners() {
+        return this.cellRevelationBatchListeners;
+    }
+    private void setCellRevelationBatchListeners(List<MinesweeperCellRevelationBatchListener> cellRevelationBatchListeners) {
+        this.cellRevelationBatchListeners = cellRevelationBatchListeners;
+    }
+
+    /**
+     * Registers a listener that gets notified whenever the state of the board changes. The cell counters of a
+     * chunked board may exceed the range of an int and are therefore not reported to board listeners.
+     */
+    public boolean addBoardListener(MinesweeperBoardListener listener) {
+        return this.getBoardListeners().add(listener);
+    }
+    public boolean removeBoardListener(MinesweeperBoardListener listener) {
+        return this.getBoardListeners().remove(listener);
+    }
+    private List<MinesweeperBoardListener> getBoardListeners() {
+        return this.boardListeners;
+    }
+    private void setBoardListeners(List<MinesweeperBoardListener> boardListeners) {
+        this.boardListeners = boardListeners;
+    }
+
+}
@@ -0,0 +1,122 @@
+package de.perdian.games.minesweeper.core;
+
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates a {@link MinesweeperChunkedBoard}, in which the cells are only generated when they are first needed.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperChunkedBoardBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(MinesweeperChunkedBoardBuilder.class);
+
+    private int rows = 1024;
+    private int columns = 1024;
+    private double mineDensity = 0.15d;
+    private int chunkSize = 64;
+    private long seed = new MinesweeperRandom().nextLong();
+    private int maximumLoadedChunks = 1024;
+    private Path spillDirectory = null;
+
+    public MinesweeperChunkedBoard build() {
+        if (this.getRows() < 8 || this.getColumns() < 8) {
+            throw new IllegalArgumentException("Minesweeper board must have at least 8x8 cells");
+        } else {
+            log.debug("Creating chunked board with {} rows and {} columns with a mine density of {}", this.getRows(), this.getColumns(), this.getMineDensity());
+            MinesweeperChunkedBoard board = new MinesweeperChunkedBoard(this.getRows(), this.getColumns(), this.getMineDensity(), this.getChunkSize(), this.getSeed(), this.getMaximumLoadedChunks(), this.getSpillDirectory());
+            log.info("Created chunked board with {} rows and {} columns containing {} mines", this.getRows(), this.getColumns(), board.getMinesTotal());
+            return board;
+        }
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    public void setRows(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Property 'rows' must be larger than zero");
+        } else {
+            this.rows = rows;
+        }
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    public void setColumns(int columns) {
+        if (columns <= 0) {
+            throw new IllegalArgumentException("Property 'columns' must be larger than zero");
+        } else {
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Gets the ratio of cells within every chunk that contain a mine
+     */
+    public double getMineDensity() {
+        return this.mineDensity;
+    }
+    public void setMineDensity(double mineDensity) {
+        if (mineDensity <= 0d || mineDensity >= 1d) {
+            throw new IllegalArgumentException("Property 'mineDensity' must be larger than zero and smaller than one");
+        } else {
+            this.mineDensity = mineDensity;
+        }
+    }
+
+    /**
+     * Gets the number of rows and columns of a single chunk
+     */
+    public int getChunkSize() {
+        return this.chunkSize;
+    }
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 8) {
+            throw new IllegalArgumentException("Property 'chunkSize' must be at least 8");
+        } else {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * Gets the seed from which the mines of every chunk are derived
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the number of chunks that are kept in memory before the least recently used ones are evicted
+     */
+    public int getMaximumLoadedChunks() {
+        return this.maximumLoadedChunks;
+    }
+    public void setMaximumLoadedChunks(int maximumLoadedChunks) {
+        if (maximumLoadedChunks <= 0) {
+            throw new IllegalArgumentException("Property 'maximumLoadedChunks' must be larger than zero");
+        } else {
+            this.maximumLoadedChunks = maximumLoadedChunks;
+        }
+    }
+
+    /**
+     * Gets the directory into which the revealed cells of evicted chunks are written. If no directory is set, the
+     * revealed cells of evicted chunks are kept in memory in compact form.
+     */
+    public Path getSpillDirectory() {
+        return this.spillDirectory;
+    }
+    public void setSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+}
@@ -0,0 +1,498 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Board on which several players can reveal cells at the same time.
+ *
+ * The board is partitioned into square regions, each of them guarded by one lock out of a fixed set of striped
+ * locks. As the mines never change during a game, the cells opened by a reveal (including a complete flood fill) are
+ * computed from the layout alone before any lock is taken. Afterwards exactly the locks of the regions touched by
+ * these cells are acquired in ascending order, so reveals in different parts of the board run in parallel and
+ * overlapping reveals can never deadlock. Hitting a mine acquires all locks, as the end of the game affects every
+ * cell. The revealed cells, the counters and the state of the board are updated using atomics, so reading them never
+ * requires a lock.
+ *
+ * Listeners are notified after the locks have been released, so batches of different players may arrive in any
+ * order, but every batch reflects the counters as they were directly after its own operation.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperCoopBoard {
+
+    static final int MAXIMUM_NUMBER_OF_LOCKS = 1024;
+
+    private int rows = 0;
+    private int columns = 0;
+    private int minesTotal = 0;
+    private BitSet cellsMined = null;
+    private byte[] cellsNeighboringMines = null;
+    private AtomicLongArray cellsRevealed = null;
+    private AtomicInteger numberOfCellsRevealed = null;
+    private AtomicReference<MinesweeperBoardState> boardState = null;
+    private int regionSize = 0;
+    private int regionColumns = 0;
+    private ReentrantLock[] regionLocks = null;
+    private ThreadLocal<RevealContext> revealContext = null;
+    private List<MinesweeperCellRevelationBatchListener> cellRevelationBatchListeners = null;
+
+    /**
+     * Creates a shared board for the layout of the given board, starting with the cells already revealed on it. The
+     * layout is copied, so rebuilding the given board afterwards does not affect the shared board.
+     */
+    public MinesweeperCoopBoard(MinesweeperBoard board, int regionSize) {
+        if (regionSize <= 0) {
+            throw new IllegalArgumentException("Parameter 'regionSize' must be larger than zero");
+        } else {
+            synchronized (board) {
+                this.setRows(board.getRows());
+                this.setColumns(board.getColumns());
+                this.setMinesTotal(board.getMinesTotal());
+                this.setCellsMined((BitSet)board.getCellsMined().clone());
+                this.setCellsNeighboringMines(board.getCellsNeighboringMines().clone());
+                this.setCellsRevealed(new AtomicLongArray(Arrays.copyOf(board.getCellsRevealed().toLongArray(), (board.getRows() * board.getColumns() + Long.SIZE - 1) / Long.SIZE)));
+                this.setNumberOfCellsRevealed(new AtomicInteger(board.getNumberOfCellsRevealed()));
+                this.setBoardState(new AtomicReference<>(board.getBoardState()));
+            }
+            int regionRows = (this.getRows() + regionSize - 1) / regionSize;
+            this.setRegionSize(regionSize);
+            this.setRegionColumns((this.getColumns() + regionSize - 1) / regionSize);
+            this.setRegionLocks(new ReentrantLock[Math.min(MAXIMUM_NUMBER_OF_LOCKS, regionRows * this.getRegionColumns())]);
+            for (int lockIndex = 0; lockIndex < this.getRegionLocks().length; lockIndex++) {
+                this.getRegionLocks()[lockIndex] = new ReentrantLock();
+            }
+            this.setRevealContext(ThreadLocal.withInitial(RevealContext::new));
+            this.setCellRevelationBatchListeners(new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Reveal the underside of a cell
+     */
+    public MinesweeperCellRevelation reveal(MinesweeperCellPosition cellPosition) {
+        if (!this.isValidPosition(cellPosition)) {
+            throw new IllegalStateException("Cell cannot be found or has already been revealed");
+        }
+        this.verifyRunning();
+
+        // Reject cells that are already open before collecting the flood region, as collecting and locking the region
+        // of an open cell would block reveals of other players for nothing. The check is repeated once the locks are
+        // held, as another player might open the cell in between.
+        int cellIndex = this.toCellIndex(cellPosition.getY(), cellPosition.getX());
+        if (this.isRevealed(cellIndex)) {
+            throw new IllegalStateException("Cell is already revealed");
+        }
+        RevealContext revealContext = this.getRevealContext().get();
+        revealContext.reset();
+        if (this.getCellsMined().get(cellIndex)) {
+            revealContext.getLockIndices().set(0, this.getRegionLocks().length);
+        } else if (this.getCellsNeighboringMines()[cellIndex] == 0) {
+            this.collectFloodRegion(cellIndex, revealContext);
+        } else {
+            revealContext.appendRegionCell(cellIndex);
+            revealContext.getLockIndices().set(this.toLockIndex(cellIndex));
+        }
+
+        MinesweeperCellRevelationBatch cellRevelationBatch = null;
+        this.lockRegions(revealContext.getLockIndices());
+        try {
+            this.verifyRunning();
+            if (this.isRevealed(cellIndex)) {
+                throw new IllegalStateException("Cell is already revealed");
+            } else if (this.getCellsMined().get(cellIndex)) {
+                this.markRevealed(cellIndex);
+                revealContext.appendRevelation(cellIndex, this.encodeCellInformation(cellIndex, MinesweeperCellRevelationType.MANUALLY));
+                this.getNumberOfCellsRevealedCounter().incrementAndGet();
+                this.getBoardStateReference().set(MinesweeperBoardState.COMPLETED_MINE_HIT);
+                this.revealClosedCells(revealContext);
+            } else {
+                for (int regionCellIndex = 0; regionCellIndex < revealContext.getRegionSize(); regionCellIndex++) {
+                    int regionCell = revealContext.getRegionCells()[regionCellIndex];
+                    if (this.markRevealed(regionCell)) {
+                        revealContext.appendRevelation(regionCell, this.encodeCellInformation(regionCell, regionCell == cellIndex ? MinesweeperCellRevelationType.MANUALLY : MinesweeperCellRevelationType.AUTOMATICALLY));
+                    }
+                }
+                int numberOfCellsRevealed = this.getNumberOfCellsRevealedCounter().addAndGet(revealContext.getRevelationSize());
+                if (numberOfCellsRevealed == (this.getRows() * this.getColumns()) - this.getMinesTotal() && this.getBoardStateReference().compareAndSet(MinesweeperBoardState.RUNNING, MinesweeperBoardState.COMPLETED_WON)) {
+                    this.revealClosedCells(revealContext);
+                }
+            }
+            cellRevelationBatch = revealContext.createBatch(this, this.getColumns(), this.getNumberOfCellsRevealedCounter().get(), this.getNumberOfCellsClosed(), this.getBoardStateReference().get());
+        } finally {
+            this.unlockRegions(revealContext.getLockIndices());
+        }
+
+        MinesweeperCellRevelationBatch firedCellRevelationBatch = cellRevelationBatch;
+        this.getCellRevelationBatchListeners().forEach(listener -> listener.cellsRevealed(firedCellRevelationBatch));
+        return cellRevelationBatch.getRevelation(0);
+
+    }
+
+    private void verifyRunning() {
+        if (MinesweeperBoardState.COMPLETED_MINE_HIT.equals(this.getBoardStateReference().get())) {
+            throw new IllegalStateException("Mine has been hit, the game is over!");
+        } else if (MinesweeperBoardState.COMPLETED_WON.equals(this.getBoardStateReference().get())) {
+            throw new IllegalStateException("All cells have been revealed, the game is over!");
+        }
+    }
+
+    /**
+     * Collects all cells a flood fill starting at the given empty cell would open, using only the layout of the
+     * board, together with the locks of all regions these cells are located in
+     */
+    private void collectFloodRegion(int sourceCellIndex, RevealContext revealContext) {
+        BitSet visitedCells = revealContext.getVisitedCells();
+        visitedCells.set(sourceCellIndex);
+        revealContext.pushCell(sourceCellIndex);
+        while (revealContext.getStackSize() > 0) {
+            int cellIndex = revealContext.popCell();
+            revealContext.appendRegionCell(cellIndex);
+            revealContext.getLockIndices().set(this.toLockIndex(cellIndex));
+            if (this.getCellsNeighboringMines()[cellIndex] == 0) {
+                int row = cellIndex / this.getColumns();
+                int column = cellIndex % this.getColumns();
+                if (row < this.getRows() - 1) {
+                    this.pushAdjacentCell(cellIndex + this.getColumns(), revealContext);
+                }
+                if (column < this.getColumns() - 1) {
+                    this.pushAdjacentCell(cellIndex + 1, revealContext);
+                }
+                if (column > 0) {
+                    this.pushAdjacentCell(cellIndex - 1, revealContext);
+                }
+                if (row > 0) {
+                    this.pushAdjacentCell(cellIndex - this.getColumns(), revealContext);
+                }
+            }
+        }
+        for (int regionCellIndex = 0; regionCellIndex < revealContext.getRegionSize(); regionCellIndex++) {
+            visitedCells.clear(revealContext.getRegionCells()[regionCellIndex]);
+        }
+    }
+
+    private void pushAdjacentCell(int adjacentCellIndex, RevealContext revealContext) {
+        if (!revealContext.getVisitedCells().get(adjacentCellIndex) && !this.getCellsMined().get(adjacentCellIndex)) {
+            revealContext.getVisitedCells().set(adjacentCellIndex);
+            revealContext.pushCell(adjacentCellIndex);
+        }
+    }
+
+    /**
+     * Reveals all cells that are still closed after the game has ended. No other reveal can change a cell at this
+     * point: either all locks are held after a mine has been hit, or every cell without a mine has already been
+     * revealed and the state has been switched before any other reveal could see it.
+     */
+    private void revealClosedCells(RevealContext revealContext) {
+        int numberOfCells = this.getRows() * this.getColumns();
+        int numberOfCellsRevealed = 0;
+        for (int cellIndex = 0; cellIndex < numberOfCells; cellIndex++) {
+            if (this.markRevealed(cellIndex)) {
+                revealContext.appendRevelation(cellIndex, this.encodeCellInformation(cellIndex, MinesweeperCellRevelationType.GAME_ENDED));
+                numberOfCellsRevealed++;
+            }
+        }
+        this.getNumberOfCellsRevealedCounter().addAndGet(numberOfCellsRevealed);
+    }
+
+    private void lockRegions(BitSet lockIndices) {
+        for (int lockIndex = lockIndices.nextSetBit(0); lockIndex >= 0; lockIndex = lockIndices.nextSetBit(lockIndex + 1)) {
+            this.getRegionLocks()[lockIndex].lock();
+        }
+    }
+
+    private void unlockRegions(BitSet lockIndices) {
+        for (int lockIndex = lockIndices.previousSetBit(lockIndices.length() - 1); lockIndex >= 0; lockIndex = lockIndices.previousSetBit(lockIndex - 1)) {
+            this.getRegionLocks()[lockIndex].unlock();
+        }
+    }
+
+    private int toLockIndex(int cellIndex) {
+        int regionRow = (cellIndex / this.getColumns()) / this.getRegionSize();
+        int regionColumn = (cellIndex % this.getColumns()) / this.getRegionSize();
+        return ((regionRow * this.getRegionColumns()) + regionColumn) % this.getRegionLocks().length;
+    }
+
+    /**
+     * Sets the revealed flag of the given cell and returns whether the cell has been closed before
+     */
+    private boolean markRevealed(int cellIndex) {
+        int wordIndex = cellIndex >>> 6;
+        long cellMask = 1L << cellIndex;
+        long word = this.getCellsRevealed().get(wordIndex);
+        while ((word & cellMask) == 0) {
+            if (this.getCellsRevealed().compareAndSet(wordIndex, word, word | cellMask)) {
+                return true;
+            }
+            word = this.getCellsRevealed().get(wordIndex);
+        }
+        return false;
+    }
+
+    private boolean isRevealed(int cellIndex) {
+        return (this.getCellsRevealed().get(cellIndex >>> 6) & (1L << cellIndex)) != 0;
+    }
+
+    private byte encodeCellInformation(int cellIndex, MinesweeperCellRevelationType cellRevelationType) {
+        return MinesweeperCellRevelationBatch.encodeCellInformation(this.getCellsMined().get(cellIndex), this.getCellsNeighboringMines()[cellIndex], cellRevelationType);
+    }
+
+    private boolean isValidPosition(MinesweeperCellPosition cellPosition) {
+        return cellPosition != null && cellPosition.getY() >= 0 && cellPosition.getY() < this.getRows() && cellPosition.getX() >= 0 && cellPosition.getX() < this.getColumns();
+    }
+
+    private int toCellIndex(int row, int column) {
+        return (row * this.getColumns()) + column;
+    }
+
+    /**
+     * Checks whether the cell at the given position has already been revealed
+     */
+    public boolean isRevealed(MinesweeperCellPosition cellPosition) {
+        if (!this.isValidPosition(cellPosition)) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            return this.isRevealed(this.toCellIndex(cellPosition.getY(), cellPosition.getX()));
+        }
+    }
+
+    /**
+     * Buffers used by a single thread while performing a reveal, kept between reveals to avoid allocations
+     */
+    private static class RevealContext {
+
+        private BitSet visitedCells = new BitSet();
+        private BitSet lockIndices = new BitSet();
+        private int[] stack = new int[64];
+        private int stackSize = 0;
+        private int[] regionCells = new int[64];
+        private int regionSize = 0;
+        private int[] revelationCells = new int[64];
+        private byte[] revelationInformation = new byte[64];
+        private int revelationSize = 0;
+
+        void reset() {
+            this.getLockIndices().clear();
+            this.setStackSize(0);
+            this.setRegionSize(0);
+            this.setRevelationSize(0);
+        }
+
+        void pushCell(int cellIndex) {
+            if (this.getStackSize() == this.getStack().length) {
+                this.setStack(Arrays.copyOf(this.getStack(), this.getStackSize() * 2));
+            }
+            this.getStack()[this.getStackSize()] = cellIndex;
+            this.setStackSize(this.getStackSize() + 1);
+        }
+
+        int popCell() {
+            this.setStackSize(this.getStackSize() - 1);
+            return this.getStack()[this.getStackSize()];
+        }
+
+        void appendRegionCell(int cellIndex) {
+            if (this.getRegionSize() == this.getRegionCells().length) {
+                this.setRegionCells(Arrays.copyOf(this.getRegionCells(), this.getRegionSize() * 2));
+            }
+            this.getRegionCells()[this.getRegionSize()] = cellIndex;
+            this.setRegionSize(this.getRegionSize() + 1);
+        }
+
+        void appendRevelation(int cellIndex, byte cellInformation) {
+            if (this.getRevelationSize() == this.getRevelationCells().length) {
+                this.setRevelationCells(Arrays.copyOf(this.getRevelationCells(), this.getRevelationSize() * 2));
+                this.setRevelationInformation(Arrays.copyOf(this.getRevelationInformation(), this.getRevelationSize() * 2));
+            }
+            this.getRevelationCells()[this.getRevelationSize()] = cellIndex;
+            this.getRevelationInformation()[this.getRevelationSize()] = cellInformation;
+            this.setRevelationSize(this.getRevelationSize() + 1);
+        }
+
+        MinesweeperCellRevelationBatch createBatch(Object board, int columns, int numberOfCellsRevealed, int numberOfCellsClosed, MinesweeperBoardState boardState) {
+            return new MinesweeperCellRevelationBatch(board, columns, Arrays.copyOf(this.getRevelationCells(), this.getRevelationSize()), Arrays.copyOf(this.getRevelationInformation(), this.getRevelationSize()), numberOfCellsRevealed, numberOfCellsClosed, boardState);
+        }
+
+        BitSet getVisitedCells() {
+            return this.visitedCells;
+        }
+
+        BitSet getLockIndices() {
+            return this.lockIndices;
+        }
+
+        private int[] getStack() {
+            return this.stack;
+        }
+        private void setStack(int[] stack) {
+            this.stack = stack;
+        }
+
+        int getStackSize() {
+            return this.stackSize;
+        }
+        private void setStackSize(int stackSize) {
+            this.stackSize = stackSize;
+        }
+
+        int[] getRegionCells() {
+            return this.regionCells;
+        }
+        private void setRegionCells(int[] regionCells) {
+            this.regionCells = regionCells;
+        }
+
+        int getRegionSize() {
+            return this.regionSize;
+        }
+        private void setRegionSize(int regionSize) {
+            this.regionSize = regionSize;
+        }
+
+        private int[] getRevelationCells() {
+            return this.revelationCells;
+        }
+        private void setRevelationCells(int[] revelationCells) {
+            this.revelationCells = revelationCells;
+        }
+
+        private byte[] getRevelationInformation() {
+            return this.revelationInformation;
+        }
+        private void setRevelationInformation(byte[] revelationInformation) {
+            this.revelationInformation = revelationInformation;
+        }
+
+        int getRevelationSize() {
+            return this.revelationSize;
+        }
+        private void setRevelationSize(int revelationSize) {
+            this.revelationSize = revelationSize;
+        }
+
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public int getMinesTotal() {
+        return this.minesTotal;
+    }
+    private void setMinesTotal(int minesTotal) {
+        this.minesTotal = minesTotal;
+    }
+
+    private BitSet getCellsMined() {
+        return this.cellsMined;
+    }
+    private void setCellsMined(BitSet cellsMined) {
+        this.cellsMined = cellsMined;
+    }
+
+    private byte[] getCellsNeighboringMines() {
+        return this.cellsNeighboringMines;
+    }
+    private void setCellsNeighboringMines(byte[] cellsNeighboringMines) {
+        this.cellsNeighboringMines = cellsNeighboringMines;
+    }
+
+    private AtomicLongArray getCellsRevealed() {
+        return this.cellsRevealed;
+    }
+    private void setCellsRevealed(AtomicLongArray cellsRevealed) {
+        this.cellsRevealed = cellsRevealed;
+    }
+
+    /**
+     * Gets the number of cells that have been revealed so far
+     */
+    public int getNumberOfCellsRevealed() {
+        return this.getNumberOfCellsRevealedCounter().get();
+    }
+    private AtomicInteger getNumberOfCellsRevealedCounter() {
+        return this.numberOfCellsRevealed;
+    }
+    private void setNumberOfCellsRevealed(AtomicInteger numberOfCellsRevealed) {
+        this.numberOfCellsRevealed = numberOfCellsRevealed;
+    }
+
+    /**
+     * Gets the number of cells that are still closed
+     */
+    public int getNumberOfCellsClosed() {
+        return (this.getRows() * this.getColumns()) - this.getNumberOfCellsRevealed();
+    }
+
+    /**
+     * Gets the current state of the board
+     */
+    public MinesweeperBoardState getBoardState() {
+        return this.getBoardStateReference().get();
+    }
+    private AtomicReference<MinesweeperBoardState> getBoardStateReference() {
+        return this.boardState;
+    }
+    private void setBoardState(AtomicReference<MinesweeperBoardState> boardState) {
+        this.boardState = boardState;
+    }
+
+    private int getRegionSize() {
+        return this.regionSize;
+    }
+    private void setRegionSize(int regionSize) {
+        this.regionSize = regionSize;
+    }
+
+    private int getRegionColumns() {
+        return this.regionColumns;
+    }
+    private void setRegionColumns(int regionColumns) {
+        this.regionColumns = regionColumns;
+    }
+
+    private ReentrantLock[] getRegionLocks() {
+        return this.regionLocks;
+    }
+    private void setRegionLocks(ReentrantLock[] regionLocks) {
+        this.regionLocks = regionLocks;
+    }
+
+    private ThreadLocal<RevealContext> getRevealContext() {
+        return this.revealContext;
+    }
+    private void setRevealContext(ThreadLocal<RevealContext> revealContext) {
+        this.revealContext = revealContext;
+    }
+
+    private List<MinesweeperCellRevelationBatchListener> getCellRevelationBatchListeners() {
+        return this.cellRevelationBatchListeners;
+    }
+    private void setCellRevelationBatchListeners(List<MinesweeperCellRevelationBatchListener> cellRevelationBatchListeners) {
+        this.cellRevelationBatchListeners = cellRevelationBatchListeners;
+    }
+    public boolean addCellRevelationBatchListener(MinesweeperCellRevelationBatchListener listener) {
+        return this.getCellRevelationBatchListeners().add(listener);
+    }
+    public boolean removeCellRevelationBatchListener(MinesweeperCellRevelationBatchListener listener) {
+        return this.getCellRevelationBatchListeners().remove(listener);
+    }
+
+}
@@ -0,0 +1,100 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fast, seedable generator for random numbers, implementing the SplitMix64 algorithm.
+ *
+ * The complete state of the generator is a single {@code long}, which is advanced by a constant for every number and
+ * then scrambled using the same finalizer as {@link MinesweeperBoardBuilder#mixSeed(long, long)}. The sequence of
+ * numbers is therefore fully defined by the seed, while the statistical quality is more than sufficient for placing
+ * mines. In contrast to {@link Random} the state is not updated atomically, so an instance must not be shared between
+ * threads without synchronization, and in contrast to {@link java.security.SecureRandom} creating an instance never
+ * blocks while waiting for entropy. The numbers are predictable for everyone knowing the seed, so the generator is not
+ * suitable for anything security-related.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final AtomicLong DEFAULT_SEED_GENERATOR = new AtomicLong(MinesweeperBoardBuilder.mixSeed(System.currentTimeMillis(), System.nanoTime()));
+
+    // Not initialized explicitly, as the constructor of Random assigns the seed by calling setSeed before the field
+    // initializers of this class would be executed
+    private long state;
+
+    /**
+     * Creates a generator with a seed that differs from the seeds of all other generators created within the JVM
+     */
+    public MinesweeperRandom() {
+        this(MinesweeperBoardBuilder.mixSeed(DEFAULT_SEED_GENERATOR.getAndAdd(GOLDEN_GAMMA), System.nanoTime()));
+    }
+
+    public MinesweeperRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        this.setState(seed);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int)(this.nextLong() >>> (Long.SIZE - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        this.setState(this.getState() + GOLDEN_GAMMA);
+        return MinesweeperBoardBuilder.mixSeed(this.getState(), 0);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int)(this.nextLong() >>> 32);
+    }
+
+    /**
+     * Draws a number between zero (inclusive) and the given bound (exclusive) using Lemire's multiply-and-shift
+     * method, which only needs a division in the rare case of a sample that has to be rejected
+     */
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Parameter 'bound' must be larger than zero");
+        } else {
+            long product = (this.nextLong() >>> 32) * bound;
+            if ((product & 0xFFFFFFFFL) < bound) {
+                long threshold = (1L << 32) % bound;
+                while ((product & 0xFFFFFFFFL) < threshold) {
+                    product = (this.nextLong() >>> 32) * bound;
+                }
+            }
+            return (int)(product >>> 32);
+        }
+    }
+
+    @Override
+    public double nextDouble() {
+        return (this.nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return this.nextLong() < 0;
+    }
+
+    private long getState() {
+        return this.state;
+    }
+    private void setState(long state) {
+        this.state = state;
+    }
+
+}
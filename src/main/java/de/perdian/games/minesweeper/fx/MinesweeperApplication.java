@@ -1,5 +1,9 @@
 package de.perdian.games.minesweeper.fx;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +15,9 @@ import javafx.stage.Stage;
 public class MinesweeperApplication extends Application {
 
     private static final Logger log = LoggerFactory.getLogger(MinesweeperApplication.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private ExecutorService executor = null;
 
     public static void main(String[] args) {
         log.info("Launching application");
@@ -20,8 +27,12 @@ public class MinesweeperApplication extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
         log.info("Opening JavaFX stage");
-        primaryStage.setScene(new Scene(new MinesweeperApplicationPane()));
-        primaryStage.setOnCloseRequest(event -> System.exit(0));
+        this.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread workerThread = new Thread(runnable, "minesweeper-worker");
+            workerThread.setDaemon(true);
+            return workerThread;
+        }));
+        primaryStage.setScene(new Scene(new MinesweeperApplicationPane(this.getExecutor())));
         primaryStage.setMinWidth(800);
         primaryStage.setMinHeight(600);
         primaryStage.setTitle("Minesweeper");
@@ -30,4 +41,22 @@ public class MinesweeperApplication extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() throws Exception {
+        log.info("Stopping application");
+        if (this.getExecutor() != null) {
+            this.getExecutor().shutdownNow();
+            if (!this.getExecutor().awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Worker did not terminate within {} seconds", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        return this.executor;
+    }
+    private void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
 }
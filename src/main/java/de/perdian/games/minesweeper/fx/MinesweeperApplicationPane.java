@@ -1,17 +1,19 @@
 package de.perdian.games.minesweeper.fx;
 
+import java.util.concurrent.ExecutorService;
+
 import org.apache.commons.lang3.exception.ExceptionUtils;
 
-import de.perdian.games.minesweeper.core.MinesweeperBoard;
 import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
-import javafx.application.Platform;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
@@ -20,35 +22,42 @@ import javafx.scene.control.TitledPane;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.util.StringConverter;
 
 class MinesweeperApplicationPane extends BorderPane {
 
+    static final int MAXIMUM_BOARD_SIZE = 1000;
+
+    private ExecutorService executor = null;
+    private MinesweeperBoardCreationTask creationTask = null;
     private IntegerProperty boardColumns = new SimpleIntegerProperty();
     private IntegerProperty boardRows = new SimpleIntegerProperty();
     private IntegerProperty boardMines = new SimpleIntegerProperty();
 
-    MinesweeperApplicationPane() {
+    MinesweeperApplicationPane(ExecutorService executor) {
+
+        this.setExecutor(executor);
 
         Label boardColumnsLabel = new Label("Board width");
         TextField boardColumnsField = new TextField();
         boardColumnsField.textProperty().addListener((o, oldValue, newValue) -> this.getBoardColumns().setValue(Integer.parseInt(newValue)));
-        boardColumnsField.setTextFormatter(new TextFormatter<>(new IntegerStringConverter(8, 100, 8)));
+        boardColumnsField.setTextFormatter(new TextFormatter<>(new IntegerStringConverter(8, MAXIMUM_BOARD_SIZE, 8)));
         boardColumnsField.setText("8");
         GridPane.setHgrow(boardColumnsField, Priority.ALWAYS);
 
         Label boardRowsLabel = new Label("Board height");
         TextField boardRowsField = new TextField();
         boardRowsField.textProperty().addListener((o, oldValue, newValue) -> this.getBoardRows().setValue(Integer.parseInt(newValue)));
-        boardRowsField.setTextFormatter(new TextFormatter<>(new IntegerStringConverter(8, 100, 8)));
+        boardRowsField.setTextFormatter(new TextFormatter<>(new IntegerStringConverter(8, MAXIMUM_BOARD_SIZE, 8)));
         boardRowsField.setText("8");
         GridPane.setHgrow(boardRowsField, Priority.ALWAYS);
 
         Label boardMinesLabel = new Label("Number of mines");
         TextField boardMinesField = new TextField("1");
         boardMinesField.textProperty().addListener((o, oldValue, newValue) -> this.getBoardMines().setValue(Integer.parseInt(newValue)));
-        boardMinesField.setTextFormatter(new TextFormatter<>(new IntegerStringConverter(1, 100, 1)));
+        boardMinesField.setTextFormatter(new TextFormatter<>(new IntegerStringConverter(1, (MAXIMUM_BOARD_SIZE * MAXIMUM_BOARD_SIZE) - 1, 1)));
         boardMinesField.setText("10");
         GridPane.setHgrow(boardMinesField, Priority.ALWAYS);
 
@@ -85,51 +94,66 @@ class MinesweeperApplicationPane extends BorderPane {
     }
 
     private void createBoard() {
-        try {
-
-            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
-            boardBuilder.setRows(this.getBoardRows().getValue());
-            boardBuilder.setColumns(this.getBoardColumns().getValue());
-            boardBuilder.setMines(this.getBoardMines().getValue());
-
-            MinesweeperBoard board = boardBuilder.build();
-            String boardTitle = "Minesweeper (" + this.getBoardColumns().getValue() + "x" + this.getBoardRows().getValue() + " cells, " + this.getBoardMines().getValue() + " mines)";
-            Label boardPaneLoadingLabel = new Label("Preparing new game...");
-            TitledPane boardPaneWrapper = new TitledPane(boardTitle, boardPaneLoadingLabel);
-            boardPaneWrapper.setCollapsible(false);
-            boardPaneWrapper.setMaxHeight(Double.MAX_VALUE);
-            BorderPane.setMargin(boardPaneWrapper, new Insets(4, 0, 0, 0));
-            this.setCenter(boardPaneWrapper);
-
-            new Thread(() -> {
-                MinesweeperBoardPane boardPane = new MinesweeperBoardPane(board);
-                boardPane.setPadding(new Insets(4, 4, 4, 4));
-                Platform.runLater(() -> {
-                    boardPaneWrapper.setContent(boardPane);
-                });
-            }).start();
-
-        } catch (Exception e) {
-
-            TextArea errorArea = new TextArea(ExceptionUtils.getStackTrace(e));
-            errorArea.setEditable(false);
-            errorArea.setFont(Font.font("Courier New", 14f));
-            errorArea.setMaxWidth(Double.MAX_VALUE);
-            ScrollPane errorPane = new ScrollPane(errorArea);
-            errorPane.setFitToWidth(true);
-            errorPane.setFitToHeight(true);
-            errorPane.setMinHeight(400);
-
-            Alert errorAlert = new Alert(AlertType.ERROR);
-            errorAlert.setTitle("Invalid input");
-            errorAlert.setHeaderText("Invalid input values");
-            errorAlert.setContentText("Cannot create a new board with the entered values");
-            errorAlert.getDialogPane().setExpandableContent(errorPane);
-            errorAlert.getDialogPane().setExpanded(true);
-            errorAlert.getDialogPane().setMinWidth(640);
-            errorAlert.showAndWait();
 
+        MinesweeperBoardCreationTask previousCreationTask = this.getCreationTask();
+        if (previousCreationTask != null) {
+            previousCreationTask.cancel(false);
         }
+
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(this.getBoardRows().getValue());
+        boardBuilder.setColumns(this.getBoardColumns().getValue());
+        boardBuilder.setMines(this.getBoardMines().getValue());
+        MinesweeperBoardCreationTask creationTask = new MinesweeperBoardCreationTask(boardBuilder, this.getExecutor());
+
+        Label progressLabel = new Label();
+        progressLabel.textProperty().bind(creationTask.messageProperty());
+        ProgressBar progressBar = new ProgressBar();
+        progressBar.progressProperty().bind(creationTask.progressProperty());
+        progressBar.setPrefWidth(300);
+        Button cancelButton = new Button("Cancel");
+        cancelButton.setOnAction(event -> creationTask.cancel(false));
+        VBox progressPane = new VBox(6, progressLabel, progressBar, cancelButton);
+        progressPane.setAlignment(Pos.CENTER);
+
+        String boardTitle = "Minesweeper (" + this.getBoardColumns().getValue() + "x" + this.getBoardRows().getValue() + " cells, " + this.getBoardMines().getValue() + " mines)";
+        TitledPane boardPaneWrapper = new TitledPane(boardTitle, progressPane);
+        boardPaneWrapper.setCollapsible(false);
+        boardPaneWrapper.setMaxHeight(Double.MAX_VALUE);
+        BorderPane.setMargin(boardPaneWrapper, new Insets(4, 0, 0, 0));
+        this.setCenter(boardPaneWrapper);
+
+        creationTask.setOnSucceeded(event -> boardPaneWrapper.setContent(creationTask.getValue()));
+        creationTask.setOnCancelled(event -> boardPaneWrapper.setContent(new Label("Creation of game has been cancelled")));
+        creationTask.setOnFailed(event -> {
+            boardPaneWrapper.setContent(new Label("Game could not be created"));
+            this.showError(creationTask.getException());
+        });
+        this.setCreationTask(creationTask);
+        this.getExecutor().execute(creationTask);
+
+    }
+
+    private void showError(Throwable exception) {
+
+        TextArea errorArea = new TextArea(ExceptionUtils.getStackTrace(exception));
+        errorArea.setEditable(false);
+        errorArea.setFont(Font.font("Courier New", 14f));
+        errorArea.setMaxWidth(Double.MAX_VALUE);
+        ScrollPane errorPane = new ScrollPane(errorArea);
+        errorPane.setFitToWidth(true);
+        errorPane.setFitToHeight(true);
+        errorPane.setMinHeight(400);
+
+        Alert errorAlert = new Alert(AlertType.ERROR);
+        errorAlert.setTitle("Invalid input");
+        errorAlert.setHeaderText("Invalid input values");
+        errorAlert.setContentText("Cannot create a new board with the entered values");
+        errorAlert.getDialogPane().setExpandableContent(errorPane);
+        errorAlert.getDialogPane().setExpanded(true);
+        errorAlert.getDialogPane().setMinWidth(640);
+        errorAlert.showAndWait();
+
     }
 
     static class IntegerStringConverter extends StringConverter<Integer> {
@@ -190,6 +214,20 @@ class MinesweeperApplicationPane extends BorderPane {
 
     }
 
+    private ExecutorService getExecutor() {
+        return this.executor;
+    }
+    private void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    private MinesweeperBoardCreationTask getCreationTask() {
+        return this.creationTask;
+    }
+    private void setCreationTask(MinesweeperBoardCreationTask creationTask) {
+        this.creationTask = creationTask;
+    }
+
     private IntegerProperty getBoardColumns() {
         return this.boardColumns;
     }
@@ -0,0 +1,277 @@
+package de.perdian.games.minesweeper.fx;
+
+import java.util.Arrays;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardListener;
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationType;
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Draws the cells of a board onto a single {@link Canvas} instead of creating a separate node for every cell, so
+ * that the size of the scene graph does not depend on the size of the board.
+ *
+ * The canvas only covers the visible viewport, which is moved across the board using scroll bars. A revelation
+ * redraws only the rectangles of the cells it contains, while the end of the game updates all cells at once and
+ * redraws the viewport a single time. Clicks are mapped to cells by their coordinates: a primary click reveals a
+ * closed cell or chords a revealed number, a secondary click toggles the flag of a closed cell.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperBoardCanvasPane extends BorderPane {
+
+    static final double CELL_SIZE = 25;
+
+    private static final byte CELL_CLOSED = -1;
+    private static final byte CELL_MINE = 9;
+    private static final byte CELL_MINE_HIT = 10;
+    private static final byte CELL_FLAGGED = 11;
+    private static final Color BACKGROUND_COLOR = Color.web("#F4F4F4");
+    private static final Color CLOSED_COLOR = Color.web("#C8C8C8");
+    private static final Color REVEALED_COLOR = Color.web("#ECECEC");
+    private static final Color MINE_HIT_COLOR = Color.web("#FF0000");
+    private static final Color FLAG_COLOR = Color.web("#D00000");
+    private static final Color BORDER_COLOR = Color.web("#8C8C8C");
+    private static final Color[] NUMBER_COLORS = { Color.BLACK, Color.BLUE, Color.GREEN, Color.RED, Color.NAVY, Color.MAROON, Color.TEAL, Color.BLACK, Color.GRAY };
+    private static final Font CELL_FONT = Font.font(null, FontWeight.BOLD, 14);
+
+    private MinesweeperBoard board = null;
+    private byte[] cellStates = null;
+    private Canvas canvas = null;
+    private ScrollBar horizontalScrollBar = null;
+    private ScrollBar verticalScrollBar = null;
+    private MinesweeperBoardInputQueue inputQueue = null;
+
+    MinesweeperBoardCanvasPane(MinesweeperBoard board, MinesweeperBoardInputQueue inputQueue) {
+
+        byte[] cellStates = new byte[board.getRows() * board.getColumns()];
+        Arrays.fill(cellStates, CELL_CLOSED);
+        this.setBoard(board);
+        this.setCellStates(cellStates);
+        this.setInputQueue(inputQueue);
+
+        Canvas canvas = new Canvas();
+        canvas.setOnMouseClicked(this::handleMouseClicked);
+        Pane canvasPane = new Pane(canvas);
+        canvasPane.setMinSize(0, 0);
+        canvasPane.setPrefSize(board.getColumns() * CELL_SIZE, board.getRows() * CELL_SIZE);
+        canvasPane.setOnScroll(this::handleScroll);
+        canvas.widthProperty().bind(canvasPane.widthProperty());
+        canvas.heightProperty().bind(canvasPane.heightProperty());
+        canvas.widthProperty().addListener((o, oldValue, newValue) -> this.updateViewport());
+        canvas.heightProperty().addListener((o, oldValue, newValue) -> this.updateViewport());
+        this.setCanvas(canvas);
+
+        ScrollBar horizontalScrollBar = new ScrollBar();
+        horizontalScrollBar.setOrientation(Orientation.HORIZONTAL);
+        horizontalScrollBar.setUnitIncrement(CELL_SIZE);
+        horizontalScrollBar.valueProperty().addListener((o, oldValue, newValue) -> this.drawViewport());
+        this.setHorizontalScrollBar(horizontalScrollBar);
+
+        ScrollBar verticalScrollBar = new ScrollBar();
+        verticalScrollBar.setOrientation(Orientation.VERTICAL);
+        verticalScrollBar.setUnitIncrement(CELL_SIZE);
+        verticalScrollBar.valueProperty().addListener((o, oldValue, newValue) -> this.drawViewport());
+        this.setVerticalScrollBar(verticalScrollBar);
+
+        this.setCenter(canvasPane);
+        this.setBottom(horizontalScrollBar);
+        this.setRight(verticalScrollBar);
+
+        board.addCellRevelationBatchListener(new MinesweeperCellRevelationQueue(this::updateCell, this::updateBoard));
+        board.addBoardListener(new MinesweeperBoardListener() {
+            @Override public void cellFlagUpdated(MinesweeperCellPosition cellPosition, boolean flagged) {
+                Platform.runLater(() -> MinesweeperBoardCanvasPane.this.updateFlag(cellPosition, flagged));
+            }
+        });
+
+    }
+
+    private void handleMouseClicked(MouseEvent event) {
+        int column = (int)Math.floor((event.getX() - this.computeOriginX()) / CELL_SIZE);
+        int row = (int)Math.floor((event.getY() - this.computeOriginY()) / CELL_SIZE);
+        if (row >= 0 && row < this.getBoard().getRows() && column >= 0 && column < this.getBoard().getColumns()) {
+            byte cellState = this.getCellStates()[(row * this.getBoard().getColumns()) + column];
+            if (MouseButton.PRIMARY.equals(event.getButton()) && cellState == CELL_CLOSED) {
+                this.getInputQueue().reveal(new MinesweeperCellPosition(row, column));
+            } else if (MouseButton.PRIMARY.equals(event.getButton()) && cellState > 0 && cellState < CELL_MINE) {
+                this.getInputQueue().chord(new MinesweeperCellPosition(row, column));
+            } else if (MouseButton.SECONDARY.equals(event.getButton()) && (cellState == CELL_CLOSED || cellState == CELL_FLAGGED)) {
+                this.getInputQueue().toggleFlag(new MinesweeperCellPosition(row, column));
+            }
+        }
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        ScrollBar horizontalScrollBar = this.getHorizontalScrollBar();
+        ScrollBar verticalScrollBar = this.getVerticalScrollBar();
+        horizontalScrollBar.setValue(Math.max(0, Math.min(horizontalScrollBar.getMax(), horizontalScrollBar.getValue() - event.getDeltaX())));
+        verticalScrollBar.setValue(Math.max(0, Math.min(verticalScrollBar.getMax(), verticalScrollBar.getValue() - event.getDeltaY())));
+        event.consume();
+    }
+
+    private void updateCell(MinesweeperCellRevelationBatch cellRevelationBatch, int index) {
+        MinesweeperCellPosition cellPosition = cellRevelationBatch.getCellPosition(index);
+        byte cellState = (byte)cellRevelationBatch.getNeighboringMines(index);
+        if (cellRevelationBatch.isMined(index)) {
+            cellState = !MinesweeperCellRevelationType.AUTOMATICALLY.equals(cellRevelationBatch.getRevelationType(index)) ? CELL_MINE_HIT : CELL_MINE;
+        }
+        this.getCellStates()[(cellPosition.getY() * this.getBoard().getColumns()) + cellPosition.getX()] = cellState;
+        this.drawCell(this.getCanvas().getGraphicsContext2D(), cellPosition.getY(), cellPosition.getX(), this.computeOriginX(), this.computeOriginY());
+    }
+
+    private void updateFlag(MinesweeperCellPosition cellPosition, boolean flagged) {
+        int cellIndex = (cellPosition.getY() * this.getBoard().getColumns()) + cellPosition.getX();
+        if (this.getCellStates()[cellIndex] == CELL_CLOSED || this.getCellStates()[cellIndex] == CELL_FLAGGED) {
+            this.getCellStates()[cellIndex] = flagged ? CELL_FLAGGED : CELL_CLOSED;
+            this.drawCell(this.getCanvas().getGraphicsContext2D(), cellPosition.getY(), cellPosition.getX(), this.computeOriginX(), this.computeOriginY());
+        }
+    }
+
+    private void updateBoard(MinesweeperBoardRevelation boardRevelation) {
+        for (int cellIndex = boardRevelation.nextCellRevealedByGameEnd(0); cellIndex >= 0; cellIndex = boardRevelation.nextCellRevealedByGameEnd(cellIndex + 1)) {
+            this.getCellStates()[cellIndex] = boardRevelation.isMined(cellIndex) ? CELL_MINE : (byte)boardRevelation.getNeighboringMines(cellIndex);
+        }
+        this.drawViewport();
+    }
+
+    /**
+     * Adjusts the scroll bars to the current size of the canvas and redraws the complete viewport
+     */
+    private void updateViewport() {
+        this.updateScrollBar(this.getHorizontalScrollBar(), this.getBoard().getColumns() * CELL_SIZE, this.getCanvas().getWidth());
+        this.updateScrollBar(this.getVerticalScrollBar(), this.getBoard().getRows() * CELL_SIZE, this.getCanvas().getHeight());
+        this.drawViewport();
+    }
+
+    private void updateScrollBar(ScrollBar scrollBar, double contentSize, double viewportSize) {
+        double maximumValue = Math.max(0, contentSize - viewportSize);
+        scrollBar.setMax(maximumValue);
+        scrollBar.setVisibleAmount(contentSize <= 0 ? 0 : maximumValue * viewportSize / contentSize);
+        scrollBar.setBlockIncrement(Math.max(CELL_SIZE, viewportSize - CELL_SIZE));
+        scrollBar.setValue(Math.min(scrollBar.getValue(), maximumValue));
+        scrollBar.setDisable(maximumValue <= 0);
+    }
+
+    private void drawViewport() {
+        GraphicsContext graphicsContext = this.getCanvas().getGraphicsContext2D();
+        double width = this.getCanvas().getWidth();
+        double height = this.getCanvas().getHeight();
+        graphicsContext.setFill(BACKGROUND_COLOR);
+        graphicsContext.fillRect(0, 0, width, height);
+        double originX = this.computeOriginX();
+        double originY = this.computeOriginY();
+        int firstColumn = Math.max(0, (int)Math.floor(-originX / CELL_SIZE));
+        int lastColumn = Math.min(this.getBoard().getColumns() - 1, (int)Math.floor((width - originX) / CELL_SIZE));
+        int firstRow = Math.max(0, (int)Math.floor(-originY / CELL_SIZE));
+        int lastRow = Math.min(this.getBoard().getRows() - 1, (int)Math.floor((height - originY) / CELL_SIZE));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                this.drawCell(graphicsContext, row, column, originX, originY);
+            }
+        }
+    }
+
+    /**
+     * Draws a single cell, if it lies at least partially within the viewport
+     */
+    private void drawCell(GraphicsContext graphicsContext, int row, int column, double originX, double originY) {
+        double x = originX + (column * CELL_SIZE);
+        double y = originY + (row * CELL_SIZE);
+        if (x + CELL_SIZE > 0 && x < this.getCanvas().getWidth() && y + CELL_SIZE > 0 && y < this.getCanvas().getHeight()) {
+            byte cellState = this.getCellStates()[(row * this.getBoard().getColumns()) + column];
+            graphicsContext.setFill(cellState == CELL_CLOSED || cellState == CELL_FLAGGED ? CLOSED_COLOR : cellState == CELL_MINE_HIT ? MINE_HIT_COLOR : REVEALED_COLOR);
+            graphicsContext.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+            graphicsContext.setStroke(BORDER_COLOR);
+            graphicsContext.setLineWidth(1);
+            graphicsContext.strokeRect(x + 0.5, y + 0.5, CELL_SIZE - 1, CELL_SIZE - 1);
+            if (cellState > 0) {
+                graphicsContext.setFont(CELL_FONT);
+                graphicsContext.setTextAlign(TextAlignment.CENTER);
+                graphicsContext.setTextBaseline(VPos.CENTER);
+                graphicsContext.setFill(cellState == CELL_FLAGGED ? FLAG_COLOR : cellState >= CELL_MINE ? Color.BLACK : NUMBER_COLORS[cellState]);
+                graphicsContext.fillText(cellState == CELL_FLAGGED ? "F" : cellState >= CELL_MINE ? "X" : String.valueOf(cellState), x + (CELL_SIZE / 2), y + (CELL_SIZE / 2));
+            }
+        }
+    }
+
+    /**
+     * Computes the horizontal position of the left edge of the board on the canvas. A board narrower than the canvas
+     * is centered, otherwise the position follows the horizontal scroll bar.
+     */
+    private double computeOriginX() {
+        double boardWidth = this.getBoard().getColumns() * CELL_SIZE;
+        double canvasWidth = this.getCanvas().getWidth();
+        return boardWidth <= canvasWidth ? Math.floor((canvasWidth - boardWidth) / 2) : -Math.floor(this.getHorizontalScrollBar().getValue());
+    }
+
+    /**
+     * Computes the vertical position of the upper edge of the board on the canvas, like {@link #computeOriginX()}
+     */
+    private double computeOriginY() {
+        double boardHeight = this.getBoard().getRows() * CELL_SIZE;
+        double canvasHeight = this.getCanvas().getHeight();
+        return boardHeight <= canvasHeight ? Math.floor((canvasHeight - boardHeight) / 2) : -Math.floor(this.getVerticalScrollBar().getValue());
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    private byte[] getCellStates() {
+        return this.cellStates;
+    }
+    private void setCellStates(byte[] cellStates) {
+        this.cellStates = cellStates;
+    }
+
+    private Canvas getCanvas() {
+        return this.canvas;
+    }
+    private void setCanvas(Canvas canvas) {
+        this.canvas = canvas;
+    }
+
+    private ScrollBar getHorizontalScrollBar() {
+        return this.horizontalScrollBar;
+    }
+    private void setHorizontalScrollBar(ScrollBar horizontalScrollBar) {
+        this.horizontalScrollBar = horizontalScrollBar;
+    }
+
+    private ScrollBar getVerticalScrollBar() {
+        return this.verticalScrollBar;
+    }
+    private void setVerticalScrollBar(ScrollBar verticalScrollBar) {
+        this.verticalScrollBar = verticalScrollBar;
+    }
+
+    private MinesweeperBoardInputQueue getInputQueue() {
+        return this.inputQueue;
+    }
+    private void setInputQueue(MinesweeperBoardInputQueue inputQueue) {
+        this.inputQueue = inputQueue;
+    }
+
+}
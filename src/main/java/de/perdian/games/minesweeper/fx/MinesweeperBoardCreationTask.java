@@ -0,0 +1,84 @@
+package de.perdian.games.minesweeper.fx;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuildMonitor;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.scene.layout.BorderPane;
+
+/**
+ * Creates a new board together with the pane displaying it. The progress covers both the placement of the mines by
+ * the {@link MinesweeperBoardBuilder} and the construction of the pane, and cancelling the task aborts the builder
+ * at the next stripe of the board.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperBoardCreationTask extends Task<BorderPane> {
+
+    static final int MAXIMUM_BUTTON_CELLS = 32 * 32;
+    private static final double BOARD_PROGRESS_SHARE = 0.8;
+
+    private MinesweeperBoardBuilder boardBuilder = null;
+    private Executor executor = null;
+
+    /**
+     * Creates a task
+     *
+     * @param boardBuilder
+     *     the builder configured for the new board
+     * @param executor
+     *     the worker on which the clicks on the new board are applied
+     */
+    MinesweeperBoardCreationTask(MinesweeperBoardBuilder boardBuilder, Executor executor) {
+        this.setBoardBuilder(boardBuilder);
+        this.setExecutor(executor);
+    }
+
+    @Override
+    protected BorderPane call() throws Exception {
+
+        this.updateMessage("Placing mines...");
+        this.updateProgress(0, 1);
+        MinesweeperBoard board = this.getBoardBuilder().build(new MinesweeperBoardBuildMonitor() {
+            @Override public void progressed(int completedSteps, int totalSteps) {
+                MinesweeperBoardCreationTask.this.updateProgress(BOARD_PROGRESS_SHARE * completedSteps / totalSteps, 1);
+            }
+            @Override public boolean isCancelled() {
+                return MinesweeperBoardCreationTask.this.isCancelled();
+            }
+        });
+
+        if (this.isCancelled()) {
+            throw new CancellationException("Creation of board has been cancelled");
+        } else {
+            this.updateMessage("Preparing board...");
+            this.updateProgress(BOARD_PROGRESS_SHARE, 1);
+            MinesweeperBoardInputQueue inputQueue = new MinesweeperBoardInputQueue(board, this.getExecutor());
+            BorderPane boardPane = board.getRows() * board.getColumns() <= MAXIMUM_BUTTON_CELLS ? new MinesweeperBoardPane(board, inputQueue) : new MinesweeperBoardCanvasPane(board, inputQueue);
+            boardPane.setPadding(new Insets(4, 4, 4, 4));
+            this.updateProgress(1, 1);
+            return boardPane;
+        }
+
+    }
+
+    private MinesweeperBoardBuilder getBoardBuilder() {
+        return this.boardBuilder;
+    }
+    private void setBoardBuilder(MinesweeperBoardBuilder boardBuilder) {
+        this.boardBuilder = boardBuilder;
+    }
+
+    private Executor getExecutor() {
+        return this.executor;
+    }
+    private void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+}
@@ -0,0 +1,121 @@
+package de.perdian.games.minesweeper.fx;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+/**
+ * Passes the clicks made on a board to the worker of the application, which applies them one after another in the
+ * order they have been made.
+ *
+ * Clicks are never dropped while a previous reveal is still running, instead they are queued behind it. A click is
+ * only ignored if, by the time it is applied, the cell has already been revealed by an earlier click or the game has
+ * ended, or if the cell is no longer in the state the click was made for, like a reveal of a cell that has been
+ * flagged in the meantime.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperBoardInputQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(MinesweeperBoardInputQueue.class);
+
+    private MinesweeperBoard board = null;
+    private Executor executor = null;
+
+    /**
+     * Creates a queue
+     *
+     * @param board
+     *     the board on which the clicks are applied
+     * @param executor
+     *     the worker of the application, which must execute its tasks one after another in the order they have been
+     *     submitted
+     */
+    MinesweeperBoardInputQueue(MinesweeperBoard board, Executor executor) {
+        this.setBoard(board);
+        this.setExecutor(executor);
+    }
+
+    /**
+     * Queues the reveal of the given cell
+     */
+    void reveal(MinesweeperCellPosition cellPosition) {
+        this.submit(() -> this.applyReveal(cellPosition), "reveal", cellPosition);
+    }
+
+    /**
+     * Queues the chord of the given revealed cell
+     */
+    void chord(MinesweeperCellPosition cellPosition) {
+        this.submit(() -> this.applyChord(cellPosition), "chord", cellPosition);
+    }
+
+    /**
+     * Queues placing or removing the flag of the given cell, depending on whether it is flagged when the click is
+     * applied
+     */
+    void toggleFlag(MinesweeperCellPosition cellPosition) {
+        this.submit(() -> this.applyToggleFlag(cellPosition), "flag", cellPosition);
+    }
+
+    private void submit(Runnable action, String actionName, MinesweeperCellPosition cellPosition) {
+        try {
+            this.getExecutor().execute(action);
+        } catch (RejectedExecutionException e) {
+            log.debug("Ignoring {} of cell {} as the application is shutting down", actionName, cellPosition);
+        }
+    }
+
+    private void applyReveal(MinesweeperCellPosition cellPosition) {
+        MinesweeperBoard board = this.getBoard();
+        synchronized (board) {
+            if (MinesweeperBoardState.RUNNING.equals(board.getBoardState()) && !board.isRevealed(cellPosition) && !board.isFlagged(cellPosition)) {
+                board.reveal(cellPosition);
+            }
+        }
+    }
+
+    private void applyChord(MinesweeperCellPosition cellPosition) {
+        MinesweeperBoard board = this.getBoard();
+        synchronized (board) {
+            if (board.isChordable(cellPosition)) {
+                board.chord(cellPosition);
+            }
+        }
+    }
+
+    private void applyToggleFlag(MinesweeperCellPosition cellPosition) {
+        MinesweeperBoard board = this.getBoard();
+        synchronized (board) {
+            if (MinesweeperBoardState.RUNNING.equals(board.getBoardState()) && !board.isRevealed(cellPosition)) {
+                if (board.isFlagged(cellPosition)) {
+                    board.unflag(cellPosition);
+                } else {
+                    board.flag(cellPosition);
+                }
+            }
+        }
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    private Executor getExecutor() {
+        return this.executor;
+    }
+    private void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+}
@@ -1,39 +1,53 @@
 package de.perdian.games.minesweeper.fx;
 
 import de.perdian.games.minesweeper.core.MinesweeperBoard;
-import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperBoardListener;
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
 import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
-import de.perdian.games.minesweeper.core.MinesweeperCellRevelation;
-import de.perdian.games.minesweeper.core.MinesweeperCellRevelationListener;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
 import de.perdian.games.minesweeper.core.MinesweeperCellRevelationType;
 import javafx.application.Platform;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.input.MouseButton;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 
-class MinesweeperBoardPane extends BorderPane implements MinesweeperCellRevelationListener {
+class MinesweeperBoardPane extends BorderPane {
+
+    private static final String CLOSED_TEXT = "?";
+    private static final String FLAGGED_TEXT = "F";
 
     private Button[][] buttons = null;
-    private boolean userInputActive = true;
-    private boolean gameFinished = false;
-    private Object userInputMonitor = new Object();
+    private MinesweeperBoardInputQueue inputQueue = null;
 
-    MinesweeperBoardPane(MinesweeperBoard board) {
+    MinesweeperBoardPane(MinesweeperBoard board, MinesweeperBoardInputQueue inputQueue) {
 
-        board.addCellRevelationListener(this);
+        this.setInputQueue(inputQueue);
+
+        board.addCellRevelationBatchListener(new MinesweeperCellRevelationQueue(this::updateCell, this::updateBoard));
+        board.addBoardListener(new MinesweeperBoardListener() {
+            @Override public void cellFlagUpdated(MinesweeperCellPosition cellPosition, boolean flagged) {
+                Platform.runLater(() -> MinesweeperBoardPane.this.updateFlag(cellPosition, flagged));
+            }
+        });
 
         GridPane cellsPane = new GridPane();
         Button[][] buttonArray = new Button[board.getRows()][board.getColumns()];
         for (int y = 0; y < board.getRows(); y++) {
             for (int x = 0; x < board.getColumns(); x++) {
                 MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(y, x);
-                Button cellButton = new Button("?");
+                Button cellButton = new Button(CLOSED_TEXT);
                 cellButton.setFocusTraversable(false);
                 cellButton.setMinSize(25, 25);
                 cellButton.setPrefSize(35, 35);
-                cellButton.setOnAction(event -> this.revealCell(cellButton, board, cellPosition));
+                cellButton.setOnAction(event -> this.revealCell(cellButton, cellPosition));
+                cellButton.setOnMouseClicked(event -> {
+                    if (MouseButton.SECONDARY.equals(event.getButton())) {
+                        this.getInputQueue().toggleFlag(cellPosition);
+                    }
+                });
                 cellsPane.add(cellButton, x, y, 1, 1);
                 buttonArray[y][x] = cellButton;
             }
@@ -48,41 +62,48 @@ class MinesweeperBoardPane extends BorderPane implements MinesweeperCellRevelati
 
     }
 
-    private void revealCell(Button sourceButton, MinesweeperBoard board, MinesweeperCellPosition cellPosition) {
-        synchronized (this.getUserInputMonitor()) {
-            if (this.isUserInputActive()) {
-                this.setUserInputActive(false);
-                sourceButton.setDisable(true);
-                new Thread(() -> {
-                    try {
-                        board.reveal(cellPosition);
-                        this.setGameFinished(!MinesweeperBoardState.RUNNING.equals(board.getBoardState()));
-                    } finally {
-                        synchronized (this.getUserInputMonitor()) {
-                            this.setUserInputActive(!this.isGameFinished());
-                        }
-                    }
-                }).start();
+    private void revealCell(Button sourceButton, MinesweeperCellPosition cellPosition) {
+        if (!FLAGGED_TEXT.equals(sourceButton.getText())) {
+            sourceButton.setDisable(true);
+            this.getInputQueue().reveal(cellPosition);
+        }
+    }
+
+    private void updateFlag(MinesweeperCellPosition cellPosition, boolean flagged) {
+        Button buttonForCell = this.getButtons()[cellPosition.getY()][cellPosition.getX()];
+        if (!buttonForCell.isDisabled()) {
+            buttonForCell.setText(flagged ? FLAGGED_TEXT : CLOSED_TEXT);
+        }
+    }
+
+    private void updateCell(MinesweeperCellRevelationBatch cellRevelationBatch, int index) {
+        MinesweeperCellPosition cellPosition = cellRevelationBatch.getCellPosition(index);
+        Button buttonForCell = this.getButtons()[cellPosition.getY()][cellPosition.getX()];
+        buttonForCell.setDisable(true);
+        if (cellRevelationBatch.isMined(index)) {
+            buttonForCell.setText("X");
+            if (!MinesweeperCellRevelationType.AUTOMATICALLY.equals(cellRevelationBatch.getRevelationType(index))) {
+                buttonForCell.setStyle("-fx-background-color: #FF0000");
+            } else {
+                buttonForCell.setStyle("-fx-font-weight: bold");
             }
+        } else {
+            buttonForCell.setText(cellRevelationBatch.getNeighboringMines(index) == 0 ? "" : String.valueOf(cellRevelationBatch.getNeighboringMines(index)));
         }
     }
 
-    @Override
-    public void cellRevealed(MinesweeperCellRevelation cellRevelation) {
-        Platform.runLater(() -> {
-            Button buttonForCell = this.getButtons()[cellRevelation.getRevealedCell().getPosition().getY()][cellRevelation.getRevealedCell().getPosition().getX()];
+    private void updateBoard(MinesweeperBoardRevelation boardRevelation) {
+        for (int cellIndex = boardRevelation.nextCellRevealedByGameEnd(0); cellIndex >= 0; cellIndex = boardRevelation.nextCellRevealedByGameEnd(cellIndex + 1)) {
+            MinesweeperCellPosition cellPosition = boardRevelation.getCellPosition(cellIndex);
+            Button buttonForCell = this.getButtons()[cellPosition.getY()][cellPosition.getX()];
             buttonForCell.setDisable(true);
-            if (cellRevelation.isMined()) {
+            if (boardRevelation.isMined(cellIndex)) {
                 buttonForCell.setText("X");
-                if (MinesweeperCellRevelationType.MANUALLY.equals(cellRevelation.getRevelationType())) {
-                    buttonForCell.setStyle("-fx-background-color: #FF0000");
-                } else {
-                    buttonForCell.setStyle("-fx-font-weight: bold");
-                }
+                buttonForCell.setStyle("-fx-font-weight: bold");
             } else {
-                buttonForCell.setText(cellRevelation.getNeighboringMines() == 0 ? "" : String.valueOf(cellRevelation.getNeighboringMines()));
+                buttonForCell.setText(boardRevelation.getNeighboringMines(cellIndex) == 0 ? "" : String.valueOf(boardRevelation.getNeighboringMines(cellIndex)));
             }
-        });
+        }
     }
 
     private Button[][] getButtons() {
@@ -92,22 +113,11 @@ class MinesweeperBoardPane extends BorderPane implements MinesweeperCellRevelati
         this.buttons = buttons;
     }
 
-    private boolean isUserInputActive() {
-        return this.userInputActive;
+    private MinesweeperBoardInputQueue getInputQueue() {
+        return this.inputQueue;
     }
-    private void setUserInputActive(boolean userInputActive) {
-        this.userInputActive = userInputActive;
-    }
-
-    private boolean isGameFinished() {
-        return this.gameFinished;
-    }
-    private void setGameFinished(boolean gameFinished) {
-        this.gameFinished = gameFinished;
-    }
-
-    private Object getUserInputMonitor() {
-        return this.userInputMonitor;
+    private void setInputQueue(MinesweeperBoardInputQueue inputQueue) {
+        this.inputQueue = inputQueue;
     }
 
 }
@@ -0,0 +1,148 @@
+package de.perdian.games.minesweeper.fx;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+/**
+ * Collects the revelation batches published by a board on any thread and applies them to the UI once per pulse,
+ * instead of posting a separate runnable to the FX event queue for every batch.
+ *
+ * Every frame applies as many pending cells as fit into {@link #FRAME_BUDGET_NANOS}, cells exceeding the budget are
+ * left for the next frame, so that even a revelation of the complete board does not block the UI. The timer only
+ * runs while there are cells waiting to be applied. The revelation of the whole board at the end of the game is
+ * applied in one go, once all batches received before it have been applied.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperCellRevelationQueue extends AnimationTimer implements MinesweeperCellRevelationBatchListener {
+
+    static final long FRAME_BUDGET_NANOS = 8_000_000L;
+    private static final int CELLS_PER_BUDGET_CHECK = 64;
+
+    private ObjIntConsumer<MinesweeperCellRevelationBatch> cellUpdater = null;
+    private Consumer<MinesweeperBoardRevelation> boardUpdater = null;
+    private Queue<MinesweeperCellRevelationBatch> pendingBatches = new ConcurrentLinkedQueue<>();
+    private AtomicReference<MinesweeperBoardRevelation> pendingBoardRevelation = new AtomicReference<>();
+    private AtomicBoolean scheduled = new AtomicBoolean();
+    private MinesweeperCellRevelationBatch currentBatch = null;
+    private int currentIndex = 0;
+
+    /**
+     * Creates a queue
+     *
+     * @param cellUpdater
+     *     applies a single cell of a batch to the UI, called on the FX application thread
+     * @param boardUpdater
+     *     applies all cells revealed by the end of the game to the UI, called on the FX application thread
+     */
+    MinesweeperCellRevelationQueue(ObjIntConsumer<MinesweeperCellRevelationBatch> cellUpdater, Consumer<MinesweeperBoardRevelation> boardUpdater) {
+        this.setCellUpdater(cellUpdater);
+        this.setBoardUpdater(boardUpdater);
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        this.getPendingBatches().add(cellRevelationBatch);
+        this.schedule();
+    }
+
+    @Override
+    public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+        this.getPendingBoardRevelation().set(boardRevelation);
+        this.schedule();
+    }
+
+    private void schedule() {
+        if (this.getScheduled().compareAndSet(false, true)) {
+            Platform.runLater(this::start);
+        }
+    }
+
+    @Override
+    public void handle(long now) {
+        long deadline = System.nanoTime() + FRAME_BUDGET_NANOS;
+        for (int appliedCells = 1; this.getCurrentBatch() != null || this.pollBatch(); appliedCells++) {
+            this.getCellUpdater().accept(this.getCurrentBatch(), this.getCurrentIndex());
+            this.setCurrentIndex(this.getCurrentIndex() + 1);
+            if (this.getCurrentIndex() >= this.getCurrentBatch().getSize()) {
+                this.setCurrentBatch(null);
+            }
+            if (appliedCells % CELLS_PER_BUDGET_CHECK == 0 && System.nanoTime() >= deadline) {
+                return;
+            }
+        }
+        MinesweeperBoardRevelation boardRevelation = this.getPendingBoardRevelation().getAndSet(null);
+        if (boardRevelation != null) {
+            this.getBoardUpdater().accept(boardRevelation);
+        }
+
+        // Everything has been applied, so the timer can be stopped. A batch arriving in between will either be
+        // picked up here or by the start call posted from schedule, which is executed after this frame.
+        this.getScheduled().set(false);
+        if ((this.getPendingBatches().isEmpty() && this.getPendingBoardRevelation().get() == null) || !this.getScheduled().compareAndSet(false, true)) {
+            this.stop();
+        }
+    }
+
+    private boolean pollBatch() {
+        MinesweeperCellRevelationBatch nextBatch = this.getPendingBatches().poll();
+        while (nextBatch != null && nextBatch.getSize() == 0) {
+            nextBatch = this.getPendingBatches().poll();
+        }
+        this.setCurrentBatch(nextBatch);
+        this.setCurrentIndex(0);
+        return nextBatch != null;
+    }
+
+    private ObjIntConsumer<MinesweeperCellRevelationBatch> getCellUpdater() {
+        return this.cellUpdater;
+    }
+    private void setCellUpdater(ObjIntConsumer<MinesweeperCellRevelationBatch> cellUpdater) {
+        this.cellUpdater = cellUpdater;
+    }
+
+    private Consumer<MinesweeperBoardRevelation> getBoardUpdater() {
+        return this.boardUpdater;
+    }
+    private void setBoardUpdater(Consumer<MinesweeperBoardRevelation> boardUpdater) {
+        this.boardUpdater = boardUpdater;
+    }
+
+    private Queue<MinesweeperCellRevelationBatch> getPendingBatches() {
+        return this.pendingBatches;
+    }
+
+    private AtomicReference<MinesweeperBoardRevelation> getPendingBoardRevelation() {
+        return this.pendingBoardRevelation;
+    }
+
+    private AtomicBoolean getScheduled() {
+        return this.scheduled;
+    }
+
+    private MinesweeperCellRevelationBatch getCurrentBatch() {
+        return this.currentBatch;
+    }
+    private void setCurrentBatch(MinesweeperCellRevelationBatch currentBatch) {
+        this.currentBatch = currentBatch;
+    }
+
+    private int getCurrentIndex() {
+        return this.currentIndex;
+    }
+    private void setCurrentIndex(int currentIndex) {
+        this.currentIndex = currentIndex;
+    }
+
+}
@@ -0,0 +1,247 @@
+package de.perdian.games.minesweeper.session;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+/**
+ * The visible state of a remote {@link de.perdian.games.minesweeper.core.MinesweeperBoard}, rebuilt from the
+ * messages created by a {@link MinesweeperBoardStream}.
+ *
+ * A mirror starts with a keyframe and then applies every message following it in the order of their sequence
+ * numbers. Messages already contained within the last keyframe are ignored, so a client joining a running game can
+ * start receiving messages before it has requested its keyframe. A mirror is not thread-safe and should only be used
+ * by the thread receiving the messages.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardMirror {
+
+    private static final MinesweeperBoardState[] BOARD_STATES = MinesweeperBoardState.values();
+
+    private int sequence = -1;
+    private int rows = 0;
+    private int columns = 0;
+    private int minesTotal = 0;
+    private MinesweeperBoardState boardState = null;
+    private byte[] cellContents = null;
+    private boolean[] cellsFlagged = null;
+    private int numberOfCellsRevealed = 0;
+    private int numberOfCellsFlagged = 0;
+
+    /**
+     * Applies the given message to the mirror
+     *
+     * @return
+     *     {@code true} if the message has changed the mirror, {@code false} if it has been ignored, because it is
+     *     already contained within the last keyframe
+     * @throws IOException
+     *     if the message is invalid or if messages between the last one applied and the given one are missing
+     */
+    public boolean apply(ByteBuffer message) throws IOException {
+        try {
+            byte messageType = message.get();
+            int messageSequence = message.getInt();
+            if (messageType == MinesweeperBoardStreamFormat.MESSAGE_KEYFRAME) {
+                if (messageSequence < this.getSequence()) {
+                    return false;
+                } else {
+                    this.applyKeyframe(message);
+                }
+            } else if (this.getCellContents() == null) {
+                throw new IOException("Message " + messageSequence + " received before the first keyframe");
+            } else if (messageSequence <= this.getSequence()) {
+                return false;
+            } else if (messageSequence != this.getSequence() + 1) {
+                throw new IOException("Messages " + (this.getSequence() + 1) + " to " + (messageSequence - 1) + " are missing");
+            } else if (messageType == MinesweeperBoardStreamFormat.MESSAGE_DELTA) {
+                this.applyDelta(message);
+            } else if (messageType == MinesweeperBoardStreamFormat.MESSAGE_FLAG) {
+                this.applyFlag(message);
+            } else {
+                throw new IOException("Invalid message type: " + messageType);
+            }
+            this.setSequence(messageSequence);
+            return true;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Message ends unexpectedly", e);
+        }
+    }
+
+    private void applyKeyframe(ByteBuffer message) throws IOException {
+        int rows = message.getInt();
+        int columns = message.getInt();
+        int minesTotal = message.getInt();
+        if (rows <= 0 || columns <= 0 || (long)rows * columns > Integer.MAX_VALUE) {
+            throw new IOException("Invalid board dimensions: " + rows + "x" + columns);
+        }
+        MinesweeperBoardState boardState = readBoardState(message);
+        byte[] cellContents = new byte[rows * columns];
+        Arrays.fill(cellContents, MinesweeperBoardStreamFormat.CELL_CLOSED);
+        boolean[] cellsFlagged = new boolean[rows * columns];
+        this.setNumberOfCellsRevealed(MinesweeperBoardStreamFormat.readCellContents(message, cellContents));
+        this.setNumberOfCellsFlagged(MinesweeperBoardStreamFormat.readCellMarks(message, cellsFlagged));
+        this.setRows(rows);
+        this.setColumns(columns);
+        this.setMinesTotal(minesTotal);
+        this.setBoardState(boardState);
+        this.setCellContents(cellContents);
+        this.setCellsFlagged(cellsFlagged);
+    }
+
+    private void applyDelta(ByteBuffer message) throws IOException {
+        MinesweeperBoardState boardState = readBoardState(message);
+        this.setNumberOfCellsRevealed(this.getNumberOfCellsRevealed() + MinesweeperBoardStreamFormat.readCellContents(message, this.getCellContents()));
+        this.setBoardState(boardState);
+    }
+
+    private void applyFlag(ByteBuffer message) throws IOException {
+        int cellIndex = MinesweeperBoardStreamFormat.readVarint(message);
+        boolean flagged = message.get() != 0;
+        if (cellIndex < 0 || cellIndex >= this.getCellsFlagged().length) {
+            throw new IOException("Invalid flagged cell: " + cellIndex);
+        } else if (this.getCellsFlagged()[cellIndex] != flagged) {
+            this.getCellsFlagged()[cellIndex] = flagged;
+            this.setNumberOfCellsFlagged(this.getNumberOfCellsFlagged() + (flagged ? 1 : -1));
+        }
+    }
+
+    private static MinesweeperBoardState readBoardState(ByteBuffer message) throws IOException {
+        byte boardStateOrdinal = message.get();
+        if (boardStateOrdinal < 0 || boardStateOrdinal >= BOARD_STATES.length) {
+            throw new IOException("Invalid board state: " + boardStateOrdinal);
+        } else {
+            return BOARD_STATES[boardStateOrdinal];
+        }
+    }
+
+    public boolean isRevealed(MinesweeperCellPosition cellPosition) {
+        return this.getCellContent(cellPosition) != MinesweeperBoardStreamFormat.CELL_CLOSED;
+    }
+
+    public boolean isFlagged(MinesweeperCellPosition cellPosition) {
+        return this.getCellsFlagged()[this.toCellIndex(cellPosition)];
+    }
+
+    /**
+     * Checks whether the revealed cell at the given position contains a mine
+     */
+    public boolean isMined(MinesweeperCellPosition cellPosition) {
+        return this.getRevealedCellContent(cellPosition) >= MinesweeperBoardStreamFormat.CELL_MINE;
+    }
+
+    /**
+     * Checks whether the revealed cell at the given position contains the mine that has ended the game
+     */
+    public boolean isMineHit(MinesweeperCellPosition cellPosition) {
+        return this.getRevealedCellContent(cellPosition) == MinesweeperBoardStreamFormat.CELL_MINE_HIT;
+    }
+
+    /**
+     * Gets the number of mines surrounding the revealed, safe cell at the given position
+     */
+    public int getNeighboringMines(MinesweeperCellPosition cellPosition) {
+        byte cellContent = this.getRevealedCellContent(cellPosition);
+        if (cellContent >= MinesweeperBoardStreamFormat.CELL_MINE) {
+            throw new IllegalStateException("Cell contains a mine: " + cellPosition);
+        } else {
+            return cellContent;
+        }
+    }
+
+    private byte getRevealedCellContent(MinesweeperCellPosition cellPosition) {
+        byte cellContent = this.getCellContent(cellPosition);
+        if (cellContent == MinesweeperBoardStreamFormat.CELL_CLOSED) {
+            throw new IllegalStateException("Cell has not been revealed yet: " + cellPosition);
+        } else {
+            return cellContent;
+        }
+    }
+
+    private byte getCellContent(MinesweeperCellPosition cellPosition) {
+        return this.getCellContents()[this.toCellIndex(cellPosition)];
+    }
+
+    private int toCellIndex(MinesweeperCellPosition cellPosition) {
+        if (this.getCellContents() == null) {
+            throw new IllegalStateException("No keyframe has been applied yet");
+        } else if (cellPosition == null || cellPosition.getY() < 0 || cellPosition.getY() >= this.getRows() || cellPosition.getX() < 0 || cellPosition.getX() >= this.getColumns()) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            return (cellPosition.getY() * this.getColumns()) + cellPosition.getX();
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last message that has been applied, or {@code -1} if no message has been
+     * applied yet
+     */
+    public int getSequence() {
+        return this.sequence;
+    }
+    private void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    public int getMinesTotal() {
+        return this.minesTotal;
+    }
+    private void setMinesTotal(int minesTotal) {
+        this.minesTotal = minesTotal;
+    }
+
+    public MinesweeperBoardState getBoardState() {
+        return this.boardState;
+    }
+    private void setBoardState(MinesweeperBoardState boardState) {
+        this.boardState = boardState;
+    }
+
+    private byte[] getCellContents() {
+        return this.cellContents;
+    }
+    private void setCellContents(byte[] cellContents) {
+        this.cellContents = cellContents;
+    }
+
+    private boolean[] getCellsFlagged() {
+        return this.cellsFlagged;
+    }
+    private void setCellsFlagged(boolean[] cellsFlagged) {
+        this.cellsFlagged = cellsFlagged;
+    }
+
+    public int getNumberOfCellsRevealed() {
+        return this.numberOfCellsRevealed;
+    }
+    private void setNumberOfCellsRevealed(int numberOfCellsRevealed) {
+        this.numberOfCellsRevealed = numberOfCellsRevealed;
+    }
+
+    public int getNumberOfCellsFlagged() {
+        return this.numberOfCellsFlagged;
+    }
+    private void setNumberOfCellsFlagged(int numberOfCellsFlagged) {
+        this.numberOfCellsFlagged = numberOfCellsFlagged;
+    }
+
+}
@@ -0,0 +1,191 @@
+package de.perdian.games.minesweeper.session;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardListener;
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
+import de.perdian.games.minesweeper.core.MinesweeperBoardSnapshot;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationType;
+
+/**
+ * Encodes every change made on a {@link MinesweeperBoard} into a compact binary message, so that the visible state of
+ * the board can be mirrored on remote clients using a {@link MinesweeperBoardMirror}.
+ *
+ * Every batch of revealed cells, the revelation at the end of the game and every flag change is turned into a
+ * separate message, which is passed to the consumer on the thread that has changed the board while the board is
+ * still locked, so the consumer should do nothing more than hand the message over to the network. Restoring the
+ * board from a snapshot or rebuilding it for a new game is sent as a keyframe, as both might have closed cells
+ * again. Clients joining a running game first apply the keyframe returned by {@link #createKeyframe()} and then all
+ * messages following it. The layout of the messages is described in {@link MinesweeperBoardStreamFormat}.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperBoardStream implements MinesweeperCellRevelationBatchListener, MinesweeperBoardListener {
+
+    private MinesweeperBoard board = null;
+    private Consumer<ByteBuffer> messageConsumer = null;
+    private int sequence = 0;
+
+    private MinesweeperBoardStream(MinesweeperBoard board, Consumer<ByteBuffer> messageConsumer) {
+        this.setBoard(board);
+        this.setMessageConsumer(messageConsumer);
+    }
+
+    /**
+     * Sends all changes made on the given board from now on to the given consumer
+     */
+    public static MinesweeperBoardStream attach(MinesweeperBoard board, Consumer<ByteBuffer> messageConsumer) {
+        MinesweeperBoardStream stream = new MinesweeperBoardStream(board, messageConsumer);
+        synchronized (board) {
+            board.addCellRevelationBatchListener(stream);
+            board.addBoardListener(stream);
+        }
+        return stream;
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        if (cellRevelationBatch.getSize() > 0) {
+            this.getMessageConsumer().accept(encodeDelta(this.nextSequence(), cellRevelationBatch));
+        }
+    }
+
+    @Override
+    public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+        this.getMessageConsumer().accept(encodeDelta(this.nextSequence(), boardRevelation));
+    }
+
+    @Override
+    public void cellFlagUpdated(MinesweeperCellPosition cellPosition, boolean flagged) {
+        int cellIndex = (cellPosition.getY() * this.getBoard().getColumns()) + cellPosition.getX();
+        ByteBuffer message = ByteBuffer.allocate(MinesweeperBoardStreamFormat.MESSAGE_HEADER_SIZE + MinesweeperBoardStreamFormat.computeVarintSize(cellIndex) + 1);
+        message.put(MinesweeperBoardStreamFormat.MESSAGE_FLAG).putInt(this.nextSequence());
+        MinesweeperBoardStreamFormat.writeVarint(message, cellIndex);
+        message.put((byte)(flagged ? 1 : 0));
+        this.getMessageConsumer().accept(message.flip());
+    }
+
+    @Override
+    public void boardRestored(MinesweeperBoardSnapshot snapshot) {
+        this.getMessageConsumer().accept(encodeKeyframe(this.nextSequence(), snapshot));
+    }
+
+    @Override
+    public void boardReset() {
+        this.getMessageConsumer().accept(encodeKeyframe(this.nextSequence(), this.getBoard().snapshot()));
+    }
+
+    /**
+     * Creates a keyframe containing the current state of the board, after which a client only needs the messages
+     * sent from now on
+     */
+    public ByteBuffer createKeyframe() {
+        MinesweeperBoardSnapshot snapshot = null;
+        int sequence = 0;
+        synchronized (this.getBoard()) {
+            snapshot = this.getBoard().snapshot();
+            sequence = this.getSequence();
+        }
+        return encodeKeyframe(sequence, snapshot);
+    }
+
+    /**
+     * Stops sending changes made on the board
+     */
+    public void detach() {
+        synchronized (this.getBoard()) {
+            this.getBoard().removeCellRevelationBatchListener(this);
+            this.getBoard().removeBoardListener(this);
+        }
+    }
+
+    private int nextSequence() {
+        this.setSequence(this.getSequence() + 1);
+        return this.getSequence();
+    }
+
+    static ByteBuffer encodeDelta(int sequence, MinesweeperCellRevelationBatch cellRevelationBatch) {
+        long[] cells = new long[cellRevelationBatch.getSize()];
+        for (int batchIndex = 0; batchIndex < cells.length; batchIndex++) {
+            int cellContent = cellRevelationBatch.getNeighboringMines(batchIndex);
+            if (cellRevelationBatch.isMined(batchIndex)) {
+                boolean directly = !MinesweeperCellRevelationType.AUTOMATICALLY.equals(cellRevelationBatch.getRevelationType(batchIndex));
+                cellContent = directly ? MinesweeperBoardStreamFormat.CELL_MINE_HIT : MinesweeperBoardStreamFormat.CELL_MINE;
+            }
+            cells[batchIndex] = ((long)cellRevelationBatch.getCellIndex(batchIndex) << 4) | cellContent;
+        }
+        Arrays.sort(cells);
+        return encodeDelta(sequence, cellRevelationBatch.getBoardState().ordinal(), cells);
+    }
+
+    static ByteBuffer encodeDelta(int sequence, MinesweeperBoardRevelation boardRevelation) {
+        long[] cells = new long[boardRevelation.getNumberOfCellsRevealedByGameEnd()];
+        int numberOfCells = 0;
+        for (int cellIndex = boardRevelation.nextCellRevealedByGameEnd(0); cellIndex >= 0 && numberOfCells < cells.length; cellIndex = boardRevelation.nextCellRevealedByGameEnd(cellIndex + 1)) {
+            int cellContent = boardRevelation.isMined(cellIndex) ? MinesweeperBoardStreamFormat.CELL_MINE : boardRevelation.getNeighboringMines(cellIndex);
+            cells[numberOfCells++] = ((long)cellIndex << 4) | cellContent;
+        }
+        return encodeDelta(sequence, boardRevelation.getBoardState().ordinal(), Arrays.copyOf(cells, numberOfCells));
+    }
+
+    private static ByteBuffer encodeDelta(int sequence, int boardState, long[] cells) {
+        int messageSize = MinesweeperBoardStreamFormat.MESSAGE_HEADER_SIZE + 1 + MinesweeperBoardStreamFormat.computeCellsSize(cells, cells.length, true);
+        ByteBuffer message = ByteBuffer.allocate(messageSize);
+        message.put(MinesweeperBoardStreamFormat.MESSAGE_DELTA).putInt(sequence).put((byte)boardState);
+        MinesweeperBoardStreamFormat.writeCells(message, cells, cells.length, true);
+        return message.flip();
+    }
+
+    static ByteBuffer encodeKeyframe(int sequence, MinesweeperBoardSnapshot snapshot) {
+        long[] revealedCells = new long[snapshot.getNumberOfCellsRevealed()];
+        int numberOfRevealedCells = 0;
+        for (int cellIndex = snapshot.nextRevealedCell(0); cellIndex >= 0 && numberOfRevealedCells < revealedCells.length; cellIndex = snapshot.nextRevealedCell(cellIndex + 1)) {
+            int cellContent = cellIndex == snapshot.getMineHitCellIndex() ? MinesweeperBoardStreamFormat.CELL_MINE_HIT : snapshot.isMined(cellIndex) ? MinesweeperBoardStreamFormat.CELL_MINE : snapshot.getNeighboringMines(cellIndex);
+            revealedCells[numberOfRevealedCells++] = ((long)cellIndex << 4) | cellContent;
+        }
+        long[] flaggedCells = new long[snapshot.getNumberOfCellsFlagged()];
+        int numberOfFlaggedCells = 0;
+        for (int cellIndex = snapshot.nextFlaggedCell(0); cellIndex >= 0 && numberOfFlaggedCells < flaggedCells.length; cellIndex = snapshot.nextFlaggedCell(cellIndex + 1)) {
+            flaggedCells[numberOfFlaggedCells++] = (long)cellIndex << 4;
+        }
+        int messageSize = MinesweeperBoardStreamFormat.MESSAGE_HEADER_SIZE + 4 + 4 + 4 + 1;
+        messageSize += MinesweeperBoardStreamFormat.computeCellsSize(revealedCells, numberOfRevealedCells, true);
+        messageSize += MinesweeperBoardStreamFormat.computeCellsSize(flaggedCells, numberOfFlaggedCells, false);
+        ByteBuffer message = ByteBuffer.allocate(messageSize);
+        message.put(MinesweeperBoardStreamFormat.MESSAGE_KEYFRAME).putInt(sequence);
+        message.putInt(snapshot.getRows()).putInt(snapshot.getColumns()).putInt(snapshot.getMinesTotal());
+        message.put((byte)snapshot.getBoardState().ordinal());
+        MinesweeperBoardStreamFormat.writeCells(message, revealedCells, numberOfRevealedCells, true);
+        MinesweeperBoardStreamFormat.writeCells(message, flaggedCells, numberOfFlaggedCells, false);
+        return message.flip();
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    private Consumer<ByteBuffer> getMessageConsumer() {
+        return this.messageConsumer;
+    }
+    private void setMessageConsumer(Consumer<ByteBuffer> messageConsumer) {
+        this.messageConsumer = messageConsumer;
+    }
+
+    private int getSequence() {
+        return this.sequence;
+    }
+    private void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+}
@@ -0,0 +1,191 @@
+package de.perdian.games.minesweeper.session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes the messages exchanged between a {@link MinesweeperBoardStream} and a {@link MinesweeperBoardMirror}.
+ *
+ * Every message starts with its type and a sequence number. A delta contains the state of the board followed by the
+ * cells opened since the previous message, a keyframe additionally contains the dimensions of the board and all cells
+ * that are revealed or flagged. A flag message contains a single cell and whether it has been flagged or unflagged.
+ *
+ * A list of cells is written as ascending runs of consecutive cell indices, each run being the distance to the end
+ * of the previous run followed by its length, both as unsigned variable-length integers. The contents of the opened
+ * cells follow their runs as 4-bit values, two cells per byte, lower half first: the number of neighbouring mines for
+ * a safe cell, {@link #CELL_MINE} for a mine and {@link #CELL_MINE_HIT} for the mine that has ended the game. As
+ * flood fills open connected areas, most deltas consist of a few long runs, so a delta rarely needs more than a bit
+ * over half a byte per cell.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperBoardStreamFormat {
+
+    static final byte MESSAGE_KEYFRAME = 1;
+    static final byte MESSAGE_DELTA = 2;
+    static final byte MESSAGE_FLAG = 3;
+
+    static final byte CELL_CLOSED = -1;
+    static final byte CELL_MINE = 9;
+    static final byte CELL_MINE_HIT = 10;
+
+    static final int MESSAGE_HEADER_SIZE = 1 + 4;
+    static final int MAXIMUM_VARINT_SIZE = 5;
+
+    /**
+     * Computes the number of bytes needed to write the given sorted cells, including their contents if requested
+     *
+     * @param cells
+     *     the cells to be written, each as {@code cellIndex << 4 | cellContent}, in ascending order
+     */
+    static int computeCellsSize(long[] cells, int numberOfCells, boolean withContents) {
+        int cellsSize = 0;
+        int numberOfRuns = 0;
+        int previousRunEnd = 0;
+        for (int runStart = 0; runStart < numberOfCells; ) {
+            int runEnd = findRunEnd(cells, numberOfCells, runStart);
+            int firstCellIndex = (int)(cells[runStart] >>> 4);
+            cellsSize += computeVarintSize(firstCellIndex - previousRunEnd) + computeVarintSize(runEnd - runStart);
+            previousRunEnd = firstCellIndex + (runEnd - runStart);
+            numberOfRuns++;
+            runStart = runEnd;
+        }
+        return computeVarintSize(numberOfRuns) + cellsSize + (withContents ? (numberOfCells + 1) / 2 : 0);
+    }
+
+    /**
+     * Writes the given sorted cells as runs of cell indices, followed by their contents if requested
+     *
+     * @param cells
+     *     the cells to be written, each as {@code cellIndex << 4 | cellContent}, in ascending order
+     */
+    static void writeCells(ByteBuffer target, long[] cells, int numberOfCells, boolean withContents) {
+        int numberOfRuns = 0;
+        for (int runStart = 0; runStart < numberOfCells; runStart = findRunEnd(cells, numberOfCells, runStart)) {
+            numberOfRuns++;
+        }
+        writeVarint(target, numberOfRuns);
+        int previousRunEnd = 0;
+        for (int runStart = 0; runStart < numberOfCells; ) {
+            int runEnd = findRunEnd(cells, numberOfCells, runStart);
+            int firstCellIndex = (int)(cells[runStart] >>> 4);
+            writeVarint(target, firstCellIndex - previousRunEnd);
+            writeVarint(target, runEnd - runStart);
+            previousRunEnd = firstCellIndex + (runEnd - runStart);
+            runStart = runEnd;
+        }
+        if (withContents) {
+            for (int cellIndex = 0; cellIndex < numberOfCells; cellIndex += 2) {
+                int lowerContent = (int)(cells[cellIndex] & 0x0F);
+                int upperContent = cellIndex + 1 < numberOfCells ? (int)(cells[cellIndex + 1] & 0x0F) : 0;
+                target.put((byte)(lowerContent | (upperContent << 4)));
+            }
+        }
+    }
+
+    private static int findRunEnd(long[] cells, int numberOfCells, int runStart) {
+        int runEnd = runStart + 1;
+        while (runEnd < numberOfCells && (cells[runEnd] >>> 4) == (cells[runEnd - 1] >>> 4) + 1) {
+            runEnd++;
+        }
+        return runEnd;
+    }
+
+    /**
+     * Reads a list of cells written by {@link #writeCells(ByteBuffer, long[], int, boolean)} with contents and stores
+     * the contents of every cell within the given array
+     *
+     * @return
+     *     the number of cells that have been closed before
+     */
+    static int readCellContents(ByteBuffer source, byte[] cellContents) throws IOException {
+        int numberOfRuns = readVarint(source);
+        int[] runs = new int[numberOfRuns * 2];
+        int numberOfCells = 0;
+        for (int runIndex = 0, runEnd = 0; runIndex < numberOfRuns; runIndex++) {
+            runs[runIndex * 2] = runEnd + readVarint(source);
+            runs[runIndex * 2 + 1] = readVarint(source);
+            runEnd = verifyRun(runs[runIndex * 2], runs[runIndex * 2 + 1], cellContents.length);
+            numberOfCells += runs[runIndex * 2 + 1];
+        }
+        if (source.remaining() < (numberOfCells + 1) / 2) {
+            throw new IOException("Message ends within the contents of its " + numberOfCells + " cells");
+        }
+        int numberOfCellsOpened = 0;
+        int contentPosition = source.position();
+        int contentIndex = 0;
+        for (int runIndex = 0; runIndex < numberOfRuns; runIndex++) {
+            for (int cellIndex = runs[runIndex * 2], runEnd = cellIndex + runs[runIndex * 2 + 1]; cellIndex < runEnd; cellIndex++, contentIndex++) {
+                int contentByte = source.get(contentPosition + (contentIndex >>> 1));
+                byte cellContent = (byte)((contentIndex & 1) == 0 ? contentByte & 0x0F : (contentByte >>> 4) & 0x0F);
+                if (cellContent > CELL_MINE_HIT) {
+                    throw new IOException("Invalid content " + cellContent + " of cell " + cellIndex);
+                } else if (cellContents[cellIndex] == CELL_CLOSED) {
+                    numberOfCellsOpened++;
+                }
+                cellContents[cellIndex] = cellContent;
+            }
+        }
+        source.position(contentPosition + (numberOfCells + 1) / 2);
+        return numberOfCellsOpened;
+    }
+
+    /**
+     * Reads a list of cells written by {@link #writeCells(ByteBuffer, long[], int, boolean)} without contents and
+     * marks every cell within the given array
+     *
+     * @return
+     *     the number of cells that have been read
+     */
+    static int readCellMarks(ByteBuffer source, boolean[] cellMarks) throws IOException {
+        int numberOfRuns = readVarint(source);
+        int numberOfCells = 0;
+        for (int runIndex = 0, runEnd = 0; runIndex < numberOfRuns; runIndex++) {
+            int runStart = runEnd + readVarint(source);
+            int runLength = readVarint(source);
+            runEnd = verifyRun(runStart, runLength, cellMarks.length);
+            for (int cellIndex = runStart; cellIndex < runEnd; cellIndex++) {
+                cellMarks[cellIndex] = true;
+            }
+            numberOfCells += runLength;
+        }
+        return numberOfCells;
+    }
+
+    private static int verifyRun(int runStart, int runLength, int numberOfCells) throws IOException {
+        if (runStart < 0 || runLength <= 0 || runLength > numberOfCells - runStart) {
+            throw new IOException("Invalid run of " + runLength + " cells starting at cell " + runStart);
+        } else {
+            return runStart + runLength;
+        }
+    }
+
+    static int computeVarintSize(int value) {
+        return value < 0 ? MAXIMUM_VARINT_SIZE : (Integer.SIZE - Integer.numberOfLeadingZeros(value | 1) + 6) / 7;
+    }
+
+    static void writeVarint(ByteBuffer target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.put((byte)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte)value);
+    }
+
+    static int readVarint(ByteBuffer source) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < MAXIMUM_VARINT_SIZE * 7; shift += 7) {
+            if (!source.hasRemaining()) {
+                throw new IOException("Message ends within a number");
+            }
+            byte nextByte = source.get();
+            value |= (nextByte & 0x7F) << shift;
+            if (nextByte >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Number exceeds " + MAXIMUM_VARINT_SIZE + " bytes");
+    }
+
+}
@@ -0,0 +1,305 @@
+package de.perdian.games.minesweeper.session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelation;
+
+/**
+ * A single game hosted by a {@link MinesweeperSessionRegistry}.
+ *
+ * All operations on the board of a session are executed one after another on the executor of the registry, so the
+ * board never sees concurrent access and no thread is blocked while waiting for its turn. When the board has been
+ * passivated by the registry, it is restored before the next operation is executed. A board that still has listeners
+ * registered after an operation is pinned and never passivated, as its listeners would be lost otherwise.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperSession {
+
+    private static final int MAXIMUM_TASKS_PER_RUN = 64;
+
+    private String id = null;
+    private MinesweeperSessionRegistry registry = null;
+    private MinesweeperBoard board = null;
+    private long boardMemorySize = 0;
+    private volatile byte[] passivatedBoard = null;
+    private volatile long lastAccessTime = 0;
+    private volatile long accessOrder = 0;
+    private volatile boolean boardPinned = false;
+    private volatile boolean closed = false;
+    private Queue<Runnable> pendingTasks = null;
+    private AtomicBoolean running = null;
+
+    MinesweeperSession(String id, MinesweeperSessionRegistry registry, MinesweeperBoard board) {
+        this.setId(id);
+        this.setRegistry(registry);
+        this.setBoard(board);
+        this.setBoardMemorySize(computeBoardMemorySize(board));
+        this.setLastAccessTime(System.nanoTime());
+        this.setPendingTasks(new ConcurrentLinkedQueue<>());
+        this.setRunning(new AtomicBoolean());
+    }
+
+    /**
+     * Estimates the heap used by a board: one byte for the neighbouring mines and two bits for the mined and the
+     * revealed flag of every cell
+     */
+    static long computeBoardMemorySize(MinesweeperBoard board) {
+        long numberOfCells = (long)board.getRows() * board.getColumns();
+        return numberOfCells + (numberOfCells / 4);
+    }
+
+    /**
+     * Executes the given action on the board of this session, after all operations submitted before have been
+     * completed. The board passed into the action must not be used after the action has returned, as it might be
+     * passivated at any time afterwards, unless the action leaves listeners registered at the board, which keeps the
+     * board in memory until a later action removes them.
+     */
+    public <T> CompletableFuture<T> execute(Function<MinesweeperBoard, T> boardAction) {
+        CompletableFuture<T> resultFuture = new CompletableFuture<>();
+        this.submit(() -> {
+            try {
+                if (this.isClosed()) {
+                    throw new IllegalStateException("Session " + this.getId() + " has already been closed");
+                } else {
+                    MinesweeperBoard board = this.activateBoard();
+                    T result = null;
+                    try {
+                        result = boardAction.apply(board);
+                    } finally {
+                        this.setBoardPinned(board.hasListeners());
+                    }
+                    resultFuture.complete(result);
+                }
+            } catch (Throwable e) {
+                resultFuture.completeExceptionally(e);
+            }
+        });
+        return resultFuture;
+    }
+
+    /**
+     * Reveals the underside of a cell on the board of this session
+     */
+    public CompletableFuture<MinesweeperCellRevelation> reveal(MinesweeperCellPosition cellPosition) {
+        return this.execute(board -> board.reveal(cellPosition));
+    }
+
+    /**
+     * Completes as soon as all operations submitted before have been executed, without restoring a passivated board
+     */
+    CompletableFuture<Void> flush() {
+        CompletableFuture<Void> flushFuture = new CompletableFuture<>();
+        this.submit(() -> flushFuture.complete(null));
+        return flushFuture;
+    }
+
+    void submit(Runnable task) {
+        this.getPendingTasks().add(task);
+        this.schedulePendingTasks();
+    }
+
+    private void schedulePendingTasks() {
+        if (this.getRunning().compareAndSet(false, true)) {
+            this.getRegistry().getExecutorService().execute(this::runPendingTasks);
+        }
+    }
+
+    /**
+     * Runs the tasks queued for this session. After a limited number of tasks the thread is handed back to the
+     * executor, so that a single busy session cannot starve all others.
+     */
+    private void runPendingTasks() {
+        for (int taskCount = 0; taskCount < MAXIMUM_TASKS_PER_RUN; taskCount++) {
+            Runnable nextTask = this.getPendingTasks().poll();
+            if (nextTask == null) {
+                break;
+            } else {
+                nextTask.run();
+            }
+        }
+        this.getRunning().set(false);
+        if (!this.getPendingTasks().isEmpty()) {
+            this.schedulePendingTasks();
+        }
+    }
+
+    private MinesweeperBoard activateBoard() {
+        if (this.getBoard() == null) {
+            this.setBoard(inflateBoard(this.getPassivatedBoard()));
+            this.setPassivatedBoard(null);
+        }
+        this.setLastAccessTime(System.nanoTime());
+        this.getRegistry().boardAccessed(this);
+        return this.getBoard();
+    }
+
+    /**
+     * Replaces the board by its compressed binary representation, unless it has been accessed again since the
+     * registry decided to passivate it. A board with listeners is pinned and handed back to the registry instead.
+     * Must only be called as a task of this session.
+     */
+    void passivateBoard() {
+        if (this.getBoard() != null && !this.getRegistry().isBoardActive(this)) {
+            if (this.getBoard().hasListeners()) {
+                this.setBoardPinned(true);
+                this.getRegistry().boardAccessed(this);
+            } else {
+                this.setPassivatedBoard(deflateBoard(this.getBoard()));
+                this.setBoard(null);
+            }
+        }
+    }
+
+    /**
+     * Drops the board after the session has been removed from the registry. Must only be called as a task of this
+     * session.
+     */
+    void releaseBoard() {
+        this.setBoard(null);
+        this.setPassivatedBoard(null);
+    }
+
+    private static byte[] deflateBoard(MinesweeperBoard board) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(board.toByteArray());
+            deflater.finish();
+            ByteArrayOutputStream deflatedStream = new ByteArrayOutputStream();
+            byte[] deflatedBuffer = new byte[8192];
+            while (!deflater.finished()) {
+                deflatedStream.write(deflatedBuffer, 0, deflater.deflate(deflatedBuffer));
+            }
+            return deflatedStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static MinesweeperBoard inflateBoard(byte[] deflatedBoard) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflatedBoard);
+            ByteArrayOutputStream inflatedStream = new ByteArrayOutputStream(deflatedBoard.length * 4);
+            byte[] inflatedBuffer = new byte[8192];
+            while (!inflater.finished()) {
+                int inflatedLength = inflater.inflate(inflatedBuffer);
+                if (inflatedLength == 0 && inflater.needsInput()) {
+                    throw new IOException("Passivated board data is truncated");
+                }
+                inflatedStream.write(inflatedBuffer, 0, inflatedLength);
+            }
+            return MinesweeperBoard.fromByteArray(inflatedStream.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot restore passivated board", e);
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException("Cannot restore passivated board", new IOException(e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public String getId() {
+        return this.id;
+    }
+    private void setId(String id) {
+        this.id = id;
+    }
+
+    private MinesweeperSessionRegistry getRegistry() {
+        return this.registry;
+    }
+    private void setRegistry(MinesweeperSessionRegistry registry) {
+        this.registry = registry;
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    long getBoardMemorySize() {
+        return this.boardMemorySize;
+    }
+    private void setBoardMemorySize(long boardMemorySize) {
+        this.boardMemorySize = boardMemorySize;
+    }
+
+    private byte[] getPassivatedBoard() {
+        return this.passivatedBoard;
+    }
+    private void setPassivatedBoard(byte[] passivatedBoard) {
+        this.passivatedBoard = passivatedBoard;
+    }
+
+    /**
+     * Checks whether the board of this session is currently stored in its compressed form only
+     */
+    public boolean isPassivated() {
+        return this.getPassivatedBoard() != null;
+    }
+
+    /**
+     * Gets the value of {@link System#nanoTime()} at which the board has been accessed for the last time
+     */
+    public long getLastAccessTime() {
+        return this.lastAccessTime;
+    }
+    private void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
+    long getAccessOrder() {
+        return this.accessOrder;
+    }
+    void setAccessOrder(long accessOrder) {
+        this.accessOrder = accessOrder;
+    }
+
+    /**
+     * Checks whether the board of this session is kept in memory because listeners are registered at it
+     */
+    public boolean isBoardPinned() {
+        return this.boardPinned;
+    }
+    private void setBoardPinned(boolean boardPinned) {
+        this.boardPinned = boardPinned;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+    void setClosed(boolean closed) {
+        this.closed = closed;
+    }
+
+    private Queue<Runnable> getPendingTasks() {
+        return this.pendingTasks;
+    }
+    private void setPendingTasks(Queue<Runnable> pendingTasks) {
+        this.pendingTasks = pendingTasks;
+    }
+
+    private AtomicBoolean getRunning() {
+        return this.running;
+    }
+    private void setRunning(AtomicBoolean running) {
+        this.running = running;
+    }
+
+}
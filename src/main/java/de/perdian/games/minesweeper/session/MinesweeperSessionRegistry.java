@@ -0,0 +1,283 @@
+package de.perdian.games.minesweeper.session;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+
+/**
+ * Hosts any number of concurrent {@link MinesweeperSession}s.
+ *
+ * The boards of all sessions share a memory budget. Whenever a board is accessed that pushes the boards held in
+ * memory over the budget, the least recently used boards are passivated into a compressed binary form. In addition
+ * boards that have not been accessed for longer than the idle timeout are passivated by a background task. A
+ * passivated board is restored transparently as soon as the next operation on its session is executed.
+ *
+ * The access order of the boards held in memory is kept without any lock: every access draws a new position from an
+ * atomic counter and moves the session to that position within a concurrent skip list, so that sessions running on
+ * different threads never wait for each other. Passivating a board only keeps its cells, so a board that has
+ * listeners registered is pinned in memory instead, even if this exceeds the budget, until its listeners have been
+ * removed again.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperSessionRegistry implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MinesweeperSessionRegistry.class);
+
+    private ExecutorService executorService = null;
+    private boolean executorServiceOwned = false;
+    private ScheduledExecutorService evictionExecutorService = null;
+    private long memoryBudget = 0;
+    private long idleTimeout = 0;
+    private Map<String, MinesweeperSession> sessions = null;
+    private ConcurrentNavigableMap<Long, MinesweeperSession> activeSessions = null;
+    private AtomicLong accessCounter = null;
+    private AtomicLong activeMemorySize = null;
+
+    /**
+     * Creates a registry that executes all sessions on a work-stealing pool with one thread per available processor
+     */
+    public MinesweeperSessionRegistry(long memoryBudget, Duration idleTimeout) {
+        this(new ForkJoinPool(Runtime.getRuntime().availableProcessors(), ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true), true, memoryBudget, idleTimeout);
+    }
+
+    /**
+     * Creates a registry that executes all sessions on the given executor. The executor is not shut down when the
+     * registry is closed.
+     */
+    public MinesweeperSessionRegistry(ExecutorService executorService, long memoryBudget, Duration idleTimeout) {
+        this(executorService, false, memoryBudget, idleTimeout);
+    }
+
+    private MinesweeperSessionRegistry(ExecutorService executorService, boolean executorServiceOwned, long memoryBudget, Duration idleTimeout) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Parameter 'memoryBudget' must be larger than zero");
+        } else if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("Parameter 'idleTimeout' must be larger than zero");
+        } else {
+            this.setExecutorService(executorService);
+            this.setExecutorServiceOwned(executorServiceOwned);
+            this.setMemoryBudget(memoryBudget);
+            this.setIdleTimeout(idleTimeout.toNanos());
+            this.setSessions(new ConcurrentHashMap<>());
+            this.setActiveSessions(new ConcurrentSkipListMap<>());
+            this.setAccessCounter(new AtomicLong());
+            this.setActiveMemorySize(new AtomicLong());
+            this.setEvictionExecutorService(Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread evictionThread = new Thread(runnable, "minesweeper-session-eviction");
+                evictionThread.setDaemon(true);
+                return evictionThread;
+            }));
+            long evictionInterval = Math.max(1, idleTimeout.toMillis() / 4);
+            this.getEvictionExecutorService().scheduleWithFixedDelay(this::evictIdleSessions, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates a new board using the given builder and registers a new session for it
+     */
+    public MinesweeperSession createSession(MinesweeperBoardBuilder boardBuilder) {
+        MinesweeperBoard board = boardBuilder.build();
+        MinesweeperSession session = new MinesweeperSession(UUID.randomUUID().toString(), this, board);
+        this.getSessions().put(session.getId(), session);
+        this.boardAccessed(session);
+        log.debug("Created session {} with {} rows and {} columns", session.getId(), board.getRows(), board.getColumns());
+        return session;
+    }
+
+    /**
+     * Gets the session with the given id or {@code null} if no such session exists
+     */
+    public MinesweeperSession getSession(String sessionId) {
+        return this.getSessions().get(sessionId);
+    }
+
+    /**
+     * Removes the session with the given id. Operations that have already been submitted to the session are
+     * completed exceptionally.
+     */
+    public void removeSession(String sessionId) {
+        MinesweeperSession session = this.getSessions().remove(sessionId);
+        if (session != null) {
+            session.setClosed(true);
+            this.deactivate(session.getAccessOrder(), session);
+            session.submit(session::releaseBoard);
+            log.debug("Removed session {}", sessionId);
+        }
+    }
+
+    /**
+     * Marks the board of the given session as most recently used. If the boards held in memory exceed the budget
+     * afterwards, the least recently used boards that are not pinned are passivated.
+     *
+     * Every entry within the active sessions accounts for the memory of its board exactly once: the memory is added
+     * when the entry is inserted and subtracted by whichever thread succeeds in removing the entry again.
+     */
+    void boardAccessed(MinesweeperSession session) {
+        long previousAccessOrder = session.getAccessOrder();
+        long accessOrder = this.getAccessCounter().incrementAndGet();
+        session.setAccessOrder(accessOrder);
+        this.getActiveSessions().put(accessOrder, session);
+        this.getActiveMemorySizeCounter().addAndGet(session.getBoardMemorySize());
+        this.deactivate(previousAccessOrder, session);
+        if (session.isClosed()) {
+            this.deactivate(accessOrder, session);
+        }
+        List<MinesweeperSession> evictedSessions = new ArrayList<>();
+        Iterator<Map.Entry<Long, MinesweeperSession>> activeSessionsIterator = this.getActiveSessions().entrySet().iterator();
+        while (this.getActiveMemorySize() > this.getMemoryBudget() && activeSessionsIterator.hasNext()) {
+            Map.Entry<Long, MinesweeperSession> eldestEntry = activeSessionsIterator.next();
+            MinesweeperSession eldestSession = eldestEntry.getValue();
+            if (eldestSession != session && !eldestSession.isBoardPinned() && this.deactivate(eldestEntry.getKey(), eldestSession)) {
+                evictedSessions.add(eldestSession);
+            }
+        }
+        evictedSessions.forEach(evictedSession -> evictedSession.submit(evictedSession::passivateBoard));
+    }
+
+    /**
+     * Removes the given entry from the active sessions and releases the memory accounted for it
+     *
+     * @return {@code true} if the entry has been removed by the current thread
+     */
+    private boolean deactivate(long accessOrder, MinesweeperSession session) {
+        if (this.getActiveSessions().remove(accessOrder, session)) {
+            this.getActiveMemorySizeCounter().addAndGet(-session.getBoardMemorySize());
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    boolean isBoardActive(MinesweeperSession session) {
+        return this.getActiveSessions().get(session.getAccessOrder()) == session;
+    }
+
+    /**
+     * Passivates the boards of all sessions that have not been accessed within the idle timeout and are not pinned
+     */
+    public void evictIdleSessions() {
+        long idleThreshold = System.nanoTime() - this.getIdleTimeout();
+        List<MinesweeperSession> evictedSessions = new ArrayList<>();
+        for (Map.Entry<Long, MinesweeperSession> eldestEntry : this.getActiveSessions().entrySet()) {
+            MinesweeperSession eldestSession = eldestEntry.getValue();
+            if (eldestSession.getLastAccessTime() - idleThreshold >= 0) {
+                break;
+            } else if (!eldestSession.isBoardPinned() && this.deactivate(eldestEntry.getKey(), eldestSession)) {
+                evictedSessions.add(eldestSession);
+            }
+        }
+        if (!evictedSessions.isEmpty()) {
+            log.debug("Passivating {} idle sessions", evictedSessions.size());
+            evictedSessions.forEach(evictedSession -> evictedSession.submit(evictedSession::passivateBoard));
+        }
+    }
+
+    /**
+     * Stops the background eviction. If the registry created its own executor, that executor is shut down as well.
+     */
+    @Override
+    public void close() {
+        this.getEvictionExecutorService().shutdownNow();
+        if (this.isExecutorServiceOwned()) {
+            this.getExecutorService().shutdown();
+        }
+    }
+
+    /**
+     * Gets the number of sessions currently hosted by the registry
+     */
+    public int getNumberOfSessions() {
+        return this.getSessions().size();
+    }
+
+    /**
+     * Gets the estimated memory used by all boards that are currently not passivated
+     */
+    public long getActiveMemorySize() {
+        return this.getActiveMemorySizeCounter().get();
+    }
+    private AtomicLong getActiveMemorySizeCounter() {
+        return this.activeMemorySize;
+    }
+    private void setActiveMemorySize(AtomicLong activeMemorySize) {
+        this.activeMemorySize = activeMemorySize;
+    }
+
+    ExecutorService getExecutorService() {
+        return this.executorService;
+    }
+    private void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    private boolean isExecutorServiceOwned() {
+        return this.executorServiceOwned;
+    }
+    private void setExecutorServiceOwned(boolean executorServiceOwned) {
+        this.executorServiceOwned = executorServiceOwned;
+    }
+
+    private ScheduledExecutorService getEvictionExecutorService() {
+        return this.evictionExecutorService;
+    }
+    private void setEvictionExecutorService(ScheduledExecutorService evictionExecutorService) {
+        this.evictionExecutorService = evictionExecutorService;
+    }
+
+    public long getMemoryBudget() {
+        return this.memoryBudget;
+    }
+    private void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    private long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+    private void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    private Map<String, MinesweeperSession> getSessions() {
+        return this.sessions;
+    }
+    private void setSessions(Map<String, MinesweeperSession> sessions) {
+        this.sessions = sessions;
+    }
+
+    private ConcurrentNavigableMap<Long, MinesweeperSession> getActiveSessions() {
+        return this.activeSessions;
+    }
+    private void setActiveSessions(ConcurrentNavigableMap<Long, MinesweeperSession> activeSessions) {
+        this.activeSessions = activeSessions;
+    }
+
+    private AtomicLong getAccessCounter() {
+        return this.accessCounter;
+    }
+    private void setAccessCounter(AtomicLong accessCounter) {
+        this.accessCounter = accessCounter;
+    }
+
+}
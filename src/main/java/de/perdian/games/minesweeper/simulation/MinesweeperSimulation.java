@@ -0,0 +1,356 @@
+package de.perdian.games.minesweeper.simulation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationType;
+import de.perdian.games.minesweeper.core.MinesweeperRandom;
+
+/**
+ * Plays a large number of games without any user interface, to measure how a board configuration behaves for a
+ * given strategy.
+ *
+ * The games are split into blocks that are distributed across a work-stealing pool. Every worker thread creates a
+ * single board and a single strategy and reuses them for all games it plays, so that no cell storage is allocated per
+ * game. Game {@code n} always uses random numbers derived from the seed of the simulation and {@code n}, so the
+ * results of a simulation do not depend on the number of threads or on which thread played which game. Whenever a
+ * block has been completed, its results are appended as one row to the result file.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperSimulation {
+
+    private static final Logger log = LoggerFactory.getLogger(MinesweeperSimulation.class);
+
+    static final String RESULT_HEADER = "firstGame,numberOfGames,gamesWon,winRate,moves,floodFills,floodFilledCells,largestFloodFill,averageNanosPerGame";
+
+    private int rows = 8;
+    private int columns = 8;
+    private int mines = 10;
+    private long numberOfGames = 1000;
+    private long seed = 0;
+    private int gamesPerBlock = 1024;
+    private Supplier<MinesweeperSimulationStrategy> strategyFactory = MinesweeperSolverStrategy::new;
+    private ForkJoinPool forkJoinPool = ForkJoinPool.commonPool();
+
+    /**
+     * Plays all games and writes the results of every block into the given file as comma separated values
+     *
+     * @return
+     *     the results of all games
+     */
+    public MinesweeperSimulationStatistics run(Path resultFile) throws IOException {
+        log.info("Simulating {} games on boards with {} rows and {} columns containing {} mines", this.getNumberOfGames(), this.getRows(), this.getColumns(), this.getMines());
+        MinesweeperSimulationStatistics statistics = new MinesweeperSimulationStatistics();
+        try (BufferedWriter resultWriter = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8)) {
+            resultWriter.write(RESULT_HEADER);
+            resultWriter.newLine();
+            ThreadLocal<Worker> workers = ThreadLocal.withInitial(this::createWorker);
+            try {
+                this.getForkJoinPool().invoke(new BlockAction(0, this.getNumberOfGames(), workers, resultWriter, statistics));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        log.info("Simulated {} games, {} of them won", statistics.getNumberOfGames(), statistics.getGamesWon());
+        return statistics;
+    }
+
+    private Worker createWorker() {
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(this.getRows());
+        boardBuilder.setColumns(this.getColumns());
+        boardBuilder.setMines(this.getMines());
+        return new Worker(boardBuilder, this.getStrategyFactory().get());
+    }
+
+    private void writeBlock(long firstGame, MinesweeperSimulationStatistics blockStatistics, Writer resultWriter) {
+        StringBuilder resultLine = new StringBuilder();
+        resultLine.append(firstGame).append(',');
+        resultLine.append(blockStatistics.getNumberOfGames()).append(',');
+        resultLine.append(blockStatistics.getGamesWon()).append(',');
+        resultLine.append(String.format(Locale.ROOT, "%.6f", blockStatistics.getWinRate())).append(',');
+        resultLine.append(blockStatistics.getMoves()).append(',');
+        resultLine.append(blockStatistics.getFloodFills()).append(',');
+        resultLine.append(blockStatistics.getFloodFilledCells()).append(',');
+        resultLine.append(blockStatistics.getLargestFloodFill()).append(',');
+        resultLine.append(Math.round(blockStatistics.getAverageNanosPerGame()));
+        resultLine.append(System.lineSeparator());
+        try {
+            resultWriter.write(resultLine.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write simulation results", e);
+        }
+    }
+
+    /**
+     * Splits a range of games in halves until it contains no more than the configured number of games per block and
+     * then plays the games of the block on the worker of the current thread
+     */
+    private class BlockAction extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private long fromGame = 0;
+        private long toGame = 0;
+        private ThreadLocal<Worker> workers = null;
+        private Writer resultWriter = null;
+        private MinesweeperSimulationStatistics statistics = null;
+
+        BlockAction(long fromGame, long toGame, ThreadLocal<Worker> workers, Writer resultWriter, MinesweeperSimulationStatistics statistics) {
+            this.setFromGame(fromGame);
+            this.setToGame(toGame);
+            this.setWorkers(workers);
+            this.setResultWriter(resultWriter);
+            this.setStatistics(statistics);
+        }
+
+        @Override
+        protected void compute() {
+            if (this.getToGame() - this.getFromGame() <= MinesweeperSimulation.this.getGamesPerBlock()) {
+                Worker worker = this.getWorkers().get();
+                MinesweeperSimulationStatistics blockStatistics = new MinesweeperSimulationStatistics();
+                for (long gameIndex = this.getFromGame(); gameIndex < this.getToGame(); gameIndex++) {
+                    worker.playGame(MinesweeperSimulation.this.getSeed(), gameIndex, blockStatistics);
+                }
+                synchronized (this.getResultWriter()) {
+                    MinesweeperSimulation.this.writeBlock(this.getFromGame(), blockStatistics, this.getResultWriter());
+                    this.getStatistics().add(blockStatistics);
+                }
+            } else {
+                long middleGame = (this.getFromGame() + this.getToGame()) >>> 1;
+                invokeAll(new BlockAction(this.getFromGame(), middleGame, this.getWorkers(), this.getResultWriter(), this.getStatistics()), new BlockAction(middleGame, this.getToGame(), this.getWorkers(), this.getResultWriter(), this.getStatistics()));
+            }
+        }
+
+        private long getFromGame() {
+            return this.fromGame;
+        }
+        private void setFromGame(long fromGame) {
+            this.fromGame = fromGame;
+        }
+
+        private long getToGame() {
+            return this.toGame;
+        }
+        private void setToGame(long toGame) {
+            this.toGame = toGame;
+        }
+
+        private ThreadLocal<Worker> getWorkers() {
+            return this.workers;
+        }
+        private void setWorkers(ThreadLocal<Worker> workers) {
+            this.workers = workers;
+        }
+
+        private Writer getResultWriter() {
+            return this.resultWriter;
+        }
+        private void setResultWriter(Writer resultWriter) {
+            this.resultWriter = resultWriter;
+        }
+
+        private MinesweeperSimulationStatistics getStatistics() {
+            return this.statistics;
+        }
+        private void setStatistics(MinesweeperSimulationStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+    }
+
+    /**
+     * The board, strategy and random number generators owned by a single worker thread
+     */
+    private static class Worker implements MinesweeperCellRevelationBatchListener {
+
+        private MinesweeperBoardBuilder boardBuilder = null;
+        private MinesweeperBoard board = null;
+        private MinesweeperSimulationStrategy strategy = null;
+        private Random strategyRandom = null;
+        private MinesweeperSimulationStatistics statistics = null;
+
+        Worker(MinesweeperBoardBuilder boardBuilder, MinesweeperSimulationStrategy strategy) {
+            this.setBoardBuilder(boardBuilder);
+            this.setBoard(boardBuilder.build());
+            this.getBoard().addCellRevelationBatchListener(this);
+            this.setStrategy(strategy);
+            this.setStrategyRandom(new MinesweeperRandom());
+        }
+
+        void playGame(long seed, long gameIndex, MinesweeperSimulationStatistics statistics) {
+            this.getBoardBuilder().setSeed(MinesweeperBoardBuilder.mixSeed(seed, gameIndex << 1));
+            this.getStrategyRandom().setSeed(MinesweeperBoardBuilder.mixSeed(seed, (gameIndex << 1) | 1));
+            this.setStatistics(statistics);
+            long startTime = System.nanoTime();
+            this.getBoardBuilder().rebuild(this.getBoard());
+            this.getStrategy().play(this.getBoard(), this.getStrategyRandom());
+            if (MinesweeperBoardState.RUNNING.equals(this.getBoard().getBoardState())) {
+                throw new IllegalStateException("Strategy " + this.getStrategy() + " did not finish game " + gameIndex);
+            } else {
+                statistics.recordGame(MinesweeperBoardState.COMPLETED_WON.equals(this.getBoard().getBoardState()), System.nanoTime() - startTime);
+            }
+        }
+
+        @Override
+        public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+            int floodFilledCells = 0;
+            for (int index = 0; index < cellRevelationBatch.getSize(); index++) {
+                if (MinesweeperCellRevelationType.AUTOMATICALLY.equals(cellRevelationBatch.getRevelationType(index))) {
+                    floodFilledCells++;
+                }
+            }
+            this.getStatistics().recordMove(floodFilledCells);
+        }
+
+        private MinesweeperBoardBuilder getBoardBuilder() {
+            return this.boardBuilder;
+        }
+        private void setBoardBuilder(MinesweeperBoardBuilder boardBuilder) {
+            this.boardBuilder = boardBuilder;
+        }
+
+        private MinesweeperBoard getBoard() {
+            return this.board;
+        }
+        private void setBoard(MinesweeperBoard board) {
+            this.board = board;
+        }
+
+        private MinesweeperSimulationStrategy getStrategy() {
+            return this.strategy;
+        }
+        private void setStrategy(MinesweeperSimulationStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        private Random getStrategyRandom() {
+            return this.strategyRandom;
+        }
+        private void setStrategyRandom(Random strategyRandom) {
+            this.strategyRandom = strategyRandom;
+        }
+
+        private MinesweeperSimulationStatistics getStatistics() {
+            return this.statistics;
+        }
+        private void setStatistics(MinesweeperSimulationStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    public void setRows(int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Property 'rows' must be larger than zero");
+        } else {
+            this.rows = rows;
+        }
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    public void setColumns(int columns) {
+        if (columns <= 0) {
+            throw new IllegalArgumentException("Property 'columns' must be larger than zero");
+        } else {
+            this.columns = columns;
+        }
+    }
+
+    public int getMines() {
+        return this.mines;
+    }
+    public void setMines(int mines) {
+        if (mines <= 0) {
+            throw new IllegalArgumentException("Property 'mines' must be larger than zero");
+        } else {
+            this.mines = mines;
+        }
+    }
+
+    public long getNumberOfGames() {
+        return this.numberOfGames;
+    }
+    public void setNumberOfGames(long numberOfGames) {
+        if (numberOfGames <= 0) {
+            throw new IllegalArgumentException("Property 'numberOfGames' must be larger than zero");
+        } else {
+            this.numberOfGames = numberOfGames;
+        }
+    }
+
+    /**
+     * Gets the seed from which the random numbers of all games are derived
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Gets the largest number of games played as one block, for which a row is written into the result file
+     */
+    public int getGamesPerBlock() {
+        return this.gamesPerBlock;
+    }
+    public void setGamesPerBlock(int gamesPerBlock) {
+        if (gamesPerBlock <= 0) {
+            throw new IllegalArgumentException("Property 'gamesPerBlock' must be larger than zero");
+        } else {
+            this.gamesPerBlock = gamesPerBlock;
+        }
+    }
+
+    /**
+     * Gets the factory that creates the strategy for every worker thread
+     */
+    public Supplier<MinesweeperSimulationStrategy> getStrategyFactory() {
+        return this.strategyFactory;
+    }
+    public void setStrategyFactory(Supplier<MinesweeperSimulationStrategy> strategyFactory) {
+        if (strategyFactory == null) {
+            throw new IllegalArgumentException("Property 'strategyFactory' must not be null");
+        } else {
+            this.strategyFactory = strategyFactory;
+        }
+    }
+
+    public ForkJoinPool getForkJoinPool() {
+        return this.forkJoinPool;
+    }
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        if (forkJoinPool == null) {
+            throw new IllegalArgumentException("Property 'forkJoinPool' must not be null");
+        } else {
+            this.forkJoinPool = forkJoinPool;
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package de.perdian.games.minesweeper.simulation;
+
+/**
+ * Aggregated results of a number of simulated games.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperSimulationStatistics {
+
+    private long numberOfGames = 0;
+    private long gamesWon = 0;
+    private long moves = 0;
+    private long floodFills = 0;
+    private long floodFilledCells = 0;
+    private long largestFloodFill = 0;
+    private long elapsedNanos = 0;
+
+    /**
+     * Records a single reveal that opened the given number of cells automatically
+     */
+    void recordMove(int floodFilledCells) {
+        this.setMoves(this.getMoves() + 1);
+        if (floodFilledCells > 0) {
+            this.setFloodFills(this.getFloodFills() + 1);
+            this.setFloodFilledCells(this.getFloodFilledCells() + floodFilledCells);
+            this.setLargestFloodFill(Math.max(this.getLargestFloodFill(), floodFilledCells));
+        }
+    }
+
+    void recordGame(boolean won, long elapsedNanos) {
+        this.setNumberOfGames(this.getNumberOfGames() + 1);
+        this.setGamesWon(this.getGamesWon() + (won ? 1 : 0));
+        this.setElapsedNanos(this.getElapsedNanos() + elapsedNanos);
+    }
+
+    void add(MinesweeperSimulationStatistics statistics) {
+        this.setNumberOfGames(this.getNumberOfGames() + statistics.getNumberOfGames());
+        this.setGamesWon(this.getGamesWon() + statistics.getGamesWon());
+        this.setMoves(this.getMoves() + statistics.getMoves());
+        this.setFloodFills(this.getFloodFills() + statistics.getFloodFills());
+        this.setFloodFilledCells(this.getFloodFilledCells() + statistics.getFloodFilledCells());
+        this.setLargestFloodFill(Math.max(this.getLargestFloodFill(), statistics.getLargestFloodFill()));
+        this.setElapsedNanos(this.getElapsedNanos() + statistics.getElapsedNanos());
+    }
+
+    /**
+     * Gets the fraction of games that have been won
+     */
+    public double getWinRate() {
+        return this.getNumberOfGames() == 0 ? 0 : (double)this.getGamesWon() / this.getNumberOfGames();
+    }
+
+    /**
+     * Gets the average number of reveals per game
+     */
+    public double getAverageMoves() {
+        return this.getNumberOfGames() == 0 ? 0 : (double)this.getMoves() / this.getNumberOfGames();
+    }
+
+    /**
+     * Gets the average number of cells opened automatically by a reveal that opened any cells automatically
+     */
+    public double getAverageFloodFillSize() {
+        return this.getFloodFills() == 0 ? 0 : (double)this.getFloodFilledCells() / this.getFloodFills();
+    }
+
+    /**
+     * Gets the average time needed to create and play a single game
+     */
+    public double getAverageNanosPerGame() {
+        return this.getNumberOfGames() == 0 ? 0 : (double)this.getElapsedNanos() / this.getNumberOfGames();
+    }
+
+    @Override
+    public String toString() {
+        return "MinesweeperSimulationStatistics[numberOfGames=" + this.getNumberOfGames() + ", gamesWon=" + this.getGamesWon() + ", moves=" + this.getMoves() + ", floodFills=" + this.getFloodFills() + ", largestFloodFill=" + this.getLargestFloodFill() + "]";
+    }
+
+    /**
+     * Gets the number of games played
+     */
+    public long getNumberOfGames() {
+        return this.numberOfGames;
+    }
+    private void setNumberOfGames(long numberOfGames) {
+        this.numberOfGames = numberOfGames;
+    }
+
+    /**
+     * Gets the number of games in which all cells without a mine have been revealed
+     */
+    public long getGamesWon() {
+        return this.gamesWon;
+    }
+    private void setGamesWon(long gamesWon) {
+        this.gamesWon = gamesWon;
+    }
+
+    /**
+     * Gets the number of cells revealed by the strategy over all games
+     */
+    public long getMoves() {
+        return this.moves;
+    }
+    private void setMoves(long moves) {
+        this.moves = moves;
+    }
+
+    /**
+     * Gets the number of reveals that opened at least one further cell automatically
+     */
+    public long getFloodFills() {
+        return this.floodFills;
+    }
+    private void setFloodFills(long floodFills) {
+        this.floodFills = floodFills;
+    }
+
+    /**
+     * Gets the number of cells opened automatically over all games
+     */
+    public long getFloodFilledCells() {
+        return this.floodFilledCells;
+    }
+    private void setFloodFilledCells(long floodFilledCells) {
+        this.floodFilledCells = floodFilledCells;
+    }
+
+    /**
+     * Gets the largest number of cells opened automatically by a single reveal
+     */
+    public long getLargestFloodFill() {
+        return this.largestFloodFill;
+    }
+    private void setLargestFloodFill(long largestFloodFill) {
+        this.largestFloodFill = largestFloodFill;
+    }
+
+    /**
+     * Gets the time needed to create and play all games, summed up over all worker threads
+     */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+    private void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+}
@@ -0,0 +1,25 @@
+package de.perdian.games.minesweeper.simulation;
+
+import java.util.Random;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+
+/**
+ * Plays the games of a {@link MinesweeperSimulation}.
+ *
+ * Every worker thread of a simulation creates its own strategy and uses it for all games it plays, always on the
+ * same reused board. An implementation may therefore keep state attached to the board between games without any
+ * synchronization.
+ *
+ * @author Christian Robert
+ */
+
+public interface MinesweeperSimulationStrategy {
+
+    /**
+     * Plays the given board, which has just been put into its initial state, until the game has ended. All random
+     * decisions must be taken from the given random number generator, so that a simulation can be repeated.
+     */
+    void play(MinesweeperBoard board, Random random);
+
+}
@@ -0,0 +1,88 @@
+package de.perdian.games.minesweeper.simulation;
+
+import java.util.Random;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.solver.MinesweeperSolver;
+
+/**
+ * Reveals every cell the {@link MinesweeperSolver} knows to be safe and guesses a random closed cell that is not
+ * known to contain a mine whenever the solver gets stuck.
+ *
+ * The solver is attached to the first board played and reset for every following game on that board, so that no
+ * solver storage is allocated per game.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperSolverStrategy implements MinesweeperSimulationStrategy {
+
+    private static final int MAXIMUM_GUESS_ATTEMPTS = 32;
+
+    private MinesweeperBoard board = null;
+    private MinesweeperSolver solver = null;
+
+    @Override
+    public void play(MinesweeperBoard board, Random random) {
+        if (this.getBoard() != board) {
+            if (this.getBoard() != null) {
+                this.getBoard().removeCellRevelationBatchListener(this.getSolver());
+            }
+            this.setSolver(MinesweeperSolver.attach(board));
+            this.setBoard(board);
+        } else {
+            this.getSolver().reset();
+        }
+        while (MinesweeperBoardState.RUNNING.equals(board.getBoardState())) {
+            MinesweeperCellPosition safeCellPosition = this.getSolver().findSafeCell();
+            board.reveal(safeCellPosition != null ? safeCellPosition : this.guessCell(board, random));
+        }
+    }
+
+    /**
+     * Selects a closed cell that is not known to contain a mine. Random cells are drawn first, and only if none of
+     * them qualifies the board is scanned starting at a random cell.
+     */
+    private MinesweeperCellPosition guessCell(MinesweeperBoard board, Random random) {
+        int numberOfCells = board.getRows() * board.getColumns();
+        for (int attempt = 0; attempt < MAXIMUM_GUESS_ATTEMPTS; attempt++) {
+            MinesweeperCellPosition cellPosition = this.toCellPosition(board, random.nextInt(numberOfCells));
+            if (this.isGuessable(board, cellPosition)) {
+                return cellPosition;
+            }
+        }
+        int firstCellIndex = random.nextInt(numberOfCells);
+        for (int offset = 0; offset < numberOfCells; offset++) {
+            MinesweeperCellPosition cellPosition = this.toCellPosition(board, (firstCellIndex + offset) % numberOfCells);
+            if (this.isGuessable(board, cellPosition)) {
+                return cellPosition;
+            }
+        }
+        throw new IllegalStateException("No closed cell left that is not known to contain a mine");
+    }
+
+    private boolean isGuessable(MinesweeperBoard board, MinesweeperCellPosition cellPosition) {
+        return !board.isRevealed(cellPosition) && !this.getSolver().isMine(cellPosition);
+    }
+
+    private MinesweeperCellPosition toCellPosition(MinesweeperBoard board, int cellIndex) {
+        return new MinesweeperCellPosition(cellIndex / board.getColumns(), cellIndex % board.getColumns());
+    }
+
+    private MinesweeperBoard getBoard() {
+        return this.board;
+    }
+    private void setBoard(MinesweeperBoard board) {
+        this.board = board;
+    }
+
+    private MinesweeperSolver getSolver() {
+        return this.solver;
+    }
+    private void setSolver(MinesweeperSolver solver) {
+        this.solver = solver;
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.util.function.BooleanSupplier;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperBoardValidator;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+/**
+ * Accepts only boards that the {@link MinesweeperSolver} can clear completely from the start cell, without ever
+ * having to guess.
+ *
+ * The candidate is played by revealing the start cell and then every cell the solver knows to be safe, until the
+ * game has been won or the solver gets stuck. As the solver only hands out cells that cannot contain a mine, the
+ * validation never hits one. Every validating thread keeps its own solver, which is reset for every candidate of the
+ * same size, so that no solver storage is allocated per candidate.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperNoGuessValidator implements MinesweeperBoardValidator {
+
+    private ThreadLocal<MinesweeperSolver> solver = null;
+
+    public MinesweeperNoGuessValidator() {
+        this.setSolver(new ThreadLocal<>());
+    }
+
+    @Override
+    public boolean validate(MinesweeperBoard board, MinesweeperCellPosition startCellPosition, BooleanSupplier cancelled) {
+        MinesweeperSolver solver = this.resolveSolver(board);
+        board.addCellRevelationBatchListener(solver);
+        try {
+            board.reveal(startCellPosition);
+            while (MinesweeperBoardState.RUNNING.equals(board.getBoardState())) {
+                MinesweeperCellPosition safeCellPosition = cancelled.getAsBoolean() ? null : solver.findSafeCell();
+                if (safeCellPosition == null) {
+                    return false;
+                } else {
+                    board.reveal(safeCellPosition);
+                }
+            }
+            return MinesweeperBoardState.COMPLETED_WON.equals(board.getBoardState());
+        } finally {
+            board.removeCellRevelationBatchListener(solver);
+        }
+    }
+
+    /**
+     * Gets the solver of the current thread, reset to follow a new game on a candidate in its initial state
+     */
+    private MinesweeperSolver resolveSolver(MinesweeperBoard board) {
+        MinesweeperSolver solver = this.getSolver().get();
+        if (solver == null || solver.getRows() != board.getRows() || solver.getColumns() != board.getColumns()) {
+            solver = new MinesweeperSolver(board.getRows(), board.getColumns());
+            this.getSolver().set(solver);
+        } else {
+            solver.reset();
+        }
+        return solver;
+    }
+
+    private ThreadLocal<MinesweeperSolver> getSolver() {
+        return this.solver;
+    }
+    private void setSolver(ThreadLocal<MinesweeperSolver> solver) {
+        this.solver = solver;
+    }
+
+}
@@ -0,0 +1,572 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+
+/**
+ * Computes for every closed cell the probability that it contains a mine, given the cells revealed so far.
+ *
+ * The closed cells next to a revealed number form the frontier, which is split into components that share no
+ * constraint. All mine assignments of a component are enumerated exactly and cached, and a component is only
+ * enumerated again once a revealed or deduced cell touches one of its cells or constraints. The remaining closed
+ * cells form the interior, about which nothing is known except how many mines are left.
+ *
+ * The components are coupled only through the total number of mines. Instead of combining all components with each
+ * other, this coupling is expressed by a global mine density {@code p}: a solution of a component containing
+ * {@code k} mines is weighted by {@code (p / (1 - p))^k}, which is the ratio of the number of ways to distribute the
+ * remaining mines across the interior when the interior is large. The density is chosen so that the expected number
+ * of mines over all components and the interior equals the number of mines left. Changing the density only
+ * re-weights the cached solutions, so no component needs to be enumerated again.
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperProbabilityEngine implements MinesweeperCellRevelationBatchListener {
+
+    static final int MAXIMUM_COMPONENT_CELLS = 48;
+    static final long MAXIMUM_ENUMERATION_NODES = 1L << 15;
+    private static final double MAXIMUM_LOG_ODDS = 30;
+
+    private int mines = 0;
+    private MinesweeperSolver solver = null;
+    private FrontierComponent[] cellComponents = null;
+    private int[] cellLocalIndices = null;
+    private Set<FrontierComponent> components = null;
+    private int numberOfFrontierCells = 0;
+    private BitSet regroupCells = null;
+    private int[] visitStamps = null;
+    private int visitStamp = 0;
+    private double logOdds = 0;
+    private double interiorDensity = 0;
+    private long densityStamp = 0;
+
+    public MinesweeperProbabilityEngine(int rows, int columns, int mines) {
+        if (mines <= 0 || mines >= rows * columns) {
+            throw new IllegalArgumentException("Number of mines must be larger than zero and smaller than the number of cells");
+        } else {
+            this.setMines(mines);
+            this.setSolver(new MinesweeperSolver(rows, columns));
+            this.getSolver().setChangedConstraints(new BitSet(rows * columns));
+            this.setCellComponents(new FrontierComponent[rows * columns]);
+            this.setCellLocalIndices(new int[rows * columns]);
+            this.setComponents(new LinkedHashSet<>());
+            this.setRegroupCells(new BitSet(rows * columns));
+            this.setVisitStamps(new int[rows * columns]);
+            this.updateDensity();
+        }
+    }
+
+    /**
+     * Creates an engine that knows all cells revealed on the given board so far and follows all further reveals
+     */
+    public static MinesweeperProbabilityEngine attach(MinesweeperBoard board) {
+        MinesweeperProbabilityEngine probabilityEngine = new MinesweeperProbabilityEngine(board.getRows(), board.getColumns(), board.getMinesTotal());
+        synchronized (board) {
+            for (int row = 0; row < board.getRows(); row++) {
+                for (int column = 0; column < board.getColumns(); column++) {
+                    MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                    if (board.isRevealed(cellPosition)) {
+                        probabilityEngine.cellRevealed(cellPosition, board.getNeighboringMines(cellPosition));
+                    }
+                }
+            }
+            board.addCellRevelationBatchListener(probabilityEngine);
+        }
+        return probabilityEngine;
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        this.getSolver().cellsRevealed(cellRevelationBatch);
+    }
+
+    @Override
+    public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+        this.getSolver().boardRevealed(boardRevelation);
+    }
+
+    /**
+     * Tells the engine that the given cell has been revealed and shows the given number of neighbouring mines
+     */
+    public void cellRevealed(MinesweeperCellPosition cellPosition, int neighboringMines) {
+        this.getSolver().cellRevealed(cellPosition, neighboringMines);
+    }
+
+    /**
+     * Forgets all revealed cells, so that the engine can follow a new game on a board of the same size
+     */
+    public void reset() {
+        this.getSolver().reset();
+        this.getSolver().getChangedConstraints().clear();
+        Arrays.fill(this.getCellComponents(), null);
+        this.getComponents().clear();
+        this.setNumberOfFrontierCells(0);
+        this.setLogOdds(0);
+        this.updateDensity();
+    }
+
+    /**
+     * Gets the probability that the given cell contains a mine. Revealed cells have a probability of zero.
+     */
+    public double getMineProbability(MinesweeperCellPosition cellPosition) {
+        if (cellPosition.getY() < 0 || cellPosition.getY() >= this.getSolver().getRows() || cellPosition.getX() < 0 || cellPosition.getX() >= this.getSolver().getColumns()) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            this.refresh();
+            return this.computeMineProbability((cellPosition.getY() * this.getSolver().getColumns()) + cellPosition.getX());
+        }
+    }
+
+    /**
+     * Gets the probabilities of all cells, indexed by {@code row * columns + column}
+     */
+    public double[] getMineProbabilities() {
+        this.refresh();
+        double[] mineProbabilities = new double[this.getCellComponents().length];
+        for (int cellIndex = 0; cellIndex < mineProbabilities.length; cellIndex++) {
+            mineProbabilities[cellIndex] = this.computeMineProbability(cellIndex);
+        }
+        return mineProbabilities;
+    }
+
+    /**
+     * Gets the probability that a closed cell without any revealed neighbour contains a mine
+     */
+    public double getInteriorProbability() {
+        this.refresh();
+        return this.getInteriorDensity();
+    }
+
+    private double computeMineProbability(int cellIndex) {
+        byte cellState = this.getSolver().getCellStates()[cellIndex];
+        if (cellState == MinesweeperSolver.CELL_MINE) {
+            return 1;
+        } else if (cellState != MinesweeperSolver.CELL_UNKNOWN) {
+            return 0;
+        } else if (this.getCellComponents()[cellIndex] != null) {
+            return this.getCellComponents()[cellIndex].getCellProbability(this.getCellLocalIndices()[cellIndex], this.getLogOdds(), this.getDensityStamp());
+        } else {
+            return this.getInteriorDensity();
+        }
+    }
+
+    /**
+     * Applies all reveals received since the last query. Only the components touching a changed constraint are
+     * dropped and rebuilt, all other components keep their enumerated solutions.
+     */
+    private void refresh() {
+        this.getSolver().solve(false);
+        BitSet changedConstraints = this.getSolver().getChangedConstraints();
+        if (!changedConstraints.isEmpty()) {
+            int rows = this.getSolver().getRows();
+            int columns = this.getSolver().getColumns();
+            for (int cellIndex = changedConstraints.nextSetBit(0); cellIndex >= 0; cellIndex = changedConstraints.nextSetBit(cellIndex + 1)) {
+                int row = cellIndex / columns;
+                int column = cellIndex % columns;
+                for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(rows - 1, row + 1); neighborRow++) {
+                    for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(columns - 1, column + 1); neighborColumn++) {
+                        int neighborIndex = (neighborRow * columns) + neighborColumn;
+                        if (this.getCellComponents()[neighborIndex] != null) {
+                            this.removeComponent(this.getCellComponents()[neighborIndex]);
+                        }
+                        this.getRegroupCells().set(neighborIndex);
+                    }
+                }
+            }
+            changedConstraints.clear();
+            for (int cellIndex = this.getRegroupCells().nextSetBit(0); cellIndex >= 0; cellIndex = this.getRegroupCells().nextSetBit(cellIndex + 1)) {
+                if (this.getSolver().getCellStates()[cellIndex] == MinesweeperSolver.CELL_UNKNOWN && this.getCellComponents()[cellIndex] == null && this.hasOpenConstraint(cellIndex)) {
+                    this.addComponent(this.createComponent(cellIndex));
+                }
+            }
+            this.getRegroupCells().clear();
+            this.updateDensity();
+        }
+    }
+
+    private boolean hasOpenConstraint(int cellIndex) {
+        int rows = this.getSolver().getRows();
+        int columns = this.getSolver().getColumns();
+        int row = cellIndex / columns;
+        int column = cellIndex % columns;
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(rows - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(columns - 1, column + 1); neighborColumn++) {
+                if (this.getSolver().isOpenConstraint((neighborRow * columns) + neighborColumn)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects all unknown cells connected to the given cell through shared constraints and enumerates them. If the
+     * component is too large to be enumerated, the probability of every cell is estimated from its constraints.
+     */
+    private FrontierComponent createComponent(int sourceCellIndex) {
+
+        int rows = this.getSolver().getRows();
+        int columns = this.getSolver().getColumns();
+        int visitStamp = this.getVisitStamp() + 1;
+        int[] visitStamps = this.getVisitStamps();
+        this.setVisitStamp(visitStamp);
+
+        int[] componentCells = new int[] { sourceCellIndex };
+        int numberOfCells = 1;
+        int[] componentConstraints = new int[8];
+        int numberOfConstraints = 0;
+        visitStamps[sourceCellIndex] = visitStamp;
+        for (int cellPosition = 0; cellPosition < numberOfCells; cellPosition++) {
+            int cellIndex = componentCells[cellPosition];
+            int row = cellIndex / columns;
+            int column = cellIndex % columns;
+            for (int constraintRow = Math.max(0, row - 1); constraintRow <= Math.min(rows - 1, row + 1); constraintRow++) {
+                for (int constraintColumn = Math.max(0, column - 1); constraintColumn <= Math.min(columns - 1, column + 1); constraintColumn++) {
+                    int constraintIndex = (constraintRow * columns) + constraintColumn;
+                    if (visitStamps[constraintIndex] != visitStamp && this.getSolver().isOpenConstraint(constraintIndex)) {
+                        visitStamps[constraintIndex] = visitStamp;
+                        if (numberOfConstraints == componentConstraints.length) {
+                            componentConstraints = Arrays.copyOf(componentConstraints, numberOfConstraints * 2);
+                        }
+                        componentConstraints[numberOfConstraints++] = constraintIndex;
+                        for (int neighborRow = Math.max(0, constraintRow - 1); neighborRow <= Math.min(rows - 1, constraintRow + 1); neighborRow++) {
+                            for (int neighborColumn = Math.max(0, constraintColumn - 1); neighborColumn <= Math.min(columns - 1, constraintColumn + 1); neighborColumn++) {
+                                int neighborIndex = (neighborRow * columns) + neighborColumn;
+                                if (visitStamps[neighborIndex] != visitStamp && this.getSolver().getCellStates()[neighborIndex] == MinesweeperSolver.CELL_UNKNOWN) {
+                                    visitStamps[neighborIndex] = visitStamp;
+                                    if (numberOfCells == componentCells.length) {
+                                        componentCells = Arrays.copyOf(componentCells, numberOfCells * 2);
+                                    }
+                                    componentCells[numberOfCells++] = neighborIndex;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        componentCells = Arrays.copyOf(componentCells, numberOfCells);
+        if (numberOfCells <= MAXIMUM_COMPONENT_CELLS) {
+            MinesweeperSolverComponent solverComponent = this.getSolver().createComponent(componentCells, Arrays.copyOf(componentConstraints, numberOfConstraints));
+            if (solverComponent.enumerate(MAXIMUM_ENUMERATION_NODES) && solverComponent.getSolutions() > 0) {
+                return new FrontierComponent(componentCells, solverComponent);
+            }
+        }
+        return new FrontierComponent(componentCells, this.estimateProbabilities(componentCells));
+
+    }
+
+    /**
+     * Estimates the probability of every cell as the average share of remaining mines over all constraints covering
+     * the cell
+     */
+    private double[] estimateProbabilities(int[] componentCells) {
+        int rows = this.getSolver().getRows();
+        int columns = this.getSolver().getColumns();
+        double[] cellProbabilities = new double[componentCells.length];
+        for (int localCellIndex = 0; localCellIndex < componentCells.length; localCellIndex++) {
+            int row = componentCells[localCellIndex] / columns;
+            int column = componentCells[localCellIndex] % columns;
+            double probabilitySum = 0;
+            int numberOfConstraints = 0;
+            for (int constraintRow = Math.max(0, row - 1); constraintRow <= Math.min(rows - 1, row + 1); constraintRow++) {
+                for (int constraintColumn = Math.max(0, column - 1); constraintColumn <= Math.min(columns - 1, column + 1); constraintColumn++) {
+                    int constraintIndex = (constraintRow * columns) + constraintColumn;
+                    if (this.getSolver().isOpenConstraint(constraintIndex)) {
+                        int remainingMines = this.getSolver().getCellNumbers()[constraintIndex] - this.getSolver().getMineNeighbors()[constraintIndex];
+                        probabilitySum += (double)remainingMines / this.getSolver().getUnknownNeighbors()[constraintIndex];
+                        numberOfConstraints++;
+                    }
+                }
+            }
+            cellProbabilities[localCellIndex] = probabilitySum / numberOfConstraints;
+        }
+        return cellProbabilities;
+    }
+
+    private void addComponent(FrontierComponent component) {
+        this.getComponents().add(component);
+        for (int localCellIndex = 0; localCellIndex < component.getCells().length; localCellIndex++) {
+            this.getCellComponents()[component.getCells()[localCellIndex]] = component;
+            this.getCellLocalIndices()[component.getCells()[localCellIndex]] = localCellIndex;
+        }
+        this.setNumberOfFrontierCells(this.getNumberOfFrontierCells() + component.getCells().length);
+    }
+
+    private void removeComponent(FrontierComponent component) {
+        this.getComponents().remove(component);
+        for (int cellIndex : component.getCells()) {
+            this.getCellComponents()[cellIndex] = null;
+            this.getRegroupCells().set(cellIndex);
+        }
+        this.setNumberOfFrontierCells(this.getNumberOfFrontierCells() - component.getCells().length);
+    }
+
+    /**
+     * Determines the density for which the expected number of mines equals the number of mines left. The expected
+     * number of mines grows with the log odds of the density and its derivative is the variance of the number of
+     * mines, so Newton's method is used, falling back to bisection whenever a step leaves the current bracket.
+     */
+    private void updateDensity() {
+        int numberOfInteriorCells = -this.getNumberOfFrontierCells();
+        for (byte cellState : this.getSolver().getCellStates()) {
+            numberOfInteriorCells += cellState == MinesweeperSolver.CELL_UNKNOWN ? 1 : 0;
+        }
+        double remainingMines = this.getMines() - this.getSolver().getNumberOfMines();
+        double lowerLogOdds = -MAXIMUM_LOG_ODDS;
+        double upperLogOdds = MAXIMUM_LOG_ODDS;
+        double logOdds = Math.max(lowerLogOdds, Math.min(upperLogOdds, this.getLogOdds()));
+        double[] moments = new double[2];
+        for (int iteration = 0; iteration < 100 && upperLogOdds - lowerLogOdds > 1e-12; iteration++) {
+            moments[0] = 0;
+            moments[1] = 0;
+            for (FrontierComponent component : this.getComponents()) {
+                component.addMoments(logOdds, moments);
+            }
+            double density = 1d / (1d + Math.exp(-logOdds));
+            double excessMines = moments[0] + (numberOfInteriorCells * density) - remainingMines;
+            double slope = moments[1] + (numberOfInteriorCells * density * (1d - density));
+            if (Math.abs(excessMines) < 1e-9) {
+                break;
+            } else if (excessMines > 0) {
+                upperLogOdds = logOdds;
+            } else {
+                lowerLogOdds = logOdds;
+            }
+            double nextLogOdds = logOdds - (excessMines / slope);
+            logOdds = nextLogOdds > lowerLogOdds && nextLogOdds < upperLogOdds ? nextLogOdds : (lowerLogOdds + upperLogOdds) / 2;
+        }
+        this.setLogOdds(logOdds);
+        this.setInteriorDensity(numberOfInteriorCells == 0 ? 0 : 1d / (1d + Math.exp(-logOdds)));
+        this.setDensityStamp(this.getDensityStamp() + 1);
+    }
+
+    /**
+     * A frontier component together with the probabilities of its cells for the density they have last been
+     * computed for
+     */
+    static class FrontierComponent {
+
+        private int[] cells = null;
+        private double[] logSolutionsByMines = null;
+        private double[][] cellMinesByMines = null;
+        private double[] cellProbabilities = null;
+        private long densityStamp = -1;
+
+        FrontierComponent(int[] cells, MinesweeperSolverComponent solverComponent) {
+            double[] solutionsByMines = solverComponent.getSolutionsByMines();
+            double[][] cellMinesByMines = new double[solutionsByMines.length][];
+            double[] logSolutionsByMines = new double[solutionsByMines.length];
+            for (int numberOfMines = 0; numberOfMines < solutionsByMines.length; numberOfMines++) {
+                logSolutionsByMines[numberOfMines] = Math.log(solutionsByMines[numberOfMines]);
+                cellMinesByMines[numberOfMines] = solverComponent.getCellMinesByMines()[numberOfMines];
+                for (int localCellIndex = 0; solutionsByMines[numberOfMines] > 0 && localCellIndex < cells.length; localCellIndex++) {
+                    cellMinesByMines[numberOfMines][localCellIndex] /= solutionsByMines[numberOfMines];
+                }
+            }
+            this.setCells(cells);
+            this.setLogSolutionsByMines(logSolutionsByMines);
+            this.setCellMinesByMines(cellMinesByMines);
+            this.setCellProbabilities(new double[cells.length]);
+        }
+
+        FrontierComponent(int[] cells, double[] estimatedProbabilities) {
+            this.setCells(cells);
+            this.setCellProbabilities(estimatedProbabilities);
+        }
+
+        /**
+         * Adds the expected number of mines within the component and its variance for the given density
+         */
+        void addMoments(double logOdds, double[] moments) {
+            if (this.getLogSolutionsByMines() == null) {
+                for (double cellProbability : this.getCellProbabilities()) {
+                    moments[0] += cellProbability;
+                }
+            } else {
+                double maximumLogWeight = this.computeMaximumLogWeight(logOdds);
+                double weightSum = 0;
+                double minesSum = 0;
+                double squaredMinesSum = 0;
+                for (int numberOfMines = 0; numberOfMines < this.getLogSolutionsByMines().length; numberOfMines++) {
+                    double weight = Math.exp(this.getLogSolutionsByMines()[numberOfMines] + (numberOfMines * logOdds) - maximumLogWeight);
+                    weightSum += weight;
+                    minesSum += numberOfMines * weight;
+                    squaredMinesSum += (double)numberOfMines * numberOfMines * weight;
+                }
+                double expectedMines = minesSum / weightSum;
+                moments[0] += expectedMines;
+                moments[1] += (squaredMinesSum / weightSum) - (expectedMines * expectedMines);
+            }
+        }
+
+        double getCellProbability(int localCellIndex, double logOdds, long densityStamp) {
+            if (this.getLogSolutionsByMines() != null && this.getDensityStamp() != densityStamp) {
+                double maximumLogWeight = this.computeMaximumLogWeight(logOdds);
+                double weightSum = 0;
+                Arrays.fill(this.getCellProbabilities(), 0);
+                for (int numberOfMines = 0; numberOfMines < this.getLogSolutionsByMines().length; numberOfMines++) {
+                    double weight = Math.exp(this.getLogSolutionsByMines()[numberOfMines] + (numberOfMines * logOdds) - maximumLogWeight);
+                    if (weight > 0) {
+                        weightSum += weight;
+                        double[] cellMines = this.getCellMinesByMines()[numberOfMines];
+                        for (int cellIndex = 0; cellIndex < cellMines.length; cellIndex++) {
+                            this.getCellProbabilities()[cellIndex] += weight * cellMines[cellIndex];
+                        }
+                    }
+                }
+                for (int cellIndex = 0; cellIndex < this.getCellProbabilities().length; cellIndex++) {
+                    this.getCellProbabilities()[cellIndex] /= weightSum;
+                }
+                this.setDensityStamp(densityStamp);
+            }
+            return this.getCellProbabilities()[localCellIndex];
+        }
+
+        private double computeMaximumLogWeight(double logOdds) {
+            double maximumLogWeight = Double.NEGATIVE_INFINITY;
+            for (int numberOfMines = 0; numberOfMines < this.getLogSolutionsByMines().length; numberOfMines++) {
+                maximumLogWeight = Math.max(maximumLogWeight, this.getLogSolutionsByMines()[numberOfMines] + (numberOfMines * logOdds));
+            }
+            return maximumLogWeight;
+        }
+
+        int[] getCells() {
+            return this.cells;
+        }
+        private void setCells(int[] cells) {
+            this.cells = cells;
+        }
+
+        private double[] getLogSolutionsByMines() {
+            return this.logSolutionsByMines;
+        }
+        private void setLogSolutionsByMines(double[] logSolutionsByMines) {
+            this.logSolutionsByMines = logSolutionsByMines;
+        }
+
+        private double[][] getCellMinesByMines() {
+            return this.cellMinesByMines;
+        }
+        private void setCellMinesByMines(double[][] cellMinesByMines) {
+            this.cellMinesByMines = cellMinesByMines;
+        }
+
+        private double[] getCellProbabilities() {
+            return this.cellProbabilities;
+        }
+        private void setCellProbabilities(double[] cellProbabilities) {
+            this.cellProbabilities = cellProbabilities;
+        }
+
+        private long getDensityStamp() {
+            return this.densityStamp;
+        }
+        private void setDensityStamp(long densityStamp) {
+            this.densityStamp = densityStamp;
+        }
+
+    }
+
+    /**
+     * Gets the component the given cell currently belongs to, or {@code null} if the cell is not on the frontier
+     */
+    FrontierComponent getComponent(MinesweeperCellPosition cellPosition) {
+        this.refresh();
+        return this.getCellComponents()[(cellPosition.getY() * this.getSolver().getColumns()) + cellPosition.getX()];
+    }
+
+    public int getMines() {
+        return this.mines;
+    }
+    private void setMines(int mines) {
+        this.mines = mines;
+    }
+
+    private MinesweeperSolver getSolver() {
+        return this.solver;
+    }
+    private void setSolver(MinesweeperSolver solver) {
+        this.solver = solver;
+    }
+
+    private FrontierComponent[] getCellComponents() {
+        return this.cellComponents;
+    }
+    private void setCellComponents(FrontierComponent[] cellComponents) {
+        this.cellComponents = cellComponents;
+    }
+
+    private int[] getCellLocalIndices() {
+        return this.cellLocalIndices;
+    }
+    private void setCellLocalIndices(int[] cellLocalIndices) {
+        this.cellLocalIndices = cellLocalIndices;
+    }
+
+    private Set<FrontierComponent> getComponents() {
+        return this.components;
+    }
+    private void setComponents(Set<FrontierComponent> components) {
+        this.components = components;
+    }
+
+    private int getNumberOfFrontierCells() {
+        return this.numberOfFrontierCells;
+    }
+    private void setNumberOfFrontierCells(int numberOfFrontierCells) {
+        this.numberOfFrontierCells = numberOfFrontierCells;
+    }
+
+    private BitSet getRegroupCells() {
+        return this.regroupCells;
+    }
+    private void setRegroupCells(BitSet regroupCells) {
+        this.regroupCells = regroupCells;
+    }
+
+    private int[] getVisitStamps() {
+        return this.visitStamps;
+    }
+    private void setVisitStamps(int[] visitStamps) {
+        this.visitStamps = visitStamps;
+    }
+
+    private int getVisitStamp() {
+        return this.visitStamp;
+    }
+    private void setVisitStamp(int visitStamp) {
+        this.visitStamp = visitStamp;
+    }
+
+    private double getLogOdds() {
+        return this.logOdds;
+    }
+    private void setLogOdds(double logOdds) {
+        this.logOdds = logOdds;
+    }
+
+    private double getInteriorDensity() {
+        return this.interiorDensity;
+    }
+    private void setInteriorDensity(double interiorDensity) {
+        this.interiorDensity = interiorDensity;
+    }
+
+    private long getDensityStamp() {
+        return this.densityStamp;
+    }
+    private void setDensityStamp(long densityStamp) {
+        this.densityStamp = densityStamp;
+    }
+
+}
@@ -0,0 +1,716 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardRevelation;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatch;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationBatchListener;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelationType;
+
+/**
+ * Deduces which closed cells are certainly safe and which certainly contain a mine from the numbers revealed so far.
+ *
+ * Every revealed number is a constraint on its closed neighbours. For every cell the solver keeps the number of
+ * neighbours that are still unknown and the number of neighbours known to be mines, so a revealed cell or a new
+ * deduction only updates the counters around it and marks the affected constraints as dirty. Solving then only
+ * looks at dirty constraints, using three rules of increasing cost:
+ *
+ * <ol>
+ * <li>A constraint whose mines are all known makes its other unknown neighbours safe, a constraint that needs all of
+ * its unknown neighbours makes them all mines</li>
+ * <li>Two nearby constraints are compared: if the difference of their remaining mines equals the number of cells only
+ * one of them covers, all these cells are mines and the cells covered only by the other constraint are safe</li>
+ * <li>The unknown cells around dirty constraints are grouped into components that share no constraint, and all
+ * mine assignments of a component are enumerated. Cells that have the same value in every assignment are decided.</li>
+ * </ol>
+ *
+ * @author Christian Robert
+ */
+
+public class MinesweeperSolver implements MinesweeperCellRevelationBatchListener {
+
+    static final byte CELL_UNKNOWN = 0;
+    static final byte CELL_REVEALED = 1;
+    static final byte CELL_MINE = 2;
+    static final byte CELL_SAFE = 3;
+
+    static final int MAXIMUM_COMPONENT_CELLS = 32;
+    static final long MAXIMUM_ENUMERATION_NODES = 1L << 16;
+
+    private int rows = 0;
+    private int columns = 0;
+    private byte[] cellStates = null;
+    private byte[] cellNumbers = null;
+    private byte[] unknownNeighbors = null;
+    private byte[] mineNeighbors = null;
+    private int[] dirtyCells = null;
+    private int numberOfDirtyCells = 0;
+    private BitSet dirtyFlags = null;
+    private BitSet pairCandidates = null;
+    private BitSet enumerationCandidates = null;
+    private int[] safeCellStack = null;
+    private int safeCellStackSize = 0;
+    private int[] windowStamps = null;
+    private int windowStamp = 0;
+    private int[] localCellIndices = null;
+    private BitSet changedConstraints = null;
+    private int numberOfMines = 0;
+    private boolean gameEnded = false;
+
+    public MinesweeperSolver(int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("Solver must cover at least one cell");
+        } else {
+            this.setRows(rows);
+            this.setColumns(columns);
+            this.setCellStates(new byte[rows * columns]);
+            this.setCellNumbers(new byte[rows * columns]);
+            this.setUnknownNeighbors(new byte[rows * columns]);
+            this.setMineNeighbors(new byte[rows * columns]);
+            this.setDirtyCells(new int[64]);
+            this.setDirtyFlags(new BitSet(rows * columns));
+            this.setPairCandidates(new BitSet(rows * columns));
+            this.setEnumerationCandidates(new BitSet(rows * columns));
+            this.setSafeCellStack(new int[64]);
+            this.reset();
+        }
+    }
+
+    /**
+     * Forgets all revealed cells and deductions, so that the solver can follow a new game on a board of the same size
+     * without allocating its storage again
+     */
+    public void reset() {
+        Arrays.fill(this.getCellStates(), CELL_UNKNOWN);
+        Arrays.fill(this.getCellNumbers(), (byte)0);
+        Arrays.fill(this.getMineNeighbors(), (byte)0);
+        for (int row = 0; row < this.getRows(); row++) {
+            int neighboringRows = Math.min(this.getRows() - 1, row + 1) - Math.max(0, row - 1) + 1;
+            for (int column = 0; column < this.getColumns(); column++) {
+                int neighboringColumns = Math.min(this.getColumns() - 1, column + 1) - Math.max(0, column - 1) + 1;
+                this.getUnknownNeighbors()[(row * this.getColumns()) + column] = (byte)((neighboringRows * neighboringColumns) - 1);
+            }
+        }
+        this.setNumberOfDirtyCells(0);
+        this.getDirtyFlags().clear();
+        this.getPairCandidates().clear();
+        this.getEnumerationCandidates().clear();
+        this.setSafeCellStackSize(0);
+        this.setNumberOfMines(0);
+        this.setGameEnded(false);
+    }
+
+    /**
+     * Creates a solver that knows all cells revealed on the given board so far and follows all further reveals
+     */
+    public static MinesweeperSolver attach(MinesweeperBoard board) {
+        MinesweeperSolver solver = new MinesweeperSolver(board.getRows(), board.getColumns());
+        synchronized (board) {
+            for (int row = 0; row < board.getRows(); row++) {
+                for (int column = 0; column < board.getColumns(); column++) {
+                    MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                    if (board.isRevealed(cellPosition)) {
+                        solver.cellRevealed(cellPosition, board.getNeighboringMines(cellPosition));
+                    }
+                }
+            }
+            board.addCellRevelationBatchListener(solver);
+        }
+        return solver;
+    }
+
+    @Override
+    public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+        for (int index = 0; index < cellRevelationBatch.getSize() && !this.isGameEnded(); index++) {
+            if (cellRevelationBatch.isMined(index) || MinesweeperCellRevelationType.GAME_ENDED.equals(cellRevelationBatch.getRevelationType(index))) {
+                this.setGameEnded(true);
+            } else {
+                this.cellRevealed(cellRevelationBatch.getCellIndex(index), cellRevelationBatch.getNeighboringMines(index));
+            }
+        }
+    }
+
+    @Override
+    public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+        this.setGameEnded(true);
+    }
+
+    /**
+     * Tells the solver that the given cell has been revealed and shows the given number of neighbouring mines
+     */
+    public void cellRevealed(MinesweeperCellPosition cellPosition, int neighboringMines) {
+        if (cellPosition.getY() < 0 || cellPosition.getY() >= this.getRows() || cellPosition.getX() < 0 || cellPosition.getX() >= this.getColumns()) {
+            throw new IllegalArgumentException("Cell cannot be found: " + cellPosition);
+        } else {
+            this.cellRevealed((cellPosition.getY() * this.getColumns()) + cellPosition.getX(), neighboringMines);
+        }
+    }
+
+    private void cellRevealed(int cellIndex, int neighboringMines) {
+        byte previousCellState = this.getCellStates()[cellIndex];
+        if (previousCellState != CELL_REVEALED) {
+            this.getCellStates()[cellIndex] = CELL_REVEALED;
+            this.getCellNumbers()[cellIndex] = (byte)neighboringMines;
+            if (previousCellState == CELL_UNKNOWN) {
+                this.updateNeighbors(cellIndex, false);
+            }
+            this.markDirty(cellIndex);
+        }
+    }
+
+    /**
+     * Runs the deduction rules on all constraints that have changed since the last call, until no further cell can
+     * be decided
+     */
+    public void solve() {
+        this.solve(true);
+    }
+
+    /**
+     * Runs the deduction rules like {@link #solve()}, but leaves out the enumeration of components if
+     * {@code enumerateComponents} is {@code false}. Callers enumerating the frontier themselves use this to avoid
+     * enumerating every component twice.
+     */
+    void solve(boolean enumerateComponents) {
+        while (true) {
+            if (this.getNumberOfDirtyCells() > 0) {
+                this.setNumberOfDirtyCells(this.getNumberOfDirtyCells() - 1);
+                int cellIndex = this.getDirtyCells()[this.getNumberOfDirtyCells()];
+                this.getDirtyFlags().clear(cellIndex);
+                if (this.isOpenConstraint(cellIndex) && !this.applySingleRule(cellIndex)) {
+                    this.getPairCandidates().set(cellIndex);
+                }
+            } else if (!this.getPairCandidates().isEmpty()) {
+                for (int cellIndex = this.getPairCandidates().nextSetBit(0); cellIndex >= 0; cellIndex = this.getPairCandidates().nextSetBit(cellIndex + 1)) {
+                    this.getPairCandidates().clear(cellIndex);
+                    if (this.isOpenConstraint(cellIndex)) {
+                        this.applyPairRule(cellIndex);
+                    }
+                }
+            } else if (!enumerateComponents) {
+                this.getEnumerationCandidates().clear();
+                return;
+            } else if (this.getEnumerationCandidates().isEmpty() || !this.enumerateComponents()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets a closed cell that is known to be safe, or {@code null} if no such cell can be deduced
+     */
+    public MinesweeperCellPosition findSafeCell() {
+        int cellIndex = this.popSafeCell();
+        if (cellIndex < 0) {
+            this.solve();
+            cellIndex = this.popSafeCell();
+        }
+        return cellIndex < 0 ? null : this.toCellPosition(cellIndex);
+    }
+
+    /**
+     * Gets the most recently deduced safe cell that is still closed, without running the deduction rules. Cells
+     * that have been revealed in the meantime are dropped from the stack.
+     */
+    private int popSafeCell() {
+        while (this.getSafeCellStackSize() > 0) {
+            int cellIndex = this.getSafeCellStack()[this.getSafeCellStackSize() - 1];
+            if (this.getCellStates()[cellIndex] == CELL_SAFE) {
+                return cellIndex;
+            } else {
+                this.setSafeCellStackSize(this.getSafeCellStackSize() - 1);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets all closed cells known to be safe
+     */
+    public List<MinesweeperCellPosition> getSafeCells() {
+        this.solve();
+        return this.collectCells(CELL_SAFE);
+    }
+
+    /**
+     * Gets all cells known to contain a mine
+     */
+    public List<MinesweeperCellPosition> getMines() {
+        this.solve();
+        return this.collectCells(CELL_MINE);
+    }
+
+    private List<MinesweeperCellPosition> collectCells(byte cellState) {
+        List<MinesweeperCellPosition> cellPositions = new ArrayList<>();
+        for (int cellIndex = 0; cellIndex < this.getCellStates().length; cellIndex++) {
+            if (this.getCellStates()[cellIndex] == cellState) {
+                cellPositions.add(this.toCellPosition(cellIndex));
+            }
+        }
+        return cellPositions;
+    }
+
+    private boolean applySingleRule(int cellIndex) {
+        int remainingMines = this.getCellNumbers()[cellIndex] - this.getMineNeighbors()[cellIndex];
+        if (remainingMines == 0) {
+            this.decideUnknownNeighbors(cellIndex, CELL_SAFE);
+            return true;
+        } else if (remainingMines == this.getUnknownNeighbors()[cellIndex]) {
+            this.decideUnknownNeighbors(cellIndex, CELL_MINE);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Compares the constraint of the given cell with all constraints within a distance of two cells, which are the
+     * only constraints that can share unknown cells with it
+     */
+    private void applyPairRule(int cellIndex) {
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        for (int otherRow = Math.max(0, row - 2); otherRow <= Math.min(this.getRows() - 1, row + 2); otherRow++) {
+            for (int otherColumn = Math.max(0, column - 2); otherColumn <= Math.min(this.getColumns() - 1, column + 2); otherColumn++) {
+                int otherCellIndex = (otherRow * this.getColumns()) + otherColumn;
+                if (otherCellIndex != cellIndex && this.isOpenConstraint(otherCellIndex)) {
+                    if (this.applyPairRule(cellIndex, otherCellIndex) || this.applyPairRule(otherCellIndex, cellIndex)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean applyPairRule(int firstCellIndex, int secondCellIndex) {
+        int firstOnlyCells = this.countUnknownNeighborsNotAdjacentTo(firstCellIndex, secondCellIndex);
+        int secondOnlyCells = this.countUnknownNeighborsNotAdjacentTo(secondCellIndex, firstCellIndex);
+        int firstRemainingMines = this.getCellNumbers()[firstCellIndex] - this.getMineNeighbors()[firstCellIndex];
+        int secondRemainingMines = this.getCellNumbers()[secondCellIndex] - this.getMineNeighbors()[secondCellIndex];
+        if ((firstOnlyCells > 0 || secondOnlyCells > 0) && firstRemainingMines - secondRemainingMines == firstOnlyCells) {
+            this.decideUnknownNeighborsNotAdjacentTo(firstCellIndex, secondCellIndex, CELL_MINE);
+            this.decideUnknownNeighborsNotAdjacentTo(secondCellIndex, firstCellIndex, CELL_SAFE);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    private int countUnknownNeighborsNotAdjacentTo(int cellIndex, int otherCellIndex) {
+        int count = 0;
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                int neighborIndex = (neighborRow * this.getColumns()) + neighborColumn;
+                if (this.getCellStates()[neighborIndex] == CELL_UNKNOWN && !this.isAdjacent(neighborIndex, otherCellIndex)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private void decideUnknownNeighborsNotAdjacentTo(int cellIndex, int otherCellIndex, byte cellState) {
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                int neighborIndex = (neighborRow * this.getColumns()) + neighborColumn;
+                if (this.getCellStates()[neighborIndex] == CELL_UNKNOWN && !this.isAdjacent(neighborIndex, otherCellIndex)) {
+                    this.decideCell(neighborIndex, cellState);
+                }
+            }
+        }
+    }
+
+    private boolean isAdjacent(int cellIndex, int otherCellIndex) {
+        return Math.abs((cellIndex / this.getColumns()) - (otherCellIndex / this.getColumns())) <= 1 && Math.abs((cellIndex % this.getColumns()) - (otherCellIndex % this.getColumns())) <= 1;
+    }
+
+    /**
+     * Enumerates the components around all constraints that have changed since the last enumeration. Returns whether
+     * at least one cell could be decided.
+     */
+    private boolean enumerateComponents() {
+        if (this.getWindowStamps() == null) {
+            this.setWindowStamps(new int[this.getCellStates().length]);
+        }
+        boolean cellsDecided = false;
+        BitSet enumeratedConstraints = new BitSet();
+        for (int cellIndex = this.getEnumerationCandidates().nextSetBit(0); cellIndex >= 0; cellIndex = this.getEnumerationCandidates().nextSetBit(cellIndex + 1)) {
+            if (this.isOpenConstraint(cellIndex) && !enumeratedConstraints.get(cellIndex)) {
+                cellsDecided |= this.enumerateWindow(cellIndex, enumeratedConstraints);
+            }
+        }
+        this.getEnumerationCandidates().clear();
+        return cellsDecided;
+    }
+
+    /**
+     * Collects the unknown cells connected to the given constraint, stopping after {@link #MAXIMUM_COMPONENT_CELLS}
+     * cells, and enumerates them. For a component larger than that window only the constraints lying completely
+     * inside the window are used. Dropping constraints can only add solutions, so a cell that has the same value in
+     * every solution of the window has that value in every solution of the complete component as well.
+     */
+    private boolean enumerateWindow(int sourceConstraintIndex, BitSet enumeratedConstraints) {
+
+        int windowStamp = this.getWindowStamp() + 1;
+        int[] windowStamps = this.getWindowStamps();
+        this.setWindowStamp(windowStamp);
+
+        int[] windowConstraints = new int[] { sourceConstraintIndex };
+        int numberOfConstraints = 1;
+        int[] windowCells = new int[MAXIMUM_COMPONENT_CELLS];
+        int numberOfCells = 0;
+        windowStamps[sourceConstraintIndex] = windowStamp;
+        for (int constraintPosition = 0; constraintPosition < numberOfConstraints && numberOfCells < MAXIMUM_COMPONENT_CELLS; constraintPosition++) {
+            int constraintIndex = windowConstraints[constraintPosition];
+            int row = constraintIndex / this.getColumns();
+            int column = constraintIndex % this.getColumns();
+            for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+                for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1) && numberOfCells < MAXIMUM_COMPONENT_CELLS; neighborColumn++) {
+                    int neighborIndex = (neighborRow * this.getColumns()) + neighborColumn;
+                    if (this.getCellStates()[neighborIndex] == CELL_UNKNOWN && windowStamps[neighborIndex] != windowStamp) {
+                        windowStamps[neighborIndex] = windowStamp;
+                        windowCells[numberOfCells++] = neighborIndex;
+                        for (int constraintRow = Math.max(0, neighborRow - 1); constraintRow <= Math.min(this.getRows() - 1, neighborRow + 1); constraintRow++) {
+                            for (int constraintColumn = Math.max(0, neighborColumn - 1); constraintColumn <= Math.min(this.getColumns() - 1, neighborColumn + 1); constraintColumn++) {
+                                int nextConstraintIndex = (constraintRow * this.getColumns()) + constraintColumn;
+                                if (this.isOpenConstraint(nextConstraintIndex) && windowStamps[nextConstraintIndex] != windowStamp) {
+                                    windowStamps[nextConstraintIndex] = windowStamp;
+                                    if (numberOfConstraints == windowConstraints.length) {
+                                        windowConstraints = Arrays.copyOf(windowConstraints, numberOfConstraints * 2);
+                                    }
+                                    windowConstraints[numberOfConstraints++] = nextConstraintIndex;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        int numberOfInnerConstraints = 0;
+        for (int constraintPosition = 0; constraintPosition < numberOfConstraints; constraintPosition++) {
+            if (this.isInsideWindow(windowConstraints[constraintPosition], windowStamp)) {
+                enumeratedConstraints.set(windowConstraints[constraintPosition]);
+                windowConstraints[numberOfInnerConstraints++] = windowConstraints[constraintPosition];
+            }
+        }
+        if (numberOfInnerConstraints == 0) {
+            return false;
+        }
+
+        MinesweeperSolverComponent component = this.createComponent(Arrays.copyOf(windowCells, numberOfCells), Arrays.copyOf(windowConstraints, numberOfInnerConstraints));
+        if (!component.enumerate(MAXIMUM_ENUMERATION_NODES) || component.getSolutions() == 0) {
+            return false;
+        }
+        boolean cellsDecided = false;
+        double solutions = component.getSolutions();
+        for (int localCellIndex = 0; localCellIndex < numberOfCells; localCellIndex++) {
+            double cellMineSolutions = component.getCellMineSolutions(localCellIndex);
+            if (cellMineSolutions == 0) {
+                cellsDecided |= this.decideCell(windowCells[localCellIndex], CELL_SAFE);
+            } else if (cellMineSolutions == solutions) {
+                cellsDecided |= this.decideCell(windowCells[localCellIndex], CELL_MINE);
+            }
+        }
+        return cellsDecided;
+
+    }
+
+    private boolean isInsideWindow(int constraintIndex, int windowStamp) {
+        int row = constraintIndex / this.getColumns();
+        int column = constraintIndex % this.getColumns();
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                int neighborIndex = (neighborRow * this.getColumns()) + neighborColumn;
+                if (this.getCellStates()[neighborIndex] == CELL_UNKNOWN && this.getWindowStamps()[neighborIndex] != windowStamp) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the component for the given closed cells and the revealed cells constraining them. All unknown
+     * neighbours of the given constraints must be contained in the given cells.
+     */
+    MinesweeperSolverComponent createComponent(int[] componentCells, int[] componentConstraints) {
+        if (this.getLocalCellIndices() == null) {
+            this.setLocalCellIndices(new int[this.getCellStates().length]);
+        }
+        int[] localCellIndices = this.getLocalCellIndices();
+        for (int localCellIndex = 0; localCellIndex < componentCells.length; localCellIndex++) {
+            localCellIndices[componentCells[localCellIndex]] = localCellIndex;
+        }
+        int[] constraintRemainingMines = new int[componentConstraints.length];
+        int[][] constraintCells = new int[componentConstraints.length][];
+        for (int constraintPosition = 0; constraintPosition < componentConstraints.length; constraintPosition++) {
+            int constraintIndex = componentConstraints[constraintPosition];
+            int row = constraintIndex / this.getColumns();
+            int column = constraintIndex % this.getColumns();
+            int[] coveredCells = new int[this.getUnknownNeighbors()[constraintIndex]];
+            int numberOfCoveredCells = 0;
+            for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+                for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                    int neighborIndex = (neighborRow * this.getColumns()) + neighborColumn;
+                    if (this.getCellStates()[neighborIndex] == CELL_UNKNOWN) {
+                        coveredCells[numberOfCoveredCells++] = localCellIndices[neighborIndex];
+                    }
+                }
+            }
+            constraintCells[constraintPosition] = coveredCells;
+            constraintRemainingMines[constraintPosition] = this.getCellNumbers()[constraintIndex] - this.getMineNeighbors()[constraintIndex];
+        }
+        return new MinesweeperSolverComponent(componentCells, constraintRemainingMines, constraintCells);
+    }
+
+    private void decideUnknownNeighbors(int cellIndex, byte cellState) {
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                this.decideCell((neighborRow * this.getColumns()) + neighborColumn, cellState);
+            }
+        }
+    }
+
+    /**
+     * Marks an unknown cell as being safe or containing a mine and updates the counters of its neighbours
+     */
+    private boolean decideCell(int cellIndex, byte cellState) {
+        if (this.getCellStates()[cellIndex] != CELL_UNKNOWN) {
+            return false;
+        } else {
+            this.getCellStates()[cellIndex] = cellState;
+            this.updateNeighbors(cellIndex, cellState == CELL_MINE);
+            if (cellState == CELL_MINE) {
+                this.setNumberOfMines(this.getNumberOfMines() + 1);
+            } else {
+                if (this.getSafeCellStackSize() == this.getSafeCellStack().length) {
+                    this.setSafeCellStack(Arrays.copyOf(this.getSafeCellStack(), this.getSafeCellStackSize() * 2));
+                }
+                this.getSafeCellStack()[this.getSafeCellStackSize()] = cellIndex;
+                this.setSafeCellStackSize(this.getSafeCellStackSize() + 1);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Updates the counters of all neighbours of a cell that is no longer unknown and marks the revealed neighbours
+     * as dirty
+     */
+    private void updateNeighbors(int cellIndex, boolean mined) {
+        int row = cellIndex / this.getColumns();
+        int column = cellIndex % this.getColumns();
+        for (int neighborRow = Math.max(0, row - 1); neighborRow <= Math.min(this.getRows() - 1, row + 1); neighborRow++) {
+            for (int neighborColumn = Math.max(0, column - 1); neighborColumn <= Math.min(this.getColumns() - 1, column + 1); neighborColumn++) {
+                int neighborIndex = (neighborRow * this.getColumns()) + neighborColumn;
+                if (neighborIndex != cellIndex) {
+                    this.getUnknownNeighbors()[neighborIndex]--;
+                    if (mined) {
+                        this.getMineNeighbors()[neighborIndex]++;
+                    }
+                    if (this.getCellStates()[neighborIndex] == CELL_REVEALED) {
+                        this.markDirty(neighborIndex);
+                    }
+                }
+            }
+        }
+    }
+
+    private void markDirty(int cellIndex) {
+        this.getEnumerationCandidates().set(cellIndex);
+        if (this.getChangedConstraints() != null) {
+            this.getChangedConstraints().set(cellIndex);
+        }
+        if (!this.getDirtyFlags().get(cellIndex)) {
+            this.getDirtyFlags().set(cellIndex);
+            if (this.getNumberOfDirtyCells() == this.getDirtyCells().length) {
+                this.setDirtyCells(Arrays.copyOf(this.getDirtyCells(), this.getNumberOfDirtyCells() * 2));
+            }
+            this.getDirtyCells()[this.getNumberOfDirtyCells()] = cellIndex;
+            this.setNumberOfDirtyCells(this.getNumberOfDirtyCells() + 1);
+        }
+    }
+
+    /**
+     * Checks whether the given cell is a revealed number that still has unknown neighbours
+     */
+    boolean isOpenConstraint(int cellIndex) {
+        return this.getCellStates()[cellIndex] == CELL_REVEALED && this.getUnknownNeighbors()[cellIndex] > 0;
+    }
+
+    private MinesweeperCellPosition toCellPosition(int cellIndex) {
+        return new MinesweeperCellPosition(cellIndex / this.getColumns(), cellIndex % this.getColumns());
+    }
+
+    /**
+     * Checks whether the given cell is known to contain a mine
+     */
+    public boolean isMine(MinesweeperCellPosition cellPosition) {
+        this.solve();
+        return this.getCellStates()[(cellPosition.getY() * this.getColumns()) + cellPosition.getX()] == CELL_MINE;
+    }
+
+    /**
+     * Checks whether the given cell is closed and known to be safe
+     */
+    public boolean isSafe(MinesweeperCellPosition cellPosition) {
+        this.solve();
+        return this.getCellStates()[(cellPosition.getY() * this.getColumns()) + cellPosition.getX()] == CELL_SAFE;
+    }
+
+    public int getRows() {
+        return this.rows;
+    }
+    private void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+    private void setColumns(int columns) {
+        this.columns = columns;
+    }
+
+    byte[] getCellStates() {
+        return this.cellStates;
+    }
+    private void setCellStates(byte[] cellStates) {
+        this.cellStates = cellStates;
+    }
+
+    byte[] getCellNumbers() {
+        return this.cellNumbers;
+    }
+    private void setCellNumbers(byte[] cellNumbers) {
+        this.cellNumbers = cellNumbers;
+    }
+
+    byte[] getUnknownNeighbors() {
+        return this.unknownNeighbors;
+    }
+    private void setUnknownNeighbors(byte[] unknownNeighbors) {
+        this.unknownNeighbors = unknownNeighbors;
+    }
+
+    byte[] getMineNeighbors() {
+        return this.mineNeighbors;
+    }
+    private void setMineNeighbors(byte[] mineNeighbors) {
+        this.mineNeighbors = mineNeighbors;
+    }
+
+    private int[] getDirtyCells() {
+        return this.dirtyCells;
+    }
+    private void setDirtyCells(int[] dirtyCells) {
+        this.dirtyCells = dirtyCells;
+    }
+
+    private int getNumberOfDirtyCells() {
+        return this.numberOfDirtyCells;
+    }
+    private void setNumberOfDirtyCells(int numberOfDirtyCells) {
+        this.numberOfDirtyCells = numberOfDirtyCells;
+    }
+
+    private BitSet getDirtyFlags() {
+        return this.dirtyFlags;
+    }
+    private void setDirtyFlags(BitSet dirtyFlags) {
+        this.dirtyFlags = dirtyFlags;
+    }
+
+    private BitSet getPairCandidates() {
+        return this.pairCandidates;
+    }
+    private void setPairCandidates(BitSet pairCandidates) {
+        this.pairCandidates = pairCandidates;
+    }
+
+    private BitSet getEnumerationCandidates() {
+        return this.enumerationCandidates;
+    }
+    private void setEnumerationCandidates(BitSet enumerationCandidates) {
+        this.enumerationCandidates = enumerationCandidates;
+    }
+
+    private int[] getSafeCellStack() {
+        return this.safeCellStack;
+    }
+    private void setSafeCellStack(int[] safeCellStack) {
+        this.safeCellStack = safeCellStack;
+    }
+
+    private int getSafeCellStackSize() {
+        return this.safeCellStackSize;
+    }
+    private void setSafeCellStackSize(int safeCellStackSize) {
+        this.safeCellStackSize = safeCellStackSize;
+    }
+
+    private int[] getWindowStamps() {
+        return this.windowStamps;
+    }
+    private void setWindowStamps(int[] windowStamps) {
+        this.windowStamps = windowStamps;
+    }
+
+    private int getWindowStamp() {
+        return this.windowStamp;
+    }
+    private void setWindowStamp(int windowStamp) {
+        this.windowStamp = windowStamp;
+    }
+
+    private int[] getLocalCellIndices() {
+        return this.localCellIndices;
+    }
+    private void setLocalCellIndices(int[] localCellIndices) {
+        this.localCellIndices = localCellIndices;
+    }
+
+    /**
+     * Gets the constraints whose cell or neighbours have changed since the bits have last been cleared by the caller,
+     * or {@code null} if changes are not being tracked
+     */
+    BitSet getChangedConstraints() {
+        return this.changedConstraints;
+    }
+    void setChangedConstraints(BitSet changedConstraints) {
+        this.changedConstraints = changedConstraints;
+    }
+
+    /**
+     * Gets the number of cells known to contain a mine
+     */
+    public int getNumberOfMines() {
+        return this.numberOfMines;
+    }
+    private void setNumberOfMines(int numberOfMines) {
+        this.numberOfMines = numberOfMines;
+    }
+
+    /**
+     * Checks whether the game followed by the solver has ended
+     */
+    public boolean isGameEnded() {
+        return this.gameEnded;
+    }
+    private void setGameEnded(boolean gameEnded) {
+        this.gameEnded = gameEnded;
+    }
+
+}
@@ -0,0 +1,237 @@
+package de.perdian.games.minesweeper.solver;
+
+/**
+ * A set of closed frontier cells together with the revealed numbers constraining them, sharing no cell with any
+ * other component.
+ *
+ * All assignments of mines to the cells that satisfy every constraint are enumerated using backtracking. For every
+ * possible number of mines within the component the number of solutions is recorded, together with the number of
+ * these solutions in which each individual cell contains a mine, so that the counts can later be weighted by the
+ * number of ways the remaining mines can be distributed across the rest of the board.
+ *
+ * @author Christian Robert
+ */
+
+class MinesweeperSolverComponent {
+
+    private int[] cells = null;
+    private int[] constraintRemainingMines = null;
+    private int[][] constraintCells = null;
+    private int[][] cellConstraints = null;
+    private int[] constraintAssignedMines = null;
+    private int[] constraintUnassignedCells = null;
+    private boolean[] assignment = null;
+    private double[] solutionsByMines = null;
+    private double[][] cellMinesByMines = null;
+    private long remainingNodes = 0;
+
+    /**
+     * Creates a component
+     *
+     * @param cells
+     *     the board indices of the closed cells, ordered so that cells sharing a constraint are close to each other
+     * @param constraintRemainingMines
+     *     the number of mines still to be placed for every constraint
+     * @param constraintCells
+     *     for every constraint the local indices of the cells it covers
+     */
+    MinesweeperSolverComponent(int[] cells, int[] constraintRemainingMines, int[][] constraintCells) {
+        this.setCells(cells);
+        this.setConstraintRemainingMines(constraintRemainingMines);
+        this.setConstraintCells(constraintCells);
+        int[] cellConstraintCounts = new int[cells.length];
+        for (int[] coveredCells : constraintCells) {
+            for (int cellIndex : coveredCells) {
+                cellConstraintCounts[cellIndex]++;
+            }
+        }
+        int[][] cellConstraints = new int[cells.length][];
+        for (int cellIndex = 0; cellIndex < cells.length; cellIndex++) {
+            cellConstraints[cellIndex] = new int[cellConstraintCounts[cellIndex]];
+            cellConstraintCounts[cellIndex] = 0;
+        }
+        for (int constraintIndex = 0; constraintIndex < constraintCells.length; constraintIndex++) {
+            for (int cellIndex : constraintCells[constraintIndex]) {
+                cellConstraints[cellIndex][cellConstraintCounts[cellIndex]++] = constraintIndex;
+            }
+        }
+        this.setCellConstraints(cellConstraints);
+    }
+
+    /**
+     * Enumerates all solutions of the component. Returns {@code false} if the enumeration has been aborted because
+     * more than the given number of search nodes would have been required.
+     */
+    boolean enumerate(long maximumNodes) {
+        int numberOfCells = this.getCells().length;
+        this.setConstraintAssignedMines(new int[this.getConstraintCells().length]);
+        this.setConstraintUnassignedCells(new int[this.getConstraintCells().length]);
+        for (int constraintIndex = 0; constraintIndex < this.getConstraintCells().length; constraintIndex++) {
+            this.getConstraintUnassignedCells()[constraintIndex] = this.getConstraintCells()[constraintIndex].length;
+        }
+        this.setAssignment(new boolean[numberOfCells]);
+        this.setSolutionsByMines(new double[numberOfCells + 1]);
+        this.setCellMinesByMines(new double[numberOfCells + 1][numberOfCells]);
+        this.setRemainingNodes(maximumNodes);
+        return this.enumerate(0, 0);
+    }
+
+    private boolean enumerate(int cellIndex, int numberOfMines) {
+        if (this.getRemainingNodes() <= 0) {
+            return false;
+        }
+        this.setRemainingNodes(this.getRemainingNodes() - 1);
+        if (cellIndex == this.getCells().length) {
+            this.recordSolution(numberOfMines);
+            return true;
+        }
+        for (int mined = 0; mined <= 1; mined++) {
+            if (this.assign(cellIndex, mined == 1)) {
+                boolean completed = this.enumerate(cellIndex + 1, numberOfMines + mined);
+                this.unassign(cellIndex, mined == 1);
+                if (!completed) {
+                    return false;
+                }
+            } else {
+                this.unassign(cellIndex, mined == 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assigns the given value to the cell and checks whether all constraints covering the cell can still be
+     * satisfied
+     */
+    private boolean assign(int cellIndex, boolean mined) {
+        this.getAssignment()[cellIndex] = mined;
+        boolean satisfiable = true;
+        for (int constraintIndex : this.getCellConstraints()[cellIndex]) {
+            int assignedMines = this.getConstraintAssignedMines()[constraintIndex] + (mined ? 1 : 0);
+            int unassignedCells = this.getConstraintUnassignedCells()[constraintIndex] - 1;
+            this.getConstraintAssignedMines()[constraintIndex] = assignedMines;
+            this.getConstraintUnassignedCells()[constraintIndex] = unassignedCells;
+            int remainingMines = this.getConstraintRemainingMines()[constraintIndex];
+            satisfiable &= assignedMines <= remainingMines && assignedMines + unassignedCells >= remainingMines;
+        }
+        return satisfiable;
+    }
+
+    private void unassign(int cellIndex, boolean mined) {
+        for (int constraintIndex : this.getCellConstraints()[cellIndex]) {
+            this.getConstraintAssignedMines()[constraintIndex] -= mined ? 1 : 0;
+            this.getConstraintUnassignedCells()[constraintIndex] += 1;
+        }
+        this.getAssignment()[cellIndex] = false;
+    }
+
+    private void recordSolution(int numberOfMines) {
+        this.getSolutionsByMines()[numberOfMines]++;
+        double[] cellMines = this.getCellMinesByMines()[numberOfMines];
+        for (int cellIndex = 0; cellIndex < this.getCells().length; cellIndex++) {
+            if (this.getAssignment()[cellIndex]) {
+                cellMines[cellIndex]++;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of solutions in which the given cell contains a mine, over all numbers of mines
+     */
+    double getCellMineSolutions(int cellIndex) {
+        double cellMineSolutions = 0;
+        for (double[] cellMines : this.getCellMinesByMines()) {
+            cellMineSolutions += cellMines[cellIndex];
+        }
+        return cellMineSolutions;
+    }
+
+    /**
+     * Gets the number of solutions over all numbers of mines
+     */
+    double getSolutions() {
+        double solutions = 0;
+        for (double solutionsWithMines : this.getSolutionsByMines()) {
+            solutions += solutionsWithMines;
+        }
+        return solutions;
+    }
+
+    int[] getCells() {
+        return this.cells;
+    }
+    private void setCells(int[] cells) {
+        this.cells = cells;
+    }
+
+    private int[] getConstraintRemainingMines() {
+        return this.constraintRemainingMines;
+    }
+    private void setConstraintRemainingMines(int[] constraintRemainingMines) {
+        this.constraintRemainingMines = constraintRemainingMines;
+    }
+
+    private int[][] getConstraintCells() {
+        return this.constraintCells;
+    }
+    private void setConstraintCells(int[][] constraintCells) {
+        this.constraintCells = constraintCells;
+    }
+
+    private int[][] getCellConstraints() {
+        return this.cellConstraints;
+    }
+    private void setCellConstraints(int[][] cellConstraints) {
+        this.cellConstraints = cellConstraints;
+    }
+
+    private int[] getConstraintAssignedMines() {
+        return this.constraintAssignedMines;
+    }
+    private void setConstraintAssignedMines(int[] constraintAssignedMines) {
+        this.constraintAssignedMines = constraintAssignedMines;
+    }
+
+    private int[] getConstraintUnassignedCells() {
+        return this.constraintUnassignedCells;
+    }
+    private void setConstraintUnassignedCells(int[] constraintUnassignedCells) {
+        this.constraintUnassignedCells = constraintUnassignedCells;
+    }
+
+    private boolean[] getAssignment() {
+        return this.assignment;
+    }
+    private void setAssignment(boolean[] assignment) {
+        this.assignment = assignment;
+    }
+
+    /**
+     * Gets the number of solutions for every possible number of mines within the component
+     */
+    double[] getSolutionsByMines() {
+        return this.solutionsByMines;
+    }
+    private void setSolutionsByMines(double[] solutionsByMines) {
+        this.solutionsByMines = solutionsByMines;
+    }
+
+    /**
+     * Gets, for every possible number of mines within the component, the number of solutions in which each cell
+     * contains a mine
+     */
+    double[][] getCellMinesByMines() {
+        return this.cellMinesByMines;
+    }
+    private void setCellMinesByMines(double[][] cellMinesByMines) {
+        this.cellMinesByMines = cellMinesByMines;
+    }
+
+    private long getRemainingNodes() {
+        return this.remainingNodes;
+    }
+    private void setRemainingNodes(long remainingNodes) {
+        this.remainingNodes = remainingNodes;
+    }
+
+}
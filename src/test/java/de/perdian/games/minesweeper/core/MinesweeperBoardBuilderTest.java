@@ -1,5 +1,12 @@
 package de.perdian.games.minesweeper.core;
 
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -24,7 +31,7 @@ public class MinesweeperBoardBuilderTest {
             int countedNumberOfMines = 0;
             for (int row = 0; row < 10; row++) {
                 for (int column = 0; column < 20; column++) {
-                    MinesweeperCell cell = board.getCells().get(new MinesweeperCellPosition(row, column));
+                    MinesweeperCell cell = board.getCell(new MinesweeperCellPosition(row, column));
                     if (cell.isMined()) {
                         countedNumberOfMines++;
                     }
@@ -36,6 +43,278 @@ public class MinesweeperBoardBuilderTest {
 
         }
 
+        @Test
+        public void buildComputesNeighboringMines() {
+
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(12);
+            boardBuilder.setColumns(9);
+            boardBuilder.setMines(30);
+
+            MinesweeperBoard board = boardBuilder.build();
+            for (int row = 0; row < 12; row++) {
+                for (int column = 0; column < 9; column++) {
+                    int expectedNeighboringMines = 0;
+                    for (int lookupRow = Math.max(0, row - 1); lookupRow <= Math.min(11, row + 1); lookupRow++) {
+                        for (int lookupColumn = Math.max(0, column - 1); lookupColumn <= Math.min(8, column + 1); lookupColumn++) {
+                            if ((lookupRow != row || lookupColumn != column) && board.getCell(new MinesweeperCellPosition(lookupRow, lookupColumn)).isMined()) {
+                                expectedNeighboringMines++;
+                            }
+                        }
+                    }
+                    Assertions.assertEquals(expectedNeighboringMines, board.getCellsNeighboringMines()[(row * 9) + column]);
+                }
+            }
+
+        }
+
+    }
+
+    @Nested
+    class MinePlacement {
+
+        @Test
+        public void placeMinesSparse() {
+            this.assertUniformDistribution(10, 3);
+        }
+
+        @Test
+        public void placeMinesDense() {
+            this.assertUniformDistribution(10, 8);
+        }
+
+        private void assertUniformDistribution(int numberOfCells, int numberOfMines) {
+            Random random = new Random(42);
+            int numberOfRuns = 20000;
+            int[] minesPerCell = new int[numberOfCells];
+            for (int run = 0; run < numberOfRuns; run++) {
+                BitSet cellsMined = MinesweeperBoardBuilder.placeMines(numberOfCells, numberOfMines, random);
+                Assertions.assertEquals(numberOfMines, cellsMined.cardinality());
+                Assertions.assertTrue(cellsMined.length() <= numberOfCells);
+                cellsMined.stream().forEach(cellIndex -> minesPerCell[cellIndex]++);
+            }
+            double expectedMinesPerCell = (double)numberOfRuns * numberOfMines / numberOfCells;
+            for (int cellIndex = 0; cellIndex < numberOfCells; cellIndex++) {
+                Assertions.assertEquals(expectedMinesPerCell, minesPerCell[cellIndex], expectedMinesPerCell * 0.05);
+            }
+        }
+
+    }
+
+    @Nested
+    class ParallelBuild {
+
+        private MinesweeperBoard build(int parallelThreshold, ForkJoinPool forkJoinPool) {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(300);
+            boardBuilder.setColumns(70);
+            boardBuilder.setMines(4000);
+            boardBuilder.setRandom(new Random(42));
+            boardBuilder.setParallelThreshold(parallelThreshold);
+            boardBuilder.setForkJoinPool(forkJoinPool);
+            return boardBuilder.build();
+        }
+
+        @Test
+        public void sameLayoutForEveryParallelism() {
+            ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+            ForkJoinPool multiThreadPool = new ForkJoinPool(4);
+            try {
+                MinesweeperBoard sequentialBoard = this.build(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+                MinesweeperBoard singleThreadBoard = this.build(0, singleThreadPool);
+                MinesweeperBoard multiThreadBoard = this.build(0, multiThreadPool);
+                Assertions.assertEquals(4000, sequentialBoard.getCellsMined().cardinality());
+                Assertions.assertEquals(sequentialBoard.getCellsMined(), singleThreadBoard.getCellsMined());
+                Assertions.assertEquals(sequentialBoard.getCellsMined(), multiThreadBoard.getCellsMined());
+                Assertions.assertArrayEquals(sequentialBoard.getCellsNeighboringMines(), multiThreadBoard.getCellsNeighboringMines());
+            } finally {
+                singleThreadPool.shutdown();
+                multiThreadPool.shutdown();
+            }
+        }
+
+        @Test
+        public void rebuildCreatesSameLayoutAsBuild() {
+            MinesweeperBoard reusedBoard = this.build(Integer.MAX_VALUE, ForkJoinPool.commonPool());
+            reusedBoard.reveal(new MinesweeperCellPosition(0, 0));
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(300);
+            boardBuilder.setColumns(70);
+            boardBuilder.setMines(4000);
+            boardBuilder.setRandom(new Random(7));
+            Assertions.assertSame(reusedBoard, boardBuilder.rebuild(reusedBoard));
+            boardBuilder.setRandom(new Random(7));
+            MinesweeperBoard expectedBoard = boardBuilder.build();
+            Assertions.assertEquals(expectedBoard.getCellsMined(), reusedBoard.getCellsMined());
+            Assertions.assertArrayEquals(expectedBoard.getCellsNeighboringMines(), reusedBoard.getCellsNeighboringMines());
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, reusedBoard.getBoardState());
+            Assertions.assertEquals(0, reusedBoard.getNumberOfCellsRevealed());
+            Assertions.assertEquals(300 * 70, reusedBoard.getNumberOfCellsClosed());
+            Assertions.assertTrue(reusedBoard.getCellsRevealed().isEmpty());
+        }
+
+        @Test
+        public void seedIdentifiesLayout() {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(300);
+            boardBuilder.setColumns(70);
+            boardBuilder.setMines(4000);
+            boardBuilder.setSeed(20261018L);
+            MinesweeperBoard firstBoard = boardBuilder.build();
+            boardBuilder.setRandom(new Random(1));
+            boardBuilder.setParallelThreshold(0);
+            MinesweeperBoard secondBoard = boardBuilder.build();
+            Assertions.assertEquals(firstBoard.getCellsMined(), secondBoard.getCellsMined());
+            boardBuilder.setSeed(20261019L);
+            Assertions.assertNotEquals(firstBoard.getCellsMined(), boardBuilder.build().getCellsMined());
+        }
+
+        @Test
+        public void monitorReceivesEveryStripe() {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(300);
+            boardBuilder.setColumns(70);
+            boardBuilder.setMines(4000);
+            boardBuilder.setParallelThreshold(0);
+            AtomicInteger maximumCompletedSteps = new AtomicInteger();
+            AtomicInteger numberOfCalls = new AtomicInteger();
+            boardBuilder.build(new MinesweeperBoardBuildMonitor() {
+                @Override public void progressed(int completedSteps, int totalSteps) {
+                    Assertions.assertEquals(10, totalSteps);
+                    maximumCompletedSteps.accumulateAndGet(completedSteps, Math::max);
+                    numberOfCalls.incrementAndGet();
+                }
+            });
+            Assertions.assertEquals(10, maximumCompletedSteps.get());
+            Assertions.assertEquals(10, numberOfCalls.get());
+        }
+
+        @Test
+        public void cancelledMonitorAbortsBuild() {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(300);
+            boardBuilder.setColumns(70);
+            boardBuilder.setMines(4000);
+            boardBuilder.setParallelThreshold(0);
+            AtomicInteger numberOfCalls = new AtomicInteger();
+            Assertions.assertThrows(CancellationException.class, () -> boardBuilder.build(new MinesweeperBoardBuildMonitor() {
+                @Override public void progressed(int completedSteps, int totalSteps) {
+                    numberOfCalls.incrementAndGet();
+                }
+                @Override public boolean isCancelled() {
+                    return numberOfCalls.get() > 0;
+                }
+            }));
+            Assertions.assertTrue(numberOfCalls.get() < 10);
+        }
+
+        @Test
+        public void neighboringMinesAcrossStripes() {
+            MinesweeperBoard board = this.build(0, ForkJoinPool.commonPool());
+            byte[] expectedNeighboringMines = MinesweeperBoardBuilder.computeNeighboringMines(300, 70, board.getCellsMined());
+            Assertions.assertArrayEquals(expectedNeighboringMines, board.getCellsNeighboringMines());
+        }
+
+        @Test
+        public void sampleHypergeometric() {
+            Random random = new Random(42);
+            int numberOfRuns = 50000;
+            int[] observedCounts = new int[8];
+            for (int run = 0; run < numberOfRuns; run++) {
+                observedCounts[(int)MinesweeperBoardBuilder.sampleHypergeometric(20, 7, 9, random)]++;
+            }
+            for (int successes = 0; successes <= 7; successes++) {
+                double expectedProbability = binomial(7, successes) * binomial(13, 9 - successes) / binomial(20, 9);
+                Assertions.assertEquals(expectedProbability, (double)observedCounts[successes] / numberOfRuns, 0.01);
+            }
+        }
+
+        private double binomial(int n, int k) {
+            double result = 1;
+            for (int factor = 1; factor <= k; factor++) {
+                result = result * (n - k + factor) / factor;
+            }
+            return result;
+        }
+
+    }
+
+    @Nested
+    class ValidatedBuild {
+
+        private MinesweeperBoardBuilder createBuilder(MinesweeperBoardValidator validator) {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(16);
+            boardBuilder.setColumns(30);
+            boardBuilder.setMines(99);
+            boardBuilder.setRandom(new Random(42));
+            boardBuilder.setStartCellPosition(new MinesweeperCellPosition(0, 29));
+            boardBuilder.setValidator(validator);
+            return boardBuilder;
+        }
+
+        @Test
+        public void placeMinesKeepsExcludedCellsEmpty() {
+            int[] excludedCellIndices = new int[] { 0, 1, 10, 11, 20, 21 };
+            for (long seed = 0; seed < 100; seed++) {
+                BitSet cellsMined = new BitSet(100);
+                MinesweeperBoardBuilder.placeMines(cellsMined, 100, 90, excludedCellIndices, new Random(seed));
+                Assertions.assertEquals(90, cellsMined.cardinality());
+                Assertions.assertTrue(cellsMined.nextSetBit(100) < 0);
+                for (int excludedCellIndex : excludedCellIndices) {
+                    Assertions.assertFalse(cellsMined.get(excludedCellIndex));
+                }
+            }
+        }
+
+        @Test
+        public void acceptedCandidateIsReturned() {
+            MinesweeperBoardBuilder boardBuilder = this.createBuilder((board, startCellPosition, cancelled) -> board.getCellsMined().get(0));
+            MinesweeperBoard board = boardBuilder.build();
+            Assertions.assertTrue(board.getCellsMined().get(0));
+            Assertions.assertEquals(0, board.getCellsNeighboringMines()[29]);
+            Assertions.assertFalse(board.getCellsMined().get(29));
+            Assertions.assertEquals(0, board.getNumberOfCellsRevealed());
+            Assertions.assertEquals(1, boardBuilder.getValidationMetrics().getNumberOfBoards());
+            Assertions.assertEquals(0, boardBuilder.getValidationMetrics().getNumberOfTimeouts());
+            Assertions.assertTrue(boardBuilder.getValidationMetrics().getCandidatesValidated() >= 1);
+        }
+
+        @Test
+        public void seedIdentifiesValidatedLayout() {
+            ForkJoinPool multiThreadPool = new ForkJoinPool(4);
+            try {
+                MinesweeperBoardBuilder boardBuilder = this.createBuilder((board, startCellPosition, cancelled) -> board.getCellsMined().get(0) && board.getCellsMined().get(1));
+                boardBuilder.setForkJoinPool(multiThreadPool);
+                boardBuilder.setSeed(42L);
+                MinesweeperBoard firstBoard = boardBuilder.build();
+                for (int attempt = 0; attempt < 5; attempt++) {
+                    Assertions.assertEquals(firstBoard.getCellsMined(), boardBuilder.build().getCellsMined());
+                }
+            } finally {
+                multiThreadPool.shutdown();
+            }
+        }
+
+        @Test
+        public void timeoutReturnsUnvalidatedBoard() {
+            MinesweeperBoardBuilder boardBuilder = this.createBuilder((board, startCellPosition, cancelled) -> false);
+            boardBuilder.setValidationTimeout(Duration.ofMillis(50));
+            MinesweeperBoard board = boardBuilder.build();
+            Assertions.assertEquals(99, board.getCellsMined().cardinality());
+            Assertions.assertEquals(0, board.getCellsNeighboringMines()[29]);
+            Assertions.assertEquals(1, boardBuilder.getValidationMetrics().getNumberOfTimeouts());
+            Assertions.assertEquals(boardBuilder.getValidationMetrics().getCandidatesValidated(), boardBuilder.getValidationMetrics().getCandidatesRejected());
+        }
+
+        @Test
+        public void timeoutFails() {
+            MinesweeperBoardBuilder boardBuilder = this.createBuilder((board, startCellPosition, cancelled) -> false);
+            boardBuilder.setValidationTimeout(Duration.ofMillis(50));
+            boardBuilder.setValidationFallback(MinesweeperBoardValidationFallback.FAIL);
+            Assertions.assertThrows(IllegalStateException.class, () -> boardBuilder.build());
+        }
+
     }
 
     @Nested
@@ -0,0 +1,129 @@
+package de.perdian.games.minesweeper.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperBoardFormatTest {
+
+    private static void assertBoardsEqual(MinesweeperBoard expectedBoard, MinesweeperBoard actualBoard) {
+        Assertions.assertEquals(expectedBoard.getRows(), actualBoard.getRows());
+        Assertions.assertEquals(expectedBoard.getColumns(), actualBoard.getColumns());
+        Assertions.assertEquals(expectedBoard.getMinesTotal(), actualBoard.getMinesTotal());
+        Assertions.assertEquals(expectedBoard.getBoardState(), actualBoard.getBoardState());
+        Assertions.assertEquals(expectedBoard.getNumberOfCellsRevealed(), actualBoard.getNumberOfCellsRevealed());
+        Assertions.assertEquals(expectedBoard.getNumberOfCellsClosed(), actualBoard.getNumberOfCellsClosed());
+        Assertions.assertEquals(expectedBoard.getCellsMined(), actualBoard.getCellsMined());
+        Assertions.assertEquals(expectedBoard.getCellsRevealed().toBitSet(), actualBoard.getCellsRevealed().toBitSet());
+        Assertions.assertArrayEquals(expectedBoard.getCellsNeighboringMines(), actualBoard.getCellsNeighboringMines());
+        Assertions.assertEquals(expectedBoard.getNumberOfCellsFlagged(), actualBoard.getNumberOfCellsFlagged());
+        Assertions.assertEquals(expectedBoard.getCellsFlagged().toBitSet(), actualBoard.getCellsFlagged().toBitSet());
+        Assertions.assertArrayEquals(toFlagCounters(expectedBoard), toFlagCounters(actualBoard));
+    }
+
+    private static byte[] toFlagCounters(MinesweeperBoard board) {
+        byte[] cellsNeighboringFlags = board.getCellsNeighboringFlags();
+        return cellsNeighboringFlags == null ? new byte[board.getRows() * board.getColumns()] : cellsNeighboringFlags;
+    }
+
+    @Test
+    public void saveAndLoadNewBoard() throws IOException {
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(30, 17, 60, 42);
+        Path boardFile = Files.createTempFile("minesweeper", ".board");
+        try {
+            board.save(boardFile);
+            Assertions.assertEquals(MinesweeperBoardFormat.computeSize(30, 17), Files.size(boardFile));
+            assertBoardsEqual(board, MinesweeperBoard.load(boardFile));
+        } finally {
+            Files.deleteIfExists(boardFile);
+        }
+    }
+
+    @Test
+    public void saveAndLoadRunningBoard() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(40, 40, 100, 42);
+        for (int cellIndex = 0; cellIndex < 1600 && board.getNumberOfCellsRevealed() < 200; cellIndex++) {
+            if (!board.getCellsMined().get(cellIndex) && !board.getCellsRevealed().get(cellIndex)) {
+                board.reveal(new MinesweeperCellPosition(cellIndex / 40, cellIndex % 40));
+            }
+        }
+
+        Path boardFile = Files.createTempFile("minesweeper", ".board");
+        try {
+            board.save(boardFile);
+            MinesweeperBoard loadedBoard = MinesweeperBoard.load(boardFile);
+            assertBoardsEqual(board, loadedBoard);
+
+            int nextCellIndex = board.getCellsRevealed().nextClearBit(0);
+            while (board.getCellsMined().get(nextCellIndex)) {
+                nextCellIndex = board.getCellsRevealed().nextClearBit(nextCellIndex + 1);
+            }
+            board.reveal(new MinesweeperCellPosition(nextCellIndex / 40, nextCellIndex % 40));
+            loadedBoard.reveal(new MinesweeperCellPosition(nextCellIndex / 40, nextCellIndex % 40));
+            assertBoardsEqual(board, loadedBoard);
+        } finally {
+            Files.deleteIfExists(boardFile);
+        }
+
+    }
+
+    @Test
+    public void saveAndLoadFlaggedBoard() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(
+            "*.......",
+            "........",
+            "........",
+            "........",
+            "........",
+            "........",
+            "........",
+            ".......*"
+        );
+        board.reveal(new MinesweeperCellPosition(1, 1));
+        board.flag(new MinesweeperCellPosition(0, 0));
+        board.flag(new MinesweeperCellPosition(7, 6));
+        board.unflag(new MinesweeperCellPosition(7, 6));
+        board.flag(new MinesweeperCellPosition(6, 7));
+
+        MinesweeperBoard loadedBoard = MinesweeperBoard.fromByteArray(board.toByteArray());
+        assertBoardsEqual(board, loadedBoard);
+        Assertions.assertTrue(loadedBoard.isFlagged(new MinesweeperCellPosition(0, 0)));
+        Assertions.assertTrue(loadedBoard.isChordable(new MinesweeperCellPosition(1, 1)));
+        Assertions.assertTrue(loadedBoard.chord(new MinesweeperCellPosition(1, 1)).getSize() >= 7);
+        Assertions.assertFalse(loadedBoard.isRevealed(new MinesweeperCellPosition(6, 7)));
+
+    }
+
+    @Test
+    public void saveAndLoadFinishedBoard() throws IOException {
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(8, 8, 10, 42);
+        int minedCellIndex = board.getCellsMined().nextSetBit(0);
+        board.reveal(new MinesweeperCellPosition(minedCellIndex / 8, minedCellIndex % 8));
+        Path boardFile = Files.createTempFile("minesweeper", ".board");
+        try {
+            board.save(boardFile);
+            MinesweeperBoard loadedBoard = MinesweeperBoard.load(boardFile);
+            assertBoardsEqual(board, loadedBoard);
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, loadedBoard.getBoardState());
+        } finally {
+            Files.deleteIfExists(boardFile);
+        }
+    }
+
+    @Test
+    public void loadInvalidFile() throws IOException {
+        Path boardFile = Files.createTempFile("minesweeper", ".board");
+        try {
+            Files.write(boardFile, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32 });
+            Assertions.assertThrows(IOException.class, () -> MinesweeperBoard.load(boardFile));
+        } finally {
+            Files.deleteIfExists(boardFile);
+        }
+    }
+
+}
@@ -0,0 +1,93 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperBoardHistoryTest {
+
+    @Test
+    public void undoAndRedoMoves() {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(
+            "*...",
+            "....",
+            "....",
+            "...*"
+        );
+        MinesweeperBoardHistory history = MinesweeperBoardHistory.attach(board);
+        Assertions.assertFalse(history.canUndo());
+
+        board.reveal(new MinesweeperCellPosition(1, 1));
+        board.flag(new MinesweeperCellPosition(0, 0));
+        board.reveal(new MinesweeperCellPosition(3, 3));
+        Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, board.getBoardState());
+
+        history.undo();
+        Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+        Assertions.assertTrue(board.isFlagged(new MinesweeperCellPosition(0, 0)));
+        history.undo();
+        Assertions.assertFalse(board.isFlagged(new MinesweeperCellPosition(0, 0)));
+        Assertions.assertTrue(board.isRevealed(new MinesweeperCellPosition(1, 1)));
+        history.undo();
+        Assertions.assertEquals(0, board.getNumberOfCellsRevealed());
+        Assertions.assertFalse(history.canUndo());
+        Assertions.assertThrows(IllegalStateException.class, () -> history.undo());
+
+        history.redo();
+        history.redo();
+        Assertions.assertTrue(board.isFlagged(new MinesweeperCellPosition(0, 0)));
+        Assertions.assertTrue(history.canRedo());
+        board.reveal(new MinesweeperCellPosition(2, 2));
+        Assertions.assertFalse(history.canRedo());
+        Assertions.assertEquals(2, board.getNumberOfCellsRevealed());
+
+    }
+
+    @Test
+    public void rebuildDiscardsMoves() {
+
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setSeed(42L);
+        MinesweeperBoard board = boardBuilder.build();
+        MinesweeperBoardHistory history = MinesweeperBoardHistory.attach(board);
+        board.flag(new MinesweeperCellPosition(0, 0));
+        board.flag(new MinesweeperCellPosition(0, 1));
+        history.undo();
+        Assertions.assertTrue(history.canUndo());
+        Assertions.assertTrue(history.canRedo());
+
+        boardBuilder.setSeed(7L);
+        boardBuilder.rebuild(board);
+        Assertions.assertFalse(history.canUndo());
+        Assertions.assertFalse(history.canRedo());
+        Assertions.assertThrows(IllegalStateException.class, () -> history.undo());
+
+        board.flag(new MinesweeperCellPosition(1, 1));
+        history.undo();
+        Assertions.assertEquals(0, board.getNumberOfCellsFlagged());
+        Assertions.assertFalse(history.canUndo());
+        Assertions.assertTrue(history.canRedo());
+
+    }
+
+    @Test
+    public void undoKeepsOnlyLatestSteps() {
+
+        BitSet cellsMined = new BitSet();
+        cellsMined.set(0);
+        MinesweeperBoard board = new MinesweeperBoard(100, 100, 1, cellsMined, MinesweeperBoardBuilder.computeNeighboringMines(100, 100, cellsMined));
+        MinesweeperBoardHistory history = MinesweeperBoardHistory.attach(board, 5);
+        for (int column = 1; column <= 10; column++) {
+            board.flag(new MinesweeperCellPosition(50, column));
+        }
+        for (int step = 0; step < 5; step++) {
+            history.undo();
+        }
+        Assertions.assertFalse(history.canUndo());
+        Assertions.assertEquals(5, board.getNumberOfCellsFlagged());
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package de.perdian.games.minesweeper.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperBoardJournalTest {
+
+    @Test
+    public void replayJournal() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(20, 20, 60, 42);
+
+        Path journalFile = Files.createTempFile("minesweeper", ".journal");
+        try {
+
+            List<BitSet> revealedCellsAfterMove = new ArrayList<>();
+            revealedCellsAfterMove.add(board.getCellsRevealed().toBitSet());
+            try (MinesweeperBoardJournal journal = MinesweeperBoardJournal.attach(board, journalFile, 3)) {
+                Random random = new Random(4711);
+                while (MinesweeperBoardState.RUNNING.equals(board.getBoardState())) {
+                    int cellIndex = random.nextInt(400);
+                    if (!board.getCellsRevealed().get(cellIndex)) {
+                        board.reveal(new MinesweeperCellPosition(cellIndex / 20, cellIndex % 20));
+                        revealedCellsAfterMove.add(board.getCellsRevealed().toBitSet());
+                    }
+                }
+                Assertions.assertEquals(revealedCellsAfterMove.size() - 1, journal.getNumberOfMoves());
+            }
+
+            MinesweeperBoardJournalPlayer player = MinesweeperBoardJournalPlayer.open(journalFile);
+            Assertions.assertEquals(20, player.getRows());
+            Assertions.assertEquals(20, player.getColumns());
+            Assertions.assertEquals(60, player.getMinesTotal());
+            Assertions.assertEquals(revealedCellsAfterMove.size() - 1, player.getNumberOfMoves());
+            for (int moveNumber = 0; moveNumber <= player.getNumberOfMoves(); moveNumber++) {
+                MinesweeperBoard replayedBoard = player.seek(moveNumber);
+                Assertions.assertEquals(revealedCellsAfterMove.get(moveNumber), replayedBoard.getCellsRevealed().toBitSet(), "Revealed cells after move " + moveNumber);
+                Assertions.assertEquals(board.getCellsMined(), replayedBoard.getCellsMined());
+            }
+            Assertions.assertEquals(board.getBoardState(), player.seek(player.getNumberOfMoves()).getBoardState());
+
+        } finally {
+            Files.deleteIfExists(journalFile);
+        }
+
+    }
+
+    @Test
+    public void replayFlagsChordsAndRestores() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(
+            "*.......",
+            "........",
+            "........",
+            ".......*"
+        );
+        MinesweeperBoardSnapshot initialSnapshot = board.snapshot();
+
+        Path journalFile = Files.createTempFile("minesweeper", ".journal");
+        try {
+
+            List<BitSet> revealedCellsAfterMove = new ArrayList<>();
+            List<BitSet> flaggedCellsAfterMove = new ArrayList<>();
+            List<Runnable> moves = List.of(
+                () -> board.flag(new MinesweeperCellPosition(2, 3)),
+                () -> board.reveal(new MinesweeperCellPosition(1, 1)),
+                () -> board.flag(new MinesweeperCellPosition(0, 0)),
+                () -> board.chord(new MinesweeperCellPosition(1, 1)),
+                () -> board.unflag(new MinesweeperCellPosition(2, 3)),
+                () -> board.reveal(new MinesweeperCellPosition(2, 3)),
+                () -> board.restore(initialSnapshot),
+                () -> board.reveal(new MinesweeperCellPosition(1, 1))
+            );
+            revealedCellsAfterMove.add(board.getCellsRevealed().toBitSet());
+            flaggedCellsAfterMove.add(board.getCellsFlagged().toBitSet());
+            try (MinesweeperBoardJournal journal = MinesweeperBoardJournal.attach(board, journalFile, 2)) {
+                for (Runnable move : moves) {
+                    move.run();
+                    revealedCellsAfterMove.add(board.getCellsRevealed().toBitSet());
+                    flaggedCellsAfterMove.add(board.getCellsFlagged().toBitSet());
+                }
+                Assertions.assertEquals(moves.size(), journal.getNumberOfMoves());
+            }
+
+            MinesweeperBoardJournalPlayer player = MinesweeperBoardJournalPlayer.open(journalFile);
+            Assertions.assertEquals(moves.size(), player.getNumberOfMoves());
+            Assertions.assertEquals(new MinesweeperCellPosition(0, 1), player.getMovePosition(4));
+            Assertions.assertNull(player.getMovePosition(7));
+            for (int moveNumber = 0; moveNumber <= player.getNumberOfMoves(); moveNumber++) {
+                MinesweeperBoard replayedBoard = player.seek(moveNumber);
+                Assertions.assertEquals(revealedCellsAfterMove.get(moveNumber), replayedBoard.getCellsRevealed().toBitSet(), "Revealed cells after move " + moveNumber);
+                Assertions.assertEquals(flaggedCellsAfterMove.get(moveNumber), replayedBoard.getCellsFlagged().toBitSet(), "Flagged cells after move " + moveNumber);
+            }
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, player.seek(6).getBoardState());
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, player.seek(player.getNumberOfMoves()).getBoardState());
+
+        } finally {
+            Files.deleteIfExists(journalFile);
+        }
+
+    }
+
+    @Test
+    public void rebuildEndsJournal() throws IOException {
+
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(20);
+        boardBuilder.setColumns(20);
+        boardBuilder.setMines(60);
+        boardBuilder.setSeed(42L);
+        MinesweeperBoard board = boardBuilder.build();
+
+        Path journalFile = Files.createTempFile("minesweeper", ".journal");
+        try {
+
+            BitSet cellsMined = (BitSet)board.getCellsMined().clone();
+            try (MinesweeperBoardJournal journal = MinesweeperBoardJournal.attach(board, journalFile, 3)) {
+                board.flag(new MinesweeperCellPosition(0, 0));
+                boardBuilder.setSeed(7L);
+                boardBuilder.rebuild(board);
+                board.flag(new MinesweeperCellPosition(1, 1));
+                Assertions.assertEquals(1, journal.getNumberOfMoves());
+            }
+
+            MinesweeperBoardJournalPlayer player = MinesweeperBoardJournalPlayer.open(journalFile);
+            Assertions.assertEquals(1, player.getNumberOfMoves());
+            Assertions.assertEquals(cellsMined, player.seek(1).getCellsMined());
+            Assertions.assertTrue(player.seek(1).isFlagged(new MinesweeperCellPosition(0, 0)));
+
+        } finally {
+            Files.deleteIfExists(journalFile);
+        }
+
+    }
+
+    @Test
+    public void openInvalidJournal() throws IOException {
+        Path journalFile = Files.createTempFile("minesweeper", ".journal");
+        try {
+            Files.write(journalFile, new byte[] { 0, 0, 0, 5, 3, 0, 0, 0, 1 });
+            Assertions.assertThrows(IOException.class, () -> MinesweeperBoardJournalPlayer.open(journalFile));
+        } finally {
+            Files.deleteIfExists(journalFile);
+        }
+    }
+
+}
@@ -0,0 +1,542 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperBoardTest {
+
+    static MinesweeperBoard createBoard(String... rows) {
+        BitSet cellsMined = new BitSet();
+        int minesTotal = 0;
+        for (int row = 0; row < rows.length; row++) {
+            for (int column = 0; column < rows[row].length(); column++) {
+                if (rows[row].charAt(column) == '*') {
+                    cellsMined.set((row * rows[0].length()) + column);
+                    minesTotal++;
+                }
+            }
+        }
+        return new MinesweeperBoard(rows.length, rows[0].length(), minesTotal, cellsMined, MinesweeperBoardBuilder.computeNeighboringMines(rows.length, rows[0].length(), cellsMined));
+    }
+
+    public static MinesweeperBoard createBoard(int rows, int columns, int mines, long seed) {
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(rows);
+        boardBuilder.setColumns(columns);
+        boardBuilder.setMines(mines);
+        boardBuilder.setSeed(seed);
+        return boardBuilder.build();
+    }
+
+    static MinesweeperCellRevelationListener createCollectingListener(List<MinesweeperCellRevelation> revelations) {
+        return new MinesweeperCellRevelationListener() {
+            @Override public void cellRevealed(MinesweeperCellRevelation cellRevelation) {
+                revelations.add(cellRevelation);
+            }
+        };
+    }
+
+    @Nested
+    class Reveal {
+
+        @Test
+        public void revealNumberedCell() {
+
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            List<MinesweeperCellRevelation> revelations = new ArrayList<>();
+            board.addCellRevelationListener(createCollectingListener(revelations));
+
+            MinesweeperCellRevelation revelation = board.reveal(new MinesweeperCellPosition(1, 1));
+            Assertions.assertFalse(revelation.isMined());
+            Assertions.assertEquals(1, revelation.getNeighboringMines());
+            Assertions.assertEquals(MinesweeperCellRevelationType.MANUALLY, revelation.getRevelationType());
+            Assertions.assertEquals(1, revelations.size());
+            Assertions.assertEquals(1, board.getNumberOfCellsRevealed());
+            Assertions.assertEquals(15, board.getNumberOfCellsClosed());
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+
+        }
+
+        @Test
+        public void revealEmptyCellOpensOrthogonalRegion() {
+
+            MinesweeperBoard board = createBoard(
+                ".....",
+                ".....",
+                "****.",
+                ".....",
+                "*...."
+            );
+            List<MinesweeperCellRevelation> revelations = new ArrayList<>();
+            board.addCellRevelationListener(createCollectingListener(revelations));
+
+            board.reveal(new MinesweeperCellPosition(0, 0));
+            Assertions.assertEquals(10, board.getNumberOfCellsRevealed());
+            Assertions.assertEquals(10, revelations.size());
+            Assertions.assertEquals(new MinesweeperCellPosition(0, 0), revelations.get(0).getRevealedCell().getPosition());
+            Assertions.assertEquals(MinesweeperCellRevelationType.MANUALLY, revelations.get(0).getRevelationType());
+            revelations.subList(1, revelations.size()).forEach(revelation -> Assertions.assertEquals(MinesweeperCellRevelationType.AUTOMATICALLY, revelation.getRevelationType()));
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+
+        }
+
+        @Test
+        public void revealEmptyCellOpensLargeRegionWithoutRecursion() {
+
+            BitSet cellsMined = new BitSet();
+            cellsMined.set((1000 * 1000) - 1);
+            MinesweeperBoard board = new MinesweeperBoard(1000, 1000, 1, cellsMined, MinesweeperBoardBuilder.computeNeighboringMines(1000, 1000, cellsMined));
+
+            board.reveal(new MinesweeperCellPosition(0, 0));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, board.getBoardState());
+            Assertions.assertEquals(1000 * 1000, board.getNumberOfCellsRevealed());
+
+        }
+
+        @Test
+        public void revealEmptyCellKeepsDepthFirstOrder() {
+
+            MinesweeperBoard board = createBoard(
+                "...",
+                "...",
+                "..*"
+            );
+            List<MinesweeperCellRevelation> revelations = new ArrayList<>();
+            board.addCellRevelationListener(createCollectingListener(revelations));
+
+            board.reveal(new MinesweeperCellPosition(0, 0));
+            List<MinesweeperCellPosition> expectedPositions = List.of(
+                new MinesweeperCellPosition(0, 0),
+                new MinesweeperCellPosition(0, 1),
+                new MinesweeperCellPosition(0, 2),
+                new MinesweeperCellPosition(1, 2),
+                new MinesweeperCellPosition(1, 1),
+                new MinesweeperCellPosition(1, 0),
+                new MinesweeperCellPosition(2, 0),
+                new MinesweeperCellPosition(2, 1)
+            );
+            Assertions.assertEquals(expectedPositions, revelations.subList(0, expectedPositions.size()).stream().map(revelation -> revelation.getRevealedCell().getPosition()).collect(Collectors.toList()));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, board.getBoardState());
+
+        }
+
+        @Test
+        public void revealMinedCell() {
+
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            List<MinesweeperCellRevelation> revelations = new ArrayList<>();
+            List<MinesweeperBoardState> boardStates = new ArrayList<>();
+            board.addCellRevelationListener(createCollectingListener(revelations));
+            board.addBoardListener(new MinesweeperBoardListener() {
+                @Override public void boardStateUpdated(MinesweeperBoardState newBoardState) {
+                    boardStates.add(newBoardState);
+                }
+            });
+
+            MinesweeperCellRevelation revelation = board.reveal(new MinesweeperCellPosition(0, 0));
+            Assertions.assertTrue(revelation.isMined());
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, board.getBoardState());
+            Assertions.assertEquals(List.of(MinesweeperBoardState.COMPLETED_MINE_HIT), boardStates);
+            Assertions.assertEquals(16, revelations.size());
+            Assertions.assertEquals(16, board.getNumberOfCellsRevealed());
+            Assertions.assertEquals(0, board.getNumberOfCellsClosed());
+            revelations.subList(1, revelations.size()).forEach(r -> Assertions.assertEquals(MinesweeperCellRevelationType.GAME_ENDED, r.getRevelationType()));
+            Assertions.assertThrows(IllegalStateException.class, () -> board.reveal(new MinesweeperCellPosition(1, 1)));
+
+        }
+
+        @Test
+        public void revealLastEmptyCellWinsGame() {
+
+            MinesweeperBoard board = createBoard(
+                "*.",
+                "**"
+            );
+            board.reveal(new MinesweeperCellPosition(0, 1));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, board.getBoardState());
+            Assertions.assertEquals(4, board.getNumberOfCellsRevealed());
+            Assertions.assertThrows(IllegalStateException.class, () -> board.reveal(new MinesweeperCellPosition(0, 0)));
+
+        }
+
+        @Test
+        public void revealCellTwice() {
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            Assertions.assertThrows(IllegalStateException.class, () -> board.reveal(new MinesweeperCellPosition(1, 1)));
+        }
+
+        @Test
+        public void revealCellOutsideOfBoard() {
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            Assertions.assertThrows(IllegalStateException.class, () -> board.reveal(new MinesweeperCellPosition(4, 0)));
+            Assertions.assertThrows(IllegalStateException.class, () -> board.reveal(new MinesweeperCellPosition(0, -1)));
+        }
+
+    }
+
+    @Nested
+    class Flags {
+
+        @Test
+        public void flagUpdatesChordability() {
+
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            Assertions.assertFalse(board.isChordable(new MinesweeperCellPosition(1, 1)));
+            Assertions.assertTrue(board.flag(new MinesweeperCellPosition(0, 0)));
+            Assertions.assertFalse(board.flag(new MinesweeperCellPosition(0, 0)));
+            Assertions.assertTrue(board.isFlagged(new MinesweeperCellPosition(0, 0)));
+            Assertions.assertEquals(1, board.getNumberOfCellsFlagged());
+            Assertions.assertTrue(board.isChordable(new MinesweeperCellPosition(1, 1)));
+            Assertions.assertTrue(board.flag(new MinesweeperCellPosition(2, 2)));
+            Assertions.assertFalse(board.isChordable(new MinesweeperCellPosition(1, 1)));
+            Assertions.assertTrue(board.unflag(new MinesweeperCellPosition(2, 2)));
+            Assertions.assertFalse(board.unflag(new MinesweeperCellPosition(2, 2)));
+            Assertions.assertTrue(board.isChordable(new MinesweeperCellPosition(1, 1)));
+            Assertions.assertEquals(1, board.getNumberOfCellsFlagged());
+            Assertions.assertThrows(IllegalStateException.class, () -> board.flag(new MinesweeperCellPosition(1, 1)));
+            Assertions.assertThrows(IllegalStateException.class, () -> board.reveal(new MinesweeperCellPosition(0, 0)));
+
+        }
+
+        @Test
+        public void revealEmptyCellSkipsFlaggedCells() {
+
+            MinesweeperBoard board = createBoard(
+                "*.....",
+                "......",
+                "......",
+                "......"
+            );
+            board.flag(new MinesweeperCellPosition(3, 5));
+            board.reveal(new MinesweeperCellPosition(3, 0));
+            Assertions.assertFalse(board.isRevealed(new MinesweeperCellPosition(3, 5)));
+            Assertions.assertEquals(2, board.getNumberOfCellsClosed());
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+
+            board.unflag(new MinesweeperCellPosition(3, 5));
+            board.reveal(new MinesweeperCellPosition(3, 5));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, board.getBoardState());
+
+        }
+
+        @Test
+        public void chordDeliversSingleBatch() {
+
+            MinesweeperBoard board = createBoard(
+                "*.......",
+                "........",
+                "........",
+                ".......*"
+            );
+            List<MinesweeperCellRevelationBatch> batches = new ArrayList<>();
+            board.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+                @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                    batches.add(cellRevelationBatch);
+                }
+            });
+
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            board.flag(new MinesweeperCellPosition(0, 0));
+            board.flag(new MinesweeperCellPosition(2, 3));
+            MinesweeperCellRevelationBatch chordBatch = board.chord(new MinesweeperCellPosition(1, 1));
+            Assertions.assertEquals(2, batches.size());
+            Assertions.assertSame(chordBatch, batches.get(1));
+            Assertions.assertEquals(new MinesweeperCellPosition(0, 1), chordBatch.getCellPosition(0));
+            Assertions.assertEquals(MinesweeperCellRevelationType.CHORDED, chordBatch.getRevelationType(0));
+            Assertions.assertEquals(3, board.getNumberOfCellsClosed());
+            Assertions.assertEquals(29, board.getNumberOfCellsRevealed());
+            Assertions.assertFalse(board.isRevealed(new MinesweeperCellPosition(2, 3)));
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+            Assertions.assertEquals(0, board.chord(new MinesweeperCellPosition(1, 1)).getSize());
+            Assertions.assertEquals(2, batches.size());
+
+        }
+
+        @Test
+        public void chordWithWrongFlagHitsMine() {
+
+            MinesweeperBoard board = createBoard(
+                "*..",
+                "...",
+                "..*"
+            );
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            board.flag(new MinesweeperCellPosition(0, 0));
+            board.flag(new MinesweeperCellPosition(0, 2));
+            MinesweeperCellRevelationBatch chordBatch = board.chord(new MinesweeperCellPosition(1, 1));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, board.getBoardState());
+            Assertions.assertEquals(6, chordBatch.getSize());
+            Assertions.assertEquals(new MinesweeperCellPosition(2, 2), chordBatch.getCellPosition(5));
+            Assertions.assertTrue(chordBatch.isMined(5));
+            Assertions.assertEquals(MinesweeperCellRevelationType.AUTOMATICALLY, chordBatch.getRevelationType(4));
+            Assertions.assertThrows(IllegalStateException.class, () -> board.chord(new MinesweeperCellPosition(1, 1)));
+
+        }
+
+    }
+
+    @Nested
+    class Snapshots {
+
+        @Test
+        public void branchDoesNotAffectBoard() {
+
+            BitSet cellsMined = new BitSet();
+            cellsMined.set(0);
+            cellsMined.set((100 * 100) - 1);
+            MinesweeperBoard board = new MinesweeperBoard(100, 100, 2, cellsMined, MinesweeperBoardBuilder.computeNeighboringMines(100, 100, cellsMined));
+            board.reveal(new MinesweeperCellPosition(0, 1));
+            board.flag(new MinesweeperCellPosition(0, 0));
+            MinesweeperBoardSnapshot snapshot = board.snapshot();
+
+            MinesweeperBoard branchedBoard = MinesweeperBoard.fromSnapshot(snapshot);
+            Assertions.assertTrue(branchedBoard.isChordable(new MinesweeperCellPosition(0, 1)));
+            branchedBoard.reveal(new MinesweeperCellPosition(50, 50));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, branchedBoard.getBoardState());
+
+            board.reveal(new MinesweeperCellPosition(99, 98));
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+            Assertions.assertEquals(2, board.getNumberOfCellsRevealed());
+            Assertions.assertFalse(board.isRevealed(new MinesweeperCellPosition(50, 50)));
+            Assertions.assertFalse(snapshot.isRevealed(new MinesweeperCellPosition(50, 50)));
+            Assertions.assertFalse(snapshot.isRevealed(new MinesweeperCellPosition(99, 98)));
+            Assertions.assertTrue(snapshot.isRevealed(new MinesweeperCellPosition(0, 1)));
+            Assertions.assertTrue(snapshot.isFlagged(new MinesweeperCellPosition(0, 0)));
+            Assertions.assertEquals(1, snapshot.getNumberOfCellsRevealed());
+
+        }
+
+        @Test
+        public void restoreSnapshot() {
+
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            List<MinesweeperBoardSnapshot> restoredSnapshots = new ArrayList<>();
+            board.addBoardListener(new MinesweeperBoardListener() {
+                @Override public void boardRestored(MinesweeperBoardSnapshot snapshot) {
+                    restoredSnapshots.add(snapshot);
+                }
+            });
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            board.flag(new MinesweeperCellPosition(0, 0));
+            MinesweeperBoardSnapshot snapshot = board.snapshot();
+            board.unflag(new MinesweeperCellPosition(0, 0));
+            board.reveal(new MinesweeperCellPosition(3, 3));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, board.getBoardState());
+
+            board.restore(snapshot);
+            Assertions.assertEquals(List.of(snapshot), restoredSnapshots);
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+            Assertions.assertEquals(1, board.getNumberOfCellsRevealed());
+            Assertions.assertEquals(15, board.getNumberOfCellsClosed());
+            Assertions.assertTrue(board.isFlagged(new MinesweeperCellPosition(0, 0)));
+            Assertions.assertTrue(board.isChordable(new MinesweeperCellPosition(1, 1)));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> board.restore(createBoard("*.", "..").snapshot()));
+
+        }
+
+        @Test
+        public void rebuildInvalidatesSnapshots() {
+
+            MinesweeperBoard board = createBoard(
+                "*.......",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                ".......*"
+            );
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            MinesweeperBoardSnapshot snapshot = board.snapshot();
+            MinesweeperBoard branchedBoard = MinesweeperBoard.fromSnapshot(snapshot);
+            MinesweeperBoardSnapshot branchedSnapshot = branchedBoard.snapshot();
+
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(8);
+            boardBuilder.setColumns(8);
+            boardBuilder.setMines(2);
+            boardBuilder.rebuild(board);
+            Assertions.assertThrows(IllegalStateException.class, () -> board.restore(snapshot));
+            Assertions.assertThrows(IllegalStateException.class, () -> MinesweeperBoard.fromSnapshot(snapshot));
+            Assertions.assertThrows(IllegalStateException.class, () -> branchedBoard.restore(branchedSnapshot));
+            Assertions.assertEquals(0, board.getNumberOfCellsRevealed());
+
+            MinesweeperBoardSnapshot rebuiltSnapshot = board.snapshot();
+            board.reveal(new MinesweeperCellPosition(4, 4));
+            board.restore(rebuiltSnapshot);
+            Assertions.assertEquals(0, board.getNumberOfCellsRevealed());
+
+        }
+
+        @Test
+        public void rebuildOfBranchKeepsMinesOfBoard() {
+
+            MinesweeperBoard board = createBoard(
+                "*.......",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                "........",
+                ".......*"
+            );
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            BitSet cellsMined = (BitSet)board.getCellsMined().clone();
+            byte[] cellsNeighboringMines = board.getCellsNeighboringMines().clone();
+            MinesweeperBoard branchedBoard = MinesweeperBoard.fromSnapshot(board.snapshot());
+
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(8);
+            boardBuilder.setColumns(8);
+            boardBuilder.setMines(2);
+            boardBuilder.setSeed(1L);
+            boardBuilder.rebuild(branchedBoard);
+            Assertions.assertNotSame(board.getCellsMined(), branchedBoard.getCellsMined());
+            Assertions.assertEquals(cellsMined, board.getCellsMined());
+            Assertions.assertArrayEquals(cellsNeighboringMines, board.getCellsNeighboringMines());
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+            board.reveal(new MinesweeperCellPosition(7, 7));
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, board.getBoardState());
+
+        }
+
+    }
+
+    @Nested
+    class Listeners {
+
+        @Test
+        public void revealDeliversSingleBatch() {
+
+            MinesweeperBoard board = createBoard(
+                ".....",
+                ".....",
+                "****.",
+                ".....",
+                "*...."
+            );
+            List<MinesweeperCellRevelationBatch> batches = new ArrayList<>();
+            List<Integer> closedCellUpdates = new ArrayList<>();
+            board.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+                @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                    batches.add(cellRevelationBatch);
+                }
+            });
+            board.addBoardListener(new MinesweeperBoardListener() {
+                @Override public void numberOfClosedCellsUpdated(int newNumberOfClosedCells) {
+                    closedCellUpdates.add(newNumberOfClosedCells);
+                }
+            });
+
+            board.reveal(new MinesweeperCellPosition(0, 0));
+            Assertions.assertEquals(1, batches.size());
+            Assertions.assertEquals(10, batches.get(0).getSize());
+            Assertions.assertEquals(10, batches.get(0).getNumberOfCellsRevealed());
+            Assertions.assertEquals(15, batches.get(0).getNumberOfCellsClosed());
+            Assertions.assertEquals(MinesweeperBoardState.RUNNING, batches.get(0).getBoardState());
+            Assertions.assertEquals(new MinesweeperCellPosition(0, 0), batches.get(0).getCellPosition(0));
+            Assertions.assertEquals(MinesweeperCellRevelationType.MANUALLY, batches.get(0).getRevelationType(0));
+            Assertions.assertEquals(2, batches.get(0).getRevelations().stream().filter(revelation -> revelation.getRevealedCell().getPosition().equals(new MinesweeperCellPosition(1, 0))).findFirst().get().getNeighboringMines());
+            Assertions.assertEquals(List.of(15), closedCellUpdates);
+
+        }
+
+        @Test
+        public void gameEndRevealsBoardAtOnce() {
+
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            List<Object> events = new ArrayList<>();
+            board.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+                @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                    events.add(cellRevelationBatch);
+                }
+                @Override public void boardRevealed(MinesweeperBoardRevelation boardRevelation) {
+                    events.add(boardRevelation);
+                }
+            });
+
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            board.reveal(new MinesweeperCellPosition(3, 3));
+            Assertions.assertEquals(3, events.size());
+            MinesweeperCellRevelationBatch lastBatch = (MinesweeperCellRevelationBatch)events.get(1);
+            Assertions.assertEquals(1, lastBatch.getSize());
+            Assertions.assertEquals(0, lastBatch.getNumberOfCellsClosed());
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, lastBatch.getBoardState());
+            MinesweeperBoardRevelation boardRevelation = (MinesweeperBoardRevelation)events.get(2);
+            Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, boardRevelation.getBoardState());
+            Assertions.assertEquals(14, boardRevelation.getNumberOfCellsRevealedByGameEnd());
+            Assertions.assertFalse(boardRevelation.isRevealedByGameEnd(5));
+            Assertions.assertFalse(boardRevelation.isRevealedByGameEnd(15));
+            Assertions.assertTrue(boardRevelation.isMined(0));
+            Assertions.assertEquals(1, boardRevelation.getNeighboringMines(1));
+            Assertions.assertEquals(16, board.getCellsRevealed().cardinality());
+
+        }
+
+        @Test
+        public void removeCellRevelationListener() {
+
+            MinesweeperBoard board = createBoard(
+                "*...",
+                "....",
+                "....",
+                "...*"
+            );
+            List<MinesweeperCellRevelation> revelations = new ArrayList<>();
+            MinesweeperCellRevelationListener listener = createCollectingListener(revelations);
+            board.addCellRevelationListener(listener);
+            board.reveal(new MinesweeperCellPosition(1, 1));
+            Assertions.assertTrue(board.removeCellRevelationListener(listener));
+            board.reveal(new MinesweeperCellPosition(2, 2));
+            Assertions.assertEquals(1, revelations.size());
+
+        }
+
+    }
+
+}
@@ -0,0 +1,157 @@
+package de.perdian.games.minesweeper.core;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperChunkedBoardTest {
+
+    private static MinesweeperChunkedBoard createBoard(int maximumLoadedChunks, Path spillDirectory) {
+        MinesweeperChunkedBoardBuilder boardBuilder = new MinesweeperChunkedBoardBuilder();
+        boardBuilder.setRows(100);
+        boardBuilder.setColumns(90);
+        boardBuilder.setChunkSize(16);
+        boardBuilder.setMineDensity(0.05d);
+        boardBuilder.setSeed(42L);
+        boardBuilder.setMaximumLoadedChunks(maximumLoadedChunks);
+        boardBuilder.setSpillDirectory(spillDirectory);
+        return boardBuilder.build();
+    }
+
+    @Test
+    public void sameSeedCreatesSameMines() {
+        MinesweeperChunkedBoard firstBoard = createBoard(1024, null);
+        MinesweeperChunkedBoard secondBoard = createBoard(1024, null);
+        for (int row = 0; row < 100; row++) {
+            for (int column = 0; column < 90; column++) {
+                Assertions.assertEquals(firstBoard.isMinedAt(row, column), secondBoard.isMinedAt(row, column));
+            }
+        }
+    }
+
+    @Test
+    public void minesTotalMatchesGeneratedChunks() {
+        MinesweeperChunkedBoard board = createBoard(1024, null);
+        long countedMines = 0;
+        for (int row = 0; row < 100; row++) {
+            for (int column = 0; column < 90; column++) {
+                countedMines += board.isMinedAt(row, column) ? 1 : 0;
+            }
+        }
+        Assertions.assertEquals(board.getMinesTotal(), countedMines);
+    }
+
+    @Test
+    public void neighboringMinesAcrossChunkBorders() {
+        MinesweeperChunkedBoard board = createBoard(4, null);
+        for (int row = 0; row < 100; row++) {
+            for (int column = 0; column < 90; column++) {
+                int expectedNeighboringMines = 0;
+                for (int lookupRow = Math.max(0, row - 1); lookupRow <= Math.min(99, row + 1); lookupRow++) {
+                    for (int lookupColumn = Math.max(0, column - 1); lookupColumn <= Math.min(89, column + 1); lookupColumn++) {
+                        if ((lookupRow != row || lookupColumn != column) && board.isMinedAt(lookupRow, lookupColumn)) {
+                            expectedNeighboringMines++;
+                        }
+                    }
+                }
+                Assertions.assertEquals(expectedNeighboringMines, board.getNeighboringMinesAt(row, column));
+            }
+        }
+    }
+
+    @Test
+    public void revealDeliversSingleBatch() {
+
+        MinesweeperChunkedBoard board = createBoard(4, null);
+        List<MinesweeperCellRevelationBatch> batches = new ArrayList<>();
+        board.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+            @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                batches.add(cellRevelationBatch);
+            }
+        });
+        List<MinesweeperCellRevelation> revelations = new ArrayList<>();
+        board.addCellRevelationListener(new MinesweeperCellRevelationListener() {
+            @Override public void cellRevealed(MinesweeperCellRevelation cellRevelation) {
+                revelations.add(cellRevelation);
+            }
+        });
+
+        MinesweeperCellPosition emptyCellPosition = null;
+        for (int cellIndex = 0; cellIndex < 100 * 90 && emptyCellPosition == null; cellIndex++) {
+            if (!board.isMinedAt(cellIndex / 90, cellIndex % 90) && board.getNeighboringMinesAt(cellIndex / 90, cellIndex % 90) == 0) {
+                emptyCellPosition = new MinesweeperCellPosition(cellIndex / 90, cellIndex % 90);
+            }
+        }
+        MinesweeperCellRevelation cellRevelation = board.reveal(emptyCellPosition);
+
+        Assertions.assertEquals(1, batches.size());
+        MinesweeperCellRevelationBatch batch = batches.get(0);
+        Assertions.assertTrue(batch.getSize() > 1);
+        Assertions.assertEquals(board.getNumberOfCellsRevealed(), batch.getSize());
+        Assertions.assertEquals(board.getNumberOfCellsRevealed(), batch.getNumberOfCellsRevealed());
+        Assertions.assertEquals(board.getNumberOfCellsClosed(), batch.getNumberOfCellsClosed());
+        Assertions.assertEquals(emptyCellPosition, batch.getCellPosition(0));
+        Assertions.assertEquals(emptyCellPosition, cellRevelation.getRevealedCell().getPosition());
+        Assertions.assertEquals(MinesweeperCellRevelationType.MANUALLY, batch.getRevelationType(0));
+        Assertions.assertEquals(batch.getSize(), revelations.size());
+        for (int index = 0; index < batch.getSize(); index++) {
+            MinesweeperCellPosition cellPosition = batch.getCellPosition(index);
+            Assertions.assertTrue(board.isRevealed(cellPosition));
+            Assertions.assertEquals((cellPosition.getY() * 90) + cellPosition.getX(), batch.getCellIndex(index));
+            Assertions.assertEquals(board.getNeighboringMinesAt(cellPosition.getY(), cellPosition.getX()), batch.getNeighboringMines(index));
+        }
+
+    }
+
+    @Test
+    public void evictedChunksKeepRevealedCells() throws Exception {
+
+        Path spillDirectory = Files.createTempDirectory("minesweeper-chunks");
+        MinesweeperChunkedBoard spillingBoard = createBoard(2, spillDirectory);
+        try {
+
+            MinesweeperChunkedBoard unlimitedBoard = createBoard(1024, null);
+            MinesweeperChunkedBoard compactBoard = createBoard(2, null);
+            for (int row = 0; row < 100 && MinesweeperBoardState.RUNNING.equals(unlimitedBoard.getBoardState()); row += 7) {
+                for (int column = 0; column < 90 && MinesweeperBoardState.RUNNING.equals(unlimitedBoard.getBoardState()); column += 11) {
+                    MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                    if (!unlimitedBoard.isMinedAt(row, column) && !unlimitedBoard.isRevealed(cellPosition)) {
+                        unlimitedBoard.reveal(cellPosition);
+                        spillingBoard.reveal(cellPosition);
+                        compactBoard.reveal(cellPosition);
+                    }
+                }
+            }
+
+            Assertions.assertTrue(spillingBoard.getNumberOfLoadedChunks() <= 2);
+            Assertions.assertEquals(unlimitedBoard.getNumberOfCellsRevealed(), spillingBoard.getNumberOfCellsRevealed());
+            Assertions.assertEquals(unlimitedBoard.getNumberOfCellsRevealed(), compactBoard.getNumberOfCellsRevealed());
+            for (int row = 0; row < 100; row++) {
+                for (int column = 0; column < 90; column++) {
+                    MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                    Assertions.assertEquals(unlimitedBoard.isRevealed(cellPosition), spillingBoard.isRevealed(cellPosition));
+                    Assertions.assertEquals(unlimitedBoard.isRevealed(cellPosition), compactBoard.isRevealed(cellPosition));
+                }
+            }
+
+            try (Stream<Path> spillFiles = Files.list(spillDirectory)) {
+                Assertions.assertTrue(spillFiles.count() > 0);
+            }
+            spillingBoard.close();
+            try (Stream<Path> spillFiles = Files.list(spillDirectory)) {
+                Assertions.assertEquals(0, spillFiles.count());
+            }
+
+        } finally {
+            spillingBoard.close();
+            Files.deleteIfExists(spillDirectory);
+        }
+
+    }
+
+}
@@ -0,0 +1,149 @@
+package de.perdian.games.minesweeper.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperCoopBoardTest {
+
+    private static final int SIZE = 64;
+    private static final int NUMBER_OF_THREADS = 8;
+
+    private static List<Integer> selectCells(MinesweeperBoard board, boolean mined, double fraction, Random random) {
+        List<Integer> cellIndices = new ArrayList<>();
+        for (int cellIndex = 0; cellIndex < SIZE * SIZE; cellIndex++) {
+            if (board.getCellsMined().get(cellIndex) == mined && random.nextDouble() < fraction) {
+                cellIndices.add(cellIndex);
+            }
+        }
+        Collections.shuffle(cellIndices, random);
+        return cellIndices;
+    }
+
+    /**
+     * Reveals the given cells using several threads at once, ignoring cells that have already been revealed by a
+     * flood fill of another thread
+     */
+    private static void revealConcurrently(MinesweeperCoopBoard coopBoard, List<Integer> cellIndices) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            CyclicBarrier startBarrier = new CyclicBarrier(NUMBER_OF_THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int threadIndex = 0; threadIndex < NUMBER_OF_THREADS; threadIndex++) {
+                int firstCell = threadIndex;
+                futures.add(executorService.submit(() -> {
+                    startBarrier.await();
+                    for (int cellIndex = firstCell; cellIndex < cellIndices.size(); cellIndex += NUMBER_OF_THREADS) {
+                        try {
+                            coopBoard.reveal(new MinesweeperCellPosition(cellIndices.get(cellIndex) / SIZE, cellIndices.get(cellIndex) % SIZE));
+                        } catch (IllegalStateException e) {
+                            // Cell has already been revealed by another thread or the game is over
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static void revealSerially(MinesweeperBoard board, List<Integer> cellIndices) {
+        for (Integer cellIndex : cellIndices) {
+            if (MinesweeperBoardState.RUNNING.equals(board.getBoardState()) && !board.getCellsRevealed().get(cellIndex)) {
+                board.reveal(new MinesweeperCellPosition(cellIndex / SIZE, cellIndex % SIZE));
+            }
+        }
+    }
+
+    private static void assertSameState(MinesweeperBoard serialBoard, MinesweeperCoopBoard coopBoard) {
+        Assertions.assertEquals(serialBoard.getBoardState(), coopBoard.getBoardState());
+        Assertions.assertEquals(serialBoard.getNumberOfCellsRevealed(), coopBoard.getNumberOfCellsRevealed());
+        Assertions.assertEquals(serialBoard.getNumberOfCellsClosed(), coopBoard.getNumberOfCellsClosed());
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                Assertions.assertEquals(serialBoard.isRevealed(cellPosition), coopBoard.isRevealed(cellPosition), "Cell " + cellPosition);
+            }
+        }
+    }
+
+    private static AtomicInteger attachCountingListener(MinesweeperCoopBoard coopBoard) {
+        AtomicInteger numberOfRevealedCells = new AtomicInteger();
+        coopBoard.addCellRevelationBatchListener(new MinesweeperCellRevelationBatchListener() {
+            @Override public void cellsRevealed(MinesweeperCellRevelationBatch cellRevelationBatch) {
+                numberOfRevealedCells.addAndGet(cellRevelationBatch.getSize());
+            }
+        });
+        return numberOfRevealedCells;
+    }
+
+    @Test
+    public void concurrentRevealsMatchSerialExecution() throws Exception {
+        for (long seed = 0; seed < 3; seed++) {
+            List<Integer> cellIndices = selectCells(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, seed), false, 0.2d, new Random(seed));
+            MinesweeperBoard serialBoard = MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, seed);
+            MinesweeperCoopBoard coopBoard = new MinesweeperCoopBoard(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, seed), 16);
+            AtomicInteger numberOfRevealedCells = attachCountingListener(coopBoard);
+            revealSerially(serialBoard, cellIndices);
+            revealConcurrently(coopBoard, cellIndices);
+            assertSameState(serialBoard, coopBoard);
+            Assertions.assertEquals(coopBoard.getNumberOfCellsRevealed(), numberOfRevealedCells.get());
+        }
+    }
+
+    @Test
+    public void rebuildOfSourceBoardKeepsLayout() throws Exception {
+        List<Integer> cellIndices = selectCells(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 1), false, 0.2d, new Random(1));
+        MinesweeperBoard sourceBoard = MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 1);
+        MinesweeperCoopBoard coopBoard = new MinesweeperCoopBoard(sourceBoard, 16);
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(SIZE);
+        boardBuilder.setColumns(SIZE);
+        boardBuilder.setMines(300);
+        boardBuilder.setSeed(2L);
+        boardBuilder.rebuild(sourceBoard);
+        MinesweeperBoard serialBoard = MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 1);
+        revealSerially(serialBoard, cellIndices);
+        revealConcurrently(coopBoard, cellIndices);
+        assertSameState(serialBoard, coopBoard);
+    }
+
+    @Test
+    public void concurrentRevealsWinGame() throws Exception {
+        List<Integer> cellIndices = selectCells(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 42), false, 1d, new Random(42));
+        MinesweeperCoopBoard coopBoard = new MinesweeperCoopBoard(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 42), 8);
+        AtomicInteger numberOfRevealedCells = attachCountingListener(coopBoard);
+        revealConcurrently(coopBoard, cellIndices);
+        Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, coopBoard.getBoardState());
+        Assertions.assertEquals(SIZE * SIZE, coopBoard.getNumberOfCellsRevealed());
+        Assertions.assertEquals(SIZE * SIZE, numberOfRevealedCells.get());
+    }
+
+    @Test
+    public void concurrentRevealsHitMine() throws Exception {
+        Random random = new Random(42);
+        List<Integer> cellIndices = selectCells(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 42), false, 0.5d, random);
+        cellIndices.add(cellIndices.size() / 2, selectCells(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 42), true, 1d, random).get(0));
+        MinesweeperCoopBoard coopBoard = new MinesweeperCoopBoard(MinesweeperBoardTest.createBoard(SIZE, SIZE, 300, 42), 32);
+        AtomicInteger numberOfRevealedCells = attachCountingListener(coopBoard);
+        revealConcurrently(coopBoard, cellIndices);
+        Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, coopBoard.getBoardState());
+        Assertions.assertEquals(SIZE * SIZE, coopBoard.getNumberOfCellsRevealed());
+        Assertions.assertEquals(SIZE * SIZE, numberOfRevealedCells.get());
+        Assertions.assertThrows(IllegalStateException.class, () -> coopBoard.reveal(new MinesweeperCellPosition(0, 0)));
+    }
+
+}
@@ -0,0 +1,134 @@
+package de.perdian.games.minesweeper.session;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardSnapshot;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperBoardTest;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+public class MinesweeperBoardStreamTest {
+
+    private static void assertMirrorsBoard(MinesweeperBoard board, MinesweeperBoardMirror mirror) {
+        MinesweeperBoardSnapshot snapshot = board.snapshot();
+        Assertions.assertEquals(snapshot.getBoardState(), mirror.getBoardState());
+        Assertions.assertEquals(snapshot.getNumberOfCellsRevealed(), mirror.getNumberOfCellsRevealed());
+        Assertions.assertEquals(snapshot.getNumberOfCellsFlagged(), mirror.getNumberOfCellsFlagged());
+        for (int row = 0; row < board.getRows(); row++) {
+            for (int column = 0; column < board.getColumns(); column++) {
+                MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                int cellIndex = (row * board.getColumns()) + column;
+                Assertions.assertEquals(snapshot.isRevealed(cellPosition), mirror.isRevealed(cellPosition), "Revealed " + cellPosition);
+                Assertions.assertEquals(snapshot.isFlagged(cellPosition), mirror.isFlagged(cellPosition), "Flagged " + cellPosition);
+                if (snapshot.isRevealed(cellPosition)) {
+                    Assertions.assertEquals(snapshot.isMined(cellIndex), mirror.isMined(cellPosition), "Mined " + cellPosition);
+                    Assertions.assertEquals(cellIndex == snapshot.getMineHitCellIndex(), mirror.isMineHit(cellPosition), "Mine hit " + cellPosition);
+                    if (!snapshot.isMined(cellIndex)) {
+                        Assertions.assertEquals(snapshot.getNeighboringMines(cellIndex), mirror.getNeighboringMines(cellPosition), "Neighbours " + cellPosition);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void mirrorFollowsGameUntilEnd() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(30, 40, 120, 42);
+        List<ByteBuffer> messages = new ArrayList<>();
+        MinesweeperBoardStream stream = MinesweeperBoardStream.attach(board, messages::add);
+        MinesweeperBoardMirror mirror = new MinesweeperBoardMirror();
+        Assertions.assertTrue(mirror.apply(stream.createKeyframe()));
+        Assertions.assertEquals(0, mirror.getSequence());
+
+        board.flag(new MinesweeperCellPosition(0, 0));
+        for (int row = 0; row < board.getRows() && MinesweeperBoardState.RUNNING.equals(board.getBoardState()); row++) {
+            for (int column = 1; column < board.getColumns() && MinesweeperBoardState.RUNNING.equals(board.getBoardState()); column++) {
+                MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                if (!board.isRevealed(cellPosition)) {
+                    board.reveal(cellPosition);
+                    while (!messages.isEmpty()) {
+                        Assertions.assertTrue(mirror.apply(messages.remove(0)));
+                    }
+                    assertMirrorsBoard(board, mirror);
+                }
+            }
+        }
+        Assertions.assertEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, mirror.getBoardState());
+        Assertions.assertEquals(board.getRows() * board.getColumns(), mirror.getNumberOfCellsRevealed());
+        Assertions.assertTrue(mirror.isFlagged(new MinesweeperCellPosition(0, 0)));
+
+        MinesweeperBoardMirror lateMirror = new MinesweeperBoardMirror();
+        Assertions.assertTrue(lateMirror.apply(stream.createKeyframe()));
+        assertMirrorsBoard(board, lateMirror);
+        Assertions.assertTrue(board.snapshot().getMineHitCellIndex() >= 0);
+
+    }
+
+    @Test
+    public void lateJoinerSkipsMessagesWithinKeyframe() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(30, 40, 120, 7);
+        List<ByteBuffer> messages = new ArrayList<>();
+        MinesweeperBoardStream stream = MinesweeperBoardStream.attach(board, messages::add);
+        MinesweeperBoardSnapshot initialSnapshot = board.snapshot();
+        board.flag(new MinesweeperCellPosition(5, 5));
+        board.reveal(new MinesweeperCellPosition(0, 0));
+
+        MinesweeperBoardMirror mirror = new MinesweeperBoardMirror();
+        Assertions.assertThrows(IOException.class, () -> mirror.apply(messages.get(0).duplicate()));
+        Assertions.assertTrue(mirror.apply(stream.createKeyframe()));
+        assertMirrorsBoard(board, mirror);
+        for (ByteBuffer message : messages) {
+            Assertions.assertFalse(mirror.apply(message.duplicate()));
+        }
+
+        messages.clear();
+        board.restore(initialSnapshot);
+        board.flag(new MinesweeperCellPosition(6, 6));
+        Assertions.assertEquals(2, messages.size());
+        Assertions.assertThrows(IOException.class, () -> mirror.apply(messages.get(1).duplicate()));
+        Assertions.assertTrue(mirror.apply(messages.get(0)));
+        Assertions.assertTrue(mirror.apply(messages.get(1)));
+        assertMirrorsBoard(board, mirror);
+        Assertions.assertEquals(0, mirror.getNumberOfCellsRevealed());
+        Assertions.assertEquals(1, mirror.getNumberOfCellsFlagged());
+
+    }
+
+    @Test
+    public void rebuildSendsKeyframe() throws IOException {
+
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(30, 40, 120, 11);
+        List<ByteBuffer> messages = new ArrayList<>();
+        MinesweeperBoardStream stream = MinesweeperBoardStream.attach(board, messages::add);
+        MinesweeperBoardMirror mirror = new MinesweeperBoardMirror();
+        Assertions.assertTrue(mirror.apply(stream.createKeyframe()));
+        board.flag(new MinesweeperCellPosition(5, 5));
+        board.reveal(new MinesweeperCellPosition(0, 0));
+
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(board.getRows());
+        boardBuilder.setColumns(board.getColumns());
+        boardBuilder.setMines(board.getMinesTotal());
+        boardBuilder.setSeed(12L);
+        boardBuilder.rebuild(board);
+        for (ByteBuffer message : messages) {
+            Assertions.assertTrue(mirror.apply(message));
+        }
+        assertMirrorsBoard(board, mirror);
+        Assertions.assertEquals(MinesweeperBoardState.RUNNING, mirror.getBoardState());
+        Assertions.assertEquals(0, mirror.getNumberOfCellsRevealed());
+        Assertions.assertEquals(0, mirror.getNumberOfCellsFlagged());
+
+    }
+
+}
@@ -0,0 +1,151 @@
+package de.perdian.games.minesweeper.session;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardListener;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+public class MinesweeperSessionRegistryTest {
+
+    private static MinesweeperBoardBuilder createBoardBuilder(long seed) {
+        MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+        boardBuilder.setRows(20);
+        boardBuilder.setColumns(20);
+        boardBuilder.setMines(40);
+        boardBuilder.setSeed(seed);
+        return boardBuilder;
+    }
+
+    private static CompletableFuture<Integer> revealFirstClosedCell(MinesweeperSession session) {
+        return session.execute(board -> {
+            for (int row = 0; row < board.getRows(); row++) {
+                for (int column = 0; column < board.getColumns(); column++) {
+                    MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(row, column);
+                    if (MinesweeperBoardState.RUNNING.equals(board.getBoardState()) && !board.isRevealed(cellPosition)) {
+                        board.reveal(cellPosition);
+                        return board.getNumberOfCellsRevealed();
+                    }
+                }
+            }
+            return board.getNumberOfCellsRevealed();
+        });
+    }
+
+    @Test
+    public void revealWithinSession() {
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(1 << 20, Duration.ofMinutes(1))) {
+            MinesweeperSession session = registry.createSession(createBoardBuilder(42));
+            Assertions.assertSame(session, registry.getSession(session.getId()));
+            Assertions.assertTrue(revealFirstClosedCell(session).join() > 0);
+        }
+    }
+
+    @Test
+    public void passivateLeastRecentlyUsedBoards() {
+        long boardMemorySize = 20 * 20 + (20 * 20 / 4);
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(2 * boardMemorySize, Duration.ofMinutes(1))) {
+
+            MinesweeperSession firstSession = registry.createSession(createBoardBuilder(1));
+            int firstRevealedCells = revealFirstClosedCell(firstSession).join();
+            MinesweeperSession secondSession = registry.createSession(createBoardBuilder(2));
+            MinesweeperSession thirdSession = registry.createSession(createBoardBuilder(3));
+            firstSession.flush().join();
+
+            Assertions.assertTrue(firstSession.isPassivated());
+            Assertions.assertFalse(secondSession.isPassivated());
+            Assertions.assertFalse(thirdSession.isPassivated());
+            Assertions.assertEquals(2 * boardMemorySize, registry.getActiveMemorySize());
+
+            Assertions.assertEquals(firstRevealedCells, firstSession.execute(board -> board.getNumberOfCellsRevealed()).join());
+            Assertions.assertFalse(firstSession.isPassivated());
+            secondSession.flush().join();
+            Assertions.assertTrue(secondSession.isPassivated());
+
+        }
+    }
+
+    @Test
+    public void passivateIdleBoards() throws InterruptedException {
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(1 << 20, Duration.ofHours(1))) {
+            MinesweeperSession session = registry.createSession(createBoardBuilder(42));
+            revealFirstClosedCell(session).join();
+            Thread.sleep(5);
+            registry.evictIdleSessions();
+            session.flush().join();
+            Assertions.assertFalse(session.isPassivated());
+        }
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(1 << 20, Duration.ofMillis(20))) {
+            MinesweeperSession session = registry.createSession(createBoardBuilder(42));
+            revealFirstClosedCell(session).join();
+            Thread.sleep(50);
+            registry.evictIdleSessions();
+            session.flush().join();
+            Assertions.assertTrue(session.isPassivated());
+            Assertions.assertEquals(0, registry.getActiveMemorySize());
+        }
+    }
+
+    @Test
+    public void keepBoardsWithListeners() {
+        long boardMemorySize = 20 * 20 + (20 * 20 / 4);
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(boardMemorySize, Duration.ofMinutes(1))) {
+
+            MinesweeperBoardListener boardListener = new MinesweeperBoardListener() {};
+            MinesweeperSession firstSession = registry.createSession(createBoardBuilder(1));
+            firstSession.execute(board -> board.addBoardListener(boardListener)).join();
+            MinesweeperSession secondSession = registry.createSession(createBoardBuilder(2));
+            firstSession.flush().join();
+            secondSession.flush().join();
+
+            Assertions.assertTrue(firstSession.isBoardPinned());
+            Assertions.assertFalse(firstSession.isPassivated());
+            Assertions.assertFalse(secondSession.isPassivated());
+            Assertions.assertEquals(2 * boardMemorySize, registry.getActiveMemorySize());
+
+            firstSession.execute(board -> board.removeBoardListener(boardListener)).join();
+            Assertions.assertFalse(firstSession.isBoardPinned());
+            secondSession.flush().join();
+            Assertions.assertTrue(secondSession.isPassivated());
+            Assertions.assertEquals(boardMemorySize, registry.getActiveMemorySize());
+
+        }
+    }
+
+    @Test
+    public void concurrentSessions() {
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(20 * 500, Duration.ofMinutes(1))) {
+            List<MinesweeperSession> sessions = new ArrayList<>();
+            for (int sessionIndex = 0; sessionIndex < 200; sessionIndex++) {
+                sessions.add(registry.createSession(createBoardBuilder(sessionIndex)));
+            }
+            List<CompletableFuture<Integer>> revealFutures = new ArrayList<>();
+            for (int round = 0; round < 5; round++) {
+                sessions.forEach(session -> revealFutures.add(revealFirstClosedCell(session)));
+            }
+            revealFutures.forEach(CompletableFuture::join);
+            Assertions.assertEquals(200, registry.getNumberOfSessions());
+            Assertions.assertTrue(registry.getActiveMemorySize() <= 20 * 500);
+        }
+    }
+
+    @Test
+    public void removedSessionRejectsOperations() {
+        try (MinesweeperSessionRegistry registry = new MinesweeperSessionRegistry(1 << 20, Duration.ofMinutes(1))) {
+            MinesweeperSession session = registry.createSession(createBoardBuilder(42));
+            registry.removeSession(session.getId());
+            Assertions.assertNull(registry.getSession(session.getId()));
+            CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> revealFirstClosedCell(session).join());
+            Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package de.perdian.games.minesweeper.simulation;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MinesweeperSimulationTest {
+
+    private static MinesweeperSimulationStatistics simulate(int parallelism, Path resultFile) throws Exception {
+        ForkJoinPool forkJoinPool = new ForkJoinPool(parallelism);
+        try {
+            MinesweeperSimulation simulation = new MinesweeperSimulation();
+            simulation.setRows(9);
+            simulation.setColumns(9);
+            simulation.setMines(10);
+            simulation.setNumberOfGames(3000);
+            simulation.setGamesPerBlock(128);
+            simulation.setSeed(42);
+            simulation.setForkJoinPool(forkJoinPool);
+            return simulation.run(resultFile);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+    }
+
+    @Test
+    public void resultsDoNotDependOnParallelism() throws Exception {
+        Path resultFile = Files.createTempFile("minesweeper", ".csv");
+        try {
+            MinesweeperSimulationStatistics sequentialStatistics = simulate(1, resultFile);
+            MinesweeperSimulationStatistics parallelStatistics = simulate(4, resultFile);
+            Assertions.assertEquals(3000, sequentialStatistics.getNumberOfGames());
+            Assertions.assertEquals(sequentialStatistics.getNumberOfGames(), parallelStatistics.getNumberOfGames());
+            Assertions.assertEquals(sequentialStatistics.getGamesWon(), parallelStatistics.getGamesWon());
+            Assertions.assertEquals(sequentialStatistics.getMoves(), parallelStatistics.getMoves());
+            Assertions.assertEquals(sequentialStatistics.getFloodFills(), parallelStatistics.getFloodFills());
+            Assertions.assertEquals(sequentialStatistics.getFloodFilledCells(), parallelStatistics.getFloodFilledCells());
+            Assertions.assertEquals(sequentialStatistics.getLargestFloodFill(), parallelStatistics.getLargestFloodFill());
+            Assertions.assertTrue(sequentialStatistics.getWinRate() > 0.5, "Win rate " + sequentialStatistics.getWinRate());
+        } finally {
+            Files.deleteIfExists(resultFile);
+        }
+    }
+
+    @Test
+    public void resultFileContainsEveryBlock() throws Exception {
+        Path resultFile = Files.createTempFile("minesweeper", ".csv");
+        try {
+            MinesweeperSimulationStatistics statistics = simulate(4, resultFile);
+            List<String> resultLines = Files.readAllLines(resultFile, StandardCharsets.UTF_8);
+            Assertions.assertEquals(MinesweeperSimulation.RESULT_HEADER, resultLines.get(0));
+            long numberOfGames = 0;
+            long gamesWon = 0;
+            for (String resultLine : resultLines.subList(1, resultLines.size())) {
+                String[] resultValues = resultLine.split(",");
+                numberOfGames += Long.parseLong(resultValues[1]);
+                gamesWon += Long.parseLong(resultValues[2]);
+            }
+            Assertions.assertEquals(statistics.getNumberOfGames(), numberOfGames);
+            Assertions.assertEquals(statistics.getGamesWon(), gamesWon);
+        } finally {
+            Files.deleteIfExists(resultFile);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperBoardTest;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+import de.perdian.games.minesweeper.core.MinesweeperCellRevelation;
+
+public class MinesweeperProbabilityEngineTest {
+
+    @Test
+    public void uniformDensityWithoutReveals() {
+        MinesweeperProbabilityEngine probabilityEngine = new MinesweeperProbabilityEngine(8, 8, 10);
+        Assertions.assertEquals(10d / 64d, probabilityEngine.getMineProbability(new MinesweeperCellPosition(3, 4)), 1e-9);
+    }
+
+    @Test
+    public void singleConstraintSharesMineEqually() {
+        MinesweeperProbabilityEngine probabilityEngine = new MinesweeperProbabilityEngine(8, 8, 10);
+        probabilityEngine.cellRevealed(new MinesweeperCellPosition(0, 0), 1);
+        Assertions.assertEquals(1d / 3d, probabilityEngine.getMineProbability(new MinesweeperCellPosition(0, 1)), 1e-9);
+        Assertions.assertEquals(1d / 3d, probabilityEngine.getMineProbability(new MinesweeperCellPosition(1, 1)), 1e-9);
+        Assertions.assertEquals(0d, probabilityEngine.getMineProbability(new MinesweeperCellPosition(0, 0)));
+        Assertions.assertEquals(9d / 60d, probabilityEngine.getMineProbability(new MinesweeperCellPosition(5, 5)), 1e-9);
+    }
+
+    @Test
+    public void solutionsWeightedByDensity() {
+        MinesweeperProbabilityEngine probabilityEngine = new MinesweeperProbabilityEngine(8, 8, 10);
+        probabilityEngine.cellRevealed(new MinesweeperCellPosition(0, 1), 1);
+        probabilityEngine.cellRevealed(new MinesweeperCellPosition(0, 3), 1);
+
+        // Either one of the two shared cells holds the only mine, or each constraint has a mine in one of its three
+        // exclusive cells. Counting the ways to place the remaining mines across the 54 interior cells gives a weight
+        // of C(54, 9) for each of the two solutions with one mine and C(54, 8) for each of the nine with two mines.
+        double singleMineWeight = 46d / 9d;
+        double expectedSharedProbability = singleMineWeight / ((2 * singleMineWeight) + 9);
+        Assertions.assertEquals(expectedSharedProbability, probabilityEngine.getMineProbability(new MinesweeperCellPosition(0, 2)), 0.01);
+        Assertions.assertEquals(expectedSharedProbability, probabilityEngine.getMineProbability(new MinesweeperCellPosition(1, 2)), 0.01);
+        Assertions.assertEquals((1 - (2 * expectedSharedProbability)) / 3, probabilityEngine.getMineProbability(new MinesweeperCellPosition(0, 0)), 0.01);
+    }
+
+    @Test
+    public void expectedMinesMatchRemainingMines() {
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(40, 40, 250, 7);
+        MinesweeperProbabilityEngine probabilityEngine = MinesweeperProbabilityEngine.attach(board);
+        board.reveal(findEmptyCell(board, new Random(7)));
+        double[] mineProbabilities = probabilityEngine.getMineProbabilities();
+        double expectedMines = 0;
+        for (double mineProbability : mineProbabilities) {
+            Assertions.assertTrue(mineProbability >= 0 && mineProbability <= 1);
+            expectedMines += mineProbability;
+        }
+        Assertions.assertEquals(250, expectedMines, 1e-6);
+    }
+
+    @Test
+    public void distantRevealKeepsComponents() {
+        MinesweeperBoard board = MinesweeperBoardTest.createBoard(100, 100, 1600, 1);
+        MinesweeperProbabilityEngine probabilityEngine = MinesweeperProbabilityEngine.attach(board);
+        MinesweeperSolver solver = MinesweeperSolver.attach(board);
+        Random random = new Random(7);
+        board.reveal(findEmptyCell(board, random));
+        for (MinesweeperCellPosition safeCell = solver.findSafeCell(); safeCell != null; safeCell = solver.findSafeCell()) {
+            board.reveal(safeCell);
+        }
+        MinesweeperCellPosition frontierCell = null;
+        for (int cellIndex = 0; cellIndex < 100 * 100 && frontierCell == null; cellIndex++) {
+            MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(cellIndex / 100, cellIndex % 100);
+            if (probabilityEngine.getComponent(cellPosition) != null) {
+                frontierCell = cellPosition;
+            }
+        }
+        Assertions.assertNotNull(frontierCell);
+        MinesweeperProbabilityEngine.FrontierComponent frontierComponent = probabilityEngine.getComponent(frontierCell);
+
+        MinesweeperCellPosition distantCell = null;
+        for (int cellIndex = (100 * 100) - 1; cellIndex >= 0 && distantCell == null; cellIndex--) {
+            MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(cellIndex / 100, cellIndex % 100);
+            if (Math.abs(cellPosition.getY() - frontierCell.getY()) > 10 && !board.isRevealed(cellPosition) && probabilityEngine.getComponent(cellPosition) == null && isNumberedCell(board, cellPosition)) {
+                distantCell = cellPosition;
+            }
+        }
+        board.reveal(distantCell);
+        Assertions.assertEquals(MinesweeperBoardState.RUNNING, board.getBoardState());
+        Assertions.assertSame(frontierComponent, probabilityEngine.getComponent(frontierCell));
+    }
+
+    /**
+     * Checks whether the given cell is safe and has neighbouring mines, so that revealing it does not open any
+     * further cells
+     */
+    private static boolean isNumberedCell(MinesweeperBoard board, MinesweeperCellPosition cellPosition) {
+        MinesweeperCellRevelation cellRevelation = copyBoard(board).reveal(cellPosition);
+        return !cellRevelation.isMined() && cellRevelation.getNeighboringMines() > 0;
+    }
+
+    private static MinesweeperBoard copyBoard(MinesweeperBoard board) {
+        try {
+            return MinesweeperBoard.fromByteArray(board.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MinesweeperCellPosition findEmptyCell(MinesweeperBoard board, Random random) {
+        while (true) {
+            MinesweeperCellPosition cellPosition = new MinesweeperCellPosition(random.nextInt(board.getRows()), random.nextInt(board.getColumns()));
+            MinesweeperCellRevelation cellRevelation = copyBoard(board).reveal(cellPosition);
+            if (!cellRevelation.isMined() && cellRevelation.getNeighboringMines() == 0) {
+                return cellPosition;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package de.perdian.games.minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import de.perdian.games.minesweeper.core.MinesweeperBoard;
+import de.perdian.games.minesweeper.core.MinesweeperBoardBuilder;
+import de.perdian.games.minesweeper.core.MinesweeperBoardState;
+import de.perdian.games.minesweeper.core.MinesweeperBoardValidationFallback;
+import de.perdian.games.minesweeper.core.MinesweeperCellPosition;
+
+public class MinesweeperSolverTest {
+
+    @Nested
+    class Rules {
+
+        @Test
+        public void singleRuleFindsMine() {
+            MinesweeperSolver solver = new MinesweeperSolver(1, 3);
+            solver.cellRevealed(new MinesweeperCellPosition(0, 0), 1);
+            Assertions.assertEquals(Arrays.asList(new MinesweeperCellPosition(0, 1)), solver.getMines());
+            Assertions.assertTrue(solver.getSafeCells().isEmpty());
+        }
+
+        @Test
+        public void singleRuleFindsSafeCells() {
+            MinesweeperSolver solver = new MinesweeperSolver(1, 4);
+            solver.cellRevealed(new MinesweeperCellPosition(0, 0), 1);
+            solver.cellRevealed(new MinesweeperCellPosition(0, 2), 1);
+            Assertions.assertTrue(solver.isMine(new MinesweeperCellPosition(0, 1)));
+            Assertions.assertTrue(solver.isSafe(new MinesweeperCellPosition(0, 3)));
+            Assertions.assertEquals(new MinesweeperCellPosition(0, 3), solver.findSafeCell());
+        }
+
+        @Test
+        public void pairRuleSolvesOneTwoOne() {
+            MinesweeperSolver solver = new MinesweeperSolver(2, 3);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 0), 1);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 1), 2);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 2), 1);
+            Assertions.assertEquals(Arrays.asList(new MinesweeperCellPosition(0, 0), new MinesweeperCellPosition(0, 2)), solver.getMines());
+            Assertions.assertEquals(Arrays.asList(new MinesweeperCellPosition(0, 1)), solver.getSafeCells());
+        }
+
+        @Test
+        public void enumerationDecidesComponent() {
+            // Closed top row over the numbers 1 2 2 1: the only solution places the mines on the second and third cell
+            MinesweeperSolver solver = new MinesweeperSolver(2, 4);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 0), 1);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 1), 2);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 2), 2);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 3), 1);
+            Assertions.assertEquals(Arrays.asList(new MinesweeperCellPosition(0, 1), new MinesweeperCellPosition(0, 2)), solver.getMines());
+            Assertions.assertEquals(Arrays.asList(new MinesweeperCellPosition(0, 0), new MinesweeperCellPosition(0, 3)), solver.getSafeCells());
+        }
+
+        @Test
+        public void undecidableCellsStayUnknown() {
+            MinesweeperSolver solver = new MinesweeperSolver(2, 2);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 0), 1);
+            solver.cellRevealed(new MinesweeperCellPosition(1, 1), 1);
+            Assertions.assertTrue(solver.getMines().isEmpty());
+            Assertions.assertTrue(solver.getSafeCells().isEmpty());
+            Assertions.assertNull(solver.findSafeCell());
+        }
+
+    }
+
+    @Nested
+    class AutoPlay {
+
+        @Test
+        public void solverNeverRevealsMine() {
+            int gamesWon = 0;
+            for (long seed = 0; seed < 200; seed++) {
+                MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+                boardBuilder.setRows(16);
+                boardBuilder.setColumns(16);
+                boardBuilder.setMines(40);
+                boardBuilder.setRandom(new Random(seed));
+                MinesweeperBoard board = boardBuilder.build();
+                MinesweeperSolver solver = MinesweeperSolver.attach(board);
+                board.reveal(new MinesweeperCellPosition(8, 8));
+                for (MinesweeperCellPosition safeCell = solver.findSafeCell(); safeCell != null && MinesweeperBoardState.RUNNING.equals(board.getBoardState()); safeCell = solver.findSafeCell()) {
+                    board.reveal(safeCell);
+                    Assertions.assertNotEquals(MinesweeperBoardState.COMPLETED_MINE_HIT, board.getBoardState(), "Solver revealed a mine in game " + seed);
+                }
+                List<MinesweeperCellPosition> mines = solver.getMines();
+                Assertions.assertTrue(mines.size() <= 40);
+                if (MinesweeperBoardState.COMPLETED_WON.equals(board.getBoardState())) {
+                    gamesWon++;
+                }
+            }
+            Assertions.assertTrue(gamesWon > 20, "Only " + gamesWon + " games won");
+        }
+
+    }
+
+    @Nested
+    class NoGuessBuild {
+
+        @Test
+        public void validatedBoardsCanBeClearedWithoutGuessing() {
+            MinesweeperBoardBuilder boardBuilder = new MinesweeperBoardBuilder();
+            boardBuilder.setRows(16);
+            boardBuilder.setColumns(30);
+            boardBuilder.setMines(99);
+            boardBuilder.setRandom(new Random(42));
+            boardBuilder.setValidator(new MinesweeperNoGuessValidator());
+            boardBuilder.setValidationFallback(MinesweeperBoardValidationFallback.FAIL);
+            for (int boardIndex = 0; boardIndex < 5; boardIndex++) {
+                MinesweeperBoard board = boardBuilder.build();
+                MinesweeperSolver solver = MinesweeperSolver.attach(board);
+                board.reveal(new MinesweeperCellPosition(8, 15));
+                for (MinesweeperCellPosition safeCell = solver.findSafeCell(); safeCell != null; safeCell = solver.findSafeCell()) {
+                    board.reveal(safeCell);
+                }
+                Assertions.assertEquals(MinesweeperBoardState.COMPLETED_WON, board.getBoardState());
+            }
+            Assertions.assertEquals(5, boardBuilder.getValidationMetrics().getNumberOfBoards());
+            Assertions.assertTrue(boardBuilder.getValidationMetrics().getCandidatesRejected() > 0);
+        }
+
+    }
+
+}